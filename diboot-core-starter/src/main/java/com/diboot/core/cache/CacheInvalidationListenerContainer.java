@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 缓存失效通知的消息监听容器
+ * <p>
+ * 使用有界线程池分发消息（默认的SimpleAsyncTaskExecutor每条消息新建一个线程），队列已满时由订阅线程执行；
+ * 作为Spring bean注册，由容器生命周期启动/停止，销毁时一并关闭线程池
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class CacheInvalidationListenerContainer extends RedisMessageListenerContainer {
+
+    /**
+     * 消息分发线程池
+     */
+    private final ThreadPoolTaskExecutor taskExecutor;
+
+    public CacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory, int poolSize, int queueCapacity) {
+        this.taskExecutor = new ThreadPoolTaskExecutor();
+        this.taskExecutor.setCorePoolSize(poolSize);
+        this.taskExecutor.setMaxPoolSize(poolSize);
+        this.taskExecutor.setQueueCapacity(queueCapacity);
+        this.taskExecutor.setThreadNamePrefix("diboot-cache-invalidation-");
+        this.taskExecutor.setDaemon(true);
+        this.taskExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.taskExecutor.initialize();
+        setConnectionFactory(connectionFactory);
+        setTaskExecutor(taskExecutor);
+        log.debug("初始化缓存失效通知监听容器: poolSize={}, queueCapacity={}", poolSize, queueCapacity);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        try {
+            super.destroy();
+        }
+        finally {
+            taskExecutor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 缓存统计指标导出到Micrometer
+ * <p>
+ * 指标命名同Micrometer内置缓存指标：cache.gets、cache.load、cache.load.duration、cache.evictions、cache.size，
+ * 以cache（缓存名称）及cacheManager（统计来源）区分；加载耗时分布导出为cache.load.duration.histogram，
+ * 为累计计数，le为区间上限秒数（同Prometheus histogram的bucket，最后为+Inf）；
+ * 可重复调用 {@link #bindTo(Collection)}，仅绑定新出现的缓存
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class CacheMetricsBinder {
+
+    /**
+     * 同一次采集内复用统计快照的时长（毫秒）
+     */
+    private static final long SNAPSHOT_MILLIS = 1000L;
+
+    private final MeterRegistry meterRegistry;
+    /**
+     * 统计数据提供者-统计快照
+     */
+    private final Map<CacheStatsProvider, StatsSnapshot> provider2Snapshot = new IdentityHashMap<>();
+    /**
+     * 已绑定的缓存
+     */
+    private final Set<String> boundKeys = new HashSet<>();
+
+    public CacheMetricsBinder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 绑定全部统计数据提供者当前的缓存，已绑定的跳过
+     * @param providers
+     * @return 新绑定的缓存数
+     */
+    public synchronized int bindTo(Collection<CacheStatsProvider> providers) {
+        int count = 0;
+        for(CacheStatsProvider provider : providers){
+            StatsSnapshot snapshot = provider2Snapshot.computeIfAbsent(provider, StatsSnapshot::new);
+            for(CacheStats cacheStats : provider.getCacheStats()){
+                if(boundKeys.add(StatsSnapshot.buildKey(cacheStats.getCacheName(), cacheStats.getSource()))){
+                    bind(snapshot, cacheStats);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 绑定单个缓存的指标
+     * @param snapshot
+     * @param cacheStats
+     */
+    private void bind(StatsSnapshot snapshot, CacheStats cacheStats) {
+        String cacheName = cacheStats.getCacheName();
+        String source = cacheStats.getSource();
+        Tags tags = Tags.of("cache", cacheName, "cacheManager", source);
+        FunctionCounter.builder("cache.gets", snapshot, statsValue(cacheName, source, CacheStats::getHitCount))
+                .tags(tags).tag("result", "hit").description("缓存命中数").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", snapshot, statsValue(cacheName, source, CacheStats::getMissCount))
+                .tags(tags).tag("result", "miss").description("缓存未命中数").register(meterRegistry);
+        FunctionCounter.builder("cache.load", snapshot, statsValue(cacheName, source, stats -> stats.getLoadCount() - stats.getLoadFailureCount()))
+                .tags(tags).tag("result", "success").description("缓存加载成功数").register(meterRegistry);
+        FunctionCounter.builder("cache.load", snapshot, statsValue(cacheName, source, CacheStats::getLoadFailureCount))
+                .tags(tags).tag("result", "failure").description("缓存加载失败数").register(meterRegistry);
+        FunctionTimer.builder("cache.load.duration", snapshot,
+                        s -> (long) statsValue(cacheName, source, CacheStats::getLoadCount).applyAsDouble(s),
+                        statsValue(cacheName, source, CacheStats::getTotalLoadTime), TimeUnit.NANOSECONDS)
+                .tags(tags).description("缓存加载耗时").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", snapshot, statsValue(cacheName, source, CacheStats::getEvictionCount))
+                .tags(tags).description("缓存淘汰数").register(meterRegistry);
+        if(cacheStats.getSize() >= 0){
+            Gauge.builder("cache.size", snapshot, statsValue(cacheName, source, CacheStats::getSize))
+                    .tags(tags).description("缓存条目数").register(meterRegistry);
+        }
+        long[] bucketsMillis = CacheStatsCounter.getLoadTimeBucketsMillis();
+        if(cacheStats.getLoadTimeHistogram() != null && cacheStats.getLoadTimeHistogram().size() == bucketsMillis.length + 1){
+            for(int i = 0; i <= bucketsMillis.length; i++){
+                int bucketCount = i + 1;
+                String le = i < bucketsMillis.length? String.valueOf(bucketsMillis[i] / 1000.0) : "+Inf";
+                FunctionCounter.builder("cache.load.duration.histogram", snapshot, statsValue(cacheName, source, stats -> cumulativeCount(stats, bucketCount)))
+                        .tags(tags).tag("le", le).description("缓存加载耗时分布（累计）").register(meterRegistry);
+            }
+        }
+        log.debug("已绑定缓存统计指标: {}.{}", source, cacheName);
+    }
+
+    /**
+     * 加载耗时直方图前若干个区间的累计数
+     * @param stats
+     * @param bucketCount 区间数
+     * @return
+     */
+    private static long cumulativeCount(CacheStats stats, int bucketCount) {
+        if(stats.getLoadTimeHistogram() == null){
+            return 0L;
+        }
+        long count = 0L;
+        Iterator<Long> iterator = stats.getLoadTimeHistogram().values().iterator();
+        for(int i = 0; i < bucketCount && iterator.hasNext(); i++){
+            Long bucket = iterator.next();
+            count += bucket != null? bucket : 0L;
+        }
+        return count;
+    }
+
+    /**
+     * 从统计快照读取指定缓存统计值的函数
+     */
+    private static ToDoubleFunction<StatsSnapshot> statsValue(String cacheName, String source, ToDoubleFunction<CacheStats> getter) {
+        return snapshot -> {
+            CacheStats cacheStats = snapshot.get(cacheName, source);
+            return cacheStats != null? getter.applyAsDouble(cacheStats) : 0;
+        };
+    }
+
+    /**
+     * 统计数据提供者的快照
+     * <p>
+     * 一次采集会依次读取全部指标，快照在 {@link #SNAPSHOT_MILLIS} 内复用，
+     * 使每次采集仅调用一次 {@link CacheStatsProvider#getCacheStats()}，而非每个指标调用一次
+     * </p>
+     */
+    private static class StatsSnapshot {
+        private final CacheStatsProvider provider;
+        private volatile Map<String, CacheStats> key2Stats;
+        private volatile long expiresAt;
+
+        StatsSnapshot(CacheStatsProvider provider) {
+            this.provider = provider;
+        }
+
+        CacheStats get(String cacheName, String source) {
+            long now = System.currentTimeMillis();
+            Map<String, CacheStats> current = key2Stats;
+            if(current == null || now >= expiresAt){
+                synchronized (this){
+                    current = key2Stats;
+                    if(current == null || now >= expiresAt){
+                        current = new HashMap<>();
+                        for(CacheStats cacheStats : provider.getCacheStats()){
+                            current.put(buildKey(cacheStats.getCacheName(), cacheStats.getSource()), cacheStats);
+                        }
+                        key2Stats = current;
+                        expiresAt = System.currentTimeMillis() + SNAPSHOT_MILLIS;
+                    }
+                }
+            }
+            return current.get(buildKey(cacheName, source));
+        }
+
+        private static String buildKey(String cacheName, String source) {
+            return source + ":" + cacheName;
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import org.springframework.data.redis.serializer.RedisSerializationContext;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 动态数据Redis缓存
@@ -39,9 +40,26 @@ import java.util.concurrent.Callable;
 public class DynamicRedisCacheManager extends SimpleCacheManager implements BaseCacheManager {
 
     private RedisCacheManager redisCacheManager;
+    /**
+     * cacheName-统计计数器
+     */
+    private final Map<String, CacheStatsCounter> cacheStatsCounterMap = new ConcurrentHashMap<>();
+    /**
+     * 带加载方法读取时的合并加载器
+     */
+    private final SingleFlightLoader singleFlightLoader;
+    /**
+     * 默认加载设置
+     */
+    private CacheLoadSettings defaultLoadSettings = new CacheLoadSettings();
+    /**
+     * cacheName-加载设置
+     */
+    private final Map<String, CacheLoadSettings> cacheLoadSettingsMap = new ConcurrentHashMap<>();
 
     public DynamicRedisCacheManager(RedisCacheManager redisCacheManager) {
         this.redisCacheManager = redisCacheManager;
+        this.singleFlightLoader = new SingleFlightLoader(null);
     }
 
     public DynamicRedisCacheManager(RedisTemplate redisTemplate, Map<String, Integer> cacheName2ExpiredMinutes) {
@@ -58,6 +76,7 @@ public class DynamicRedisCacheManager extends SimpleCacheManager implements Base
         // 初始化redisCacheManager
         redisCacheManager = builder.transactionAware().build();
         redisCacheManager.initializeCaches();
+        singleFlightLoader = new SingleFlightLoader(new RedisCacheLock(redisTemplate));
         super.afterPropertiesSet();
         log.info("redisCacheManager 初始化完成");
     }
@@ -65,7 +84,15 @@ public class DynamicRedisCacheManager extends SimpleCacheManager implements Base
     @Override
     public <T> T getCacheObj(String cacheName, Object objKey, Class<T> tClass) {
         Cache cache = redisCacheManager.getCache(cacheName);
-        T cacheObj = cache != null? cache.get(objKey, tClass) : null;
+        if(cache == null){
+            return null;
+        }
+        Cache.ValueWrapper wrapper = cache.get(objKey);
+        Object value = wrapper != null? CacheLoadedValue.unwrap(wrapper.get()) : null;
+        if(value != null && tClass != null && !tClass.isInstance(value)){
+            throw new IllegalStateException("Cached value is not of required type [" + tClass.getName() + "]: " + value);
+        }
+        T cacheObj = getStatsCounter(cacheName).recordGet((T) value);
         if (log.isTraceEnabled()) {
             log.trace("从缓存读取: {}.{} = {}", cacheName, objKey, cacheObj);
         }
@@ -75,7 +102,12 @@ public class DynamicRedisCacheManager extends SimpleCacheManager implements Base
     @Override
     public <T> T getCacheObj(String cacheName, Object objKey, Callable<T> initSupplier) {
         Cache cache = redisCacheManager.getCache(cacheName);
-        T cacheObj = cache != null ? cache.get(objKey, initSupplier) : null;
+        if(cache == null){
+            return null;
+        }
+        RedisCacheConfiguration cacheConfiguration = redisCacheManager.getCacheConfigurations().get(cacheName);
+        long ttlMillis = cacheConfiguration != null? cacheConfiguration.getTtl().toMillis() : 0;
+        T cacheObj = singleFlightLoader.get(cache, objKey, initSupplier, ttlMillis, getLoadSettings(cacheName), getStatsCounter(cacheName));
         if (log.isTraceEnabled()) {
             log.trace("从缓存读取: {}.{} = {}", cacheName, objKey, cacheObj);
         }
@@ -114,4 +146,52 @@ public class DynamicRedisCacheManager extends SimpleCacheManager implements Base
     public void clearOutOfDateData(String cacheName) {
     }
 
+    /**
+     * 获取各缓存的统计数据（Redis自行过期，不统计条目数及淘汰数）
+     * @return
+     */
+    @Override
+    public List<CacheStats> getCacheStats() {
+        List<CacheStats> cacheStatsList = new ArrayList<>();
+        for(String cacheName : redisCacheManager.getCacheNames()){
+            cacheStatsList.add(getStatsCounter(cacheName).snapshot(cacheName, getClass().getSimpleName(), -1, 0));
+        }
+        return cacheStatsList;
+    }
+
+    /**
+     * 设置默认的加载设置
+     * @param defaultLoadSettings
+     */
+    public void setDefaultLoadSettings(CacheLoadSettings defaultLoadSettings) {
+        this.defaultLoadSettings = defaultLoadSettings;
+    }
+
+    /**
+     * 设置指定缓存的加载设置
+     * @param cacheName
+     * @param loadSettings
+     */
+    public void setCacheLoadSettings(String cacheName, CacheLoadSettings loadSettings) {
+        cacheLoadSettingsMap.put(cacheName, loadSettings);
+    }
+
+    /**
+     * 获取缓存的加载设置
+     * @param cacheName
+     * @return
+     */
+    private CacheLoadSettings getLoadSettings(String cacheName) {
+        return cacheLoadSettingsMap.getOrDefault(cacheName, defaultLoadSettings);
+    }
+
+    /**
+     * 获取缓存的统计计数器
+     * @param cacheName
+     * @return
+     */
+    private CacheStatsCounter getStatsCounter(String cacheName) {
+        return cacheStatsCounterMap.computeIfAbsent(cacheName, k -> new CacheStatsCounter());
+    }
+
 }
\ No newline at end of file
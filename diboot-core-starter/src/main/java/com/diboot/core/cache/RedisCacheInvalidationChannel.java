@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.function.Consumer;
+
+/**
+ * 基于Redis pub/sub的缓存失效通知通道
+ * <p>
+ * 消息监听容器由调用方作为Spring bean注册（如{@link CacheInvalidationListenerContainer}），生命周期由Spring管理
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class RedisCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    /**
+     * 默认通知频道
+     */
+    public static final String DEFAULT_TOPIC = "diboot:cache:invalidation";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ChannelTopic topic;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisCacheInvalidationChannel(RedisTemplate<String, Object> redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this(redisTemplate, listenerContainer, DEFAULT_TOPIC);
+    }
+
+    public RedisCacheInvalidationChannel(RedisTemplate<String, Object> redisTemplate, RedisMessageListenerContainer listenerContainer, String topic) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(topic);
+    }
+
+    @Override
+    public void publish(CacheInvalidationMessage message) {
+        redisTemplate.convertAndSend(topic.getTopic(), message);
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationMessage> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if(body instanceof CacheInvalidationMessage){
+                listener.accept((CacheInvalidationMessage) body);
+            }
+            else{
+                log.warn("无法识别的缓存失效通知: {}", body);
+            }
+        }, topic);
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import com.diboot.core.util.S;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis SET NX PX的缓存加载锁
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class RedisCacheLock implements CacheLock {
+
+    /**
+     * 凭证匹配时才删除，避免误删其他节点在租期过后获得的锁
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final RedisTemplate redisTemplate;
+
+    public RedisCacheLock(RedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public String tryLock(String lockKey, long leaseMillis) {
+        String token = S.newUuid();
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, token, leaseMillis, TimeUnit.MILLISECONDS);
+        return Boolean.TRUE.equals(locked)? token : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void unlock(String lockKey, String token) {
+        redisTemplate.execute(UNLOCK_SCRIPT, Collections.singletonList(lockKey), token);
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.starter;
+
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * 关联绑定执行器指标自动配置：存在Micrometer时导出线程池、队列及排队等待指标
+ *
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+public class BindingMetricsAutoConfig {
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final ObjectProvider<BindingExecutor> bindingExecutorProvider;
+
+    public BindingMetricsAutoConfig(ObjectProvider<MeterRegistry> meterRegistryProvider, ObjectProvider<BindingExecutor> bindingExecutorProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.bindingExecutorProvider = bindingExecutorProvider;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindBindingExecutorMetrics() {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        BindingExecutor executor = bindingExecutorProvider.getIfAvailable();
+        if(meterRegistry == null || executor == null){
+            return;
+        }
+        Gauge.builder("diboot.binding.executor.queue.size", executor, BindingExecutor::getQueueSize)
+                .description("绑定任务排队数").register(meterRegistry);
+        Gauge.builder("diboot.binding.executor.active", executor, BindingExecutor::getActiveCount)
+                .description("执行中的绑定线程数").register(meterRegistry);
+        Gauge.builder("diboot.binding.executor.pool.size", executor, BindingExecutor::getPoolSize)
+                .description("绑定线程池大小").register(meterRegistry);
+        Gauge.builder("diboot.binding.executor.wait.avg", executor, BindingExecutor::getAvgWaitMillis)
+                .baseUnit("milliseconds").description("平均排队等待时长").register(meterRegistry);
+        Gauge.builder("diboot.binding.executor.wait.max", executor, BindingExecutor::getMaxWaitMillis)
+                .baseUnit("milliseconds").description("最大排队等待时长").register(meterRegistry);
+        FunctionCounter.builder("diboot.binding.executor.submitted", executor, BindingExecutor::getSubmittedCount)
+                .description("提交的绑定任务数").register(meterRegistry);
+        FunctionCounter.builder("diboot.binding.executor.completed", executor, BindingExecutor::getCompletedCount)
+                .description("线程池已完成的绑定任务数").register(meterRegistry);
+        FunctionCounter.builder("diboot.binding.executor.caller.runs", executor, BindingExecutor::getCallerRunsCount)
+                .description("队列已满由调用线程执行的任务数").register(meterRegistry);
+        FunctionCounter.builder("diboot.binding.executor.inline", executor, BindingExecutor::getInlineCount)
+                .description("在调用线程直接执行的任务数").register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.starter;
+
+import com.diboot.core.cache.CacheMetricsBinder;
+import com.diboot.core.cache.CacheStatsProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 缓存统计指标自动配置：存在Micrometer时，应用启动完成后导出全部缓存的统计指标，并定期补充绑定新建的缓存
+ *
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+public class CacheMetricsAutoConfig {
+
+    /**
+     * 重新扫描新建缓存的间隔秒数
+     */
+    private static final long RESCAN_INTERVAL_SECONDS = 60L;
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final ObjectProvider<CacheStatsProvider> cacheStatsProviders;
+    private volatile ScheduledExecutorService rescanExecutor;
+
+    public CacheMetricsAutoConfig(ObjectProvider<MeterRegistry> meterRegistryProvider, ObjectProvider<CacheStatsProvider> cacheStatsProviders) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.cacheStatsProviders = cacheStatsProviders;
+    }
+
+    /**
+     * 启动完成后绑定（缓存多在初始化过程中创建），之后定期绑定运行中新建的缓存（如首次访问时创建的Redis缓存）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindCacheMetrics() {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if(meterRegistry == null){
+            return;
+        }
+        CacheMetricsBinder binder = new CacheMetricsBinder(meterRegistry);
+        binder.bindTo(cacheStatsProviders.orderedStream().collect(Collectors.toList()));
+        rescanExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "diboot-cache-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rescanExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                int count = binder.bindTo(cacheStatsProviders.orderedStream().collect(Collectors.toList()));
+                if(count > 0){
+                    log.debug("已绑定新建缓存的统计指标: {} 个", count);
+                }
+            }
+            catch (Exception e) {
+                log.warn("绑定缓存统计指标失败: {}", e.getMessage());
+            }
+        }, RESCAN_INTERVAL_SECONDS, RESCAN_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if(rescanExecutor != null){
+            rescanExecutor.shutdownNow();
+        }
+    }
+
+}
@@ -17,9 +17,13 @@ package com.diboot.core.starter;
 
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
+import com.diboot.core.controller.CacheStatsController;
 import com.diboot.core.converter.*;
 import com.diboot.core.data.ProtectFieldHandler;
+import com.diboot.core.data.access.DataAccessScopeInvalidationInterceptor;
 import com.diboot.core.data.encrypt.ProtectInterceptor;
+import com.diboot.core.handler.StreamFetchSizeInterceptor;
 import com.diboot.core.util.D;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
@@ -35,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -148,6 +153,24 @@ public class CoreAutoConfig implements WebMvcConfigurer {
         return interceptor;
     }
 
+    /**
+     * 流式读取的fetchSize拦截器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public StreamFetchSizeInterceptor streamFetchSizeInterceptor() {
+        return new StreamFetchSizeInterceptor();
+    }
+
+    /**
+     * 数据权限范围缓存的失效拦截器
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DataAccessScopeInvalidationInterceptor dataAccessScopeInvalidationInterceptor() {
+        return new DataAccessScopeInvalidationInterceptor();
+    }
+
     /**
      * 数据保护拦截器
      * <p>
@@ -159,6 +182,32 @@ public class CoreAutoConfig implements WebMvcConfigurer {
         return new ProtectInterceptor();
     }
 
+    /**
+     * 关联绑定专用执行器
+     * <p>
+     * 配置项 diboot.core.binding.*
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public BindingExecutor bindingExecutor(CoreProperties coreProperties) {
+        CoreProperties.Binding binding = coreProperties.getBinding();
+        return new BindingExecutor(binding.getCorePoolSize(), binding.getMaxPoolSize(), binding.getQueueCapacity())
+                .setInlineThreshold(binding.getInlineThreshold())
+                .setMaxFanOut(binding.getMaxFanOut());
+    }
+
+    /**
+     * 缓存统计查询接口
+     * <p>
+     * 默认不注入，diboot.core.cache-stats-enabled=true可开启
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "diboot.core", name = "cache-stats-enabled", havingValue = "true")
+    public CacheStatsController cacheStatsController() {
+        return new CacheStatsController();
+    }
+
     /**
      * 默认支持String-Date类型转换
      *
@@ -37,6 +37,14 @@ public class CoreProperties {
      * 是否初始化，默认true自动安装SQL
      */
     private boolean initSql = true;
+    /**
+     * 是否开启缓存统计查询接口 /diboot/cache-stats
+     */
+    private boolean cacheStatsEnabled = false;
+    /**
+     * 关联绑定配置
+     */
+    private Binding binding = new Binding();
 
     public boolean isInitSql() {
         return initSql;
@@ -62,4 +70,86 @@ public class CoreProperties {
         return pageSize;
     }
 
+    public boolean isCacheStatsEnabled() {
+        return cacheStatsEnabled;
+    }
+
+    public void setCacheStatsEnabled(boolean cacheStatsEnabled) {
+        this.cacheStatsEnabled = cacheStatsEnabled;
+    }
+
+    public Binding getBinding() {
+        return binding;
+    }
+
+    public void setBinding(Binding binding) {
+        this.binding = binding;
+    }
+
+    /**
+     * 关联绑定配置 diboot.core.binding.*
+     */
+    public static class Binding {
+        /**
+         * 绑定线程池核心线程数
+         */
+        private int corePoolSize = Math.max(4, Runtime.getRuntime().availableProcessors());
+        /**
+         * 绑定线程池最大线程数
+         */
+        private int maxPoolSize = Math.max(4, Runtime.getRuntime().availableProcessors() * 4);
+        /**
+         * 绑定线程池队列容量
+         */
+        private int queueCapacity = 500;
+        /**
+         * 待绑定对象数量不超过该值时在当前线程顺序执行
+         */
+        private int inlineThreshold = 1;
+        /**
+         * 单次绑定的并行任务上限
+         */
+        private int maxFanOut = 8;
+
+        public int getCorePoolSize() {
+            return corePoolSize;
+        }
+
+        public void setCorePoolSize(int corePoolSize) {
+            this.corePoolSize = corePoolSize;
+        }
+
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getInlineThreshold() {
+            return inlineThreshold;
+        }
+
+        public void setInlineThreshold(int inlineThreshold) {
+            this.inlineThreshold = inlineThreshold;
+        }
+
+        public int getMaxFanOut() {
+            return maxFanOut;
+        }
+
+        public void setMaxFanOut(int maxFanOut) {
+            this.maxFanOut = maxFanOut;
+        }
+    }
+
 }
@@ -31,11 +31,23 @@ import java.util.List;
 @Component
 public class DataAccessPermissionTestImpl implements DataAccessInterface {
 
+    /**
+     * 模拟切换用户后的parentId可访问范围，null时使用默认范围
+     */
+    private static volatile List<Serializable> mockParentIds;
+
+    public static void mockAccessibleParentIds(List<Serializable> parentIds) {
+        mockParentIds = parentIds;
+    }
+
     @Override
     public List<Serializable> getAccessibleIds(Class<?> entityClass, String fieldName) {
         // 提取其可访问ids
         List<Serializable> accessibleIds = new ArrayList<>();
-        if("parentId".equals(fieldName)){
+        if("parentId".equals(fieldName) && mockParentIds != null){
+            return mockParentIds;
+        }
+        else if("parentId".equals(fieldName)){
             accessibleIds.add(0L);
             accessibleIds.add(10000L);
         }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.diboot.core.data.access.DataAccessInterface;
+import com.diboot.core.data.access.DataAccessScopeCache;
+import com.diboot.core.data.access.DataAccessScopeInvalidationInterceptor;
+import lombok.Data;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * 数据权限范围缓存测试（无需数据库）
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class DataAccessScopeCacheTest {
+
+    private final AtomicInteger counter = new AtomicInteger();
+    private final DataAccessInterface checkImpl = (entityClass, fieldName) -> {
+        counter.incrementAndGet();
+        return Collections.singletonList(1L);
+    };
+
+    @After
+    public void reset(){
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * 线程池线程继承已结束的请求上下文时不缓存，且不抛出异常
+     */
+    @Test
+    public void testInactiveRequest(){
+        ServletRequestAttributes requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        requestAttributes.requestCompleted();
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        Assert.assertEquals(Collections.singletonList(1L), DataAccessScopeCache.getAccessibleIds(checkImpl, ScopeOrg.class, "id"));
+        DataAccessScopeCache.getAccessibleIds(checkImpl, ScopeOrg.class, "id");
+        Assert.assertEquals(2, counter.get());
+    }
+
+    /**
+     * 已登记entity的mapper写操作使缓存失效，其他mapper不影响
+     */
+    @Test
+    public void testInvalidateOnMapperUpdate() throws Throwable {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "");
+        assistant.setCurrentNamespace("diboot.core.test.binder.ScopeOrgMapper");
+        TableInfoHelper.initTableInfo(assistant, ScopeOrg.class);
+        DataAccessScopeCache.registerScopeEntity(ScopeOrg.class);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        DataAccessScopeCache.getAccessibleIds(checkImpl, ScopeOrg.class, "id");
+        DataAccessScopeCache.getAccessibleIds(checkImpl, ScopeOrg.class, "id");
+        Assert.assertEquals(1, counter.get());
+
+        DataAccessScopeInvalidationInterceptor interceptor = new DataAccessScopeInvalidationInterceptor();
+        interceptor.intercept(buildUpdateInvocation(configuration, "diboot.core.test.binder.OtherMapper.update"));
+        DataAccessScopeCache.getAccessibleIds(checkImpl, ScopeOrg.class, "id");
+        Assert.assertEquals(1, counter.get());
+
+        interceptor.intercept(buildUpdateInvocation(configuration, "diboot.core.test.binder.ScopeOrgMapper.update"));
+        DataAccessScopeCache.getAccessibleIds(checkImpl, ScopeOrg.class, "id");
+        Assert.assertEquals(2, counter.get());
+    }
+
+    private Invocation buildUpdateInvocation(MybatisConfiguration configuration, String statementId) throws Exception {
+        MappedStatement ms = new MappedStatement.Builder(configuration, statementId,
+                new StaticSqlSource(configuration, "UPDATE scope_org SET name=?"), SqlCommandType.UPDATE).build();
+        return new Invocation(mock(Executor.class), Executor.class.getMethod("update", MappedStatement.class, Object.class), new Object[]{ms, null});
+    }
+
+    @Data
+    @TableName("scope_org")
+    public static class ScopeOrg {
+        private Long id;
+        private String name;
+    }
+
+}
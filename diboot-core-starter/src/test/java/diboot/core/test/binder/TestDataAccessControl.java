@@ -1,20 +1,33 @@
 package diboot.core.test.binder;
 
 import com.diboot.core.data.access.DataAccessInterface;
+import com.diboot.core.data.access.DataAccessScopeCache;
+import com.diboot.core.data.access.DataAccessSqlTemplate;
 import com.diboot.core.util.ContextHelper;
+import com.diboot.core.util.S;
 import diboot.core.test.StartupApplication;
 import diboot.core.test.binder.entity.CcCityInfo;
 import diboot.core.test.binder.service.CcCityInfoService;
 import diboot.core.test.config.SpringMvcConfig;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author JerryMa
@@ -37,4 +50,74 @@ public class TestDataAccessControl {
         List<CcCityInfo> ccCityInfoList = ccCityInfoService.list(null);
         Assert.assertEquals(2, ccCityInfoList.size());
     }
+
+    @Test
+    public void testAccessScopeCache(){
+        AtomicInteger counter = new AtomicInteger();
+        DataAccessInterface checkImpl = (entityClass, fieldName) -> {
+            counter.incrementAndGet();
+            return ContextHelper.getBean(DataAccessInterface.class).getAccessibleIds(entityClass, fieldName);
+        };
+        // 非请求线程不缓存
+        DataAccessScopeCache.getAccessibleIds(checkImpl, CcCityInfo.class, "parentId");
+        DataAccessScopeCache.getAccessibleIds(checkImpl, CcCityInfo.class, "parentId");
+        Assert.assertEquals(2, counter.get());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try{
+            counter.set(0);
+            List<? extends Serializable> ids = DataAccessScopeCache.getAccessibleIds(checkImpl, CcCityInfo.class, "parentId");
+            Assert.assertEquals(ids, DataAccessScopeCache.getAccessibleIds(checkImpl, CcCityInfo.class, "parentId"));
+            // null范围同样缓存
+            Assert.assertNull(DataAccessScopeCache.getAccessibleIds(checkImpl, CcCityInfo.class, "regionId"));
+            Assert.assertNull(DataAccessScopeCache.getAccessibleIds(checkImpl, CcCityInfo.class, "regionId"));
+            Assert.assertEquals(2, counter.get());
+            // 数据变更后重新计算
+            DataAccessScopeCache.invalidate();
+            DataAccessScopeCache.getAccessibleIds(checkImpl, CcCityInfo.class, "parentId");
+            Assert.assertEquals(3, counter.get());
+            // 查询仍正常过滤
+            Assert.assertEquals(2, ccCityInfoService.list(null).size());
+        }
+        finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    /**
+     * 对比每次解析SQL与使用改写模板的性能
+     */
+    @Test
+    public void testSqlTemplatePerformance() throws Exception {
+        String sql = "SELECT id, parent_id, name, create_time FROM cc_city_info WHERE (name LIKE ? AND is_deleted = 0) ORDER BY id DESC";
+        List<Long> idValues = new ArrayList<>();
+        for(long i=0; i<100; i++){
+            idValues.add(10000L + i);
+        }
+        DataAccessSqlTemplate sqlTemplate = DataAccessSqlTemplate.parse(sql);
+        Assert.assertNotNull(sqlTemplate);
+        Assert.assertEquals("cc_city_info", sqlTemplate.getTableName());
+        String templateSql = sqlTemplate.render(sqlTemplate.buildCondition("parent_id", idValues));
+
+        int times = 500;
+        long startTime = System.currentTimeMillis();
+        String parsedSql = null;
+        for(int i=0; i<times; i++){
+            // 原实现：每次解析SQL及IN条件
+            PlainSelect selectBody = (PlainSelect) ((Select) CCJSqlParserUtil.parse(sql)).getSelectBody();
+            String conditionExpr = "parent_id IN (" + S.join(idValues, ", ") + ")";
+            selectBody.setWhere(new AndExpression(selectBody.getWhere(), CCJSqlParserUtil.parseCondExpression(conditionExpr)));
+            parsedSql = selectBody.toString();
+        }
+        long parseCost = System.currentTimeMillis() - startTime;
+
+        // 改写模板：SQL仅解析一次（由拦截器缓存），每次拼接条件
+        startTime = System.currentTimeMillis();
+        for(int i=0; i<times; i++){
+            templateSql = sqlTemplate.render(sqlTemplate.buildCondition("parent_id", idValues));
+        }
+        long templateCost = System.currentTimeMillis() - startTime;
+        System.out.println("解析SQL耗时: " + parseCost + "ms, 改写模板耗时: " + templateCost + "ms");
+        Assert.assertEquals(parsedSql, templateSql);
+    }
 }
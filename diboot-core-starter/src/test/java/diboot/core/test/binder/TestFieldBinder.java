@@ -18,12 +18,17 @@ package diboot.core.test.binder;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
+import com.diboot.core.binding.cache.BindingResultCache;
+import com.diboot.core.binding.cache.BindingResultCacheManager;
+import com.diboot.core.binding.cache.BindingSession;
 import com.diboot.core.entity.Dictionary;
 import com.diboot.core.service.DictionaryService;
 import com.diboot.core.util.JSON;
 import com.diboot.core.util.V;
 import diboot.core.test.StartupApplication;
 import diboot.core.test.binder.entity.CcCityInfo;
+import diboot.core.test.binder.entity.Department;
 import diboot.core.test.binder.entity.Organization;
 import diboot.core.test.binder.entity.User;
 import diboot.core.test.binder.service.DepartmentService;
@@ -40,7 +45,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  *  测试字段绑定
@@ -62,6 +70,8 @@ public class TestFieldBinder {
     DictionaryService dictionaryService;
     @Autowired
     OrganizationService organizationService;
+    @Autowired
+    BindingExecutor bindingExecutor;
 
     @Test
     public void testBinder(){
@@ -158,4 +168,111 @@ public class TestFieldBinder {
         }
     }
 
+    /**
+     * 测试关联绑定结果缓存的淘汰、命中统计及清空
+     */
+    @Test
+    public void testBindingResultCache(){
+        BindingResultCache cache = new BindingResultCache(Department.class, 2, 10);
+        long version = cache.getVersion();
+        cache.put(BindingResultCache.buildKey("id", 10001L), Collections.singletonList(new Department()), version);
+        cache.put(BindingResultCache.buildKey("id", 10002L), Collections.emptyList(), version);
+        // 访问10001后再写入，淘汰最久未访问的10002
+        Assert.assertNotNull(cache.get(BindingResultCache.buildKey("id", 10001L)));
+        cache.put(BindingResultCache.buildKey("id", 10003L), Collections.emptyList(), version);
+        Assert.assertEquals(2, cache.getSize());
+        Assert.assertNull(cache.get(BindingResultCache.buildKey("id", 10002L)));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        // 清空后，清空前发起的查询结果不再写入
+        cache.clear();
+        cache.put(BindingResultCache.buildKey("id", 10001L), Collections.emptyList(), version);
+        Assert.assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * 测试有数据权限检查点的Entity不启用跨请求缓存，不同用户的绑定结果互不影响
+     */
+    @Test
+    public void testBindingCacheWithDataAccess(){
+        Assert.assertNull(BindingResultCacheManager.getCache(CcCityInfo.class));
+        CcCityInfo ccCityInfo = new CcCityInfo();
+        ccCityInfo.setRegionId(10020L).setParentId(10010L);
+        try{
+            // 可访问苏州市（parent_id=10000）的用户
+            CcCityInfoVO ccCityInfoVO = Binder.convertAndBindRelations(ccCityInfo, CcCityInfoVO.class);
+            Assert.assertEquals("苏州市", ccCityInfoVO.getParentName());
+            // 切换为仅可访问顶级区划的用户，不可读取前一用户的绑定结果
+            DataAccessPermissionTestImpl.mockAccessibleParentIds(Collections.singletonList(0L));
+            ccCityInfoVO = Binder.convertAndBindRelations(ccCityInfo, CcCityInfoVO.class);
+            Assert.assertNull(ccCityInfoVO.getParentName());
+        }
+        finally {
+            DataAccessPermissionTestImpl.mockAccessibleParentIds(null);
+        }
+    }
+
+    /**
+     * 测试绑定会话内共享关联查询结果
+     */
+    @Test
+    public void testBindingSession(){
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.in(User::getId, 1001L, 1002L);
+        List<User> userList = userService.getEntityList(queryWrapper);
+        List<FieldBinderVO> voList = Binder.convertAndBindRelations(userList, FieldBinderVO.class);
+        // 同一会话内已认领的值不可重复认领
+        BindingSession session = BindingSession.open(BindingExecutor.DEFAULT_MAX_FAN_OUT);
+        Assert.assertNotNull(session);
+        try{
+            Assert.assertNull(BindingSession.open(BindingExecutor.DEFAULT_MAX_FAN_OUT));
+            CompletableFuture<List<Object>> future = new CompletableFuture<>();
+            Assert.assertNull(session.claim(Department.class, "id", -1L, future));
+            Assert.assertSame(future, session.claim(Department.class, "id", -1L, new CompletableFuture<>()));
+            // 会话内的绑定结果与独立绑定一致
+            List<FieldBinderVO> sessionVoList = Binder.convertAndBindRelations(userList, FieldBinderVO.class);
+            for(int i=0; i<voList.size(); i++){
+                Assert.assertEquals(voList.get(i).getDeptName(), sessionVoList.get(i).getDeptName());
+                Assert.assertEquals(voList.get(i).getOrgName(), sessionVoList.get(i).getOrgName());
+            }
+        }
+        finally {
+            BindingSession.close();
+        }
+    }
+
+    /**
+     * 测试绑定执行器：单个对象在当前线程执行，多个对象提交至绑定线程池
+     */
+    @Test
+    public void testBindingExecutor(){
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.in(User::getId, 1001L, 1002L);
+        List<User> userList = userService.getEntityList(queryWrapper);
+        long inlineCount = bindingExecutor.getInlineCount();
+        Binder.convertAndBindRelations(userList.get(0), FieldBinderVO.class);
+        Assert.assertTrue(bindingExecutor.getInlineCount() > inlineCount);
+
+        long submittedCount = bindingExecutor.getSubmittedCount();
+        List<FieldBinderVO> voList = Binder.convertAndBindRelations(userList, FieldBinderVO.class);
+        Assert.assertTrue(bindingExecutor.getSubmittedCount() > submittedCount);
+        for(FieldBinderVO vo : voList){
+            Assert.assertNotNull(vo.getDeptName());
+        }
+        log.info("绑定执行器: 队列={}, 平均等待={}ms, 最大等待={}ms", bindingExecutor.getQueueSize(),
+                bindingExecutor.getAvgWaitMillis(), bindingExecutor.getMaxWaitMillis());
+    }
+
+    /**
+     * 测试绑定执行器关闭后提交的任务由调用线程执行，不会永久等待
+     */
+    @Test
+    public void testBindingExecutorAfterShutdown() throws Exception {
+        BindingExecutor executor = new BindingExecutor(1, 1, 10);
+        executor.shutdown();
+        CompletableFuture<String> future = executor.submit(() -> Thread.currentThread().getName());
+        Assert.assertEquals(Thread.currentThread().getName(), future.get(1, TimeUnit.SECONDS));
+        Assert.assertEquals(1, executor.getCallerRunsCount());
+    }
+
 }
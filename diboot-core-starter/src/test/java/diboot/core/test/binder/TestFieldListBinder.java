@@ -17,6 +17,7 @@ package diboot.core.test.binder;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.helper.InConditionHelper;
 import com.diboot.core.util.JSON;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
@@ -39,7 +40,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  *  测试字段绑定
@@ -208,4 +212,79 @@ public class TestFieldListBinder {
         }
     }
 
+    /**
+     * 测试IN条件值分块及档位补齐
+     */
+    @Test
+    public void testInConditionChunk(){
+        int chunkSize = InConditionHelper.getChunkSize();
+        List<Long> values = new ArrayList<>();
+        for(long i=1; i<=chunkSize * 2L + 3; i++){
+            values.add(i);
+        }
+        List<List<Long>> chunks = InConditionHelper.partition(values);
+        Assert.assertEquals(3, chunks.size());
+        Assert.assertEquals(chunkSize, chunks.get(0).size());
+        // 末块补齐至档位
+        Assert.assertEquals(8, chunks.get(2).size());
+        Assert.assertEquals(Long.valueOf(chunkSize * 2L + 3), chunks.get(2).get(7));
+        Set<Long> distinctValues = new HashSet<>();
+        chunks.forEach(distinctValues::addAll);
+        Assert.assertEquals(values.size(), distinctValues.size());
+        Assert.assertEquals(32, InConditionHelper.padToBucket(values.subList(0, 20)).size());
+    }
+
+    /**
+     * 测试多列join均超出分块大小时按最大列分块查询，以及分块后各对象关联结果的排序
+     */
+    @Test
+    public void testChunkedJoinBinding(){
+        int chunkSize = InConditionHelper.getChunkSize();
+        // 多列join：type与id的去重值均超出分块大小
+        List<MulColJoinVO> mulColVoList = new ArrayList<>();
+        MulColJoinVO mulColVO = new MulColJoinVO();
+        mulColVO.setDictType("MESSAGE_CHANNEL");
+        mulColVO.setDictId(10051L);
+        mulColVO.setOrgPid(0L);
+        mulColVO.setTelphone("0512-62988949");
+        mulColVoList.add(mulColVO);
+        for(long i=1; i<=chunkSize + 1; i++){
+            MulColJoinVO vo = new MulColJoinVO();
+            vo.setDictType("TYPE_" + i);
+            vo.setDictId(-i);
+            vo.setOrgPid(-i);
+            vo.setTelphone("TEL_" + i);
+            mulColVoList.add(vo);
+        }
+        Binder.bindRelations(mulColVoList);
+        Assert.assertEquals("站内信", mulColVO.getParentDictName());
+        Assert.assertEquals(Long.valueOf(10051L), mulColVO.getParentDict().getId());
+        Assert.assertEquals(1, mulColVO.getOrgList().size());
+        Assert.assertEquals("苏州帝博", mulColVO.getOrgNames().get(0));
+        for(int i=1; i<mulColVoList.size(); i++){
+            Assert.assertNull(mulColVoList.get(i).getParentDictName());
+        }
+
+        // 分块查询的结果与未分块时一致，且保持orderBy排序
+        LambdaQueryWrapper<Department> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.in(Department::getId, 10001L, 10003L);
+        List<Department> entityList = departmentService.list(queryWrapper);
+        List<EntityListSimpleVO> expectedList = Binder.convertAndBindRelations(entityList, EntityListSimpleVO.class);
+        List<Department> chunkedEntityList = new ArrayList<>(entityList);
+        for(long i=1; i<=chunkSize; i++){
+            Department department = new Department();
+            department.setId(-i);
+            chunkedEntityList.add(department);
+        }
+        List<EntityListSimpleVO> chunkedList = Binder.convertAndBindRelations(chunkedEntityList, EntityListSimpleVO.class);
+        for(int i=0; i<expectedList.size(); i++){
+            Assert.assertEquals(expectedList.get(i).getChildrenNames(), chunkedList.get(i).getChildrenNames());
+            List<Department> children = chunkedList.get(i).getChildren();
+            Assert.assertEquals(expectedList.get(i).getChildren().size(), children.size());
+            for(int j=0; j<children.size(); j++){
+                Assert.assertEquals(expectedList.get(i).getChildren().get(j).getId(), children.get(j).getId());
+            }
+        }
+    }
+
 }
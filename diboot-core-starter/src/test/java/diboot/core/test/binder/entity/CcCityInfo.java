@@ -16,6 +16,7 @@
 package diboot.core.test.binder.entity;
 
 import com.baomidou.mybatisplus.annotation.TableField;
+import com.diboot.core.binding.annotation.BindingCacheable;
 import com.diboot.core.data.access.DataAccessCheckpoint;
 import com.diboot.core.entity.BaseEntity;
 import lombok.Getter;
@@ -32,6 +33,7 @@ import java.util.Date;
 @Getter
 @Setter
 @Accessors(chain = true)
+@BindingCacheable
 public class CcCityInfo extends BaseEntity {
     private static final long serialVersionUID = 3701095453152116088L;
 
@@ -32,4 +32,7 @@ public class CcCityInfoVO extends CcCityInfo {
     @BindField(entity = CcCityInfo.class, field = "regionName", condition = "this.parent_id=cc_city_info.region_id AND cc_city_info.parent_id=region_id")
     private String provenceName;
 
+    @BindField(entity = CcCityInfo.class, field = "regionName", condition = "this.parent_id=id")
+    private String parentName;
+
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.cache;
+
+import com.diboot.core.cache.BaseCacheManager;
+import com.diboot.core.cache.CacheInvalidationListenerContainer;
+import com.diboot.core.cache.DynamicMemoryCacheManager;
+import com.diboot.core.cache.RedisCacheInvalidationChannel;
+import com.diboot.core.cache.TwoLevelCacheManager;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Redis缓存失效通知通道测试（模拟RedisConnection）
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class RedisCacheInvalidationChannelTest {
+
+    private static final String CACHE_NAME = "TEST";
+
+    @Test
+    public void testPublishAndInvalidate() throws Exception {
+        // 模拟Redis的pub/sub：各节点连接发布的消息广播给全部已订阅的监听器
+        List<MessageListener> subscribers = new CopyOnWriteArrayList<>();
+        // 两个节点共享L2缓存
+        DynamicMemoryCacheManager l2CacheManager = new DynamicMemoryCacheManager(CACHE_NAME);
+        Node node1 = new Node(subscribers, l2CacheManager);
+        Node node2 = new Node(subscribers, l2CacheManager);
+        try {
+            waitUntil(() -> subscribers.size() == 2);
+            l2CacheManager.putCacheObj(CACHE_NAME, "key", "v1");
+            l2CacheManager.putCacheObj(CACHE_NAME, "key2", "w1");
+            for (Node node : Arrays.asList(node1, node2)) {
+                Assert.assertEquals("v1", node.cacheManager.getCacheString(CACHE_NAME, "key"));
+                Assert.assertEquals("w1", node.cacheManager.getCacheString(CACHE_NAME, "key2"));
+            }
+
+            node1.cacheManager.putCacheObj(CACHE_NAME, "key", "v2");
+            ArgumentCaptor<byte[]> channelCaptor = ArgumentCaptor.forClass(byte[].class);
+            Mockito.verify(node1.connection).publish(channelCaptor.capture(), any(byte[].class));
+            Assert.assertEquals(RedisCacheInvalidationChannel.DEFAULT_TOPIC, new String(channelCaptor.getValue(), StandardCharsets.UTF_8));
+            Mockito.verify(node2.connection, Mockito.never()).publish(any(byte[].class), any(byte[].class));
+
+            // 其他节点收到通知后失效本地缓存，重新读取L2
+            waitUntil(() -> node2.cacheManager.getNearCache(CACHE_NAME).get("key") == null);
+            Assert.assertEquals("v2", node2.cacheManager.getCacheString(CACHE_NAME, "key"));
+            // 节点2发布的通知在节点1中排在其自身通知之后处理
+            node2.cacheManager.putCacheObj(CACHE_NAME, "key2", "w2");
+            waitUntil(() -> node1.cacheManager.getNearCache(CACHE_NAME).get("key2") == null);
+            Assert.assertEquals("w2", node1.cacheManager.getCacheString(CACHE_NAME, "key2"));
+            // 发布者忽略自身的通知，本地缓存保留
+            Assert.assertEquals("v2", node1.cacheManager.getNearCache(CACHE_NAME).get("key"));
+            Assert.assertEquals("w2", node2.cacheManager.getNearCache(CACHE_NAME).get("key2"));
+        }
+        finally {
+            node1.close();
+            node2.close();
+        }
+    }
+
+    /**
+     * 模拟节点：独立的Redis连接及消息监听容器
+     */
+    private static class Node {
+        private final RedisConnection connection = Mockito.mock(RedisConnection.class);
+        private final CacheInvalidationListenerContainer listenerContainer;
+        private final TwoLevelCacheManager cacheManager;
+
+        Node(List<MessageListener> subscribers, BaseCacheManager l2CacheManager) {
+            RedisConnectionFactory connectionFactory = Mockito.mock(RedisConnectionFactory.class);
+            Mockito.when(connectionFactory.getConnection()).thenReturn(connection);
+            Mockito.doAnswer(invocation -> {
+                MessageListener listener = invocation.getArgument(0);
+                subscribers.add(listener);
+                Mockito.when(connection.isSubscribed()).thenReturn(true);
+                // 通知容器订阅成功
+                if (listener instanceof SubscriptionListener) {
+                    Object[] arguments = invocation.getArguments();
+                    for (int i = 1; i < arguments.length; i++) {
+                        ((SubscriptionListener) listener).onChannelSubscribed((byte[]) arguments[i], 1);
+                    }
+                }
+                return null;
+            }).when(connection).subscribe(any(MessageListener.class), any());
+            Mockito.doAnswer(invocation -> {
+                byte[] channel = invocation.getArgument(0);
+                for (MessageListener subscriber : subscribers) {
+                    subscriber.onMessage(new DefaultMessage(channel, invocation.getArgument(1)), null);
+                }
+                return (long) subscribers.size();
+            }).when(connection).publish(any(byte[].class), any(byte[].class));
+
+            RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(connectionFactory);
+            redisTemplate.setKeySerializer(new StringRedisSerializer());
+            redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
+            redisTemplate.afterPropertiesSet();
+            this.listenerContainer = new CacheInvalidationListenerContainer(connectionFactory, 1, 16);
+            this.listenerContainer.afterPropertiesSet();
+            this.listenerContainer.start();
+            // 单线程分发，同一节点的通知按收到的顺序处理
+            this.cacheManager = new TwoLevelCacheManager(l2CacheManager, new RedisCacheInvalidationChannel(redisTemplate, listenerContainer),
+                    Collections.singletonMap(CACHE_NAME, new TwoLevelCacheManager.NearCacheSettings()));
+        }
+
+        void close() throws Exception {
+            listenerContainer.stop();
+            listenerContainer.destroy();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("等待超时", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
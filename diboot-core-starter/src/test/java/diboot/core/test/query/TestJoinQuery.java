@@ -21,6 +21,7 @@ import com.diboot.core.binding.JoinsBinder;
 import com.diboot.core.binding.QueryBuilder;
 import com.diboot.core.binding.query.dynamic.ExtQueryWrapper;
 import com.diboot.core.config.Cons;
+import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.vo.Pagination;
 import diboot.core.test.StartupApplication;
 import diboot.core.test.binder.dto.DepartmentDTO;
@@ -200,6 +201,25 @@ public class TestJoinQuery {
     /**
      * 测试有中间表的动态sql join
      */
+    /**
+     * 动态Join查询不支持游标分页，应明确拒绝而非忽略
+     */
+    @Test
+    public void testDynamicSqlQueryRejectsKeyset(){
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setParentId(10001L);
+        dto.setParentName("产品部");
+        Pagination pagination = new Pagination(Department.class);
+        pagination.setCursor("");
+        try{
+            departmentService.getEntityList(QueryBuilder.toDynamicJoinQueryWrapper(dto), pagination);
+            Assert.fail();
+        }
+        catch (InvalidUsageException e){
+            Assert.assertTrue(e.getMessage().contains("游标分页"));
+        }
+    }
+
     @Test
     public void testDynamicSqlQueryWithMiddleTable() {
         // 初始化DTO，测试不涉及关联的情况
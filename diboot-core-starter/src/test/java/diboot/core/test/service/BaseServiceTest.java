@@ -19,8 +19,10 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
 import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
 import com.diboot.core.binding.QueryBuilder;
 import com.diboot.core.binding.RelationsBinder;
 import com.diboot.core.binding.cache.BindingCacheManager;
@@ -29,6 +31,7 @@ import com.diboot.core.binding.query.dynamic.ExtQueryWrapper;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.data.access.DataAccessInterface;
 import com.diboot.core.entity.Dictionary;
+import com.diboot.core.mapper.DictionaryMapper;
 import com.diboot.core.service.impl.DictionaryServiceExtImpl;
 import com.diboot.core.util.*;
 import com.diboot.core.vo.*;
@@ -42,6 +45,7 @@ import diboot.core.test.binder.service.OrganizationService;
 import diboot.core.test.binder.service.UserService;
 import diboot.core.test.binder.vo.SimpleDictionaryVO;
 import diboot.core.test.config.SpringMvcConfig;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -52,6 +56,8 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.*;
 
 /**
@@ -77,6 +83,9 @@ public class BaseServiceTest {
     @Autowired
     JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    SqlSessionFactory sqlSessionFactory;
+
     @Autowired
     OrganizationService organizationService;
 
@@ -423,6 +432,106 @@ public class BaseServiceTest {
         Assert.assertTrue(simpleVOList.get(0).getChildren().size() >= 2);
     }
 
+    @Test
+    public void testKeysetPagination(){
+        QueryWrapper<Dictionary> queryWrapper = new QueryWrapper<>();
+        queryWrapper.orderByDesc("id");
+        List<Dictionary> allList = dictionaryService.getEntityList(queryWrapper);
+
+        List<Dictionary> pagedList = new ArrayList<>();
+        Pagination pagination = new Pagination(Dictionary.class);
+        pagination.setPageSize(3);
+        pagination.setCursor("");
+        do {
+            List<Dictionary> pageList = dictionaryService.getEntityList(new QueryWrapper<>(), pagination);
+            Assert.assertTrue(pageList.size() <= 3);
+            pagedList.addAll(pageList);
+            pagination.setCursor(pagination.getNextCursor());
+        }
+        while(pagination.getCursor() != null);
+        Assert.assertEquals(allList.size(), pagedList.size());
+        Assert.assertEquals(allList.get(allList.size()-1).getId(), pagedList.get(pagedList.size()-1).getId());
+        Assert.assertEquals(0, pagination.getTotalCount());
+    }
+
+    /**
+     * 测试可为null的排序列及游标值的类型、精度保留
+     */
+    @Test
+    public void testKeysetPaginationWithNullSortValue(){
+        QueryWrapper<Dictionary> queryWrapper = new QueryWrapper<>();
+        List<Dictionary> allList = dictionaryService.getEntityList(queryWrapper);
+        for(String orderBy : new String[]{"description", "description:DESC"}){
+            Set<Long> pagedIds = new HashSet<>();
+            Pagination pagination = new Pagination(Dictionary.class);
+            pagination.setPageSize(2);
+            pagination.setOrderBy(orderBy);
+            pagination.setCursor("");
+            do {
+                for(Dictionary dictionary : dictionaryService.getEntityList(new QueryWrapper<>(), pagination)){
+                    // 不重复、不遗漏null值所在的记录
+                    Assert.assertTrue(pagedIds.add(dictionary.getId()));
+                }
+                pagination.setCursor(pagination.getNextCursor());
+            }
+            while(pagination.getCursor() != null);
+            Assert.assertEquals(allList.size(), pagedIds.size());
+        }
+
+        Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+        timestamp.setNanos(123456789);
+        List<Object> values = Arrays.asList(timestamp, null, "a:b", 10L, LocalDateTime.of(2022, 1, 1, 0, 0, 0, 1000));
+        Pagination pagination = new Pagination();
+        pagination.encodeNextCursor(values);
+        pagination.setCursor(pagination.getNextCursor());
+        Assert.assertEquals(values, pagination.decodeCursor());
+    }
+
+    @Test
+    public void testStreamViewObjectList(){
+        QueryWrapper<Dictionary> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("type", "GENDER");
+        List<DictionaryVO> voList = dictionaryService.getViewObjectList(queryWrapper, null, DictionaryVO.class);
+
+        List<DictionaryVO> streamVOList = new ArrayList<>();
+        List<Integer> windowSizes = new ArrayList<>();
+        queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("type", "GENDER");
+        dictionaryService.streamViewObjectList(queryWrapper, DictionaryVO.class, 1, window -> {
+            windowSizes.add(window.size());
+            streamVOList.addAll(window);
+        });
+        Assert.assertEquals(voList.size(), streamVOList.size());
+        Assert.assertEquals(voList.size(), windowSizes.size());
+        for(DictionaryVO vo : streamVOList){
+            if(vo.getParentId().equals(0L)){
+                Assert.assertTrue(vo.getChildren().size() >= 2);
+            }
+        }
+        // 复用selectList语句，不向Configuration注册派生语句
+        String selectListId = SqlHelper.getSqlStatement(DictionaryMapper.class, SqlMethod.SELECT_LIST);
+        Assert.assertFalse(sqlSessionFactory.getConfiguration().hasStatement(selectListId + "_rowStream", false));
+        Assert.assertFalse(sqlSessionFactory.getConfiguration().hasStatement(selectListId + "_fetchStream", false));
+    }
+
+    /**
+     * 事务中流式读取与窗口处理中的绑定查询共用事务连接
+     */
+    @Test
+    @Transactional
+    public void testStreamViewObjectListInTransaction(){
+        QueryWrapper<Dictionary> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("type", "GENDER");
+        List<DictionaryVO> voList = dictionaryService.getViewObjectList(queryWrapper, null, DictionaryVO.class);
+        List<DictionaryVO> streamVOList = new ArrayList<>();
+        queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("type", "GENDER");
+        dictionaryService.streamViewObjectList(queryWrapper, DictionaryVO.class, 1, streamVOList::addAll);
+        Assert.assertEquals(voList.size(), streamVOList.size());
+        Assert.assertFalse(sqlSessionFactory.getConfiguration().hasStatement(
+                SqlHelper.getSqlStatement(DictionaryMapper.class, SqlMethod.SELECT_LIST) + "_fetchStream", false));
+    }
+
     /**
      * 测试n-n的批量新建/更新
      */
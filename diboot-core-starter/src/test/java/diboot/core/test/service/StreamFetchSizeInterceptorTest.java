@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.service;
+
+import com.diboot.core.handler.StreamFetchSizeInterceptor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.junit.After;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * 流式读取fetchSize拦截器测试
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class StreamFetchSizeInterceptorTest {
+
+    @After
+    public void clear(){
+        StreamFetchSizeInterceptor.clear();
+    }
+
+    @Test
+    public void testHintAppliedOnce() throws Exception {
+        Statement streamStatement = mock(Statement.class);
+        Statement nestedStatement = mock(Statement.class);
+        StatementHandler statementHandler = mock(StatementHandler.class);
+        when(statementHandler.prepare(any(), any())).thenReturn(streamStatement, nestedStatement);
+        StatementHandler pluginHandler = (StatementHandler) new StreamFetchSizeInterceptor().plugin(statementHandler);
+
+        StreamFetchSizeInterceptor.hint(Integer.MIN_VALUE);
+        pluginHandler.prepare(mock(Connection.class), null);
+        verify(streamStatement).setFetchSize(Integer.MIN_VALUE);
+        // 窗口处理中的查询不受影响
+        pluginHandler.prepare(mock(Connection.class), null);
+        verify(nestedStatement, never()).setFetchSize(anyInt());
+    }
+
+    @Test
+    public void testNoHint() throws Exception {
+        Statement statement = mock(Statement.class);
+        StatementHandler statementHandler = mock(StatementHandler.class);
+        when(statementHandler.prepare(any(), any())).thenReturn(statement);
+        StatementHandler pluginHandler = (StatementHandler) new StreamFetchSizeInterceptor().plugin(statementHandler);
+
+        StreamFetchSizeInterceptor.hint(100);
+        StreamFetchSizeInterceptor.clear();
+        pluginHandler.prepare(mock(Connection.class), null);
+        verify(statement, never()).setFetchSize(anyInt());
+    }
+
+}
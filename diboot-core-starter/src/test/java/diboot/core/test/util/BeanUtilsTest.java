@@ -19,6 +19,7 @@ import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.config.Cons;
+import com.diboot.core.data.copy.AcceptAnnoCopier;
 import com.diboot.core.entity.Dictionary;
 import com.diboot.core.service.DictionaryService;
 import com.diboot.core.util.BeanUtils;
@@ -37,7 +38,10 @@ import diboot.core.test.config.SpringMvcConfig;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import lombok.Data;
 import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
@@ -358,6 +362,112 @@ public class BeanUtilsTest {
         Assert.assertTrue(takes2 < takes1);
     }
 
+    /**
+     * 测试属性访问器与BeanWrapper的性能对比
+     */
+    @Test
+    public void testPropAccessorPerformance(){
+        List<Dictionary> dictionaryList = new ArrayList<>();
+        for(long id=1; id<=5000; id++){
+            Dictionary dictionary = new Dictionary();
+            dictionary.setId(id);
+            dictionary.setItemName("item"+id);
+            dictionaryList.add(dictionary);
+        }
+        // 预热
+        for(int i=0; i<3; i++){
+            for(Dictionary dictionary : dictionaryList){
+                BeanUtils.setProperty(dictionary, "itemValue", BeanUtils.getProperty(dictionary, "itemName"));
+                BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(dictionary);
+                wrapper.setPropertyValue("itemValue", wrapper.getPropertyValue("itemName"));
+            }
+        }
+        long begin = System.currentTimeMillis();
+        for(int i=0; i<20; i++){
+            for(Dictionary dictionary : dictionaryList){
+                BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(dictionary);
+                wrapper.setPropertyValue("itemValue", wrapper.getPropertyValue("itemName"));
+            }
+        }
+        long takes1 = System.currentTimeMillis() - begin;
+        begin = System.currentTimeMillis();
+        for(int i=0; i<20; i++){
+            for(Dictionary dictionary : dictionaryList){
+                BeanUtils.setProperty(dictionary, "itemValue", BeanUtils.getProperty(dictionary, "itemName"));
+            }
+        }
+        long takes2 = System.currentTimeMillis() - begin;
+        System.out.println("BeanWrapper: " + takes1 + " ms , PropAccessor: " + takes2 + " ms");
+        Assert.assertEquals("item1", dictionaryList.get(0).getItemValue());
+        Assert.assertTrue(takes2 < takes1);
+    }
+
+    @Test
+    public void testConvertListEquivalence(){
+        List<Dictionary> dictionaryList = new ArrayList<>();
+        for(long id=1; id<=10000; id++){
+            Dictionary dictionary = new Dictionary();
+            dictionary.setId(id);
+            dictionary.setParentId(0L);
+            dictionary.setType("GENDER");
+            dictionary.setItemName("item"+id);
+            dictionary.setItemValue("value"+id);
+            dictionary.setCreateTime(new Date());
+            dictionaryList.add(dictionary);
+        }
+        List<DictionaryVO> voList = BeanUtils.convertList(dictionaryList, DictionaryVO.class);
+        Assert.assertEquals(dictionaryList.size(), voList.size());
+        // 与Spring copyProperties + Accept注解拷贝的结果一致
+        for(int i=0; i<dictionaryList.size(); i++){
+            Dictionary dictionary = dictionaryList.get(i);
+            DictionaryVO expected = new DictionaryVO();
+            org.springframework.beans.BeanUtils.copyProperties(dictionary, expected);
+            AcceptAnnoCopier.copyAcceptProperties(dictionary, expected);
+            Assert.assertEquals(JSON.stringify(expected), JSON.stringify(voList.get(i)));
+        }
+    }
+
+    /**
+     * null值拷贝至基本类型属性时，与Spring copyProperties行为一致
+     */
+    @Test
+    public void testCopyNullToPrimitive(){
+        WrapperBean source = new WrapperBean();
+        source.setName("test");
+        try{
+            BeanUtils.copyProperties(source, new PrimitiveBean());
+            Assert.fail();
+        }
+        catch (FatalBeanException e){
+            Assert.assertTrue(e.getMessage().contains("count"));
+        }
+        try{
+            org.springframework.beans.BeanUtils.copyProperties(source, new PrimitiveBean());
+            Assert.fail();
+        }
+        catch (FatalBeanException e){
+            Assert.assertTrue(e.getMessage().contains("count"));
+        }
+        // convertList转换失败返回空列表
+        Assert.assertTrue(BeanUtils.convertList(Collections.singletonList(source), PrimitiveBean.class).isEmpty());
+        source.setCount(3);
+        PrimitiveBean target = BeanUtils.convert(source, PrimitiveBean.class);
+        Assert.assertEquals(3, target.getCount());
+        Assert.assertEquals("test", target.getName());
+    }
+
+    @Data
+    public static class WrapperBean {
+        private String name;
+        private Integer count;
+    }
+
+    @Data
+    public static class PrimitiveBean {
+        private String name;
+        private int count;
+    }
+
     @Test
     public void testConvertType() {
         Collection<String> list = new ArrayList<>();
@@ -15,13 +15,36 @@
  */
 package diboot.core.test.util;
 
+import com.diboot.core.cache.BoundedCacheSettings;
+import com.diboot.core.cache.BoundedMemoryCache;
+import com.diboot.core.cache.CacheLoadSettings;
+import com.diboot.core.cache.CacheMetricsBinder;
+import com.diboot.core.cache.CacheRemovalListener;
+import com.diboot.core.cache.CacheStats;
+import com.diboot.core.cache.CacheStatsCounter;
+import com.diboot.core.cache.CacheStatsProvider;
 import com.diboot.core.cache.DynamicMemoryCacheManager;
+import com.diboot.core.cache.SingleFlightLoader;
 import com.diboot.core.entity.Dictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * V校验工具类测试
@@ -48,10 +71,236 @@ public class CacheTest {
         catch (Exception e){
             e.printStackTrace();
         }
-        dictionaryMapCache = cacheManager.getCacheObj(CACHE_TMPL, "version", Map.class);
-        Assert.assertTrue(dictionaryMapCache == null);
         isExpired = cacheManager.isExpired(CACHE_TMPL, "version");
         Assert.assertTrue(isExpired);
+        dictionaryMapCache = cacheManager.getCacheObj(CACHE_TMPL, "version", Map.class);
+        Assert.assertTrue(dictionaryMapCache == null);
+        // 读取时已移除过期数据
+        Assert.assertEquals(0, ((BoundedMemoryCache)cacheManager.getCache(CACHE_TMPL)).size());
+    }
+
+    @Test
+    public void testBoundedCache(){
+        List<CacheRemovalListener.RemovalCause> causes = new ArrayList<>();
+        BoundedMemoryCache lruCache = new BoundedMemoryCache("LRU", new BoundedCacheSettings().setMaxEntries(100)
+                .setEvictionPolicy(BoundedCacheSettings.EvictionPolicy.LRU).setRemovalListener((key, value, cause) -> causes.add(cause)));
+        DynamicMemoryCacheManager cacheManager = new DynamicMemoryCacheManager(lruCache);
+        for(int i=0; i<200; i++){
+            cacheManager.putCacheObj("LRU", i, "v"+i);
+            // 保持key 0 为最近访问
+            cacheManager.getCacheObj("LRU", 0, String.class);
+        }
+        Assert.assertEquals(100, lruCache.size());
+        Assert.assertEquals(100, lruCache.getEvictionCount());
+        Assert.assertEquals("v0", cacheManager.getCacheString("LRU", 0));
+        Assert.assertNull(cacheManager.getCacheString("LRU", 1));
+        cacheManager.putCacheObj("LRU", 0, "new");
+        cacheManager.removeCacheObj("LRU", 0);
+        Assert.assertEquals(100, causes.stream().filter(c -> c == CacheRemovalListener.RemovalCause.SIZE).count());
+        Assert.assertTrue(causes.contains(CacheRemovalListener.RemovalCause.REPLACED));
+        Assert.assertTrue(causes.contains(CacheRemovalListener.RemovalCause.EXPLICIT));
+
+        // TinyLFU：高频数据不被一次性扫描冲刷
+        BoundedMemoryCache lfuCache = new BoundedMemoryCache("LFU", new BoundedCacheSettings().setMaxEntries(100));
+        for(int i=0; i<50; i++){
+            lfuCache.put("hot"+i, i);
+        }
+        for(int round=0; round<5; round++){
+            for(int i=0; i<50; i++){
+                lfuCache.get("hot"+i);
+            }
+        }
+        for(int i=0; i<1000; i++){
+            lfuCache.put("scan"+i, i);
+        }
+        Assert.assertTrue(lfuCache.size() <= 100);
+        int hotCount = 0;
+        for(int i=0; i<50; i++){
+            if(lfuCache.get("hot"+i) != null){
+                hotCount++;
+            }
+        }
+        Assert.assertTrue(hotCount >= 45);
+
+        // 按估算字节数限制
+        BoundedMemoryCache weightCache = new BoundedMemoryCache("WEIGHT", new BoundedCacheSettings().setMaxWeight(10*1024));
+        for(int i=0; i<100; i++){
+            weightCache.put("k"+i, new String(new char[500]));
+        }
+        Assert.assertTrue(weightCache.getWeightedSize() <= 10*1024);
+        Assert.assertTrue(weightCache.size() < 100);
+    }
+
+    @Test
+    public void testBoundedCacheExpiration() throws Exception{
+        List<Object> expiredKeys = new ArrayList<>();
+        BoundedMemoryCache cache = new BoundedMemoryCache("EXPIRE", new BoundedCacheSettings().setExpireSeconds(1)
+                .setRemovalListener((key, value, cause) -> {
+                    if(cause == CacheRemovalListener.RemovalCause.EXPIRED){
+                        expiredKeys.add(key);
+                    }
+                }));
+        cache.put("k1", "v1");
+        cache.put("k3", "v3");
+        Assert.assertEquals("v1", cache.get("k1", String.class));
+        Thread.sleep(2100);
+        Assert.assertTrue(cache.isExpired("k1"));
+        // 读取时移除已过期数据
+        Assert.assertNull(cache.get("k1"));
+        Assert.assertFalse(cache.isExpired("k1"));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(Collections.singletonList("k1"), expiredKeys);
+        Assert.assertTrue(cache.isExpired("k3"));
+        // 写入时由时间轮清理已到期数据
+        cache.put("k2", "v2");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(2, expiredKeys.size());
+        Assert.assertEquals(2, cache.getExpirationCount());
+    }
+
+    @Test
+    public void testCacheStats(){
+        DynamicMemoryCacheManager cacheManager = new DynamicMemoryCacheManager(10, "STATS");
+        cacheManager.putCacheObj("STATS", "k1", "v1");
+        cacheManager.getCacheObj("STATS", "k1", String.class);
+        cacheManager.getCacheObj("STATS", "k2", String.class);
+        cacheManager.getCacheObj("STATS", "k3", () -> "v3");
+        cacheManager.getCacheObj("STATS", "k3", () -> "v3");
+        CacheStats cacheStats = cacheManager.getCacheStats().get(0);
+        Assert.assertEquals("STATS", cacheStats.getCacheName());
+        Assert.assertEquals(2, cacheStats.getHitCount());
+        Assert.assertEquals(2, cacheStats.getMissCount());
+        Assert.assertEquals(1, cacheStats.getLoadCount());
+        Assert.assertEquals(2, cacheStats.getSize());
+        Assert.assertEquals(1L, cacheStats.getLoadTimeHistogram().values().stream().mapToLong(Long::longValue).sum());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new CacheMetricsBinder(meterRegistry).bindTo(Collections.singletonList(cacheManager));
+        cacheManager.getCacheObj("STATS", "k1", String.class);
+        Assert.assertEquals(3.0, meterRegistry.get("cache.gets").tag("cache", "STATS").tag("result", "hit").functionCounter().count(), 0);
+        Assert.assertEquals(2.0, meterRegistry.get("cache.size").tag("cache", "STATS").gauge().value(), 0);
+    }
+
+    @Test
+    public void testCacheMetricsSnapshotPerScrape(){
+        DynamicMemoryCacheManager cacheManager = new DynamicMemoryCacheManager(10, "STATS_A", "STATS_B");
+        cacheManager.putCacheObj("STATS_A", "k1", "v1");
+        cacheManager.getCacheObj("STATS_A", "k1", String.class);
+        AtomicInteger statsCalls = new AtomicInteger();
+        CacheStatsProvider provider = () -> {
+            statsCalls.incrementAndGet();
+            return cacheManager.getCacheStats();
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new CacheMetricsBinder(meterRegistry).bindTo(Collections.singletonList(provider));
+        statsCalls.set(0);
+        // 一次采集读取全部指标，仅获取一次统计数据
+        meterRegistry.getMeters().forEach(meter -> meter.measure().forEach(measurement -> measurement.getValue()));
+        Assert.assertEquals(1, statsCalls.get());
+        Assert.assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "STATS_A").tag("result", "hit").functionCounter().count(), 0);
+        Assert.assertEquals(0.0, meterRegistry.get("cache.gets").tag("cache", "STATS_B").tag("result", "hit").functionCounter().count(), 0);
+        Assert.assertEquals(1, statsCalls.get());
+    }
+
+    @Test
+    public void testCacheMetricsHistogramAndRebind(){
+        List<CacheStats> cacheStatsList = new CopyOnWriteArrayList<>();
+        cacheStatsList.add(histogramStats("STATS_H", 2, 1, 0, 0, 0, 0, 0, 1));
+        CacheStatsProvider provider = () -> cacheStatsList;
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CacheMetricsBinder binder = new CacheMetricsBinder(meterRegistry);
+        Assert.assertEquals(1, binder.bindTo(Collections.singletonList(provider)));
+        // 累计计数，le为区间上限秒数
+        Assert.assertEquals(2.0, histogramCount(meterRegistry, "STATS_H", "0.001"), 0);
+        Assert.assertEquals(3.0, histogramCount(meterRegistry, "STATS_H", "0.005"), 0);
+        Assert.assertEquals(3.0, histogramCount(meterRegistry, "STATS_H", "1.0"), 0);
+        Assert.assertEquals(4.0, histogramCount(meterRegistry, "STATS_H", "+Inf"), 0);
+        Assert.assertTrue(meterRegistry.find("cache.load.duration.histogram").tag("le", "<=1ms").meters().isEmpty());
+
+        // 绑定后新建的缓存在再次绑定时补充，已绑定的不重复
+        cacheStatsList.add(histogramStats("STATS_NEW", 0, 0, 0, 0, 0, 0, 0, 0));
+        Assert.assertEquals(1, binder.bindTo(Collections.singletonList(provider)));
+        Assert.assertEquals(0, binder.bindTo(Collections.singletonList(provider)));
+        Assert.assertNotNull(meterRegistry.find("cache.gets").tag("cache", "STATS_NEW").tag("result", "hit").functionCounter());
+    }
+
+    private static CacheStats histogramStats(String cacheName, long... buckets){
+        long[] bucketsMillis = CacheStatsCounter.getLoadTimeBucketsMillis();
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for(int i = 0; i < buckets.length; i++){
+            histogram.put(i < bucketsMillis.length? "<=" + bucketsMillis[i] + "ms" : ">" + bucketsMillis[i-1] + "ms", buckets[i]);
+        }
+        return new CacheStats().setCacheName(cacheName).setSource("TEST").setLoadCount(Arrays.stream(buckets).sum())
+                .setLoadTimeHistogram(histogram).setSize(-1);
+    }
+
+    private static double histogramCount(SimpleMeterRegistry meterRegistry, String cacheName, String le){
+        return meterRegistry.get("cache.load.duration.histogram").tag("cache", cacheName).tag("le", le).functionCounter().count();
+    }
+
+    @Test
+    public void testSingleFlightLoad() throws Exception{
+        ConcurrentMapCache cache = new ConcurrentMapCache("SINGLE_FLIGHT");
+        SingleFlightLoader loader = new SingleFlightLoader(null);
+        CacheLoadSettings settings = new CacheLoadSettings().setEarlyRefreshBeta(0);
+        CacheStatsCounter statsCounter = new CacheStatsCounter();
+        AtomicInteger loadCount = new AtomicInteger();
+        int threadCount = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for(int i=0; i<threadCount; i++){
+            futures.add(executorService.submit(() -> {
+                startLatch.await();
+                return loader.get(cache, "hot", () -> {
+                    loadCount.incrementAndGet();
+                    Thread.sleep(200);
+                    return "value";
+                }, 60000, settings, statsCounter);
+            }));
+        }
+        startLatch.countDown();
+        for(Future<String> future : futures){
+            Assert.assertEquals("value", future.get());
+        }
+        executorService.shutdown();
+        // 并发请求仅加载一次
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(1, statsCounter.snapshot("SINGLE_FLIGHT", "test", -1, 0).getLoadCount());
+    }
+
+    @Test
+    public void testDefaultLoadSettingsStoreRawValue(){
+        ConcurrentMapCache cache = new ConcurrentMapCache("RAW");
+        SingleFlightLoader loader = new SingleFlightLoader(null);
+        // 默认不启用陈旧期及提前刷新，写入原始值以兼容升级前的节点
+        Assert.assertEquals("value", loader.get(cache, "k", () -> "value", 60000, new CacheLoadSettings(), new CacheStatsCounter()));
+        Assert.assertEquals("value", cache.get("k").get());
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception{
+        ConcurrentMapCache cache = new ConcurrentMapCache("STALE");
+        SingleFlightLoader loader = new SingleFlightLoader(null);
+        // 存活2秒，后1秒为陈旧期
+        CacheLoadSettings settings = new CacheLoadSettings().setStaleSeconds(1).setEarlyRefreshBeta(0);
+        CacheStatsCounter statsCounter = new CacheStatsCounter();
+        AtomicInteger version = new AtomicInteger();
+        CountDownLatch refreshed = new CountDownLatch(2);
+        Assert.assertEquals("v1", loader.get(cache, "k", () -> {
+            refreshed.countDown();
+            return "v" + version.incrementAndGet();
+        }, 2000, settings, statsCounter));
+        Thread.sleep(1100);
+        // 陈旧期内返回旧值并后台刷新
+        Assert.assertEquals("v1", loader.get(cache, "k", () -> {
+            refreshed.countDown();
+            return "v" + version.incrementAndGet();
+        }, 2000, settings, statsCounter));
+        Assert.assertTrue(refreshed.await(1, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        Assert.assertEquals("v2", loader.get(cache, "k", () -> "v" + version.incrementAndGet(), 2000, settings, statsCounter));
+        Assert.assertEquals(2, version.get());
     }
 
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.core.test.util;
+
+import com.diboot.core.cache.DynamicMemoryCacheManager;
+import com.diboot.core.cache.LocalCacheInvalidationChannel;
+import com.diboot.core.cache.TwoLevelCacheManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 二级缓存测试：以内存缓存及进程内失效通道模拟Redis，两个manager实例模拟两个节点
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class TwoLevelCacheTest {
+
+    private static final String CACHE_TOKEN = "TOKEN";
+    private static final String CACHE_CAPTCHA = "CAPTCHA";
+
+    @Test
+    public void testInvalidationBroadcast(){
+        DynamicMemoryCacheManager sharedCacheManager = new DynamicMemoryCacheManager(10, CACHE_TOKEN, CACHE_CAPTCHA);
+        LocalCacheInvalidationChannel channel = new LocalCacheInvalidationChannel();
+        TwoLevelCacheManager node1 = new TwoLevelCacheManager(sharedCacheManager, channel, buildSettings());
+        TwoLevelCacheManager node2 = new TwoLevelCacheManager(sharedCacheManager, channel, buildSettings());
+
+        node1.putCacheObj(CACHE_TOKEN, "t1", "v1");
+        // node2本地未命中，读取L2后回填
+        Assert.assertEquals("v1", node2.getCacheString(CACHE_TOKEN, "t1"));
+        Assert.assertEquals(1, node2.getNearCache(CACHE_TOKEN).getMissCount());
+        Assert.assertEquals("v1", node2.getCacheString(CACHE_TOKEN, "t1"));
+        Assert.assertEquals(1, node2.getNearCache(CACHE_TOKEN).getHitCount());
+
+        // node1更新后node2本地缓存失效
+        node1.putCacheObj(CACHE_TOKEN, "t1", "v2");
+        Assert.assertEquals("v2", node2.getCacheString(CACHE_TOKEN, "t1"));
+        node1.removeCacheObj(CACHE_TOKEN, "t1");
+        Assert.assertNull(node2.getCacheString(CACHE_TOKEN, "t1"));
+        Assert.assertEquals(0.75, node2.getHitRatio(CACHE_TOKEN), 0.01);
+
+        // 非字符串key
+        node1.putCacheObj(CACHE_TOKEN, 1L, "id1");
+        Assert.assertEquals("id1", node2.getCacheString(CACHE_TOKEN, 1L));
+
+        // L2_ONLY不使用本地缓存
+        node1.putCacheObj(CACHE_CAPTCHA, "c1", "1234");
+        Assert.assertNull(node1.getNearCache(CACHE_CAPTCHA));
+        Assert.assertEquals("1234", node2.getCacheString(CACHE_CAPTCHA, "c1"));
+        sharedCacheManager.removeCacheObj(CACHE_CAPTCHA, "c1");
+        Assert.assertNull(node1.getCacheString(CACHE_CAPTCHA, "c1"));
+    }
+
+    @Test
+    public void testBoundedNearCache(){
+        DynamicMemoryCacheManager sharedCacheManager = new DynamicMemoryCacheManager(10, CACHE_TOKEN, CACHE_CAPTCHA);
+        TwoLevelCacheManager node = new TwoLevelCacheManager(sharedCacheManager, null, buildSettings());
+        for(int i=0; i<20; i++){
+            node.putCacheObj(CACHE_TOKEN, "t"+i, "v"+i);
+        }
+        Assert.assertEquals(10, node.getNearCache(CACHE_TOKEN).size());
+        // 本地淘汰后仍可从L2读取
+        Assert.assertEquals("v0", node.getCacheString(CACHE_TOKEN, "t0"));
+    }
+
+    private Map<String, TwoLevelCacheManager.NearCacheSettings> buildSettings(){
+        Map<String, TwoLevelCacheManager.NearCacheSettings> settingsMap = new HashMap<>();
+        settingsMap.put(CACHE_TOKEN, new TwoLevelCacheManager.NearCacheSettings().setMaxSize(10).setExpireSeconds(60));
+        settingsMap.put(CACHE_CAPTCHA, new TwoLevelCacheManager.NearCacheSettings().setConsistency(TwoLevelCacheManager.Consistency.L2_ONLY));
+        return settingsMap;
+    }
+
+}
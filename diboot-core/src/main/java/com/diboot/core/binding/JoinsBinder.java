@@ -35,7 +35,6 @@ import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.Pagination;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanWrapper;
 
 import java.lang.reflect.Field;
 import java.util.*;
@@ -106,6 +105,10 @@ public class JoinsBinder {
                 throw new InvalidUsageException("单表查询对象无BaseService/IService实现: "+entityClazz.getSimpleName());
             }
         }
+        // 动态Join查询的排序列为关联别名，无法构建游标条件
+        if(pagination != null && pagination.isKeysetMode()){
+            throw new InvalidUsageException("动态Join查询不支持游标分页，请使用页码分页: " + entityClazz.getSimpleName());
+        }
         long begin = System.currentTimeMillis();
         // 转换为queryWrapper
         DynamicJoinQueryWrapper dynamicJoinWrapper = (DynamicJoinQueryWrapper)queryWrapper;
@@ -171,11 +174,10 @@ public class JoinsBinder {
                 T entityInst = entityClazz.newInstance();
                 BeanUtils.bindProperties(entityInst, fieldValueMap);
                 if (protectFieldHandler != null) {
-                    BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(entityInst);
                     ParserCache.getProtectFieldList(entityClazz).forEach(fieldName -> {
                         String value = BeanUtils.getStringProperty(entityInst, fieldName);
                         if (value != null) {
-                            beanWrapper.setPropertyValue(fieldName, protectFieldHandler.decrypt(entityClazz,fieldName,value));
+                            BeanUtils.setProperty(entityInst, fieldName, protectFieldHandler.decrypt(entityClazz,fieldName,value));
                         }
                     });
                 }
@@ -15,7 +15,9 @@
  */
 package com.diboot.core.binding;
 
+import com.diboot.core.binding.binder.parallel.BindingExecutor;
 import com.diboot.core.binding.binder.parallel.ParallelBindingManager;
+import com.diboot.core.binding.cache.BindingSession;
 import com.diboot.core.binding.helper.DeepRelationsBinder;
 import com.diboot.core.binding.parser.BindAnnotationGroup;
 import com.diboot.core.binding.parser.FieldAnnotation;
@@ -111,6 +113,30 @@ public class RelationsBinder {
         if(bindAnnotationGroup.isEmpty()){
             return;
         }
+        // 开启绑定会话（深度绑定时复用上层会话）
+        BindingSession openedSession = null;
+        if(BindingSession.current() == null){
+            BindingExecutor bindingExecutor = ContextHelper.getBean(BindingExecutor.class);
+            openedSession = BindingSession.open(bindingExecutor != null? bindingExecutor.getMaxFanOut() : BindingExecutor.DEFAULT_MAX_FAN_OUT);
+        }
+        try{
+            bind(voList, bindAnnotationGroup, enableDeepBind);
+        }
+        finally {
+            if(openedSession != null){
+                BindingSession.close();
+            }
+        }
+    }
+
+    /**
+     * 执行注解绑定
+     * @param voList
+     * @param bindAnnotationGroup
+     * @param enableDeepBind
+     */
+    private static <VO> void bind(List<VO> voList, BindAnnotationGroup bindAnnotationGroup, boolean enableDeepBind){
+        BindingSession bindingSession = BindingSession.current();
         RequestContextHolder.setRequestAttributes(RequestContextHolder.getRequestAttributes(), true);
         ParallelBindingManager parallelBindingManager = ContextHelper.getBean(ParallelBindingManager.class);
         // 不可能出现的错误，但是编译器需要
@@ -120,7 +146,7 @@ public class RelationsBinder {
         Map<String, List<FieldAnnotation>> bindFieldGroupMap = bindAnnotationGroup.getBindFieldGroupMap();
         if(bindFieldGroupMap != null){
             for(Map.Entry<String, List<FieldAnnotation>> entry : bindFieldGroupMap.entrySet()){
-                CompletableFuture<Boolean> bindFieldFuture = parallelBindingManager.doBindingField(voList, entry.getValue());
+                CompletableFuture<Boolean> bindFieldFuture = parallelBindingManager.doBindingField(voList, entry.getValue(), bindingSession);
                 binderFutures.add(bindFieldFuture);
             }
         }
@@ -141,7 +167,7 @@ public class RelationsBinder {
         if(entityAnnoList != null){
             for(FieldAnnotation anno : entityAnnoList){
                 // 绑定关联对象entity
-                CompletableFuture<Boolean> bindEntFuture = parallelBindingManager.doBindingEntity(voList, anno);
+                CompletableFuture<Boolean> bindEntFuture = parallelBindingManager.doBindingEntity(voList, anno, bindingSession);
                 binderFutures.add(bindEntFuture);
             }
         }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 启用关联绑定结果的跨请求缓存（标注于被关联的Entity类）
+ * <p>
+ * 以join列值为key缓存@BindField/@BindEntity的关联查询结果，通过BaseService新建/更新/删除该Entity时自动失效；
+ * 直接通过Mapper更新数据时需等待缓存过期；存在@DataAccessCheckpoint数据权限检查点的Entity不启用缓存
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface BindingCacheable {
+
+    /***
+     * 最大缓存key数量，超出后淘汰最久未访问的
+     * @return
+     */
+    int maxSize() default 2000;
+
+    /***
+     * 过期时间（分钟）
+     * @return
+     */
+    int expiredMinutes() default 10;
+}
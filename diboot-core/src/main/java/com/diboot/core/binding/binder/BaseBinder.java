@@ -21,6 +21,10 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.annotation.Module;
 import com.diboot.core.binding.binder.remote.RemoteBindDTO;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.cache.BindingResultCache;
+import com.diboot.core.binding.cache.BindingResultCacheManager;
+import com.diboot.core.binding.cache.BindingSession;
+import com.diboot.core.binding.helper.InConditionHelper;
 import com.diboot.core.binding.helper.ResultAssembler;
 import com.diboot.core.binding.helper.WrapperHelper;
 import com.diboot.core.binding.parser.FieldComparison;
@@ -36,6 +40,7 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 /**
@@ -105,6 +110,18 @@ public abstract class BaseBinder<T> {
      * 远程bind
      */
     protected RemoteBindDTO remoteBindDTO;
+    /**
+     * 跨请求的绑定结果缓存（被关联Entity标注@BindingCacheable时启用）
+     */
+    protected BindingResultCache bindingResultCache;
+    /**
+     * 绑定会话，同一次绑定内共享关联查询结果
+     */
+    protected BindingSession bindingSession;
+    /**
+     * 超出分块大小需分块查询的join列-分块值（各列值已去重）
+     */
+    private Map<String, List<? extends List<?>>> chunkedJoinOnCol2Values;
 
     /***
      * 构造方法
@@ -128,6 +145,9 @@ public abstract class BaseBinder<T> {
                 remoteBindDTO = new RemoteBindDTO(referencedEntityClass);
             }
         }
+        if(remoteBindDTO == null){
+            this.bindingResultCache = BindingResultCacheManager.getCache(entityClass);
+        }
         // 列集合
         this.annoObjJoinCols = new ArrayList<>(4);
         this.refObjJoinCols = new ArrayList<>(4);
@@ -287,6 +307,16 @@ public abstract class BaseBinder<T> {
         return this;
     }
 
+    /**
+     * 指定绑定会话
+     * @param bindingSession
+     * @return
+     */
+    public BaseBinder<T> withBindingSession(BindingSession bindingSession){
+        this.bindingSession = bindingSession;
+        return this;
+    }
+
     /**
      * 返回MiddleTable
      * @return
@@ -312,19 +342,181 @@ public abstract class BaseBinder<T> {
      */
     protected void buildQueryWrapperJoinOn() {
         for (int i = 0; i < annoObjJoinCols.size(); i++) {
-            String annoObjJoinOnCol = annoObjJoinCols.get(i);
-            List<?> annoObjectJoinOnList = BeanUtils.collectToList(getMatchedAnnoObjectList(), toAnnoObjField(annoObjJoinOnCol));
+            List<?> unpackAnnoObjectJoinOnList = buildJoinOnValueList(i);
             // 构建查询条件
-            if (V.notEmpty(annoObjectJoinOnList)) {
+            if (V.notEmpty(unpackAnnoObjectJoinOnList)) {
                 String refObjJoinOnCol = refObjJoinCols.get(i);
-                Class<?> fieldType = refObjPropInfo.getFieldTypeByColumn(refObjJoinOnCol);
-                List<?> unpackAnnoObjectJoinOnList = ResultAssembler.unpackValueList(annoObjectJoinOnList, this.splitBy, fieldType);
-                queryWrapper.in(refObjJoinOnCol, unpackAnnoObjectJoinOnList);
                 if (remoteBindDTO != null) {
+                    queryWrapper.in(refObjJoinOnCol, unpackAnnoObjectJoinOnList);
                     remoteBindDTO.setRefJoinCol(refObjJoinOnCol).setInConditionValues(unpackAnnoObjectJoinOnList);
                 }
+                else {
+                    appendJoinOnCondition(refObjJoinOnCol, unpackAnnoObjectJoinOnList);
+                }
+            }
+        }
+    }
+
+    /**
+     * 附加join列的IN条件，值数量超出分块大小时在查询时分块执行
+     * @param refObjJoinOnCol
+     * @param joinOnValues
+     */
+    protected void appendJoinOnCondition(String refObjJoinOnCol, Collection<?> joinOnValues) {
+        // 去重，使同一记录在该列仅命中一个分块
+        List<? extends List<?>> chunks = InConditionHelper.partition(new LinkedHashSet<>(joinOnValues));
+        if (chunks.size() == 1) {
+            queryWrapper.in(refObjJoinOnCol, chunks.get(0));
+        }
+        else {
+            // 仅记录，查询时按各列分块的组合附加IN条件
+            if (chunkedJoinOnCol2Values == null) {
+                chunkedJoinOnCol2Values = new LinkedHashMap<>(4);
+            }
+            chunkedJoinOnCol2Values.put(refObjJoinOnCol, chunks);
+        }
+    }
+
+    /**
+     * 查询条件是否为空（含待分块执行的join条件）
+     * @return
+     */
+    protected boolean isQueryConditionEmpty() {
+        return queryWrapper.isEmptyOfNormal() && chunkedJoinOnCol2Values == null;
+    }
+
+    /**
+     * 提取第index个join列的关联值（已按splitBy拆分并去重）
+     * @param index
+     * @return
+     */
+    private List<?> buildJoinOnValueList(int index) {
+        List<?> annoObjectJoinOnList = BeanUtils.collectToList(getMatchedAnnoObjectList(), toAnnoObjField(annoObjJoinCols.get(index)));
+        if (V.isEmpty(annoObjectJoinOnList)) {
+            return annoObjectJoinOnList;
+        }
+        Class<?> fieldType = refObjPropInfo.getFieldTypeByColumn(refObjJoinCols.get(index));
+        return ResultAssembler.unpackValueList(annoObjectJoinOnList, this.splitBy, fieldType);
+    }
+
+    /**
+     * 是否可复用关联查询结果（绑定会话内共享或跨请求缓存）：需为无附加条件及排序的本地单列直接关联
+     * （需在构建join on查询条件之前调用）
+     * @return
+     */
+    protected boolean isReusableLookup() {
+        return (bindingSession != null || bindingResultCache != null) && remoteBindDTO == null && middleTable == null
+                && refObjJoinCols.size() == 1 && V.isEmpty(orderBy) && queryWrapper.isEmptyOfWhere();
+    }
+
+    /**
+     * 按join列值获取EntityList：优先复用绑定会话内其他binder的查询结果及跨请求缓存，仅查询剩余的关联值
+     * （按 entity-join列 共享完整记录，各binder从结果中提取所需字段，不受各自select列的影响）
+     * @return
+     */
+    protected List<T> getReusableEntityList() {
+        List<?> joinOnValues = buildJoinOnValueList(0);
+        if (V.isEmpty(joinOnValues)) {
+            return Collections.emptyList();
+        }
+        String refObjJoinOnCol = refObjJoinCols.get(0);
+        List<T> entityList = new ArrayList<>();
+        // 认领会话内尚未查询的值，已被其他binder认领的值等待其结果
+        Map<Object, CompletableFuture<List<Object>>> claimedValue2FutureMap = new LinkedHashMap<>();
+        List<CompletableFuture<List<Object>>> waitingFutures = new ArrayList<>();
+        for (Object value : joinOnValues) {
+            if (bindingSession == null) {
+                claimedValue2FutureMap.put(value, null);
+                continue;
+            }
+            CompletableFuture<List<Object>> future = new CompletableFuture<>();
+            CompletableFuture<List<Object>> claimedFuture = bindingSession.claim(referencedEntityClass, refObjJoinOnCol, value, future);
+            if (claimedFuture == null) {
+                claimedValue2FutureMap.put(value, future);
+            }
+            else {
+                waitingFutures.add(claimedFuture);
+            }
+        }
+        if (!claimedValue2FutureMap.isEmpty()) {
+            Throwable failure = null;
+            try {
+                Map<Object, List<Object>> value2EntitiesMap = fetchEntitiesByJoinValues(refObjJoinOnCol, claimedValue2FutureMap.keySet());
+                for (Map.Entry<Object, CompletableFuture<List<Object>>> entry : claimedValue2FutureMap.entrySet()) {
+                    List<Object> entities = value2EntitiesMap.get(entry.getKey());
+                    entityList.addAll((List<T>) entities);
+                    if (entry.getValue() != null) {
+                        entry.getValue().complete(entities);
+                    }
+                }
+            }
+            catch (RuntimeException | Error e) {
+                failure = e;
+                throw e;
+            }
+            finally {
+                // 未正常完成（含Error）时使认领的future异常结束并放弃认领，避免其他binder永久等待
+                for (Map.Entry<Object, CompletableFuture<List<Object>>> entry : claimedValue2FutureMap.entrySet()) {
+                    if (entry.getValue() != null && !entry.getValue().isDone()) {
+                        bindingSession.release(referencedEntityClass, refObjJoinOnCol, entry.getKey());
+                        entry.getValue().completeExceptionally(failure != null? failure : new IllegalStateException("关联查询未完成"));
+                    }
+                }
+            }
+        }
+        // 先完成自身认领的查询再等待其他binder，避免相互等待
+        for (CompletableFuture<List<Object>> future : waitingFutures) {
+            entityList.addAll((List<T>) future.join());
+        }
+        return entityList;
+    }
+
+    /**
+     * 按join列值查询entity完整记录（先查跨请求缓存，未命中的值合并为一次查询）
+     * @param refObjJoinOnCol
+     * @param joinOnValues
+     * @return 列值-entity列表，无匹配结果的值对应空列表
+     */
+    private Map<Object, List<Object>> fetchEntitiesByJoinValues(String refObjJoinOnCol, Collection<Object> joinOnValues) {
+        Map<Object, List<Object>> value2EntitiesMap = new HashMap<>(joinOnValues.size());
+        long fetchVersion = bindingResultCache != null? bindingResultCache.getVersion() : 0L;
+        List<Object> missedValues = new ArrayList<>();
+        for (Object value : joinOnValues) {
+            List<Object> cachedList = bindingResultCache != null? bindingResultCache.get(BindingResultCache.buildKey(refObjJoinOnCol, value)) : null;
+            if (cachedList != null) {
+                value2EntitiesMap.put(value, cachedList);
+            }
+            else {
+                missedValues.add(value);
             }
         }
+        if (missedValues.isEmpty()) {
+            return value2EntitiesMap;
+        }
+        // 查询完整记录，供同一entity-join列的各binder（@BindField/@BindEntity等）共用
+        List<T> fetchedList = new ArrayList<>();
+        for (List<Object> chunk : InConditionHelper.partition(missedValues)) {
+            QueryWrapper<T> missedQueryWrapper = new QueryWrapper<>();
+            missedQueryWrapper.in(refObjJoinOnCol, chunk);
+            fetchedList.addAll(getEntityList(missedQueryWrapper));
+        }
+        String refObjJoinOnField = toRefObjField(refObjJoinOnCol);
+        Map<String, List<Object>> key2EntitiesMap = new HashMap<>(missedValues.size());
+        for (T entity : fetchedList) {
+            String key = S.valueOf(BeanUtils.getProperty(entity, refObjJoinOnField));
+            key2EntitiesMap.computeIfAbsent(key, k -> new ArrayList<>(1)).add(entity);
+        }
+        for (Object value : missedValues) {
+            List<Object> entities = key2EntitiesMap.get(S.valueOf(value));
+            if (entities == null) {
+                entities = Collections.emptyList();
+            }
+            value2EntitiesMap.put(value, entities);
+            if (bindingResultCache != null) {
+                bindingResultCache.put(BindingResultCache.buildKey(refObjJoinOnCol, value), entities, fetchVersion);
+            }
+        }
+        return value2EntitiesMap;
     }
 
     /**
@@ -346,6 +538,10 @@ public abstract class BaseBinder<T> {
      * @return
      */
     protected List<T> getEntityList(Wrapper queryWrapper) {
+        // join值超出分块大小时逐块查询后合并（保持各块查询结果的顺序）
+        if(queryWrapper == this.queryWrapper && chunkedJoinOnCol2Values != null){
+            return queryByChunks();
+        }
         if(referencedService instanceof BaseService){
             return ((BaseService)referencedService).getEntityList(queryWrapper);
         }
@@ -355,6 +551,39 @@ public abstract class BaseBinder<T> {
         }
     }
 
+    /**
+     * 按值最多的join列逐块查询，其他超出分块大小的join列以 OR 连接的多个IN条件附加至每次查询
+     * （各列值已去重，同一记录仅命中一个分块；同一关联对象的匹配记录均在同一分块内，块内顺序即orderBy顺序）
+     * @return
+     */
+    private List<T> queryByChunks() {
+        Map.Entry<String, List<? extends List<?>>> largestEntry = null;
+        for (Map.Entry<String, List<? extends List<?>>> entry : chunkedJoinOnCol2Values.entrySet()) {
+            if (largestEntry == null || entry.getValue().size() > largestEntry.getValue().size()) {
+                largestEntry = entry;
+            }
+        }
+        QueryWrapper<T> baseQueryWrapper = this.queryWrapper.clone();
+        for (Map.Entry<String, List<? extends List<?>>> entry : chunkedJoinOnCol2Values.entrySet()) {
+            if (entry == largestEntry) {
+                continue;
+            }
+            String column = entry.getKey();
+            baseQueryWrapper.and(wrapper -> {
+                for (List<?> chunk : entry.getValue()) {
+                    wrapper.or().in(column, chunk);
+                }
+            });
+        }
+        List<T> entityList = new ArrayList<>();
+        for (List<?> chunk : largestEntry.getValue()) {
+            QueryWrapper<T> chunkQueryWrapper = baseQueryWrapper.clone();
+            chunkQueryWrapper.in(largestEntry.getKey(), chunk);
+            entityList.addAll(getEntityList(chunkQueryWrapper));
+        }
+        return entityList;
+    }
+
     /**
      * 获取Map结果
      * @param queryWrapper
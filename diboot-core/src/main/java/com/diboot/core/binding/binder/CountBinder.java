@@ -64,7 +64,7 @@ public class CountBinder<T> extends EntityListBinder<T> {
             this.simplifySelectColumns();
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isQueryConditionEmpty()) {
                 return;
             }
             List<T> entityList = null;
@@ -101,17 +101,22 @@ public class EntityBinder<T> extends BaseBinder<T> {
         }
         // 直接关联Entity
         if(middleTable == null){
+            boolean reusable = isReusableLookup();
             this.simplifySelectColumns();
             // @BindEntity(entity = Department.class, condition="this.department_id=id AND this.type=type")
             // Department department;
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isQueryConditionEmpty()) {
                 return;
             }
             List<T> entityList = null;
             // 查询entity列表: List<T>
-            if(V.isEmpty(this.module)){
+            if(reusable){
+                // 复用绑定会话/缓存中的查询结果
+                entityList = getReusableEntityList();
+            }
+            else if(V.isEmpty(this.module)){
                 // 本地查询获取匹配结果的entityList
                 entityList = getEntityList(queryWrapper);
             }
@@ -146,7 +151,7 @@ public class EntityBinder<T> extends BaseBinder<T> {
             List<T> entityList = null;
             // 查询entity列表: List<T>
             if(V.isEmpty(this.module)){
-                queryWrapper.in(refObjJoinOnCol, refObjValues);
+                appendJoinOnCondition(refObjJoinOnCol, refObjValues);
                 // 本地查询获取匹配结果的entityList
                 entityList = getEntityList(queryWrapper);
             }
@@ -74,7 +74,7 @@ public class EntityListBinder<T> extends EntityBinder<T> {
             this.simplifySelectColumns();
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isQueryConditionEmpty()) {
                 return;
             }
             //处理orderBy，附加排序
@@ -119,7 +119,7 @@ public class EntityListBinder<T> extends EntityBinder<T> {
             // 查询entity列表: List<Role>
             if(V.isEmpty(this.module)){
                 // 本地查询获取匹配结果的entityList
-                queryWrapper.in(refObjJoinOnCol, entityIdList);
+                appendJoinOnCondition(refObjJoinOnCol, entityIdList);
                 entityList = getEntityList(queryWrapper);
             }
             else{
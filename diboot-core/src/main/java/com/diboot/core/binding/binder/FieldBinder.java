@@ -22,7 +22,6 @@ import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanWrapper;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -105,14 +104,19 @@ public class FieldBinder<T> extends BaseBinder<T> {
         }
         // 直接关联
         if(middleTable == null){
+            boolean reusable = isReusableLookup();
             this.simplifySelectColumns();
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isQueryConditionEmpty()) {
                 return;
             }
             List<T> entityList = null;
-            if(V.isEmpty(this.module)){
+            if(reusable){
+                // 复用绑定会话/缓存中的查询结果
+                entityList = getReusableEntityList();
+            }
+            else if(V.isEmpty(this.module)){
                 // 本地查询获取匹配结果的entityList
                 entityList = getEntityList(queryWrapper);
             }
@@ -150,7 +154,7 @@ public class FieldBinder<T> extends BaseBinder<T> {
             // 获取匹配结果的mapList
             List<T> entityList = null;
             if(V.isEmpty(this.module)){
-                queryWrapper.in(refObjJoinOnCol, refObjValues);
+                appendJoinOnCondition(refObjJoinOnCol, refObjValues);
                 // 本地查询获取匹配结果的entityList
                 entityList = getEntityList(queryWrapper);
             }
@@ -182,10 +186,9 @@ public class FieldBinder<T> extends BaseBinder<T> {
     private void setFieldValueToTrunkObj(Map<String, T> key2EntityMap, Object annoObject, String matchKey) {
         T relationEntity = key2EntityMap.get(matchKey);
         if (relationEntity != null) {
-            BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(annoObject);
             for (int i = 0; i < annoObjectSetterPropNameList.size(); i++) {
                 Object valObj = BeanUtils.getProperty(relationEntity, referencedGetterFieldNameList.get(i));
-                beanWrapper.setPropertyValue(annoObjectSetterPropNameList.get(i), valObj);
+                BeanUtils.setProperty(annoObject, annoObjectSetterPropNameList.get(i), valObj);
             }
         }
     }
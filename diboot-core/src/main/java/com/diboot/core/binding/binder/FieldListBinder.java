@@ -24,7 +24,6 @@ import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.V;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanWrapper;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -72,7 +71,7 @@ public class FieldListBinder<T> extends FieldBinder<T> {
             super.simplifySelectColumns();
             super.buildQueryWrapperJoinOn();
             // 查询条件为空时不进行查询
-            if (queryWrapper.isEmptyOfNormal()) {
+            if (isQueryConditionEmpty()) {
                 return;
             }
             //处理orderBy，附加排序
@@ -121,7 +120,7 @@ public class FieldListBinder<T> extends FieldBinder<T> {
             // 查询entity列表: List<Role>
             if(V.isEmpty(this.module)){
                 // 本地查询获取匹配结果的entityList
-                queryWrapper.in(refObjJoinOnCol, entityIdList);
+                appendJoinOnCondition(refObjJoinOnCol, entityIdList);
                 entityList = getEntityList(queryWrapper);
             }
             else{
@@ -195,10 +194,9 @@ public class FieldListBinder<T> extends FieldBinder<T> {
                 List entityList = valueMatchMap.get(sb.toString());
                 if(entityList != null){
                     // 赋值
-                    BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(object);
                     for(int i = 0; i< annoObjectSetterPropNameList.size(); i++){
                         List valObjList = BeanUtils.collectToList(entityList, referencedGetterFieldNameList.get(i));
-                        beanWrapper.setPropertyValue(annoObjectSetterPropNameList.get(i), valObjList);
+                        BeanUtils.setProperty(object, annoObjectSetterPropNameList.get(i), valObjList);
                     }
                 }
             }
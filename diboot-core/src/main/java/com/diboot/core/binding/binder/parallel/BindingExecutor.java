@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.binder.parallel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 关联绑定专用执行器
+ * <p>
+ * 独立于Spring默认的@Async线程池，避免绑定任务排队在邮件发送、日志写入等慢任务之后；
+ * 队列已满或执行器已关闭时由调用线程执行，并提供队列深度、等待时间等指标。
+ * 由CoreAutoConfig按配置项 diboot.core.binding.* 创建
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BindingExecutor {
+    /**
+     * 默认的直接执行阈值
+     */
+    public static final int DEFAULT_INLINE_THRESHOLD = 1;
+    /**
+     * 默认的单次绑定并行任务上限
+     */
+    public static final int DEFAULT_MAX_FAN_OUT = 8;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+    /**
+     * 待绑定对象数量不超过该值时在当前线程顺序执行，避免线程切换开销
+     */
+    private int inlineThreshold = DEFAULT_INLINE_THRESHOLD;
+    /**
+     * 单次绑定（含深度绑定）的并行任务上限，超出时由调用线程执行
+     */
+    private int maxFanOut = DEFAULT_MAX_FAN_OUT;
+    /**
+     * 提交任务数
+     */
+    private final AtomicLong submittedCount = new AtomicLong();
+    /**
+     * 队列已满或已关闭由调用线程执行的任务数
+     */
+    private final AtomicLong callerRunsCount = new AtomicLong();
+    /**
+     * 在调用线程直接执行的任务数（数量较少或超出并行上限）
+     */
+    private final AtomicLong inlineCount = new AtomicLong();
+    /**
+     * 排队等待的累计/最大时长（纳秒）
+     */
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public BindingExecutor(int corePoolSize, int maxPoolSize, int queueCapacity){
+        maxPoolSize = Math.max(corePoolSize, maxPoolSize);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "diboot-binding-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // 已关闭（如容器关闭期间）时同样由调用线程执行，避免任务被丢弃导致future永不完成
+        RejectedExecutionHandler callerRunsPolicy = (runnable, executor) -> {
+            callerRunsCount.incrementAndGet();
+            runnable.run();
+        };
+        this.threadPoolExecutor = new ThreadPoolExecutor(corePoolSize, maxPoolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, callerRunsPolicy);
+        log.debug("初始化关联绑定执行器: corePoolSize={}, maxPoolSize={}, queueCapacity={}", corePoolSize, maxPoolSize, queueCapacity);
+    }
+
+    public int getInlineThreshold(){
+        return inlineThreshold;
+    }
+
+    public BindingExecutor setInlineThreshold(int inlineThreshold){
+        this.inlineThreshold = inlineThreshold;
+        return this;
+    }
+
+    public int getMaxFanOut(){
+        return maxFanOut;
+    }
+
+    public BindingExecutor setMaxFanOut(int maxFanOut){
+        this.maxFanOut = maxFanOut;
+        return this;
+    }
+
+    /**
+     * 异步执行绑定任务（传递当前请求上下文）
+     * @param task
+     * @return
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task){
+        submittedCount.incrementAndGet();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        long submitNanos = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            recordWaitTime(System.nanoTime() - submitNanos);
+            RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try{
+                return task.get();
+            }
+            finally {
+                RequestContextHolder.setRequestAttributes(previousAttributes);
+            }
+        }, threadPoolExecutor);
+    }
+
+    /**
+     * 在当前线程直接执行绑定任务
+     * @param task
+     * @return
+     */
+    public <T> CompletableFuture<T> runInline(Supplier<T> task){
+        inlineCount.incrementAndGet();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try{
+            future.complete(task.get());
+        }
+        catch (Throwable e){
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 记录排队等待时长
+     * @param waitNanos
+     */
+    private void recordWaitTime(long waitNanos){
+        totalWaitNanos.addAndGet(waitNanos);
+        long currentMax;
+        while(waitNanos > (currentMax = maxWaitNanos.get())){
+            if(maxWaitNanos.compareAndSet(currentMax, waitNanos)){
+                break;
+            }
+        }
+    }
+
+    /**
+     * 当前排队任务数
+     * @return
+     */
+    public int getQueueSize(){
+        return threadPoolExecutor.getQueue().size();
+    }
+
+    /**
+     * 当前执行中的线程数
+     * @return
+     */
+    public int getActiveCount(){
+        return threadPoolExecutor.getActiveCount();
+    }
+
+    /**
+     * 当前线程池大小
+     * @return
+     */
+    public int getPoolSize(){
+        return threadPoolExecutor.getPoolSize();
+    }
+
+    public long getSubmittedCount(){
+        return submittedCount.get();
+    }
+
+    public long getCompletedCount(){
+        return threadPoolExecutor.getCompletedTaskCount();
+    }
+
+    public long getCallerRunsCount(){
+        return callerRunsCount.get();
+    }
+
+    public long getInlineCount(){
+        return inlineCount.get();
+    }
+
+    /**
+     * 平均排队等待时长（毫秒）
+     * @return
+     */
+    public double getAvgWaitMillis(){
+        long submitted = submittedCount.get();
+        return submitted == 0? 0 : totalWaitNanos.get() / 1000000.0 / submitted;
+    }
+
+    /**
+     * 最大排队等待时长（毫秒）
+     * @return
+     */
+    public double getMaxWaitMillis(){
+        return maxWaitNanos.get() / 1000000.0;
+    }
+
+    public void shutdown(){
+        threadPoolExecutor.shutdown();
+    }
+
+}
@@ -17,6 +17,7 @@ package com.diboot.core.binding.binder.parallel;
 
 import com.diboot.core.binding.annotation.*;
 import com.diboot.core.binding.binder.*;
+import com.diboot.core.binding.cache.BindingSession;
 import com.diboot.core.binding.parser.ConditionManager;
 import com.diboot.core.binding.parser.FieldAnnotation;
 import com.diboot.core.exception.InvalidUsageException;
@@ -25,14 +26,14 @@ import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
- * 并行绑定Manager
+ * 并行绑定Manager（由绑定专用执行器执行）
  * @author JerryMa
  * @version v2.4.0
  * @date 2021/11/16
@@ -45,14 +46,26 @@ public class ParallelBindingManager {
     @Autowired(required = false)
     private DictionaryServiceExtProvider dictionaryServiceExtProvider;
 
+    @Autowired
+    private BindingExecutor bindingExecutor;
+
     /**
      * 绑定字典
      * @param voList
      * @param fieldAnno
      * @return
      */
-    @Async
     public CompletableFuture<Boolean> doBindingDict(List voList, FieldAnnotation fieldAnno){
+        return execute(voList, () -> bindDict(voList, fieldAnno));
+    }
+
+    /**
+     * 执行字典绑定
+     * @param voList
+     * @param fieldAnno
+     * @return
+     */
+    private boolean bindDict(List voList, FieldAnnotation fieldAnno){
         if(dictionaryServiceExtProvider != null){
             BindDict annotation = (BindDict) fieldAnno.getAnnotation();
             String dictValueField = annotation.field();
@@ -66,7 +79,7 @@ public class ParallelBindingManager {
         else{
             throw new InvalidUsageException("BindDictService未实现，无法使用BindDict注解！");
         }
-        return CompletableFuture.completedFuture(true);
+        return true;
     }
 
     /***
@@ -74,16 +87,26 @@ public class ParallelBindingManager {
      * @param voList
      * @param fieldAnnotations
      */
-    @Async
     public CompletableFuture<Boolean> doBindingField(List voList, List<FieldAnnotation> fieldAnnotations){
+        return doBindingField(voList, fieldAnnotations, null);
+    }
+
+    /***
+     * 绑定Field（共享绑定会话的查询结果）
+     * @param voList
+     * @param fieldAnnotations
+     * @param bindingSession
+     */
+    public CompletableFuture<Boolean> doBindingField(List voList, List<FieldAnnotation> fieldAnnotations, BindingSession bindingSession){
         BindField bindAnnotation = (BindField) fieldAnnotations.get(0).getAnnotation();
         FieldBinder binder = new FieldBinder(bindAnnotation, voList);
         for(FieldAnnotation anno : fieldAnnotations){
             BindField bindField = (BindField) anno.getAnnotation();
             binder.link(bindField.field(), anno.getFieldName());
         }
+        binder.withBindingSession(bindingSession);
         // 解析条件并且执行绑定
-        return doBinding(binder, bindAnnotation.condition());
+        return execute(voList, () -> doBinding(binder, bindAnnotation.condition()));
     }
 
     /***
@@ -91,7 +114,6 @@ public class ParallelBindingManager {
      * @param voList
      * @param fieldAnnotations
      */
-    @Async
     public CompletableFuture<Boolean> doBindingFieldList(List voList, List<FieldAnnotation> fieldAnnotations){
         BindFieldList bindAnnotation = (BindFieldList) fieldAnnotations.get(0).getAnnotation();
         FieldListBinder binder = new FieldListBinder(bindAnnotation, voList);
@@ -100,7 +122,7 @@ public class ParallelBindingManager {
             binder.link(bindField.field(), anno.getFieldName());
         }
         // 解析条件并且执行绑定
-        return doBinding(binder, bindAnnotation.condition());
+        return execute(voList, () -> doBinding(binder, bindAnnotation.condition()));
     }
 
     /***
@@ -108,15 +130,25 @@ public class ParallelBindingManager {
      * @param voList
      * @param fieldAnnotation
      */
-    @Async
     public CompletableFuture<Boolean> doBindingEntity(List voList, FieldAnnotation fieldAnnotation) {
+        return doBindingEntity(voList, fieldAnnotation, null);
+    }
+
+    /***
+     * 绑定Entity（共享绑定会话的查询结果）
+     * @param voList
+     * @param fieldAnnotation
+     * @param bindingSession
+     */
+    public CompletableFuture<Boolean> doBindingEntity(List voList, FieldAnnotation fieldAnnotation, BindingSession bindingSession) {
         BindEntity annotation = (BindEntity) fieldAnnotation.getAnnotation();
         // 绑定关联对象entity
         EntityBinder binder = new EntityBinder(annotation, voList);
         // 构建binder
         binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
+        binder.withBindingSession(bindingSession);
         // 解析条件并且执行绑定
-        return doBinding(binder, annotation.condition());
+        return execute(voList, () -> doBinding(binder, annotation.condition()));
     }
 
     /***
@@ -124,14 +156,13 @@ public class ParallelBindingManager {
      * @param voList
      * @param fieldAnnotation
      */
-    @Async
     public CompletableFuture<Boolean> doBindingEntityList(List voList, FieldAnnotation fieldAnnotation) {
         BindEntityList annotation = (BindEntityList) fieldAnnotation.getAnnotation();
         // 构建binder
         EntityListBinder binder = new EntityListBinder(annotation, voList);
         binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
         // 解析条件并且执行绑定
-        return doBinding(binder, annotation.condition());
+        return execute(voList, () -> doBinding(binder, annotation.condition()));
     }
 
     /***
@@ -139,7 +170,6 @@ public class ParallelBindingManager {
      * @param voList
      * @param fieldAnnotation
      */
-    @Async
     public CompletableFuture<Boolean> doBindingCount(List voList, FieldAnnotation fieldAnnotation) {
         BindCount annotation = (BindCount) fieldAnnotation.getAnnotation();
         // 绑定关联对象entity
@@ -147,7 +177,7 @@ public class ParallelBindingManager {
         // 构建binder
         binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
         // 解析条件并且执行绑定
-        return doBinding(binder, annotation.condition());
+        return execute(voList, () -> doBinding(binder, annotation.condition()));
     }
 
     /**
@@ -156,9 +186,29 @@ public class ParallelBindingManager {
      * @param condition
      * @return
      */
-    private CompletableFuture<Boolean> doBinding(BaseBinder binder, String condition){
+    private boolean doBinding(BaseBinder binder, String condition){
         ConditionManager.parseConditions(condition, binder);
         binder.bind();
-        return CompletableFuture.completedFuture(true);
+        return true;
+    }
+
+    /**
+     * 执行绑定任务：数量较少时在当前线程直接执行，超出单次绑定的并行上限时由当前线程执行，其余提交至绑定执行器
+     * @param voList
+     * @param task
+     * @return
+     */
+    private CompletableFuture<Boolean> execute(List voList, Supplier<Boolean> task){
+        if(voList.size() <= bindingExecutor.getInlineThreshold()){
+            return bindingExecutor.runInline(task);
+        }
+        BindingSession bindingSession = BindingSession.current();
+        if(bindingSession == null){
+            return bindingExecutor.submit(task);
+        }
+        if(!bindingSession.tryAcquireFanOut()){
+            return bindingExecutor.runInline(task);
+        }
+        return bindingExecutor.submit(task).whenComplete((result, ex) -> bindingSession.releaseFanOut());
     }
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ package com.diboot.core.binding.cache;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.parser.EntityInfoCache;
+import com.diboot.core.binding.parser.PropAccessor;
 import com.diboot.core.binding.parser.PropInfo;
 import com.diboot.core.cache.StaticMemoryCacheManager;
 import com.diboot.core.config.Cons;
@@ -71,6 +72,10 @@ public class BindingCacheManager {
      * 类- name-field Map缓存
      */
     private static final String CACHE_NAME_CLASS_NAME2FLDMAP = "CLASS_NAME2FLDMAP";
+    /**
+     * 类-属性访问器缓存
+     */
+    private static final String CACHE_NAME_CLASS_ACCESSOR = "CLASS_ACCESSOR";
 
     /**
      * CacheManager 初始化器
@@ -82,7 +87,8 @@ public class BindingCacheManager {
                     CACHE_NAME_CLASS_PROP,
                     CACHE_NAME_ENTITYNAME_CLASS,
                     CACHE_NAME_CLASS_FIELDS,
-                    CACHE_NAME_CLASS_NAME2FLDMAP)
+                    CACHE_NAME_CLASS_NAME2FLDMAP,
+                    CACHE_NAME_CLASS_ACCESSOR)
     );
 
     private static StaticMemoryCacheManager getCacheManager() {
@@ -208,6 +214,15 @@ public class BindingCacheManager {
         );
     }
 
+    /**
+     * 获取class的属性访问器
+     * @param beanClazz
+     * @return
+     */
+    public static PropAccessor getPropAccessor(Class<?> beanClazz) {
+        return getCacheManager().getCacheObj(CACHE_NAME_CLASS_ACCESSOR, beanClazz.getName(), () -> new PropAccessor(beanClazz));
+    }
+
     /**
      * entity相关信息初始化器, 不返回有意义的值, 仅仅为了线程安全地初始化缓存
      */
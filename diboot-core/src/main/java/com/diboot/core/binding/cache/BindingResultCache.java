@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 关联绑定结果缓存（单个Entity类）
+ * <p>
+ * 以 join列:列值 为key缓存关联查询到的entity列表，按最近访问顺序淘汰超出容量的key，并按过期时间失效
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BindingResultCache {
+    /**
+     * 被关联的entity类
+     */
+    private final Class<?> entityClass;
+    private final int maxSize;
+    private final long expiredMillis;
+    /**
+     * 按访问顺序排列的缓存map
+     */
+    private final LinkedHashMap<String, CacheEntry> cacheMap;
+    /**
+     * 缓存版本，清空时递增，避免清空前发起的查询结果写回缓存
+     */
+    private final AtomicLong version = new AtomicLong();
+    /**
+     * 命中/未命中计数
+     */
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public BindingResultCache(Class<?> entityClass, int maxSize, int expiredMinutes){
+        this.entityClass = entityClass;
+        this.maxSize = maxSize;
+        this.expiredMillis = expiredMinutes * 60000L;
+        this.cacheMap = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > BindingResultCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * 构建缓存key
+     * @param refJoinCol 被关联对象的join列
+     * @param value 列值
+     * @return
+     */
+    public static String buildKey(String refJoinCol, Object value){
+        return refJoinCol + ":" + value;
+    }
+
+    /**
+     * 获取缓存的entity列表，未命中或已过期返回null
+     * @param key
+     * @return
+     */
+    public List<Object> get(String key){
+        CacheEntry entry;
+        synchronized (cacheMap){
+            entry = cacheMap.get(key);
+            if(entry != null && System.currentTimeMillis() - entry.timestamp > expiredMillis){
+                cacheMap.remove(key);
+                entry = null;
+            }
+        }
+        if(entry == null){
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.entityList;
+    }
+
+    /**
+     * 缓存entity列表
+     * @param key
+     * @param entityList
+     * @param fetchVersion 查询前获取的缓存版本，版本已变化则不写入
+     */
+    public void put(String key, List<Object> entityList, long fetchVersion){
+        synchronized (cacheMap){
+            if(fetchVersion != version.get()){
+                return;
+            }
+            cacheMap.put(key, new CacheEntry(entityList));
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear(){
+        synchronized (cacheMap){
+            version.incrementAndGet();
+            cacheMap.clear();
+        }
+        log.debug("关联绑定缓存已清空: {}", entityClass.getSimpleName());
+    }
+
+    /**
+     * 当前缓存版本
+     * @return
+     */
+    public long getVersion(){
+        return version.get();
+    }
+
+    public Class<?> getEntityClass(){
+        return entityClass;
+    }
+
+    public int getSize(){
+        synchronized (cacheMap){
+            return cacheMap.size();
+        }
+    }
+
+    public long getHitCount(){
+        return hitCount.get();
+    }
+
+    public long getMissCount(){
+        return missCount.get();
+    }
+
+    /**
+     * 缓存项
+     */
+    private static class CacheEntry {
+        private final List<Object> entityList;
+        private final long timestamp;
+
+        CacheEntry(List<Object> entityList){
+            this.entityList = entityList;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
+
+}
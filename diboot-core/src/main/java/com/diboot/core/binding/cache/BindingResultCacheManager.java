@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.cache;
+
+import com.diboot.core.binding.annotation.BindingCacheable;
+import com.diboot.core.data.access.DataAccessAnnoCache;
+import com.diboot.core.util.AnnotationUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 关联绑定结果缓存manager
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BindingResultCacheManager {
+    /**
+     * entity类-绑定结果缓存（未启用缓存的类为empty）
+     */
+    private static final Map<Class<?>, Optional<BindingResultCache>> ENTITY_CACHE_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 获取entity类的绑定结果缓存，未标注@BindingCacheable或有数据权限检查点时返回null
+     * （数据权限按当前用户过滤查询结果，跨请求共享会将A用户可见数据返回给B用户）
+     * @param entityClass
+     * @return
+     */
+    public static BindingResultCache getCache(Class<?> entityClass){
+        Optional<BindingResultCache> cache = ENTITY_CACHE_MAP.get(entityClass);
+        if(cache == null){
+            cache = ENTITY_CACHE_MAP.computeIfAbsent(entityClass, clazz -> {
+                BindingCacheable cacheable = AnnotationUtils.findAnnotation(clazz, BindingCacheable.class);
+                if(cacheable == null){
+                    return Optional.empty();
+                }
+                if(DataAccessAnnoCache.hasDataAccessCheckpoint(clazz)){
+                    log.warn("{} 存在数据权限检查点，查询结果因用户而异，忽略@BindingCacheable", clazz.getName());
+                    return Optional.empty();
+                }
+                return Optional.of(new BindingResultCache(clazz, cacheable.maxSize(), cacheable.expiredMinutes()));
+            });
+        }
+        return cache.orElse(null);
+    }
+
+    /**
+     * 清空entity类的绑定结果缓存（事务中调用时，提交/回滚后再清空一次，避免期间读入旧数据）
+     * @param entityClass
+     */
+    public static void evict(Class<?> entityClass){
+        Optional<BindingResultCache> cache = ENTITY_CACHE_MAP.get(entityClass);
+        if(cache == null || !cache.isPresent()){
+            return;
+        }
+        cache.get().clear();
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.get().clear();
+                }
+            });
+        }
+    }
+
+    /**
+     * 获取已启用的绑定结果缓存，用于查看命中率等统计
+     * @return
+     */
+    public static List<BindingResultCache> getCaches(){
+        List<BindingResultCache> caches = new ArrayList<>();
+        for(Optional<BindingResultCache> cache : ENTITY_CACHE_MAP.values()){
+            cache.ifPresent(caches::add);
+        }
+        return caches;
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 关联绑定会话
+ * <p>
+ * 在一次RelationsBinder.bind()（含深度绑定）内共享关联查询结果：同一Entity同一join列的值仅查询一次，
+ * 并行执行的其他binder等待已认领值的查询结果，仅查询未认领的值；并限制单次绑定的并行任务数
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class BindingSession {
+    /**
+     * 当前线程的绑定会话
+     */
+    private static final ThreadLocal<BindingSession> CURRENT_SESSION = new ThreadLocal<>();
+
+    /**
+     * entity类:join列:列值 - 查询结果
+     */
+    private final Map<String, CompletableFuture<List<Object>>> resultFutureMap = new ConcurrentHashMap<>();
+    /**
+     * 单次绑定的并行任务许可，超出时由调用线程执行
+     */
+    private final Semaphore fanOutPermits;
+
+    private BindingSession(int maxFanOut){
+        this.fanOutPermits = new Semaphore(maxFanOut);
+    }
+
+    /**
+     * 获取当前线程的绑定会话
+     * @return
+     */
+    public static BindingSession current(){
+        return CURRENT_SESSION.get();
+    }
+
+    /**
+     * 开启绑定会话，当前线程已有会话时返回null
+     * @param maxFanOut 单次绑定的并行任务上限
+     * @return
+     */
+    public static BindingSession open(int maxFanOut){
+        if(CURRENT_SESSION.get() != null){
+            return null;
+        }
+        BindingSession session = new BindingSession(maxFanOut);
+        CURRENT_SESSION.set(session);
+        return session;
+    }
+
+    /**
+     * 关闭当前线程的绑定会话
+     */
+    public static void close(){
+        CURRENT_SESSION.remove();
+    }
+
+    /**
+     * 认领值的查询，返回null表示认领成功（需由调用方complete），否则返回其他binder的查询结果future
+     * @param entityClass
+     * @param refJoinCol
+     * @param value
+     * @param future 认领成功时登记的future
+     * @return
+     */
+    public CompletableFuture<List<Object>> claim(Class<?> entityClass, String refJoinCol, Object value, CompletableFuture<List<Object>> future){
+        return resultFutureMap.putIfAbsent(buildKey(entityClass, refJoinCol, value), future);
+    }
+
+    /**
+     * 放弃认领（查询异常时），以便其他binder重新查询
+     * @param entityClass
+     * @param refJoinCol
+     * @param value
+     */
+    public void release(Class<?> entityClass, String refJoinCol, Object value){
+        resultFutureMap.remove(buildKey(entityClass, refJoinCol, value));
+    }
+
+    /**
+     * 尝试获取并行任务许可
+     * @return
+     */
+    public boolean tryAcquireFanOut(){
+        return fanOutPermits.tryAcquire();
+    }
+
+    /**
+     * 释放并行任务许可
+     */
+    public void releaseFanOut(){
+        fanOutPermits.release();
+    }
+
+    private static String buildKey(Class<?> entityClass, String refJoinCol, Object value){
+        return entityClass.getName() + ":" + BindingResultCache.buildKey(refJoinCol, value);
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.helper;
+
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.util.V;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * IN查询条件值的分块工具类
+ * <p>
+ * 关联值数量超出分块大小（diboot.core.binding.in-chunk-size，默认1000，兼容Oracle IN列表上限）时拆分为多次查询；
+ * 并将每块的值数量补齐至固定档位（重复末尾值），使相同档位的SQL语句一致，便于数据库复用执行计划
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class InConditionHelper {
+
+    /**
+     * 值数量补齐档位
+     */
+    private static final int[] BUCKET_SIZES = {8, 32, 128, 512};
+
+    /**
+     * 分块大小（0为未初始化，重复初始化结果一致）
+     */
+    private static volatile int chunkSize = 0;
+
+    /**
+     * 获取IN条件值的分块大小
+     * @return
+     */
+    public static int getChunkSize(){
+        int size = chunkSize;
+        if(size == 0){
+            size = Math.max(BaseConfig.getInteger("diboot.core.binding.in-chunk-size", 1000), 1);
+            chunkSize = size;
+        }
+        return size;
+    }
+
+    /**
+     * 按分块大小拆分值列表，每块补齐至档位大小
+     * @param values
+     * @return
+     */
+    public static <E> List<List<E>> partition(Collection<E> values){
+        if(V.isEmpty(values)){
+            return Collections.emptyList();
+        }
+        List<E> valueList = values instanceof List? (List<E>) values : new ArrayList<>(values);
+        int size = getChunkSize();
+        if(valueList.size() <= size){
+            return Collections.singletonList(padToBucket(valueList));
+        }
+        List<List<E>> chunks = new ArrayList<>(valueList.size() / size + 1);
+        for(int i=0; i<valueList.size(); i+=size){
+            chunks.add(padToBucket(valueList.subList(i, Math.min(i + size, valueList.size()))));
+        }
+        return chunks;
+    }
+
+    /**
+     * 将值列表补齐至档位大小（重复末尾值，不影响IN查询结果）
+     * @param values
+     * @return
+     */
+    public static <E> List<E> padToBucket(List<E> values){
+        if(V.isEmpty(values)){
+            return values;
+        }
+        int bucketSize = getChunkSize();
+        for(int bucket : BUCKET_SIZES){
+            if(values.size() <= bucket){
+                bucketSize = Math.min(bucket, bucketSize);
+                break;
+            }
+        }
+        if(values.size() >= bucketSize){
+            return values;
+        }
+        List<E> paddedValues = new ArrayList<>(bucketSize);
+        paddedValues.addAll(values);
+        E lastValue = values.get(values.size() - 1);
+        while(paddedValues.size() < bucketSize){
+            paddedValues.add(lastValue);
+        }
+        return paddedValues;
+    }
+
+}
@@ -20,7 +20,6 @@ import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanWrapper;
 
 import java.util.*;
 
@@ -48,7 +47,6 @@ public class ResultAssembler {
         try{
             for(E object : fromList){
                 List matchKeys = null;
-                BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(object);
                 for(int i=0; i<getterFields.length; i++){
                     Object fieldValueObj = BeanUtils.getProperty(object, getterFields[i]);
                     if(fieldValueObj == null) {
@@ -74,7 +72,7 @@ public class ResultAssembler {
                 String matchKey = S.join(matchKeys);
                 if(valueMatchMap.containsKey(matchKey)){
                     // 赋值
-                    beanWrapper.setPropertyValue(setterFieldName, valueMatchMap.get(matchKey));
+                    BeanUtils.setProperty(object, setterFieldName, valueMatchMap.get(matchKey));
                 }
                 else {
                     if(matchKeys.size() == 1 && V.notEmpty(splitBy) && getterFields.length == 1 && matchKey.contains(splitBy)) {
@@ -100,7 +98,7 @@ public class ResultAssembler {
                         }
                     }
                     // 赋值
-                    beanWrapper.setPropertyValue(setterFieldName, matchedValues);
+                    BeanUtils.setProperty(object, setterFieldName, matchedValues);
                 }
             }
         }
@@ -224,10 +222,9 @@ public class ResultAssembler {
                     }
                 }
                 // 赋值
-                BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(object);
                 for(int i = 0; i< annoObjSetterPropNameList.size(); i++){
                     List valObjList = BeanUtils.collectToList(entityList, refGetterFieldNameList.get(i));
-                    beanWrapper.setPropertyValue(annoObjSetterPropNameList.get(i), valObjList);
+                    BeanUtils.setProperty(object, annoObjSetterPropNameList.get(i), valObjList);
                 }
             }
         }
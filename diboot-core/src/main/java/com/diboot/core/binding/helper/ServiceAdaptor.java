@@ -15,18 +15,28 @@
  */
 package com.diboot.core.binding.helper;
 
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.parser.EntityInfoCache;
+import com.diboot.core.binding.parser.PropInfo;
 import com.diboot.core.config.Cons;
+import com.diboot.core.exception.BusinessException;
+import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.service.BaseService;
+import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.ContextHelper;
 import com.diboot.core.vo.Pagination;
+import com.diboot.core.vo.Status;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiFunction;
 
 /**
  * Service适配器
@@ -87,6 +97,9 @@ public class ServiceAdaptor {
             if(queryWrapper.getEntityClass() == null) {
                 queryWrapper.setEntityClass(entityClass);
             }
+            if(pagination != null && pagination.isKeysetMode()){
+                return queryKeysetPage(queryWrapper, pagination, entityClass, iService::page);
+            }
             if(pagination != null){
                 IPage<E> page = convertToIPage(pagination, entityClass);
                 page = iService.page(page, queryWrapper);
@@ -129,4 +142,124 @@ public class ServiceAdaptor {
         return pagination.setEntityClass(entityClass).toPage();
     }
 
+    /**
+     * 游标分页查询：追加游标定位条件查询下一页，并生成下一页游标
+     * @param queryWrapper 查询条件
+     * @param pagination 游标分页
+     * @param entityClass
+     * @param pageQuery 分页查询实现
+     * @param <E>
+     * @return
+     */
+    public static <E> List<E> queryKeysetPage(Wrapper queryWrapper, Pagination pagination, Class<?> entityClass, BiFunction<Page<E>, Wrapper, IPage<E>> pageQuery) {
+        if(queryWrapper == null){
+            queryWrapper = new QueryWrapper<E>();
+        }
+        else if(!(queryWrapper instanceof QueryWrapper)){
+            throw new InvalidUsageException("游标分页仅支持QueryWrapper查询条件: " + queryWrapper.getClass().getSimpleName());
+        }
+        Page<E> page = convertToIPage(pagination, entityClass);
+        List<OrderItem> orderItems = page.orders();
+        List<Object> cursorValues = pagination.decodeCursor();
+        if(cursorValues != null){
+            if(cursorValues.size() != orderItems.size()){
+                throw new BusinessException(Status.FAIL_INVALID_PARAM, "分页游标与排序不匹配");
+            }
+            appendKeysetCondition((QueryWrapper<?>)queryWrapper, orderItems, cursorValues);
+        }
+        List<E> records = pageQuery.apply(page, queryWrapper).getRecords();
+        pagination.setNextCursor(null);
+        // 多查出的一条记录表示存在下一页
+        if(records.size() > pagination.getPageSize()){
+            records = new ArrayList<>(records.subList(0, pagination.getPageSize()));
+            PropInfo propInfo = BindingCacheManager.getPropInfoByClass(entityClass);
+            E last = records.get(records.size() - 1);
+            List<Object> nextValues = new ArrayList<>(orderItems.size());
+            for(OrderItem orderItem : orderItems){
+                String fieldName = propInfo.getColumnToFieldMap().get(orderItem.getColumn());
+                if(fieldName == null){
+                    throw new InvalidUsageException("游标分页的排序列需为当前实体字段: " + orderItem.getColumn());
+                }
+                nextValues.add(BeanUtils.getProperty(last, fieldName));
+            }
+            pagination.encodeNextCursor(nextValues);
+        }
+        return records;
+    }
+
+    /**
+     * 追加游标定位条件: (c1 > v1) OR (c1 = v1 AND c2 > v2) OR ...，降序列使用 <
+     * <p>
+     * null值按数据库默认的排序位置处理：MySQL/MariaDB/SQLServer/SQLite/H2中null最小（升序在前），其他数据库中null最大（升序在后）
+     * </p>
+     * @param queryWrapper
+     * @param orderItems 排序列（含主键）
+     * @param cursorValues 上一页最后一条记录的排序列值
+     */
+    private static void appendKeysetCondition(QueryWrapper<?> queryWrapper, List<OrderItem> orderItems, List<Object> cursorValues) {
+        boolean nullsSmallest = isNullsSmallest();
+        // 各分支：前index列相等，第index列位于游标值之后；游标值之后不可能有记录的分支跳过
+        List<Integer> branchIndexes = new ArrayList<>(orderItems.size());
+        for(int i = 0; i < orderItems.size(); i++){
+            // 升序且null最小，或降序且null最大时，null值之后为全部非null值；反之null值之后无记录
+            if(cursorValues.get(i) != null || orderItems.get(i).isAsc() == nullsSmallest){
+                branchIndexes.add(i);
+            }
+        }
+        if(branchIndexes.isEmpty()){
+            queryWrapper.apply("1 = 0");
+            return;
+        }
+        queryWrapper.and(keysetWrapper -> {
+            for(int index : branchIndexes){
+                keysetWrapper.or(branch -> {
+                    for(int j = 0; j < index; j++){
+                        String column = orderItems.get(j).getColumn();
+                        if(cursorValues.get(j) == null){
+                            branch.isNull(column);
+                        }
+                        else{
+                            branch.eq(column, cursorValues.get(j));
+                        }
+                    }
+                    OrderItem orderItem = orderItems.get(index);
+                    String column = orderItem.getColumn();
+                    Object value = cursorValues.get(index);
+                    if(value == null){
+                        branch.isNotNull(column);
+                    }
+                    // 升序且null最大，或降序且null最小时，非null值之后包含null值
+                    else if(orderItem.isAsc() != nullsSmallest){
+                        branch.and(w -> {
+                            if(orderItem.isAsc()){
+                                w.gt(column, value);
+                            }
+                            else{
+                                w.lt(column, value);
+                            }
+                            w.or().isNull(column);
+                        });
+                    }
+                    else if(orderItem.isAsc()){
+                        branch.gt(column, value);
+                    }
+                    else{
+                        branch.lt(column, value);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 当前数据库排序时null是否视为最小值
+     * @return
+     */
+    private static boolean isNullsSmallest() {
+        String dbType = ContextHelper.getDatabaseType();
+        return dbType == null || DbType.MYSQL.getDb().equalsIgnoreCase(dbType) || DbType.MARIADB.getDb().equalsIgnoreCase(dbType)
+                || DbType.SQL_SERVER.getDb().equalsIgnoreCase(dbType) || DbType.SQLITE.getDb().equalsIgnoreCase(dbType)
+                || DbType.H2.getDb().equalsIgnoreCase(dbType);
+    }
+
 }
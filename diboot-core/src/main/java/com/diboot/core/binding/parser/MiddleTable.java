@@ -19,6 +19,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.diboot.core.binding.binder.BaseBinder;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.helper.InConditionHelper;
 import com.diboot.core.binding.helper.ResultAssembler;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
@@ -128,26 +129,9 @@ public class MiddleTable {
             return Collections.emptyMap();
         }
         //id //org_id
-        EntityInfoCache linkage = BindingCacheManager.getEntityInfoByTable(table);
-        // 有定义mapper，首选mapper
-        if(linkage != null){
-            List<Map<String, Object>> resultSetMapList = queryByMapper(linkage, trunkObjCol2ValuesMap);
-            return ResultAssembler.convertToOneToOneResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
-        }
-        else{
-            // 提取中间表查询SQL: SELECT id, org_id FROM department WHERE id IN(?)
-            List paramValueList = new ArrayList();
-            String sql = toSQL(trunkObjCol2ValuesMap, paramValueList);
-            // 执行查询并合并结果
-            try {
-                List<Map<String, Object>> resultSetMapList = SqlExecutor.executeQuery(sql, paramValueList);
-                return ResultAssembler.convertToOneToOneResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
-            }
-            catch (Exception e) {
-                log.error("中间表查询异常: " + sql, e);
-                return Collections.emptyMap();
-            }
-        }
+        // 执行中间表查询: SELECT id, org_id FROM department WHERE id IN(?)
+        List<Map<String, Object>> resultSetMapList = executeQuery(trunkObjCol2ValuesMap);
+        return ResultAssembler.convertToOneToOneResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
     }
 
     /**
@@ -160,26 +144,70 @@ public class MiddleTable {
             throw new InvalidUsageException("不合理的中间表查询：无过滤条件！");
         }
         //user_id //role_id
+        // 执行中间表查询: SELECT user_id, role_id FROM user_role WHERE user_id IN(?)
+        List<Map<String, Object>> resultSetMapList = executeQuery(trunkObjCol2ValuesMap);
+        return ResultAssembler.convertToOneToManyResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
+    }
+
+    /**
+     * 执行中间表查询，关联值数量超出分块大小时分块查询后合并结果
+     * @param trunkObjCol2ValuesMap
+     * @return
+     */
+    private List<Map<String, Object>> executeQuery(Map<String, List> trunkObjCol2ValuesMap){
         EntityInfoCache linkage = BindingCacheManager.getEntityInfoByTable(table);
-        // 有定义mapper，首选mapper
-        if(linkage != null){
-            List<Map<String, Object>> resultSetMapList = queryByMapper(linkage, trunkObjCol2ValuesMap);
-            return ResultAssembler.convertToOneToManyResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
+        List<Map<String, Object>> resultSetMapList = new ArrayList<>();
+        for(Map<String, List> chunkCol2ValuesMap : partition(trunkObjCol2ValuesMap)){
+            // 有定义mapper，首选mapper
+            if(linkage != null){
+                resultSetMapList.addAll(queryByMapper(linkage, chunkCol2ValuesMap));
+            }
+            else{
+                List paramValueList = new ArrayList();
+                String sql = toSQL(chunkCol2ValuesMap, paramValueList);
+                // 执行查询并合并结果
+                try {
+                    List<Map<String, Object>> chunkResultList = SqlExecutor.executeQuery(sql, paramValueList);
+                    if(chunkResultList != null){
+                        resultSetMapList.addAll(chunkResultList);
+                    }
+                }
+                catch (Exception e) {
+                    log.error("中间表查询异常: " + sql, e);
+                    return Collections.emptyList();
+                }
+            }
         }
-        else{
-            // 提取中间表查询SQL: SELECT user_id, role_id FROM user_role WHERE user_id IN(?)
-            List paramValueList = new ArrayList();
-            String sql = toSQL(trunkObjCol2ValuesMap, paramValueList);
-            // 执行查询并合并结果
-            try {
-                List<Map<String, Object>> resultSetMapList = SqlExecutor.executeQuery(sql, paramValueList);
-                return ResultAssembler.convertToOneToManyResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
+        return resultSetMapList;
+    }
+
+    /**
+     * 按分块大小拆分各列的值（各列值去重后分块，返回各列分块的组合）
+     * @param trunkObjCol2ValuesMap
+     * @return
+     */
+    private List<Map<String, List>> partition(Map<String, List> trunkObjCol2ValuesMap){
+        List<Map<String, List>> chunkMapList = Collections.singletonList(trunkObjCol2ValuesMap);
+        for(Map.Entry<String, List> entry : trunkObjCol2ValuesMap.entrySet()){
+            if(entry.getKey() == null || entry.getValue() == null || entry.getValue().size() <= InConditionHelper.getChunkSize()){
+                continue;
+            }
+            List<Object> distinctValues = (List<Object>)entry.getValue().stream().distinct().collect(Collectors.toList());
+            if(distinctValues.size() <= InConditionHelper.getChunkSize()){
+                continue;
             }
-            catch (Exception e) {
-                log.error("中间表查询异常: " + sql, e);
-                return Collections.emptyMap();
+            List<List<Object>> chunks = InConditionHelper.partition(distinctValues);
+            List<Map<String, List>> combinedMapList = new ArrayList<>(chunkMapList.size() * chunks.size());
+            for(Map<String, List> col2ValuesMap : chunkMapList){
+                for(List<Object> chunk : chunks){
+                    Map<String, List> chunkCol2ValuesMap = new LinkedHashMap<>(col2ValuesMap);
+                    chunkCol2ValuesMap.put(entry.getKey(), chunk);
+                    combinedMapList.add(chunkCol2ValuesMap);
+                }
             }
+            chunkMapList = combinedMapList;
         }
+        return chunkMapList;
     }
 
     /**
@@ -196,7 +224,8 @@ public class MiddleTable {
         for(Map.Entry<String, List> entry : trunkObjCol2ValuesMap.entrySet()){
             String column = entry.getKey();
             if(column != null && V.notEmpty(entry.getValue())){
-                queryWrapper.in(column, entry.getValue());
+                List values = (List)entry.getValue().stream().distinct().collect(Collectors.toList());
+                queryWrapper.in(column, InConditionHelper.padToBucket(values));
             }
         }
         if(additionalConditions != null){
@@ -227,7 +256,7 @@ public class MiddleTable {
             for(Map.Entry<String, List> entry : trunkObjCol2ValuesMap.entrySet()){
                 String column = entry.getKey();
                 if(column != null && V.notEmpty(entry.getValue())){
-                    List values = (List)entry.getValue().stream().distinct().collect(Collectors.toList());
+                    List values = InConditionHelper.padToBucket((List)entry.getValue().stream().distinct().collect(Collectors.toList()));
                     String params = S.repeat("?", ",", values.size());
                     WHERE(column + " IN (" + params + ")");
                     paramValueList.addAll(values);
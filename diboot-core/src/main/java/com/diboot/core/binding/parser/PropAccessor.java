@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.binding.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bean属性访问器
+ * <p>
+ * 基于LambdaMetafactory/MethodHandle生成getter/setter调用，替代反射及BeanWrapper的逐次创建；
+ * 不可直接访问的属性（嵌套属性、需类型转换的赋值等）由调用方回退至BeanWrapper处理
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+@SuppressWarnings({"unchecked", "JavaDoc"})
+public class PropAccessor {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /**
+     * 无可用访问方法的占位
+     */
+    private static final Function<Object, Object> NONE_GETTER = bean -> null;
+    private static final BiConsumer<Object, Object> NONE_SETTER = (bean, value) -> {};
+
+    /**
+     * bean类
+     */
+    private final Class<?> beanClass;
+    /**
+     * 属性名-属性描述
+     */
+    private final Map<String, PropertyDescriptor> propDescriptorMap;
+    /**
+     * 属性名-setter参数类型
+     */
+    private final Map<String, Class<?>> propTypeMap;
+    /**
+     * 属性名-集合元素类型（非集合属性或泛型为Object时无值）
+     */
+    private final Map<String, Class<?>> propElementTypeMap;
+    /**
+     * 已生成的getter/setter
+     */
+    private final Map<String, Function<Object, Object>> getterMap = new ConcurrentHashMap<>();
+    private final Map<String, BiConsumer<Object, Object>> setterMap = new ConcurrentHashMap<>();
+    /**
+     * 无参构造实例化方法
+     */
+    private volatile Supplier<Object> instantiator;
+
+    public PropAccessor(Class<?> beanClass) {
+        this.beanClass = beanClass;
+        PropertyDescriptor[] propertyDescriptors = org.springframework.beans.BeanUtils.getPropertyDescriptors(beanClass);
+        this.propDescriptorMap = new HashMap<>(propertyDescriptors.length);
+        this.propTypeMap = new HashMap<>(propertyDescriptors.length);
+        this.propElementTypeMap = new HashMap<>();
+        for(PropertyDescriptor pd : propertyDescriptors){
+            propDescriptorMap.put(pd.getName(), pd);
+            Method writeMethod = pd.getWriteMethod();
+            if(writeMethod != null){
+                Class<?> paramType = writeMethod.getParameterTypes()[0];
+                propTypeMap.put(pd.getName(), paramType);
+                if(Collection.class.isAssignableFrom(paramType)){
+                    Class<?> elementType = ResolvableType.forMethodParameter(writeMethod, 0, beanClass).asCollection().resolveGeneric(0);
+                    if(elementType != null && !Object.class.equals(elementType)){
+                        propElementTypeMap.put(pd.getName(), ClassUtils.resolvePrimitiveIfNecessary(elementType));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 是否为该bean类的访问器
+     * @param clazz
+     * @return
+     */
+    public boolean isAccessorOf(Class<?> clazz){
+        return beanClass == clazz;
+    }
+
+    /**
+     * 获取属性的getter，无可读方法（或为嵌套属性）时返回null
+     * @param propName
+     * @return
+     */
+    public Function<Object, Object> getGetter(String propName){
+        Function<Object, Object> getter = getterMap.get(propName);
+        if(getter == null){
+            getter = getterMap.computeIfAbsent(propName, this::buildGetter);
+        }
+        return getter == NONE_GETTER? null : getter;
+    }
+
+    /**
+     * 获取属性的setter，无可写方法（或为嵌套属性）时返回null
+     * @param propName
+     * @return
+     */
+    public BiConsumer<Object, Object> getSetter(String propName){
+        BiConsumer<Object, Object> setter = setterMap.get(propName);
+        if(setter == null){
+            setter = setterMap.computeIfAbsent(propName, this::buildSetter);
+        }
+        return setter == NONE_SETTER? null : setter;
+    }
+
+    /**
+     * 通过public无参构造方法创建实例
+     * @return
+     * @throws Exception
+     */
+    public Object newInstance() throws Exception {
+        if(instantiator == null){
+            instantiator = buildInstantiator();
+        }
+        return instantiator.get();
+    }
+
+    /**
+     * 值是否可不经类型转换直接赋给属性
+     * @param propName
+     * @param value
+     * @return
+     */
+    public boolean isAssignable(String propName, Object value){
+        Class<?> propType = propTypeMap.get(propName);
+        if(propType == null){
+            return false;
+        }
+        if(value == null){
+            return !propType.isPrimitive();
+        }
+        if(!ClassUtils.isAssignableValue(propType, value)){
+            return false;
+        }
+        // 集合元素类型不一致时需由BeanWrapper转换元素
+        Class<?> elementType = propElementTypeMap.get(propName);
+        if(elementType != null && value instanceof Collection){
+            for(Object element : (Collection<?>)value){
+                if(element != null && !elementType.isInstance(element)){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 构建getter
+     * @param propName
+     * @return
+     */
+    private Function<Object, Object> buildGetter(String propName){
+        PropertyDescriptor pd = propDescriptorMap.get(propName);
+        Method readMethod = pd != null? pd.getReadMethod() : null;
+        if(readMethod == null || Modifier.isStatic(readMethod.getModifiers())){
+            return NONE_GETTER;
+        }
+        try{
+            MethodHandle handle = unreflect(readMethod);
+            if(isLambdaAccessible(readMethod)){
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(readMethod.getReturnType()), readMethod.getDeclaringClass())
+                );
+                return (Function<Object, Object>) callSite.getTarget().invokeExact();
+            }
+            MethodHandle genericHandle = handle.asType(MethodType.methodType(Object.class, Object.class));
+            return bean -> {
+                try{
+                    return genericHandle.invokeExact(bean);
+                }
+                catch (RuntimeException | Error e){
+                    throw e;
+                }
+                catch (Throwable e){
+                    throw new UndeclaredThrowableException(e);
+                }
+            };
+        }
+        catch (Throwable e){
+            log.debug("无法生成 {}.{} 的getter，将使用BeanWrapper: {}", beanClass.getSimpleName(), propName, e.getMessage());
+            return NONE_GETTER;
+        }
+    }
+
+    /**
+     * 构建setter
+     * @param propName
+     * @return
+     */
+    private BiConsumer<Object, Object> buildSetter(String propName){
+        PropertyDescriptor pd = propDescriptorMap.get(propName);
+        Method writeMethod = pd != null? pd.getWriteMethod() : null;
+        if(writeMethod == null || Modifier.isStatic(writeMethod.getModifiers())){
+            return NONE_SETTER;
+        }
+        try{
+            MethodHandle handle = unreflect(writeMethod);
+            if(isLambdaAccessible(writeMethod)){
+                // 链式setter的返回值在void的接口方法中被忽略
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, writeMethod.getDeclaringClass(), ClassUtils.resolvePrimitiveIfNecessary(writeMethod.getParameterTypes()[0]))
+                );
+                return (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+            }
+            MethodHandle genericHandle = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> {
+                try{
+                    genericHandle.invokeExact(bean, value);
+                }
+                catch (RuntimeException | Error e){
+                    throw e;
+                }
+                catch (Throwable e){
+                    throw new UndeclaredThrowableException(e);
+                }
+            };
+        }
+        catch (Throwable e){
+            log.debug("无法生成 {}.{} 的setter，将使用BeanWrapper: {}", beanClass.getSimpleName(), propName, e.getMessage());
+            return NONE_SETTER;
+        }
+    }
+
+    /**
+     * 构建实例化方法
+     * @return
+     * @throws Exception
+     */
+    private Supplier<Object> buildInstantiator() throws Exception {
+        Constructor<?> constructor = beanClass.getConstructor();
+        if(Modifier.isPublic(beanClass.getModifiers()) && ClassUtils.isVisible(beanClass, PropAccessor.class.getClassLoader())){
+            try{
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        LOOKUP.unreflectConstructor(constructor),
+                        MethodType.methodType(beanClass)
+                );
+                return (Supplier<Object>) callSite.getTarget().invokeExact();
+            }
+            catch (Throwable e){
+                log.debug("无法生成 {} 的实例化方法，将使用反射: {}", beanClass.getSimpleName(), e.getMessage());
+            }
+        }
+        return () -> {
+            try{
+                return constructor.newInstance();
+            }
+            catch (Exception e){
+                throw new UndeclaredThrowableException(e);
+            }
+        };
+    }
+
+    /**
+     * 转换方法为MethodHandle
+     * @param method
+     * @return
+     * @throws IllegalAccessException
+     */
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        if(!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())){
+            method.setAccessible(true);
+        }
+        return LOOKUP.unreflect(method);
+    }
+
+    /**
+     * 是否可生成Lambda：方法及声明类需为public，且声明类对当前ClassLoader可见（如devtools重启类加载器中的类则不可）
+     * @param method
+     * @return
+     */
+    private static boolean isLambdaAccessible(Method method){
+        Class<?> declaringClass = method.getDeclaringClass();
+        return Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(declaringClass.getModifiers())
+                && ClassUtils.isVisible(declaringClass, PropAccessor.class.getClassLoader());
+    }
+
+}
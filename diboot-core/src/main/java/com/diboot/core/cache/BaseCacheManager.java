@@ -15,6 +15,8 @@
  */
 package com.diboot.core.cache;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 /**
@@ -24,7 +26,7 @@ import java.util.concurrent.Callable;
  * @date 2021/4/17
  * Copyright © diboot.com
  */
-public interface BaseCacheManager {
+public interface BaseCacheManager extends CacheStatsProvider {
 
     /**
      * 获取缓存对象
@@ -79,4 +81,13 @@ public interface BaseCacheManager {
      */
     void clearOutOfDateData(String cacheName);
 
+    /**
+     * 获取各缓存的统计数据
+     * @return
+     */
+    @Override
+    default List<CacheStats> getCacheStats() {
+        return Collections.emptyList();
+    }
+
 }
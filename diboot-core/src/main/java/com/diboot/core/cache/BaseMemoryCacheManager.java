@@ -20,7 +20,12 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.support.SimpleCacheManager;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 缓存manager父类
@@ -32,6 +37,11 @@ import java.util.concurrent.Callable;
 @Slf4j
 public abstract class BaseMemoryCacheManager extends SimpleCacheManager implements BaseCacheManager{
 
+    /**
+     * cacheName-统计计数器
+     */
+    private final Map<String, CacheStatsCounter> cacheStatsCounterMap = new ConcurrentHashMap<>();
+
     /**
      * 获取缓存对象
      * @param objKey
@@ -41,7 +51,10 @@ public abstract class BaseMemoryCacheManager extends SimpleCacheManager implemen
     @Override
     public <T> T getCacheObj(String cacheName, Object objKey, Class<T> tClass){
         Cache cache = getCache(cacheName);
-        T value = cache != null? cache.get(objKey, tClass) : null;
+        if(cache == null){
+            return null;
+        }
+        T value = getStatsCounter(cacheName).recordGet(cache.get(objKey, tClass));
         if(log.isTraceEnabled()){
             log.trace("从缓存读取: {}.{} = {}", cacheName, objKey, value);
         }
@@ -60,7 +73,15 @@ public abstract class BaseMemoryCacheManager extends SimpleCacheManager implemen
     @Override
     public <T> T getCacheObj(String cacheName, Object objKey, Callable<T> initSupplier) {
         Cache cache = getCache(cacheName);
-        T value = cache != null ? cache.get(objKey, initSupplier) : null;
+        if(cache == null){
+            return null;
+        }
+        CacheStatsCounter statsCounter = getStatsCounter(cacheName);
+        AtomicBoolean loaded = new AtomicBoolean(false);
+        T value = cache.get(objKey, statsCounter.recordingLoader(initSupplier, loaded));
+        if(!loaded.get()){
+            statsCounter.recordHit();
+        }
         if (log.isTraceEnabled()) {
             log.trace("从缓存读取: {}.{} = {}", cacheName, objKey, value);
         }
@@ -88,8 +109,7 @@ public abstract class BaseMemoryCacheManager extends SimpleCacheManager implemen
         Cache cache = getCache(cacheName);
         cache.put(objKey, obj);
         if(log.isDebugEnabled()){
-            ConcurrentMapCache mapCache = (ConcurrentMapCache)cache;
-            log.debug("缓存: {} 新增-> {} , 当前size={}", cacheName, objKey, mapCache.getNativeCache().size());
+            log.debug("缓存: {} 新增-> {} , 当前size={}", cacheName, objKey, getCacheSize(cache));
         }
     }
 
@@ -103,8 +123,7 @@ public abstract class BaseMemoryCacheManager extends SimpleCacheManager implemen
         Cache cache = getCache(cacheName);
         cache.evict(objKey);
         if(log.isDebugEnabled()){
-            ConcurrentMapCache mapCache = (ConcurrentMapCache)cache;
-            log.debug("缓存删除: {}.{} , 当前size={}", cacheName, objKey, mapCache.getNativeCache().size());
+            log.debug("缓存删除: {}.{} , 当前size={}", cacheName, objKey, getCacheSize(cache));
         }
     }
 
@@ -115,8 +134,43 @@ public abstract class BaseMemoryCacheManager extends SimpleCacheManager implemen
      */
     @Override
     public boolean isUninitializedCache(String cacheName){
-        ConcurrentMapCache cache = (ConcurrentMapCache)getCache(cacheName);
-        return cache.getNativeCache().isEmpty();
+        return getCacheSize(getCache(cacheName)) == 0;
+    }
+
+    @Override
+    public List<CacheStats> getCacheStats(){
+        List<CacheStats> cacheStatsList = new ArrayList<>();
+        for(String cacheName : getCacheNames()){
+            Cache cache = getCache(cacheName);
+            long evictionCount = 0;
+            if(cache instanceof BoundedMemoryCache){
+                BoundedMemoryCache boundedCache = (BoundedMemoryCache)cache;
+                evictionCount = boundedCache.getEvictionCount() + boundedCache.getExpirationCount();
+            }
+            cacheStatsList.add(getStatsCounter(cacheName).snapshot(cacheName, getClass().getSimpleName(), getCacheSize(cache), evictionCount));
+        }
+        return cacheStatsList;
+    }
+
+    /**
+     * 获取缓存的统计计数器
+     * @param cacheName
+     * @return
+     */
+    protected CacheStatsCounter getStatsCounter(String cacheName){
+        return cacheStatsCounterMap.computeIfAbsent(cacheName, k -> new CacheStatsCounter());
+    }
+
+    /**
+     * 获取缓存的条目数
+     * @param cache
+     * @return
+     */
+    protected int getCacheSize(Cache cache){
+        if(cache instanceof BoundedMemoryCache){
+            return ((BoundedMemoryCache)cache).size();
+        }
+        return ((ConcurrentMapCache)cache).getNativeCache().size();
     }
 
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.function.ToIntBiFunction;
+
+/**
+ * 有界内存缓存的设置
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class BoundedCacheSettings {
+
+    /**
+     * 淘汰策略
+     */
+    public enum EvictionPolicy {
+        /**
+         * 最近最少使用
+         */
+        LRU,
+        /**
+         * W-TinyLFU：新数据先进入小的LRU窗口，移出窗口时按访问频率与主区的淘汰候选比较决定去留，避免偶发访问冲刷热点数据
+         */
+        TINY_LFU
+    }
+
+    /**
+     * 写入后的过期秒数，0为不过期
+     */
+    private long expireSeconds = 0;
+    /**
+     * 最大条目数，0为不限制
+     */
+    private long maxEntries = 0;
+    /**
+     * 最大估算字节数，0为不限制
+     */
+    private long maxWeight = 0;
+    /**
+     * 权重（字节数）估算，限制maxWeight时使用，默认为 {@link BoundedMemoryCache#estimateBytes(Object)}
+     */
+    private ToIntBiFunction<Object, Object> weigher;
+    /**
+     * 淘汰策略
+     */
+    private EvictionPolicy evictionPolicy = EvictionPolicy.TINY_LFU;
+    /**
+     * 移除监听器
+     */
+    private CacheRemovalListener removalListener;
+
+    /**
+     * 设置过期分钟数
+     * @param expiredMinutes
+     * @return
+     */
+    public BoundedCacheSettings setExpiredMinutes(int expiredMinutes) {
+        this.expireSeconds = expiredMinutes * 60L;
+        return this;
+    }
+
+    /**
+     * 是否限定了容量
+     * @return
+     */
+    public boolean isBounded() {
+        return maxEntries > 0 || maxWeight > 0;
+    }
+
+}
@@ -0,0 +1,686 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * 有界内存缓存
+ * <p>
+ * 按最大条目数和/或估算字节数淘汰（LRU或W-TinyLFU），写入后过期的数据由时间轮按到期时间分桶清理，无需全量扫描；
+ * 读取时调整访问顺序（锁被占用时跳过）并移除读到的已过期数据，淘汰及时间轮清理在写入时进行，移除监听器在锁外回调
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BoundedMemoryCache extends AbstractValueAdaptingCache {
+    /**
+     * 时间轮刻度毫秒数及桶数
+     */
+    private static final long TICK_MILLIS = 1000L;
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    /**
+     * W-TinyLFU窗口占总容量的百分比
+     */
+    private static final int WINDOW_PERCENT = 1;
+
+    private final String name;
+    private final ConcurrentHashMap<Object, Node> dataMap = new ConcurrentHashMap<>();
+    /**
+     * 访问顺序、时间轮及频率统计的锁
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final long expireMillis;
+    private final long maxEntries;
+    private final long maxWeight;
+    private final ToIntBiFunction<Object, Object> weigher;
+    private final CacheRemovalListener removalListener;
+    /**
+     * 淘汰的容量维度：限制字节数时为权重，否则为条目数
+     */
+    private final long maxCost;
+    private final long windowMaxCost;
+    private final long mainMaxCost;
+    private final AccessOrderQueue windowQueue;
+    private final AccessOrderQueue mainQueue;
+    private final FrequencySketch sketch;
+    /**
+     * 时间轮：每个桶为按到期刻度散列的双向环形链表
+     */
+    private final Node[] wheel;
+    private long lastTick;
+
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
+    public BoundedMemoryCache(String name, BoundedCacheSettings settings) {
+        super(true);
+        this.name = name;
+        this.expireMillis = settings.getExpireSeconds() * 1000L;
+        this.maxEntries = settings.getMaxEntries();
+        this.maxWeight = settings.getMaxWeight();
+        this.weigher = settings.getWeigher() != null? settings.getWeigher() : (key, value) -> estimateBytes(key) + estimateBytes(value);
+        this.removalListener = settings.getRemovalListener();
+        this.maxCost = maxWeight > 0? maxWeight : maxEntries;
+        if(settings.isBounded()){
+            this.mainQueue = new AccessOrderQueue();
+            if(settings.getEvictionPolicy() == BoundedCacheSettings.EvictionPolicy.TINY_LFU){
+                this.windowQueue = new AccessOrderQueue();
+                this.windowMaxCost = Math.max(1, maxCost * WINDOW_PERCENT / 100);
+                this.sketch = new FrequencySketch(maxEntries > 0? maxEntries : maxWeight / 64);
+            }
+            else{
+                this.windowQueue = null;
+                this.windowMaxCost = 0;
+                this.sketch = null;
+            }
+            this.mainMaxCost = maxCost - windowMaxCost;
+        }
+        else{
+            this.mainQueue = null;
+            this.windowQueue = null;
+            this.windowMaxCost = 0;
+            this.mainMaxCost = 0;
+            this.sketch = null;
+        }
+        if(expireMillis > 0){
+            this.wheel = new Node[WHEEL_SIZE];
+            for(int i = 0; i < WHEEL_SIZE; i++){
+                wheel[i] = Node.sentinel();
+            }
+            this.lastTick = System.currentTimeMillis() / TICK_MILLIS - 1;
+        }
+        else{
+            this.wheel = null;
+        }
+    }
+
+    /**
+     * 写入后指定分钟数过期，不限容量
+     * @param name
+     * @param expiredMinutes
+     */
+    public BoundedMemoryCache(String name, int expiredMinutes) {
+        this(name, new BoundedCacheSettings().setExpiredMinutes(expiredMinutes));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Node node = dataMap.get(key);
+        if(node == null){
+            return null;
+        }
+        if(node.isExpired(System.currentTimeMillis())){
+            // 读取到已过期的数据时直接移除，不必等到下次写入时清理
+            if(dataMap.remove(key, node)){
+                expirationCount.increment();
+                afterRemove(node, CacheRemovalListener.RemovalCause.EXPIRED);
+            }
+            return null;
+        }
+        afterRead(node);
+        return node.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if(storeValue != null){
+            return (T) fromStoreValue(storeValue);
+        }
+        long currentTime = System.currentTimeMillis();
+        Node[] loaded = new Node[2];
+        Node node = dataMap.compute(key, (k, existing) -> {
+            if(existing != null && !existing.isExpired(currentTime)){
+                return existing;
+            }
+            Object value;
+            try{
+                value = valueLoader.call();
+            }
+            catch (Exception e){
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+            loaded[0] = newNode(k, toStoreValue(value));
+            loaded[1] = existing;
+            return loaded[0];
+        });
+        if(loaded[0] != null){
+            afterWrite(loaded[0], loaded[1], CacheRemovalListener.RemovalCause.EXPIRED);
+        }
+        return (T) fromStoreValue(node.value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Node node = newNode(key, toStoreValue(value));
+        Node oldNode = dataMap.put(key, node);
+        afterWrite(node, oldNode, removalCauseOf(oldNode));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Node node = newNode(key, toStoreValue(value));
+        while(true){
+            Node existing = dataMap.putIfAbsent(key, node);
+            if(existing == null){
+                afterWrite(node, null, null);
+                return null;
+            }
+            if(!existing.isExpired(System.currentTimeMillis())){
+                afterRead(existing);
+                return toValueWrapper(existing.value);
+            }
+            if(dataMap.replace(key, existing, node)){
+                afterWrite(node, existing, CacheRemovalListener.RemovalCause.EXPIRED);
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        Node node = dataMap.remove(key);
+        if(node != null){
+            afterRemove(node, node.isExpired(System.currentTimeMillis())?
+                    CacheRemovalListener.RemovalCause.EXPIRED : CacheRemovalListener.RemovalCause.EXPLICIT);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for(Map.Entry<Object, Node> entry : dataMap.entrySet()){
+            if(dataMap.remove(entry.getKey(), entry.getValue())){
+                afterRemove(entry.getValue(), CacheRemovalListener.RemovalCause.EXPLICIT);
+            }
+        }
+    }
+
+    /**
+     * 当前条目数（含已过期尚未清理的）
+     * @return
+     */
+    public int size() {
+        return dataMap.size();
+    }
+
+    /**
+     * 是否无数据
+     * @return
+     */
+    public boolean isEmpty() {
+        return dataMap.isEmpty();
+    }
+
+    /**
+     * 当前所有key（含已过期尚未清理的）
+     * @return
+     */
+    public Collection<Object> keys() {
+        return Collections.unmodifiableCollection(dataMap.keySet());
+    }
+
+    /**
+     * 数据是否存在且已过期
+     * @param key
+     * @return
+     */
+    public boolean isExpired(Object key) {
+        Node node = dataMap.get(key);
+        return node != null && node.isExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * 清理全部已过期数据
+     * @return 清理数量
+     */
+    public int cleanUp() {
+        if(wheel == null){
+            return 0;
+        }
+        List<Node> removedNodes = new ArrayList<>();
+        long currentTime = System.currentTimeMillis();
+        evictionLock.lock();
+        try{
+            for(int i = 0; i < WHEEL_SIZE; i++){
+                expireBucket(i, currentTime, removedNodes);
+            }
+        }
+        finally {
+            evictionLock.unlock();
+        }
+        notifyRemoval(removedNodes);
+        return removedNodes.size();
+    }
+
+    /**
+     * 当前估算的总权重
+     * @return
+     */
+    public long getWeightedSize() {
+        evictionLock.lock();
+        try{
+            return (mainQueue != null? mainQueue.weight : 0) + (windowQueue != null? windowQueue.weight : 0);
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 超出容量被淘汰的数量
+     * @return
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 过期被清理的数量
+     * @return
+     */
+    public long getExpirationCount() {
+        return expirationCount.sum();
+    }
+
+    /**
+     * 粗略估算对象占用的字节数
+     * @param obj
+     * @return
+     */
+    public static int estimateBytes(Object obj) {
+        if(obj == null){
+            return 0;
+        }
+        if(obj instanceof CharSequence){
+            return 40 + 2 * ((CharSequence) obj).length();
+        }
+        if(obj instanceof Number || obj instanceof Boolean || obj instanceof Character || obj instanceof Enum){
+            return 16;
+        }
+        if(obj instanceof byte[]){
+            return 16 + ((byte[]) obj).length;
+        }
+        if(obj instanceof Collection){
+            return 32 + estimateElements(((Collection<?>) obj).iterator(), ((Collection<?>) obj).size());
+        }
+        if(obj instanceof Map){
+            return 48 + estimateElements(((Map<?, ?>) obj).entrySet().iterator(), ((Map<?, ?>) obj).size());
+        }
+        if(obj instanceof Map.Entry){
+            return 32 + estimateBytes(((Map.Entry<?, ?>) obj).getKey()) + estimateBytes(((Map.Entry<?, ?>) obj).getValue());
+        }
+        return 64;
+    }
+
+    /**
+     * 按前若干个元素的平均值估算集合元素的字节数
+     */
+    private static int estimateElements(Iterator<?> iterator, int size) {
+        if(size == 0){
+            return 0;
+        }
+        int sampled = 0;
+        long sampledBytes = 0;
+        while(iterator.hasNext() && sampled < 16){
+            sampledBytes += estimateBytes(iterator.next()) + 8;
+            sampled++;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, sampledBytes * size / Math.max(sampled, 1));
+    }
+
+    private Node newNode(Object key, Object storeValue) {
+        int weight = maxWeight > 0? Math.max(weigher.applyAsInt(key, storeValue), 1) : 1;
+        long expireAt = expireMillis > 0? System.currentTimeMillis() + expireMillis : Long.MAX_VALUE;
+        return new Node(key, storeValue, weight, expireAt);
+    }
+
+    private CacheRemovalListener.RemovalCause removalCauseOf(Node oldNode) {
+        if(oldNode == null){
+            return null;
+        }
+        return oldNode.isExpired(System.currentTimeMillis())? CacheRemovalListener.RemovalCause.EXPIRED : CacheRemovalListener.RemovalCause.REPLACED;
+    }
+
+    /**
+     * 读取后调整访问顺序，锁被占用时跳过
+     * @param node
+     */
+    private void afterRead(Node node) {
+        if(mainQueue == null || !evictionLock.tryLock()){
+            return;
+        }
+        try{
+            if(sketch != null){
+                sketch.increment(node.key);
+            }
+            if(node.queue != null){
+                node.queue.moveToTail(node);
+            }
+        }
+        finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 写入后：移除被替换的旧数据，加入访问顺序队列及时间轮，淘汰超出容量及已过期的数据
+     * @param node
+     * @param oldNode
+     * @param oldCause
+     */
+    private void afterWrite(Node node, Node oldNode, CacheRemovalListener.RemovalCause oldCause) {
+        List<Node> removedNodes = new ArrayList<>();
+        evictionLock.lock();
+        try{
+            if(oldNode != null){
+                retire(oldNode, oldCause, removedNodes);
+            }
+            if(!node.retired){
+                link(node);
+            }
+            if(sketch != null){
+                sketch.increment(node.key);
+            }
+            evictIfNeeded(removedNodes);
+            expireIfNeeded(System.currentTimeMillis(), removedNodes);
+        }
+        finally {
+            evictionLock.unlock();
+        }
+        notifyRemoval(removedNodes);
+    }
+
+    /**
+     * 删除后移出访问顺序队列及时间轮
+     * @param node
+     * @param cause
+     */
+    private void afterRemove(Node node, CacheRemovalListener.RemovalCause cause) {
+        List<Node> removedNodes = new ArrayList<>(1);
+        evictionLock.lock();
+        try{
+            retire(node, cause, removedNodes);
+        }
+        finally {
+            evictionLock.unlock();
+        }
+        notifyRemoval(removedNodes);
+    }
+
+    /**
+     * 已从dataMap移除的数据：标记移除并解除链接
+     */
+    private void retire(Node node, CacheRemovalListener.RemovalCause cause, List<Node> removedNodes) {
+        if(node.retired){
+            return;
+        }
+        node.retired = true;
+        node.removalCause = cause;
+        unlink(node);
+        removedNodes.add(node);
+    }
+
+    private void link(Node node) {
+        if(node.queue == null){
+            if(windowQueue != null){
+                windowQueue.addTail(node);
+            }
+            else if(mainQueue != null){
+                mainQueue.addTail(node);
+            }
+        }
+        if(wheel != null && node.wheelNext == null && node.expireAt != Long.MAX_VALUE){
+            Node sentinel = wheel[(int) ((node.expireAt / TICK_MILLIS) & WHEEL_MASK)];
+            node.wheelPrev = sentinel.wheelPrev;
+            node.wheelNext = sentinel;
+            sentinel.wheelPrev.wheelNext = node;
+            sentinel.wheelPrev = node;
+        }
+    }
+
+    private void unlink(Node node) {
+        if(node.queue != null){
+            node.queue.remove(node);
+        }
+        if(node.wheelNext != null){
+            node.wheelPrev.wheelNext = node.wheelNext;
+            node.wheelNext.wheelPrev = node.wheelPrev;
+            node.wheelPrev = null;
+            node.wheelNext = null;
+        }
+    }
+
+    /**
+     * 淘汰超出容量的数据
+     * @param removedNodes
+     */
+    private void evictIfNeeded(List<Node> removedNodes) {
+        if(mainQueue == null){
+            return;
+        }
+        if(windowQueue == null){
+            // LRU
+            while(mainQueue.cost(maxWeight > 0) > maxCost && mainQueue.first() != null){
+                evictNode(mainQueue.first(), removedNodes);
+            }
+        }
+        else{
+            // W-TinyLFU：超出窗口的数据作为候选者，与主区最久未访问的数据比较频率
+            while(windowQueue.cost(maxWeight > 0) > windowMaxCost){
+                Node candidate = windowQueue.first();
+                windowQueue.remove(candidate);
+                long candidateCost = maxWeight > 0? candidate.weight : 1;
+                int candidateFrequency = sketch.frequency(candidate.key);
+                while(mainQueue.cost(maxWeight > 0) + candidateCost > mainMaxCost && mainQueue.first() != null
+                        && candidateFrequency > sketch.frequency(mainQueue.first().key)){
+                    evictNode(mainQueue.first(), removedNodes);
+                }
+                if(mainQueue.cost(maxWeight > 0) + candidateCost <= mainMaxCost){
+                    mainQueue.addTail(candidate);
+                }
+                else{
+                    evictNode(candidate, removedNodes);
+                }
+            }
+        }
+        // 同时限制字节数及条目数时，按条目数淘汰
+        if(maxWeight > 0 && maxEntries > 0){
+            while(mainQueue.count + (windowQueue != null? windowQueue.count : 0) > maxEntries){
+                Node victim = mainQueue.first() != null? mainQueue.first() : windowQueue.first();
+                evictNode(victim, removedNodes);
+            }
+        }
+    }
+
+    private void evictNode(Node node, List<Node> removedNodes) {
+        unlink(node);
+        // 已被并发替换/删除的数据由对应操作处理
+        if(dataMap.remove(node.key, node)){
+            evictionCount.increment();
+            retire(node, CacheRemovalListener.RemovalCause.SIZE, removedNodes);
+        }
+    }
+
+    /**
+     * 处理时间轮中已走过的刻度
+     * @param currentTime
+     * @param removedNodes
+     */
+    private void expireIfNeeded(long currentTime, List<Node> removedNodes) {
+        if(wheel == null){
+            return;
+        }
+        // 仅处理已完整走过的刻度，其中的数据均已到期
+        long toTick = currentTime / TICK_MILLIS - 1;
+        long fromTick = Math.max(lastTick + 1, toTick - WHEEL_SIZE + 1);
+        for(long tick = fromTick; tick <= toTick; tick++){
+            expireBucket((int) (tick & WHEEL_MASK), currentTime, removedNodes);
+        }
+        if(toTick > lastTick){
+            lastTick = toTick;
+        }
+    }
+
+    private void expireBucket(int bucket, long currentTime, List<Node> removedNodes) {
+        Node sentinel = wheel[bucket];
+        Node node = sentinel.wheelNext;
+        while(node != sentinel){
+            Node next = node.wheelNext;
+            if(node.isExpired(currentTime)){
+                unlink(node);
+                if(dataMap.remove(node.key, node)){
+                    expirationCount.increment();
+                    retire(node, CacheRemovalListener.RemovalCause.EXPIRED, removedNodes);
+                }
+            }
+            node = next;
+        }
+    }
+
+    private void notifyRemoval(List<Node> removedNodes) {
+        if(removalListener == null || removedNodes.isEmpty()){
+            return;
+        }
+        for(Node node : removedNodes){
+            try{
+                removalListener.onRemoval(node.key, fromStoreValue(node.value), node.removalCause);
+            }
+            catch (Exception e){
+                log.warn("缓存 {} 移除监听器执行异常: {}", name, node.key, e);
+            }
+        }
+    }
+
+    /**
+     * 缓存条目，链接字段由evictionLock保护
+     */
+    private static final class Node {
+        private final Object key;
+        private final Object value;
+        private final int weight;
+        private final long expireAt;
+        private AccessOrderQueue queue;
+        private Node prev;
+        private Node next;
+        private Node wheelPrev;
+        private Node wheelNext;
+        private boolean retired;
+        private CacheRemovalListener.RemovalCause removalCause;
+
+        Node(Object key, Object value, int weight, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+
+        static Node sentinel() {
+            Node sentinel = new Node(null, null, 0, Long.MAX_VALUE);
+            sentinel.wheelPrev = sentinel;
+            sentinel.wheelNext = sentinel;
+            return sentinel;
+        }
+
+        boolean isExpired(long currentTime) {
+            return currentTime >= expireAt;
+        }
+    }
+
+    /**
+     * 访问顺序队列：队首为最久未访问
+     */
+    private static final class AccessOrderQueue {
+        private final Node head = new Node(null, null, 0, Long.MAX_VALUE);
+        private long weight;
+        private long count;
+
+        AccessOrderQueue() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        long cost(boolean byWeight) {
+            return byWeight? weight : count;
+        }
+
+        Node first() {
+            return head.next != head? head.next : null;
+        }
+
+        void addTail(Node node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            node.queue = this;
+            weight += node.weight;
+            count++;
+        }
+
+        void remove(Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            node.queue = null;
+            weight -= node.weight;
+            count--;
+        }
+
+        void moveToTail(Node node) {
+            if(head.prev == node){
+                return;
+            }
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+        }
+    }
+
+}
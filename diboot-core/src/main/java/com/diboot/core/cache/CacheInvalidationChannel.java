@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * 缓存失效通知通道：多节点间广播本地缓存的失效
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public interface CacheInvalidationChannel {
+
+    /**
+     * 发布失效通知
+     * @param message
+     */
+    void publish(CacheInvalidationMessage message);
+
+    /**
+     * 订阅失效通知
+     * @param listener
+     */
+    void subscribe(Consumer<CacheInvalidationMessage> listener);
+
+}
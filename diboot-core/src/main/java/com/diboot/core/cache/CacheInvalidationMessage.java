@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * 缓存失效通知消息
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class CacheInvalidationMessage implements Serializable {
+    private static final long serialVersionUID = -2716593285710283541L;
+
+    /**
+     * 发出通知的缓存管理器实例id
+     */
+    private String sourceId;
+    /**
+     * 缓存名称
+     */
+    private String cacheName;
+    /**
+     * 缓存key，为null时失效该缓存的全部数据
+     */
+    private String key;
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 带加载方法读取缓存时的加载设置
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class CacheLoadSettings {
+
+    /**
+     * 过期前的陈旧期秒数：陈旧期内读取直接返回旧值并在后台刷新，0为不启用
+     */
+    private int staleSeconds = 0;
+    /**
+     * 提前刷新系数：按 加载耗时*系数*-ln(随机数) 概率性地在到期前后台刷新，越大越早，0为不启用（默认）。
+     * <p>
+     * 启用陈旧期或提前刷新后，缓存中写入的是 {@link CacheLoadedValue} 包装值，
+     * 升级前的节点无法读取，滚动升级时需待全部节点升级完成后再启用
+     * </p>
+     */
+    private double earlyRefreshBeta = 0;
+    /**
+     * 是否启用跨节点的分布式加载锁
+     */
+    private boolean distributedLock = false;
+    /**
+     * 未获得分布式锁时等待其他节点加载的毫秒数，超时后自行加载
+     */
+    private long lockWaitMillis = 3000;
+    /**
+     * 分布式锁的租期毫秒数
+     */
+    private long lockLeaseMillis = 30000;
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * 通过加载方法写入缓存的值，附带加载时间、耗时及新鲜期，用于陈旧值服务及提前刷新
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class CacheLoadedValue implements Serializable {
+    private static final long serialVersionUID = -4012347865239017623L;
+
+    /**
+     * 缓存值
+     */
+    private Object value;
+    /**
+     * 加载完成时间戳
+     */
+    private long loadedAt;
+    /**
+     * 加载耗时毫秒数
+     */
+    private long loadMillis;
+    /**
+     * 新鲜期截止时间戳，之后为陈旧期
+     */
+    private long freshUntil;
+
+    /**
+     * 取出缓存值
+     * @param storeValue
+     * @return
+     */
+    public static Object unwrap(Object storeValue) {
+        return storeValue instanceof CacheLoadedValue? ((CacheLoadedValue) storeValue).getValue() : storeValue;
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+/**
+ * 缓存加载的分布式锁
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public interface CacheLock {
+
+    /**
+     * 尝试获取锁
+     * @param lockKey 锁key
+     * @param leaseMillis 租期毫秒数
+     * @return 锁持有凭证，未获取到时返回null
+     */
+    String tryLock(String lockKey, long leaseMillis);
+
+    /**
+     * 释放锁（仅释放凭证匹配的锁）
+     * @param lockKey 锁key
+     * @param token 锁持有凭证
+     */
+    void unlock(String lockKey, String token);
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+/**
+ * 缓存数据移除监听器
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@FunctionalInterface
+public interface CacheRemovalListener {
+
+    /**
+     * 移除原因
+     */
+    enum RemovalCause {
+        /**
+         * 主动删除
+         */
+        EXPLICIT,
+        /**
+         * 被新值替换
+         */
+        REPLACED,
+        /**
+         * 已过期
+         */
+        EXPIRED,
+        /**
+         * 超出容量被淘汰
+         */
+        SIZE
+    }
+
+    /**
+     * 数据被移除后回调（在缓存锁之外调用）
+     * @param key
+     * @param value
+     * @param cause
+     */
+    void onRemoval(Object key, Object value, RemovalCause cause);
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 缓存统计数据
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class CacheStats implements Serializable {
+    private static final long serialVersionUID = 3218765410982364571L;
+
+    /**
+     * 缓存名称
+     */
+    private String cacheName;
+    /**
+     * 统计来源（缓存管理器）
+     */
+    private String source;
+    /**
+     * 命中数
+     */
+    private long hitCount;
+    /**
+     * 未命中数
+     */
+    private long missCount;
+    /**
+     * 命中率
+     */
+    private double hitRatio;
+    /**
+     * 加载次数（含失败）
+     */
+    private long loadCount;
+    /**
+     * 加载失败次数
+     */
+    private long loadFailureCount;
+    /**
+     * 累计加载耗时（纳秒）
+     */
+    private long totalLoadTime;
+    /**
+     * 平均加载耗时（毫秒）
+     */
+    private double averageLoadMillis;
+    /**
+     * 加载耗时分布：耗时区间-次数
+     */
+    private Map<String, Long> loadTimeHistogram;
+    /**
+     * 淘汰数（含过期清理），不可统计时为0
+     */
+    private long evictionCount;
+    /**
+     * 当前条目数，不可统计时为-1
+     */
+    private long size;
+
+}
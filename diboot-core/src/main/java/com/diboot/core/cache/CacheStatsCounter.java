@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存统计计数器
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class CacheStatsCounter {
+    /**
+     * 加载耗时直方图的区间上限（毫秒）
+     */
+    private static final long[] LOAD_TIME_BUCKETS_MILLIS = {1, 5, 10, 50, 100, 500, 1000};
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder[] loadTimeBuckets = new LongAdder[LOAD_TIME_BUCKETS_MILLIS.length + 1];
+
+    public CacheStatsCounter() {
+        for(int i = 0; i < loadTimeBuckets.length; i++){
+            loadTimeBuckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 获取加载耗时直方图的区间上限（毫秒），与 {@link CacheStats#getLoadTimeHistogram()} 的前若干个区间一一对应，最后一个区间为超出上限的
+     * @return
+     */
+    public static long[] getLoadTimeBucketsMillis() {
+        return LOAD_TIME_BUCKETS_MILLIS.clone();
+    }
+
+    public void recordHit() {
+        hitCount.increment();
+    }
+
+    public void recordMiss() {
+        missCount.increment();
+    }
+
+    /**
+     * 按读取结果记录命中/未命中
+     * @param value
+     * @return value
+     */
+    public <T> T recordGet(T value) {
+        if(value != null){
+            hitCount.increment();
+        }
+        else{
+            missCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * 记录加载
+     * @param loadNanos 耗时
+     * @param success 是否成功
+     */
+    public void recordLoad(long loadNanos, boolean success) {
+        if(success){
+            loadSuccessCount.increment();
+        }
+        else{
+            loadFailureCount.increment();
+        }
+        totalLoadTime.add(loadNanos);
+        long loadMillis = TimeUnit.NANOSECONDS.toMillis(loadNanos);
+        int bucket = 0;
+        while(bucket < LOAD_TIME_BUCKETS_MILLIS.length && loadMillis > LOAD_TIME_BUCKETS_MILLIS[bucket]){
+            bucket++;
+        }
+        loadTimeBuckets[bucket].increment();
+    }
+
+    /**
+     * 包装加载方法：被调用时记录未命中及加载耗时，并标记loaded
+     * @param loader
+     * @param loaded 是否调用了加载方法
+     * @return
+     */
+    public <T> Callable<T> recordingLoader(Callable<T> loader, AtomicBoolean loaded) {
+        return () -> {
+            loaded.set(true);
+            missCount.increment();
+            long startTime = System.nanoTime();
+            boolean success = false;
+            try{
+                T value = loader.call();
+                success = true;
+                return value;
+            }
+            finally {
+                recordLoad(System.nanoTime() - startTime, success);
+            }
+        };
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 命中率
+     * @return
+     */
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0? 0 : (double) hits / total;
+    }
+
+    /**
+     * 生成统计快照
+     * @param cacheName 缓存名称
+     * @param source 统计来源
+     * @param size 当前条目数，不可统计时为-1
+     * @param evictionCount 淘汰数
+     * @return
+     */
+    public CacheStats snapshot(String cacheName, String source, long size, long evictionCount) {
+        long loadSuccess = loadSuccessCount.sum();
+        long loadFailure = loadFailureCount.sum();
+        long loadTime = totalLoadTime.sum();
+        long loadCount = loadSuccess + loadFailure;
+        Map<String, Long> histogram = new LinkedHashMap<>(loadTimeBuckets.length);
+        for(int i = 0; i < LOAD_TIME_BUCKETS_MILLIS.length; i++){
+            histogram.put("<=" + LOAD_TIME_BUCKETS_MILLIS[i] + "ms", loadTimeBuckets[i].sum());
+        }
+        histogram.put(">" + LOAD_TIME_BUCKETS_MILLIS[LOAD_TIME_BUCKETS_MILLIS.length - 1] + "ms", loadTimeBuckets[LOAD_TIME_BUCKETS_MILLIS.length].sum());
+        return new CacheStats().setCacheName(cacheName).setSource(source)
+                .setHitCount(getHitCount()).setMissCount(getMissCount()).setHitRatio(getHitRatio())
+                .setLoadCount(loadCount).setLoadFailureCount(loadFailure).setTotalLoadTime(loadTime)
+                .setAverageLoadMillis(loadCount == 0? 0 : (double) TimeUnit.NANOSECONDS.toMicros(loadTime) / loadCount / 1000)
+                .setLoadTimeHistogram(histogram)
+                .setEvictionCount(evictionCount).setSize(size);
+    }
+
+}
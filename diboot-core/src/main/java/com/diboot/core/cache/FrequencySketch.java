@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+/**
+ * 访问频率统计（Count-Min Sketch）
+ * <p>
+ * 4行计数，每个计数上限15；累计次数达到采样数后全部减半，使历史频率逐渐衰减。非线程安全，由调用方加锁
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+class FrequencySketch {
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final int MAX_COUNT = 15;
+
+    private final int[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(long capacity) {
+        int length = Integer.highestOneBit((int) Math.min(Math.max(capacity, 16), 1 << 22) - 1) << 1;
+        this.table = new int[length];
+        this.tableMask = length - 1;
+        this.sampleSize = length * 10;
+    }
+
+    /**
+     * 获取估算的访问频率
+     * @param key
+     * @return
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for(int i = 0; i < SEEDS.length; i++){
+            frequency = Math.min(frequency, table[indexOf(hash, i)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * 访问频率+1
+     * @param key
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for(int i = 0; i < SEEDS.length; i++){
+            int index = indexOf(hash, i);
+            if(table[index] < MAX_COUNT){
+                table[index]++;
+                added = true;
+            }
+        }
+        if(added && ++size >= sampleSize){
+            reset();
+        }
+    }
+
+    /**
+     * 频率减半
+     */
+    private void reset() {
+        for(int i = 0; i < table.length; i++){
+            table[i] >>>= 1;
+        }
+        size >>>= 1;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+
+}
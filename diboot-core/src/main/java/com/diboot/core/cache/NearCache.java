@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地近端缓存（二级缓存的L1）
+ * <p>
+ * 限定最大条目数（LRU淘汰）及存活时间；通过失效版本号避免并发读取L2时将已失效的旧值写回本地
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class NearCache {
+
+    private final String name;
+    private final int maxSize;
+    private final long expireMillis;
+    /**
+     * 按访问顺序排列的缓存数据
+     */
+    private final LinkedHashMap<Object, Entry> dataMap;
+    /**
+     * 失效版本号：每次失效递增
+     */
+    private final AtomicLong invalidationVersion = new AtomicLong();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param name 缓存名称
+     * @param maxSize 最大条目数
+     * @param expireSeconds 存活秒数
+     */
+    public NearCache(String name, int maxSize, int expireSeconds) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.expireMillis = expireSeconds * 1000L;
+        this.dataMap = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if(size() > NearCache.this.maxSize){
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取缓存值，不存在或已过期返回null
+     * @param key
+     * @return
+     */
+    public Object get(Object key) {
+        Entry entry;
+        synchronized (dataMap) {
+            entry = dataMap.get(key);
+            if(entry != null && entry.expireAt < System.currentTimeMillis()){
+                dataMap.remove(key);
+                evictionCount.increment();
+                entry = null;
+            }
+        }
+        if(entry == null){
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.value;
+    }
+
+    /**
+     * 当前失效版本号，读取L2之前获取，用于 {@link #putIfNotInvalidated(Object, Object, long)}
+     * @return
+     */
+    public long getInvalidationVersion() {
+        return invalidationVersion.get();
+    }
+
+    /**
+     * 缓存值
+     * @param key
+     * @param value
+     */
+    public void put(Object key, Object value) {
+        if(value == null){
+            return;
+        }
+        synchronized (dataMap) {
+            dataMap.put(key, new Entry(value, System.currentTimeMillis() + expireMillis));
+        }
+    }
+
+    /**
+     * 读取期间无失效发生时缓存值
+     * @param key
+     * @param value
+     * @param version 读取前的失效版本号
+     */
+    public void putIfNotInvalidated(Object key, Object value, long version) {
+        if(value == null){
+            return;
+        }
+        synchronized (dataMap) {
+            if(invalidationVersion.get() == version){
+                dataMap.put(key, new Entry(value, System.currentTimeMillis() + expireMillis));
+            }
+        }
+    }
+
+    /**
+     * 失效指定key
+     * @param key
+     */
+    public void invalidate(Object key) {
+        synchronized (dataMap) {
+            invalidationVersion.incrementAndGet();
+            dataMap.remove(key);
+        }
+    }
+
+    /**
+     * 失效全部
+     */
+    public void invalidateAll() {
+        synchronized (dataMap) {
+            invalidationVersion.incrementAndGet();
+            dataMap.clear();
+        }
+    }
+
+    /**
+     * 清理已过期的数据
+     * @return 清理数量
+     */
+    public int cleanUp() {
+        long currentTime = System.currentTimeMillis();
+        int count = 0;
+        synchronized (dataMap) {
+            Iterator<Entry> iterator = dataMap.values().iterator();
+            while(iterator.hasNext()){
+                if(iterator.next().expireAt < currentTime){
+                    iterator.remove();
+                    count++;
+                }
+            }
+        }
+        evictionCount.add(count);
+        return count;
+    }
+
+    public int size() {
+        synchronized (dataMap) {
+            return dataMap.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 命中率
+     * @return
+     */
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0? 0 : (double) hits / total;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static class Entry {
+        private final Object value;
+        private final long expireAt;
+
+        Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存的合并加载器
+ * <p>
+ * 同一节点内同一key同时只有一个加载，其他请求等待其结果；可选跨节点的分布式锁，未获得锁的节点等待其他节点写入；
+ * 通过加载方法写入的值附带新鲜期：陈旧期内直接返回旧值并后台刷新，新鲜期内按加载耗时概率性地提前后台刷新（XFetch），
+ * 避免热点key到期时并发回源
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class SingleFlightLoader {
+    private static final String LOCK_KEY_PREFIX = "diboot:cache:lock:";
+    private static final long LOCK_POLL_MILLIS = 50;
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * 默认的后台刷新线程池
+     */
+    private static final Executor DEFAULT_REFRESH_EXECUTOR = createDefaultRefreshExecutor();
+
+    /**
+     * 加载中的key-加载结果
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlightMap = new ConcurrentHashMap<>();
+    private final CacheLock cacheLock;
+    private final Executor refreshExecutor;
+
+    /**
+     * @param cacheLock 分布式锁，为null时仅在节点内合并
+     */
+    public SingleFlightLoader(CacheLock cacheLock) {
+        this(cacheLock, DEFAULT_REFRESH_EXECUTOR);
+    }
+
+    /**
+     * @param cacheLock 分布式锁，为null时仅在节点内合并
+     * @param refreshExecutor 后台刷新线程池
+     */
+    public SingleFlightLoader(CacheLock cacheLock, Executor refreshExecutor) {
+        this.cacheLock = cacheLock;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * 读取缓存，不存在时合并加载并写入
+     * @param cache 缓存
+     * @param key 缓存key
+     * @param loader 加载方法
+     * @param ttlMillis 缓存的存活毫秒数，不过期为0
+     * @param settings 加载设置
+     * @param statsCounter 统计计数器
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Cache cache, Object key, Callable<T> loader, long ttlMillis, CacheLoadSettings settings, CacheStatsCounter statsCounter) {
+        Cache.ValueWrapper wrapper = cache.get(key);
+        if(wrapper != null){
+            Object storeValue = wrapper.get();
+            if(storeValue instanceof CacheLoadedValue){
+                CacheLoadedValue loadedValue = (CacheLoadedValue) storeValue;
+                if(needsRefresh(loadedValue, settings, System.currentTimeMillis())){
+                    refreshAsync(cache, key, loader, ttlMillis, settings, statsCounter, loadedValue);
+                }
+                storeValue = loadedValue.getValue();
+            }
+            statsCounter.recordHit();
+            return (T) storeValue;
+        }
+        statsCounter.recordMiss();
+        String flightKey = cache.getName() + "::" + key;
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightMap.putIfAbsent(flightKey, future);
+        if(inFlight != null){
+            return (T) join(inFlight, key, loader);
+        }
+        try{
+            Object value = load(cache, key, loader, ttlMillis, settings, statsCounter, null);
+            future.complete(value);
+            return (T) value;
+        }
+        catch (RuntimeException | Error e){
+            future.completeExceptionally(e);
+            throw e;
+        }
+        finally {
+            inFlightMap.remove(flightKey, future);
+        }
+    }
+
+    /**
+     * 是否需要后台刷新：已进入陈旧期，或按概率提前刷新
+     * @param loadedValue
+     * @param settings
+     * @param currentTime
+     * @return
+     */
+    private boolean needsRefresh(CacheLoadedValue loadedValue, CacheLoadSettings settings, long currentTime) {
+        if(loadedValue.getFreshUntil() == Long.MAX_VALUE){
+            return false;
+        }
+        if(currentTime >= loadedValue.getFreshUntil()){
+            return true;
+        }
+        if(settings.getEarlyRefreshBeta() <= 0){
+            return false;
+        }
+        double gap = Math.max(loadedValue.getLoadMillis(), 1) * settings.getEarlyRefreshBeta() * -Math.log(ThreadLocalRandom.current().nextDouble());
+        return currentTime + gap >= loadedValue.getFreshUntil();
+    }
+
+    /**
+     * 后台刷新，已在加载中则跳过
+     */
+    private void refreshAsync(Cache cache, Object key, Callable<?> loader, long ttlMillis, CacheLoadSettings settings,
+                              CacheStatsCounter statsCounter, CacheLoadedValue staleValue) {
+        String flightKey = cache.getName() + "::" + key;
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if(inFlightMap.putIfAbsent(flightKey, future) != null){
+            return;
+        }
+        try{
+            refreshExecutor.execute(() -> {
+                try{
+                    future.complete(load(cache, key, loader, ttlMillis, settings, statsCounter, staleValue));
+                }
+                catch (Throwable e){
+                    future.completeExceptionally(e);
+                    log.warn("缓存后台刷新失败: {}.{}", cache.getName(), key, e);
+                }
+                finally {
+                    inFlightMap.remove(flightKey, future);
+                }
+            });
+        }
+        catch (RejectedExecutionException e){
+            inFlightMap.remove(flightKey, future);
+            future.complete(staleValue.getValue());
+            log.debug("缓存后台刷新任务已满，跳过刷新: {}.{}", cache.getName(), key);
+        }
+    }
+
+    /**
+     * 加载并写入缓存
+     * @param staleValue 后台刷新时的旧值，同步加载时为null
+     */
+    private Object load(Cache cache, Object key, Callable<?> loader, long ttlMillis, CacheLoadSettings settings,
+                        CacheStatsCounter statsCounter, CacheLoadedValue staleValue) {
+        String lockKey = null;
+        String lockToken = null;
+        if(settings.isDistributedLock() && cacheLock != null){
+            lockKey = LOCK_KEY_PREFIX + cache.getName() + "::" + key;
+            try{
+                lockToken = cacheLock.tryLock(lockKey, settings.getLockLeaseMillis());
+            }
+            catch (RuntimeException e){
+                log.warn("获取缓存加载锁失败，将直接加载: {}", lockKey, e);
+            }
+            if(lockToken == null){
+                // 其他节点加载中：后台刷新跳过，同步加载等待其写入
+                if(staleValue != null){
+                    return staleValue.getValue();
+                }
+                Object value = waitForValue(cache, key, settings.getLockWaitMillis());
+                if(value != NOT_FOUND){
+                    return value;
+                }
+                log.debug("等待其他节点加载超时，自行加载: {}", lockKey);
+            }
+        }
+        try{
+            if(lockToken != null){
+                // 获得锁后再次检查，其他节点可能已完成加载
+                Cache.ValueWrapper wrapper = cache.get(key);
+                if(wrapper != null && isNewer(wrapper.get(), staleValue)){
+                    return CacheLoadedValue.unwrap(wrapper.get());
+                }
+            }
+            return loadAndPut(cache, key, loader, ttlMillis, settings, statsCounter);
+        }
+        finally {
+            if(lockToken != null){
+                try{
+                    cacheLock.unlock(lockKey, lockToken);
+                }
+                catch (RuntimeException e){
+                    log.warn("释放缓存加载锁失败: {}", lockKey, e);
+                }
+            }
+        }
+    }
+
+    private Object loadAndPut(Cache cache, Object key, Callable<?> loader, long ttlMillis, CacheLoadSettings settings, CacheStatsCounter statsCounter) {
+        long startTime = System.nanoTime();
+        boolean success = false;
+        Object value;
+        try{
+            value = loader.call();
+            success = true;
+        }
+        catch (Exception e){
+            throw new Cache.ValueRetrievalException(key, loader, e);
+        }
+        finally {
+            statsCounter.recordLoad(System.nanoTime() - startTime, success);
+        }
+        if(ttlMillis <= 0 || (settings.getStaleSeconds() <= 0 && settings.getEarlyRefreshBeta() <= 0)){
+            cache.put(key, value);
+            return value;
+        }
+        long currentTime = System.currentTimeMillis();
+        // 陈旧期最多占存活时间的一半
+        long staleMillis = Math.min(settings.getStaleSeconds() * 1000L, ttlMillis / 2);
+        CacheLoadedValue loadedValue = new CacheLoadedValue().setValue(value).setLoadedAt(currentTime)
+                .setLoadMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime))
+                .setFreshUntil(currentTime + ttlMillis - staleMillis);
+        cache.put(key, loadedValue);
+        return value;
+    }
+
+    /**
+     * 缓存值是否比旧值新（同步加载时任意值均可用）
+     */
+    private boolean isNewer(Object storeValue, CacheLoadedValue staleValue) {
+        if(staleValue == null){
+            return true;
+        }
+        return storeValue instanceof CacheLoadedValue && ((CacheLoadedValue) storeValue).getLoadedAt() > staleValue.getLoadedAt();
+    }
+
+    /**
+     * 等待其他节点写入
+     */
+    private Object waitForValue(Cache cache, Object key, long waitMillis) {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while(System.currentTimeMillis() < deadline){
+            try{
+                Thread.sleep(LOCK_POLL_MILLIS);
+            }
+            catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if(wrapper != null){
+                return CacheLoadedValue.unwrap(wrapper.get());
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * 等待加载中的结果
+     */
+    private Object join(CompletableFuture<Object> inFlight, Object key, Callable<?> loader) {
+        try{
+            return inFlight.join();
+        }
+        catch (CompletionException e){
+            Throwable cause = e.getCause() != null? e.getCause() : e;
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            if(cause instanceof Error){
+                throw (Error) cause;
+            }
+            throw new Cache.ValueRetrievalException(key, loader, cause);
+        }
+    }
+
+    private static Executor createDefaultRefreshExecutor() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1000), runnable -> {
+            Thread thread = new Thread(runnable, "diboot-cache-refresh-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.cache;
+
+import com.diboot.core.util.S;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 二级缓存manager：本地近端缓存(L1) + 共享缓存(L2，如Redis)
+ * <p>
+ * 读取优先命中本地缓存，未命中时读取L2并回填；写入/删除时更新L2，并按缓存的一致性设置通过失效通道通知其他节点清理本地缓存。
+ * 未配置本地缓存的cache直接读写L2
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class TwoLevelCacheManager implements BaseCacheManager {
+
+    /**
+     * 本地缓存一致性级别
+     */
+    public enum Consistency {
+        /**
+         * 不使用本地缓存，直接读写L2
+         */
+        L2_ONLY,
+        /**
+         * 本地缓存，变更时广播失效通知
+         */
+        INVALIDATE,
+        /**
+         * 本地缓存仅按存活时间过期，存活期内允许与其他节点不一致
+         */
+        TTL
+    }
+
+    /**
+     * 本地缓存设置
+     */
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class NearCacheSettings {
+        /**
+         * 最大条目数
+         */
+        private int maxSize = 10000;
+        /**
+         * 存活秒数
+         */
+        private int expireSeconds = 60;
+        /**
+         * 一致性级别
+         */
+        private Consistency consistency = Consistency.INVALIDATE;
+    }
+
+    /**
+     * 当前实例id，用于忽略自身发出的失效通知
+     */
+    private final String instanceId = S.newUuid();
+    /**
+     * L2缓存
+     */
+    private final BaseCacheManager l2CacheManager;
+    /**
+     * 失效通知通道
+     */
+    private final CacheInvalidationChannel invalidationChannel;
+    /**
+     * cacheName-本地缓存
+     */
+    private final Map<String, NearCache> nearCacheMap = new ConcurrentHashMap<>();
+    /**
+     * cacheName-一致性级别
+     */
+    private final Map<String, Consistency> consistencyMap = new ConcurrentHashMap<>();
+    /**
+     * cacheName-整体统计计数器
+     */
+    private final Map<String, CacheStatsCounter> statsCounterMap = new ConcurrentHashMap<>();
+    /**
+     * cacheName-L2读取统计计数器
+     */
+    private final Map<String, CacheStatsCounter> l2StatsCounterMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param l2CacheManager L2缓存
+     * @param invalidationChannel 失效通知通道
+     * @param cacheName2Settings cacheName-本地缓存设置
+     */
+    public TwoLevelCacheManager(BaseCacheManager l2CacheManager, CacheInvalidationChannel invalidationChannel, Map<String, NearCacheSettings> cacheName2Settings) {
+        this.l2CacheManager = l2CacheManager;
+        this.invalidationChannel = invalidationChannel;
+        for(Map.Entry<String, NearCacheSettings> entry : cacheName2Settings.entrySet()){
+            NearCacheSettings settings = entry.getValue();
+            consistencyMap.put(entry.getKey(), settings.getConsistency());
+            statsCounterMap.put(entry.getKey(), new CacheStatsCounter());
+            l2StatsCounterMap.put(entry.getKey(), new CacheStatsCounter());
+            if(settings.getConsistency() != Consistency.L2_ONLY){
+                nearCacheMap.put(entry.getKey(), new NearCache(entry.getKey(), settings.getMaxSize(), settings.getExpireSeconds()));
+            }
+        }
+        if(invalidationChannel != null){
+            invalidationChannel.subscribe(this::onInvalidation);
+        }
+    }
+
+    @Override
+    public <T> T getCacheObj(String cacheName, Object objKey, Class<T> tClass) {
+        NearCache nearCache = nearCacheMap.get(cacheName);
+        if(nearCache == null){
+            return recordGet(cacheName, l2CacheManager.getCacheObj(cacheName, objKey, tClass));
+        }
+        String key = String.valueOf(objKey);
+        Object value = nearCache.get(key);
+        if(tClass.isInstance(value)){
+            statsCounterMap.get(cacheName).recordHit();
+            return tClass.cast(value);
+        }
+        long version = nearCache.getInvalidationVersion();
+        T cacheObj = recordGet(cacheName, l2CacheManager.getCacheObj(cacheName, objKey, tClass));
+        nearCache.putIfNotInvalidated(key, cacheObj, version);
+        return cacheObj;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getCacheObj(String cacheName, Object objKey, Callable<T> initSupplier) {
+        CacheStatsCounter statsCounter = statsCounterMap.get(cacheName);
+        NearCache nearCache = nearCacheMap.get(cacheName);
+        String key = String.valueOf(objKey);
+        Object value = nearCache != null? nearCache.get(key) : null;
+        if(value != null){
+            statsCounter.recordHit();
+            return (T) value;
+        }
+        if(statsCounter == null){
+            return l2CacheManager.getCacheObj(cacheName, objKey, initSupplier);
+        }
+        long version = nearCache != null? nearCache.getInvalidationVersion() : 0;
+        AtomicBoolean loaded = new AtomicBoolean(false);
+        T cacheObj = l2CacheManager.getCacheObj(cacheName, objKey, statsCounter.recordingLoader(initSupplier, loaded));
+        if(!loaded.get()){
+            statsCounter.recordHit();
+        }
+        if(nearCache != null){
+            nearCache.putIfNotInvalidated(key, cacheObj, version);
+        }
+        return cacheObj;
+    }
+
+    @Override
+    public String getCacheString(String cacheName, Object objKey) {
+        return getCacheObj(cacheName, objKey, String.class);
+    }
+
+    @Override
+    public void putCacheObj(String cacheName, Object objKey, Object obj) {
+        l2CacheManager.putCacheObj(cacheName, objKey, obj);
+        NearCache nearCache = nearCacheMap.get(cacheName);
+        if(nearCache != null){
+            String key = String.valueOf(objKey);
+            nearCache.invalidate(key);
+            nearCache.put(key, obj);
+            publishInvalidation(cacheName, key);
+        }
+    }
+
+    @Override
+    public void removeCacheObj(String cacheName, Object objKey) {
+        l2CacheManager.removeCacheObj(cacheName, objKey);
+        NearCache nearCache = nearCacheMap.get(cacheName);
+        if(nearCache != null){
+            String key = String.valueOf(objKey);
+            nearCache.invalidate(key);
+            publishInvalidation(cacheName, key);
+        }
+    }
+
+    @Override
+    public boolean isUninitializedCache(String cacheName) {
+        return l2CacheManager.isUninitializedCache(cacheName);
+    }
+
+    @Override
+    public void clearOutOfDateData(String cacheName) {
+        NearCache nearCache = nearCacheMap.get(cacheName);
+        if(nearCache != null){
+            int count = nearCache.cleanUp();
+            log.debug("清理完成已过期本地缓存数据: {} 共 {} 条", cacheName, count);
+        }
+        l2CacheManager.clearOutOfDateData(cacheName);
+    }
+
+    /**
+     * 获取本地缓存
+     * @param cacheName
+     * @return 未启用本地缓存时返回null
+     */
+    public NearCache getNearCache(String cacheName) {
+        return nearCacheMap.get(cacheName);
+    }
+
+    /**
+     * 获取L2命中率（仅统计已配置的cache）
+     * @param cacheName
+     * @return
+     */
+    public double getL2HitRatio(String cacheName) {
+        CacheStatsCounter statsCounter = l2StatsCounterMap.get(cacheName);
+        return statsCounter != null? statsCounter.getHitRatio() : 0;
+    }
+
+    /**
+     * 获取整体命中率：本地或L2命中
+     * @param cacheName
+     * @return
+     */
+    public double getHitRatio(String cacheName) {
+        CacheStatsCounter statsCounter = statsCounterMap.get(cacheName);
+        return statsCounter != null? statsCounter.getHitRatio() : 0;
+    }
+
+    /**
+     * 获取各缓存的统计数据：本缓存的整体统计（条目数及淘汰数为本地缓存的），及L2缓存的统计
+     * @return
+     */
+    @Override
+    public List<CacheStats> getCacheStats() {
+        List<CacheStats> cacheStatsList = new ArrayList<>();
+        for(Map.Entry<String, CacheStatsCounter> entry : statsCounterMap.entrySet()){
+            NearCache nearCache = nearCacheMap.get(entry.getKey());
+            cacheStatsList.add(entry.getValue().snapshot(entry.getKey(), getClass().getSimpleName(),
+                    nearCache != null? nearCache.size() : -1, nearCache != null? nearCache.getEvictionCount() : 0));
+        }
+        cacheStatsList.addAll(l2CacheManager.getCacheStats());
+        return cacheStatsList;
+    }
+
+    /**
+     * 处理其他节点的失效通知
+     * @param message
+     */
+    private void onInvalidation(CacheInvalidationMessage message) {
+        if(instanceId.equals(message.getSourceId())){
+            return;
+        }
+        NearCache nearCache = nearCacheMap.get(message.getCacheName());
+        if(nearCache == null){
+            return;
+        }
+        if(message.getKey() == null){
+            nearCache.invalidateAll();
+        }
+        else{
+            nearCache.invalidate(message.getKey());
+        }
+        if(log.isTraceEnabled()){
+            log.trace("收到缓存失效通知: {}.{}", message.getCacheName(), message.getKey());
+        }
+    }
+
+    /**
+     * 发布失效通知
+     * @param cacheName
+     * @param key
+     */
+    private void publishInvalidation(String cacheName, String key) {
+        if(invalidationChannel == null || consistencyMap.get(cacheName) != Consistency.INVALIDATE){
+            return;
+        }
+        try{
+            invalidationChannel.publish(new CacheInvalidationMessage().setSourceId(instanceId).setCacheName(cacheName).setKey(key));
+        }
+        catch (Exception e){
+            log.warn("发布缓存失效通知失败: {}.{}, 其他节点将在本地缓存过期后更新", cacheName, key, e);
+        }
+    }
+
+    /**
+     * 统计L2读取结果
+     * @param cacheName
+     * @param cacheObj
+     * @return
+     */
+    private <T> T recordGet(String cacheName, T cacheObj) {
+        CacheStatsCounter statsCounter = statsCounterMap.get(cacheName);
+        if(statsCounter != null){
+            statsCounter.recordGet(cacheObj);
+            l2StatsCounterMap.get(cacheName).recordGet(cacheObj);
+        }
+        return cacheObj;
+    }
+
+}
@@ -189,13 +189,18 @@ public class Cons {
         /**
          * 总数
          */
-        totalCount;
+        totalCount,
+        /**
+         * 游标分页的游标
+         */
+        cursor;
 
         public static boolean isPaginationParam(String param) {
             return orderBy.name().equals(param)
                     || pageIndex.name().equals(param)
                     || pageSize.name().equals(param)
-                    || totalCount.name().equals(param);
+                    || totalCount.name().equals(param)
+                    || cursor.name().equals(param);
         }
     }
 
@@ -215,6 +220,10 @@ public class Cons {
      * token header头名称
      */
     public static final String TOKEN_HEADER_NAME = "Authorization";
+    /**
+     * 定时任务在JobExecutionContext中记录处理数据条数的key
+     */
+    public static final String JOB_CONTEXT_KEY_DATA_COUNT = "dataCount";
 
     /**
      * 启用/停用 状态字典定义
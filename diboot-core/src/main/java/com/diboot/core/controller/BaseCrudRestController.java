@@ -77,6 +77,7 @@ public class BaseCrudRestController<E extends AbstractEntity> extends BaseContro
      * 获取某VO资源的集合，用于子类重写的方法
      * <p>
      * url参数示例: /${bindURL}?pageSize=20&pageIndex=1&orderBy=itemValue&type=GENDAR
+     * 游标分页示例: /${bindURL}?pageSize=20&cursor=&orderBy=itemValue，下一页传入返回结果page.nextCursor
      * </p>
      * @return JsonResult
      * @throws Exception
@@ -93,6 +94,7 @@ public class BaseCrudRestController<E extends AbstractEntity> extends BaseContro
      * 获取某VO资源的集合，用于子类重写的方法
      * <p>
      * url参数示例: /${bindURL}?pageSize=20&pageIndex=1&orderBy=itemValue&type=GENDAR
+     * 游标分页示例: /${bindURL}?pageSize=20&cursor=&orderBy=itemValue，下一页传入返回结果page.nextCursor
      * </p>
      * @return JsonResult
      * @throws Exception
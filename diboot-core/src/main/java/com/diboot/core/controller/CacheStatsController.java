@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.controller;
+
+import com.diboot.core.cache.CacheStats;
+import com.diboot.core.cache.CacheStatsProvider;
+import com.diboot.core.util.ContextHelper;
+import com.diboot.core.util.V;
+import com.diboot.core.vo.JsonResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 缓存统计数据查询接口（只读）
+ * <p>
+ * 汇总容器中全部 {@link CacheStatsProvider}（含各BaseCacheManager）的统计数据；
+ * 非组件扫描注册，需由配置类按需声明为bean（如 diboot.core.cache-stats-enabled=true）
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@ResponseBody
+@RequestMapping("/diboot/cache-stats")
+public class CacheStatsController {
+
+    /**
+     * 获取全部缓存的统计数据
+     * @return
+     */
+    @GetMapping
+    public JsonResult<List<CacheStats>> getCacheStatsList(){
+        return JsonResult.OK(collectCacheStats());
+    }
+
+    /**
+     * 获取指定缓存的统计数据
+     * @param cacheName
+     * @return
+     */
+    @GetMapping("/{cacheName}")
+    public JsonResult<List<CacheStats>> getCacheStats(@PathVariable("cacheName") String cacheName){
+        List<CacheStats> cacheStatsList = collectCacheStats().stream()
+                .filter(cacheStats -> V.equals(cacheName, cacheStats.getCacheName()))
+                .collect(Collectors.toList());
+        if(cacheStatsList.isEmpty()){
+            return JsonResult.FAIL_NOT_FOUND("缓存不存在: " + cacheName);
+        }
+        return JsonResult.OK(cacheStatsList);
+    }
+
+    /**
+     * 汇总统计数据
+     * @return
+     */
+    private List<CacheStats> collectCacheStats(){
+        List<CacheStats> cacheStatsList = new ArrayList<>();
+        List<CacheStatsProvider> providers = ContextHelper.getBeans(CacheStatsProvider.class);
+        if(V.notEmpty(providers)){
+            for(CacheStatsProvider provider : providers){
+                cacheStatsList.addAll(provider.getCacheStats());
+            }
+        }
+        return cacheStatsList;
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.data.access;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据权限可访问范围的请求级缓存
+ * <p>
+ * 同一请求内（含并行绑定的工作线程）相同entity字段的可访问ids仅计算一次；
+ * 组织、岗位等影响数据范围的entity经 {@link #registerScopeEntity(Class[])} 登记后，
+ * 其mapper的写操作由DataAccessScopeInvalidationInterceptor自动调用 {@link #invalidate()} 使已缓存的范围失效
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class DataAccessScopeCache {
+    /**
+     * 请求属性名
+     */
+    private static final String REQUEST_ATTRIBUTE_NAME = DataAccessScopeCache.class.getName();
+    /**
+     * 数据范围版本，变更后已缓存的范围失效
+     */
+    private static final AtomicLong VERSION = new AtomicLong();
+    /**
+     * 影响数据范围的entity类
+     */
+    private static final Set<Class<?>> SCOPE_ENTITY_CLASSES = new CopyOnWriteArraySet<>();
+
+    /**
+     * 获取可访问的ids，当前请求内已计算过则直接返回
+     * @param checkImpl 数据权限接口实现
+     * @param entityClass
+     * @param fieldName
+     * @return
+     */
+    public static List<? extends Serializable> getAccessibleIds(DataAccessInterface checkImpl, Class<?> entityClass, String fieldName) {
+        Map<String, Optional<List<? extends Serializable>>> scopeMap = getRequestScopeMap();
+        // 非请求线程不缓存
+        if (scopeMap == null) {
+            return checkImpl.getAccessibleIds(entityClass, fieldName);
+        }
+        String key = entityClass.getName() + ":" + fieldName;
+        Optional<List<? extends Serializable>> accessibleIds = scopeMap.get(key);
+        if (accessibleIds == null) {
+            accessibleIds = Optional.ofNullable(checkImpl.getAccessibleIds(entityClass, fieldName));
+            scopeMap.put(key, accessibleIds);
+        }
+        return accessibleIds.orElse(null);
+    }
+
+    /**
+     * 登记影响数据范围的entity类，其数据变更时自动失效
+     * @param entityClasses
+     */
+    public static void registerScopeEntity(Class<?>... entityClasses) {
+        for (Class<?> entityClass : entityClasses) {
+            SCOPE_ENTITY_CLASSES.add(entityClass);
+        }
+    }
+
+    /**
+     * 是否为影响数据范围的entity类
+     * @param entityClass
+     * @return
+     */
+    public static boolean isScopeEntity(Class<?> entityClass) {
+        return entityClass != null && SCOPE_ENTITY_CLASSES.contains(entityClass);
+    }
+
+    /**
+     * 是否已登记影响数据范围的entity类
+     * @return
+     */
+    public static boolean hasScopeEntity() {
+        return !SCOPE_ENTITY_CLASSES.isEmpty();
+    }
+
+    /**
+     * 使已缓存的数据范围失效（事务中调用时，提交/回滚后再失效一次，避免期间读入旧数据）
+     */
+    public static void invalidate() {
+        VERSION.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    VERSION.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * 获取当前请求的数据范围缓存
+     * @return
+     */
+    private static Map<String, Optional<List<? extends Serializable>>> getRequestScopeMap() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return null;
+        }
+        long version = VERSION.get();
+        try {
+            RequestScope requestScope = (RequestScope) requestAttributes.getAttribute(REQUEST_ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+            if (requestScope == null || requestScope.version != version) {
+                requestScope = new RequestScope(version);
+                requestAttributes.setAttribute(REQUEST_ATTRIBUTE_NAME, requestScope, RequestAttributes.SCOPE_REQUEST);
+            }
+            return requestScope.scopeMap;
+        }
+        catch (IllegalStateException e) {
+            // 请求已结束（如线程池线程继承了过期的请求上下文），不缓存
+            return null;
+        }
+    }
+
+    /**
+     * 请求内的数据范围
+     */
+    private static class RequestScope {
+        private final long version;
+        private final Map<String, Optional<List<? extends Serializable>>> scopeMap = new ConcurrentHashMap<>();
+
+        RequestScope(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.data.access;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 数据权限范围缓存的失效拦截器
+ * <p>
+ * 已登记影响数据范围的entity（见 {@link DataAccessScopeCache#registerScopeEntity(Class[])}），
+ * 经其mapper执行的新增、更新、删除（含直接调用mapper及自定义SQL）均使可访问范围缓存失效
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class DataAccessScopeInvalidationInterceptor implements Interceptor {
+
+    /**
+     * mapper命名空间-entity类
+     */
+    private final Map<String, Optional<Class<?>>> namespaceEntityMap = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (DataAccessScopeCache.hasScopeEntity()) {
+            MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+            if (DataAccessScopeCache.isScopeEntity(getEntityClass(ms))) {
+                DataAccessScopeCache.invalidate();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取语句所属mapper的entity类
+     * @param ms
+     * @return
+     */
+    private Class<?> getEntityClass(MappedStatement ms) {
+        String id = ms.getId();
+        String namespace = id.substring(0, Math.max(id.lastIndexOf('.'), 0));
+        return namespaceEntityMap.computeIfAbsent(namespace, ns -> {
+            for (TableInfo tableInfo : TableInfoHelper.getTableInfos()) {
+                if (ns.equals(tableInfo.getCurrentNamespace())) {
+                    return Optional.of(tableInfo.getEntityType());
+                }
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.data.access;
+
+import com.diboot.core.util.S;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 数据权限SQL改写模板
+ * <p>
+ * 同一SQL只解析一次，在WHERE中预留数据权限条件的占位，改写时直接拼接预构建的条件文本，无需再次解析SQL及条件表达式
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class DataAccessSqlTemplate {
+    private static final Logger log = LoggerFactory.getLogger(DataAccessSqlTemplate.class);
+
+    /**
+     * 数据权限条件占位
+     */
+    private static final String PLACEHOLDER = "__DIBOOT_DATA_ACCESS_CONDITION__";
+
+    /**
+     * 主表名
+     */
+    private final String tableName;
+    /**
+     * 主表别名
+     */
+    private final String tableAlias;
+    /**
+     * 占位前的SQL
+     */
+    private final String sqlPrefix;
+    /**
+     * 占位后的SQL
+     */
+    private final String sqlSuffix;
+
+    private DataAccessSqlTemplate(String tableName, String tableAlias, String sqlPrefix, String sqlSuffix) {
+        this.tableName = tableName;
+        this.tableAlias = tableAlias;
+        this.sqlPrefix = sqlPrefix;
+        this.sqlSuffix = sqlSuffix;
+    }
+
+    /**
+     * 解析SQL生成改写模板，非单表主查询的SELECT语句返回null
+     *
+     * @param sql
+     * @return
+     */
+    public static DataAccessSqlTemplate parse(String sql) {
+        PlainSelect selectBody = parseSelectBody(sql);
+        if (selectBody == null || !(selectBody.getFromItem() instanceof Table)) {
+            return null;
+        }
+        Table mainTable = (Table) selectBody.getFromItem();
+        Column placeholder = new Column(PLACEHOLDER);
+        if (selectBody.getWhere() == null) {
+            selectBody.setWhere(placeholder);
+        } else {
+            selectBody.setWhere(new AndExpression(selectBody.getWhere(), placeholder));
+        }
+        String templateSql = selectBody.toString();
+        int index = templateSql.indexOf(PLACEHOLDER);
+        return new DataAccessSqlTemplate(S.removeEsc(mainTable.getName()), mainTable.getAlias() != null ? mainTable.getAlias().getName() : null,
+                templateSql.substring(0, index), templateSql.substring(index + PLACEHOLDER.length()));
+    }
+
+    /**
+     * 获取主表名
+     *
+     * @return
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * 构建单个字段的数据权限条件
+     *
+     * @param column   列名
+     * @param idValues 可访问的id
+     * @return
+     */
+    public String buildCondition(String column, List<? extends Serializable> idValues) {
+        String idCol = tableAlias != null ? tableAlias + "." + column : column;
+        if (idValues.isEmpty()) {
+            return idCol + " IS NULL";
+        }
+        if (idValues.size() == 1) {
+            return idCol + " = " + toSqlValue(idValues.get(0));
+        }
+        StringBuilder sb = new StringBuilder(idCol.length() + idValues.size() * 8 + 8).append(idCol).append(" IN (");
+        for (int i = 0; i < idValues.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(toSqlValue(idValues.get(i)));
+        }
+        return sb.append(")").toString();
+    }
+
+    /**
+     * 将数据权限条件填充至模板，生成改写后的SQL
+     *
+     * @param condition
+     * @return
+     */
+    public String render(String condition) {
+        return sqlPrefix + condition + sqlSuffix;
+    }
+
+    /**
+     * 转换为SQL值：Long类型为数值，其他按字符串转义
+     *
+     * @param value
+     * @return
+     */
+    private static String toSqlValue(Serializable value) {
+        if (value instanceof Long) {
+            return value.toString();
+        }
+        return "'" + S.defaultValueOf(value).replace("'", "''") + "'";
+    }
+
+    /**
+     * 解析SelectBody
+     *
+     * @param sql
+     * @return
+     */
+    private static PlainSelect parseSelectBody(String sql) {
+        try {
+            Statement statement = CCJSqlParserUtil.parse(sql);
+            if (statement instanceof Select) {
+                SelectBody selectBody = ((Select) statement).getSelectBody();
+                if (selectBody instanceof PlainSelect) {
+                    return (PlainSelect) selectBody;
+                }
+            }
+        } catch (JSQLParserException e) {
+            log.warn("解析SQL异常: " + sql, e);
+        }
+        return null;
+    }
+}
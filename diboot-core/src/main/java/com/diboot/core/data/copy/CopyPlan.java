@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.data.copy;
+
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.parser.PropAccessor;
+import com.diboot.core.util.BeanUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 属性拷贝计划
+ * <p>
+ * 按 sourceClass-targetClass 预先解析同名可赋值属性及@Accept注解映射，生成一次后缓存复用；
+ * 同名属性按Spring BeanUtils.copyProperties的类型匹配规则直接赋值，@Accept映射规则与AcceptAnnoCopier一致（需类型转换时由BeanWrapper处理）
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class CopyPlan {
+    /**
+     * sourceClass-targetClass-拷贝计划缓存（按类名缓存，避免强引用Class导致devtools重启后旧ClassLoader无法回收）
+     */
+    private static final Map<String, CopyPlan> CLASS_COPY_PLAN_CACHE_MAP = new ConcurrentHashMap<>();
+
+    private final Class<?> sourceClass;
+    private final Class<?> targetClass;
+    private final PropAccessor targetAccessor;
+    /**
+     * 同名属性的拷贝步骤
+     */
+    private final CopyStep[] copySteps;
+    /**
+     * Accept注解属性的拷贝步骤
+     */
+    private final AcceptStep[] acceptSteps;
+
+    /**
+     * 获取拷贝计划
+     * @param sourceClass
+     * @param targetClass
+     * @return
+     */
+    public static CopyPlan of(Class<?> sourceClass, Class<?> targetClass){
+        String cacheKey = sourceClass.getName() + "->" + targetClass.getName();
+        CopyPlan copyPlan = CLASS_COPY_PLAN_CACHE_MAP.get(cacheKey);
+        // 同名类被新的ClassLoader重新加载时，替换旧的拷贝计划
+        if(copyPlan == null || copyPlan.sourceClass != sourceClass || copyPlan.targetClass != targetClass){
+            copyPlan = new CopyPlan(sourceClass, targetClass);
+            CLASS_COPY_PLAN_CACHE_MAP.put(cacheKey, copyPlan);
+        }
+        return copyPlan;
+    }
+
+    private CopyPlan(Class<?> sourceClass, Class<?> targetClass){
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        PropAccessor sourceAccessor = getPropAccessor(sourceClass);
+        this.targetAccessor = getPropAccessor(targetClass);
+        // 同名属性
+        List<CopyStep> copyStepList = new ArrayList<>();
+        for(PropertyDescriptor targetPd : org.springframework.beans.BeanUtils.getPropertyDescriptors(targetClass)){
+            Method writeMethod = targetPd.getWriteMethod();
+            if(writeMethod == null){
+                continue;
+            }
+            PropertyDescriptor sourcePd = org.springframework.beans.BeanUtils.getPropertyDescriptor(sourceClass, targetPd.getName());
+            Method readMethod = sourcePd != null? sourcePd.getReadMethod() : null;
+            if(readMethod == null || !isAssignable(writeMethod, readMethod)){
+                continue;
+            }
+            copyStepList.add(new CopyStep(targetPd.getName(), writeMethod.getParameterTypes()[0].isPrimitive(),
+                    sourceAccessor.getGetter(targetPd.getName()), targetAccessor.getSetter(targetPd.getName())));
+        }
+        this.copySteps = copyStepList.toArray(new CopyStep[0]);
+        // Accept注解映射
+        List<AcceptStep> acceptStepList = new ArrayList<>();
+        for(Field fld : BeanUtils.extractFields(targetClass, Accept.class)){
+            Accept accept = fld.getAnnotation(Accept.class);
+            if(BeanUtils.extractField(sourceClass, accept.name()) == null){
+                continue;
+            }
+            acceptStepList.add(new AcceptStep(fld.getName(), accept.name(), accept.override(),
+                    sourceAccessor.getGetter(accept.name()), targetAccessor.getGetter(fld.getName())));
+        }
+        this.acceptSteps = acceptStepList.toArray(new AcceptStep[0]);
+    }
+
+    /**
+     * 是否为指定source类的拷贝计划
+     * @param clazz
+     * @return
+     */
+    public boolean isPlanOf(Class<?> clazz){
+        return sourceClass == clazz;
+    }
+
+    /**
+     * 创建target实例
+     * @param <T>
+     * @return
+     * @throws Exception
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T newTarget() throws Exception {
+        return (T) targetAccessor.newInstance();
+    }
+
+    /**
+     * 拷贝属性
+     * @param source
+     * @param target
+     */
+    public void copy(Object source, Object target){
+        for(CopyStep step : copySteps){
+            Object value = step.getter != null? step.getter.apply(source) : BeanUtils.getProperty(source, step.propName);
+            // null值无法赋给基本类型，与Spring BeanUtils.copyProperties保持一致抛出异常
+            if(value == null && step.primitive){
+                throw new FatalBeanException("Could not copy property '" + step.propName + "' from source to target",
+                        new IllegalArgumentException("null value for primitive property: " + step.propName));
+            }
+            if(step.setter != null){
+                step.setter.accept(target, value);
+            }
+            else{
+                BeanUtils.setProperty(target, step.propName, value);
+            }
+        }
+        for(AcceptStep step : acceptSteps){
+            if(!step.override){
+                Object targetValue = step.targetGetter != null? step.targetGetter.apply(target) : BeanUtils.getProperty(target, step.targetPropName);
+                if(targetValue != null){
+                    log.debug("目标对象{}已有值{}，copyAcceptProperties将忽略.", targetClass.getName(), targetValue);
+                    continue;
+                }
+            }
+            Object sourceValue = step.sourceGetter != null? step.sourceGetter.apply(source) : BeanUtils.getProperty(source, step.sourcePropName);
+            if(sourceValue != null){
+                BeanUtils.setProperty(target, step.targetPropName, sourceValue);
+            }
+        }
+    }
+
+    /**
+     * 获取属性访问器
+     * @param beanClass
+     * @return
+     */
+    private static PropAccessor getPropAccessor(Class<?> beanClass){
+        PropAccessor accessor = BindingCacheManager.getPropAccessor(beanClass);
+        return accessor.isAccessorOf(beanClass)? accessor : new PropAccessor(beanClass);
+    }
+
+    /**
+     * 读写类型是否匹配（同Spring BeanUtils.copyProperties）
+     * @param writeMethod
+     * @param readMethod
+     * @return
+     */
+    private static boolean isAssignable(Method writeMethod, Method readMethod){
+        ResolvableType sourceResolvableType = ResolvableType.forMethodReturnType(readMethod);
+        ResolvableType targetResolvableType = ResolvableType.forMethodParameter(writeMethod, 0);
+        if(sourceResolvableType.hasUnresolvableGenerics() || targetResolvableType.hasUnresolvableGenerics()){
+            return ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType());
+        }
+        return targetResolvableType.isAssignableFrom(sourceResolvableType);
+    }
+
+    /**
+     * 同名属性拷贝步骤
+     */
+    private static class CopyStep {
+        private final String propName;
+        private final boolean primitive;
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+
+        CopyStep(String propName, boolean primitive, Function<Object, Object> getter, BiConsumer<Object, Object> setter){
+            this.propName = propName;
+            this.primitive = primitive;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * Accept注解拷贝步骤
+     */
+    private static class AcceptStep {
+        private final String targetPropName;
+        private final String sourcePropName;
+        private final boolean override;
+        private final Function<Object, Object> sourceGetter;
+        private final Function<Object, Object> targetGetter;
+
+        AcceptStep(String targetPropName, String sourcePropName, boolean override, Function<Object, Object> sourceGetter, Function<Object, Object> targetGetter){
+            this.targetPropName = targetPropName;
+            this.sourcePropName = sourcePropName;
+            this.override = override;
+            this.sourceGetter = sourceGetter;
+            this.targetGetter = targetGetter;
+        }
+    }
+
+}
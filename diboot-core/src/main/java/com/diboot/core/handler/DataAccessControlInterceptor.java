@@ -20,24 +20,11 @@ import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
 import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.data.access.DataAccessAnnoCache;
 import com.diboot.core.data.access.DataAccessInterface;
+import com.diboot.core.data.access.DataAccessScopeCache;
+import com.diboot.core.data.access.DataAccessSqlTemplate;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.ContextHelper;
-import com.diboot.core.util.S;
 import com.diboot.core.util.V;
-import net.sf.jsqlparser.JSQLParserException;
-import net.sf.jsqlparser.expression.Expression;
-import net.sf.jsqlparser.expression.LongValue;
-import net.sf.jsqlparser.expression.StringValue;
-import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
-import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
-import net.sf.jsqlparser.expression.operators.relational.IsNullExpression;
-import net.sf.jsqlparser.parser.CCJSqlParserUtil;
-import net.sf.jsqlparser.schema.Column;
-import net.sf.jsqlparser.schema.Table;
-import net.sf.jsqlparser.statement.Statement;
-import net.sf.jsqlparser.statement.select.PlainSelect;
-import net.sf.jsqlparser.statement.select.Select;
-import net.sf.jsqlparser.statement.select.SelectBody;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
@@ -49,8 +36,10 @@ import org.slf4j.LoggerFactory;
 import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
@@ -63,8 +52,18 @@ import java.util.concurrent.CopyOnWriteArraySet;
 public class DataAccessControlInterceptor implements InnerInterceptor {
     private static final Logger log = LoggerFactory.getLogger(DataAccessControlInterceptor.class);
 
+    /**
+     * SQL改写模板缓存上限
+     */
+    private static final int MAX_TEMPLATE_CACHE_SIZE = 2000;
+
     private final Set<String> noCheckpointCache = new CopyOnWriteArraySet<>();
 
+    /**
+     * MappedStatement id+SQL - SQL改写模板
+     */
+    private final Map<String, DataAccessSqlTemplate> sqlTemplateCache = new ConcurrentHashMap<>();
+
     @Override
     public void beforeQuery(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql) throws SQLException {
         if (noCheckpointCache.contains(ms.getId())) {
@@ -73,117 +72,71 @@ public class DataAccessControlInterceptor implements InnerInterceptor {
         // 替换SQL
         PluginUtils.MPBoundSql mpBoundSql = PluginUtils.mpBoundSql(boundSql);
         String originSql = mpBoundSql.sql();
-        PlainSelect selectBody = parseSelectBody(originSql);
-        if (selectBody != null && selectBody.getFromItem() instanceof Table) {
-            Table mainTable = (Table) selectBody.getFromItem();
-            String tableName = S.removeEsc(mainTable.getName());
-            Class<?> entityClass = BindingCacheManager.getEntityClassByTable(tableName);
-            // 无权限检查点注解，不处理
-            if (entityClass == null || !DataAccessAnnoCache.hasDataAccessCheckpoint(entityClass)) {
-                noCheckpointCache.add(ms.getId());
-                return;
-            }
-            appendDataAccessCondition(selectBody, mainTable, entityClass);
-            String newSql = selectBody.toString();
+        DataAccessSqlTemplate sqlTemplate = getSqlTemplate(ms.getId(), originSql);
+        if (sqlTemplate == null) {
+            noCheckpointCache.add(ms.getId());
+            return;
+        }
+        Class<?> entityClass = BindingCacheManager.getEntityClassByTable(sqlTemplate.getTableName());
+        // 无权限检查点注解，不处理
+        if (entityClass == null || !DataAccessAnnoCache.hasDataAccessCheckpoint(entityClass)) {
+            noCheckpointCache.add(ms.getId());
+            return;
+        }
+        String dataAccessCondition = buildDataAccessCondition(sqlTemplate, entityClass);
+        // 主表需要数据权限检查
+        if (dataAccessCondition != null) {
+            String newSql = sqlTemplate.render(dataAccessCondition);
             mpBoundSql.sql(newSql);
+            log.debug("DataAccess Inteceptor Where: {}", dataAccessCondition);
             // 打印修改后的SQL
             if (log.isTraceEnabled() && V.notEquals(originSql, newSql)) {
                 log.trace("DataAccess Interceptor SQL : {}", newSql);
             }
-        } else {
-            noCheckpointCache.add(ms.getId());
         }
     }
 
     /**
-     * 附加数据访问权限控制SQL条件
+     * 获取SQL改写模板，同一SQL仅解析一次
      *
-     * @param entityClass
+     * @param msId
+     * @param sql
+     * @return
      */
-    private void appendDataAccessCondition(PlainSelect selectBody, Table mainTable, Class<?> entityClass) {
-        Expression dataAccessExpression = buildDataAccessExpression(mainTable, entityClass);
-        // 主表需要数据权限检查
-        if (dataAccessExpression != null) {
-            String whereStmt = selectBody.getWhere() == null ? null : selectBody.getWhere().toString();
-            if (selectBody.getWhere() == null) {
-                selectBody.setWhere(dataAccessExpression);
-            } else {
-                AndExpression andExpression = new AndExpression(selectBody.getWhere(), dataAccessExpression);
-                selectBody.setWhere(andExpression);
+    private DataAccessSqlTemplate getSqlTemplate(String msId, String sql) {
+        String cacheKey = msId + ":" + sql;
+        DataAccessSqlTemplate sqlTemplate = sqlTemplateCache.get(cacheKey);
+        if (sqlTemplate == null) {
+            sqlTemplate = DataAccessSqlTemplate.parse(sql);
+            // 动态SQL形态过多时不再缓存，避免无限增长
+            if (sqlTemplate != null && sqlTemplateCache.size() < MAX_TEMPLATE_CACHE_SIZE) {
+                sqlTemplateCache.put(cacheKey, sqlTemplate);
             }
-            log.debug("DataAccess Inteceptor Where: {} => {}", whereStmt, selectBody.getWhere().toString());
         }
+        return sqlTemplate;
     }
 
     /**
      * 构建数据权限检查条件
      *
-     * @param mainTable
+     * @param sqlTemplate
      * @param entityClass
      * @return
      */
-    private Expression buildDataAccessExpression(Table mainTable, Class<?> entityClass) {
-        return DataAccessAnnoCache.getDataPermissionMap(entityClass).entrySet().stream().map(entry -> {
-            DataAccessInterface checkImpl = ContextHelper.getBean(DataAccessInterface.class);
-            if (checkImpl == null) {
-                throw new InvalidUsageException("无法从上下文中获取数据权限的接口实现：DataAccessInterface");
-            }
-            List<? extends Serializable> idValues = checkImpl.getAccessibleIds(entityClass, entry.getKey());
+    private String buildDataAccessCondition(DataAccessSqlTemplate sqlTemplate, Class<?> entityClass) {
+        DataAccessInterface checkImpl = ContextHelper.getBean(DataAccessInterface.class);
+        if (checkImpl == null) {
+            throw new InvalidUsageException("无法从上下文中获取数据权限的接口实现：DataAccessInterface");
+        }
+        StringJoiner joiner = new StringJoiner(" AND ");
+        for (Map.Entry<String, String> entry : DataAccessAnnoCache.getDataPermissionMap(entityClass).entrySet()) {
+            // 同一请求内相同字段的可访问范围仅计算一次
+            List<? extends Serializable> idValues = DataAccessScopeCache.getAccessibleIds(checkImpl, entityClass, entry.getKey());
             if (idValues == null) {
-                return null;
-            }
-            String idCol = entry.getValue();
-            if (mainTable.getAlias() != null) {
-                idCol = mainTable.getAlias().getName() + "." + idCol;
-            }
-            if (idValues.isEmpty()) {
-                return new IsNullExpression().withLeftExpression(new Column(idCol));
-            } else if (idValues.size() == 1) {
-                EqualsTo equalsTo = new EqualsTo();
-                equalsTo.setLeftExpression(new Column(idCol));
-                if(idValues.get(0) instanceof Long){
-                    equalsTo.setRightExpression(new LongValue((Long)idValues.get(0)));
-                }
-                else{
-                    equalsTo.setRightExpression(new StringValue(S.defaultValueOf(idValues.get(0))));
-                }
-                return equalsTo;
-            } else {
-                String conditionExpr = idCol + " IN ";
-                if(idValues.get(0) instanceof Long){
-                    conditionExpr += "(" + S.join(idValues, ", ") + ")";
-                }
-                else{
-                    conditionExpr += "('" + S.join(idValues, "', '") + "')";
-                }
-                try {
-                    return CCJSqlParserUtil.parseCondExpression(conditionExpr);
-                } catch (JSQLParserException e) {
-                    log.warn("解析condition异常: " + conditionExpr, e);
-                }
-            }
-            return null;
-        }).filter(Objects::nonNull).reduce(AndExpression::new).orElse(null);
-    }
-
-    /**
-     * 解析SelectBody
-     *
-     * @param sql
-     * @return
-     */
-    private PlainSelect parseSelectBody(String sql) {
-        try {
-            Statement statement = CCJSqlParserUtil.parse(sql);
-            if (statement instanceof Select) {
-                SelectBody selectBody = ((Select) statement).getSelectBody();
-                if (selectBody instanceof PlainSelect) {
-                    return (PlainSelect) selectBody;
-                }
+                continue;
             }
-        } catch (JSQLParserException e) {
-            log.warn("解析SQL异常: " + sql, e);
+            joiner.add(sqlTemplate.buildCondition(entry.getValue(), idValues));
         }
-        return null;
+        return joiner.length() > 0 ? joiner.toString() : null;
     }
 }
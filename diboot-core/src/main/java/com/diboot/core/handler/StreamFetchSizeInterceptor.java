@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.core.handler;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * 流式读取的fetchSize拦截器
+ * <p>
+ * 流式读取复用mapper原有的selectList语句（不派生新的MappedStatement），
+ * 由调用线程登记fetchSize，在其后准备的第一个Statement上设置一次
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})
+})
+public class StreamFetchSizeInterceptor implements Interceptor {
+
+    /**
+     * 当前线程待设置的fetchSize
+     */
+    private static final ThreadLocal<Integer> FETCH_SIZE_HINT = new ThreadLocal<>();
+
+    /**
+     * 登记当前线程下一个查询的fetchSize
+     * @param fetchSize
+     */
+    public static void hint(int fetchSize) {
+        FETCH_SIZE_HINT.set(fetchSize);
+    }
+
+    /**
+     * 清除当前线程未使用的fetchSize登记
+     */
+    public static void clear() {
+        FETCH_SIZE_HINT.remove();
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Integer fetchSize = FETCH_SIZE_HINT.get();
+        if (fetchSize != null && result instanceof Statement) {
+            // 仅作用于登记后的第一个查询，窗口处理中的其他查询不受影响
+            FETCH_SIZE_HINT.remove();
+            ((Statement) result).setFetchSize(fetchSize);
+        }
+        return result;
+    }
+
+}
@@ -365,4 +365,25 @@ public interface BaseService<T> {
      */
     <VO> List<VO> getViewObjectList(Wrapper queryWrapper, Pagination pagination, Class<VO> voClass);
 
+    /**
+     * 流式获取entity列表：逐行读取查询结果，每满windowSize条交由windowConsumer处理，不在内存中保留全量结果
+     * <p>
+     * MySQL/MariaDB在非事务中逐行流式读取；在事务中读取与窗口处理共用事务连接，需开启连接参数 useCursorFetch=true 才会分批读取（fetchSize为batchSize）；
+     * 其他数据库按batchSize分批读取
+     * </p>
+     * @param queryWrapper
+     * @param windowSize 窗口大小，<=0时取 BaseConfig.getBatchSize()
+     * @param windowConsumer 窗口数据处理
+     */
+    void streamEntityList(Wrapper queryWrapper, int windowSize, Consumer<List<T>> windowConsumer);
+
+    /**
+     * 流式获取vo列表：按窗口转换为VO并绑定关联后交由windowConsumer处理，适用于大数据量导出
+     * @param queryWrapper
+     * @param voClass vo类
+     * @param windowSize 窗口大小，<=0时取 BaseConfig.getBatchSize()
+     * @param windowConsumer 窗口数据处理
+     */
+    <VO> void streamViewObjectList(Wrapper queryWrapper, Class<VO> voClass, int windowSize, Consumer<List<VO>> windowConsumer);
+
 }
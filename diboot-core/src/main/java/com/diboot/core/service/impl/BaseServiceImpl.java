@@ -17,10 +17,12 @@ package com.diboot.core.service.impl;
 
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
 import com.baomidou.mybatisplus.core.toolkit.support.LambdaMeta;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
@@ -32,8 +34,10 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.baomidou.mybatisplus.extension.toolkit.ChainWrappers;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
 import com.diboot.core.binding.Binder;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.cache.BindingResultCacheManager;
 import com.diboot.core.binding.helper.ServiceAdaptor;
 import com.diboot.core.binding.helper.WrapperHelper;
 import com.diboot.core.binding.parser.EntityInfoCache;
@@ -43,6 +47,7 @@ import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
 import com.diboot.core.exception.BusinessException;
 import com.diboot.core.exception.InvalidUsageException;
+import com.diboot.core.handler.StreamFetchSizeInterceptor;
 import com.diboot.core.mapper.BaseCrudMapper;
 import com.diboot.core.service.BaseService;
 import com.diboot.core.util.*;
@@ -50,10 +55,14 @@ import com.diboot.core.vo.LabelValue;
 import com.diboot.core.vo.Pagination;
 import com.diboot.core.vo.Status;
 import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanWrapper;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.Serializable;
 import java.util.*;
@@ -130,7 +139,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	@Override
 	public boolean save(T entity) {
 		beforeCreateEntity(entity);
-		return super.save(entity);
+		boolean success = super.save(entity);
+		evictBindingCache();
+		return success;
 	}
 
 	/**
@@ -194,7 +205,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	public boolean saveBatch(Collection<T> entityList, int batchSize){
 		// 批量插入
 		beforeCreateEntities(entityList);
-		return super.saveBatch(entityList, batchSize);
+		boolean success = super.saveBatch(entityList, batchSize);
+		evictBindingCache();
+		return success;
 	}
 
 	/**
@@ -215,6 +228,13 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	protected void beforeUpdateEntity(T entity){
 	}
 
+	/**
+	 * 数据变更后清空该Entity的关联绑定结果缓存
+	 */
+	protected void evictBindingCache(){
+		BindingResultCacheManager.evict(getEntityClass());
+	}
+
 	@Override
 	public boolean updateById(T entity) {
 		return updateEntity(entity);
@@ -224,6 +244,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	public boolean updateEntity(T entity) {
 		beforeUpdateEntity(entity);
 		boolean success = super.updateById(entity);
+		evictBindingCache();
 		return success;
 	}
 
@@ -231,12 +252,14 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	public boolean updateEntity(T entity, Wrapper updateWrapper) {
 		beforeUpdateEntity(entity);
 		boolean success = super.update(entity, updateWrapper);
+		evictBindingCache();
 		return success;
 	}
 
 	@Override
 	public boolean updateEntity(Wrapper updateWrapper) {
 		boolean success = super.update(null, updateWrapper);
+		evictBindingCache();
 		return success;
 	}
 
@@ -250,12 +273,14 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			beforeUpdateEntity(entity);
 		}
 		boolean success = super.updateBatchById(entityList);
+		evictBindingCache();
 		return success;
 	}
 
 	@Override
 	public boolean createOrUpdateEntity(T entity) {
 		boolean success = super.saveOrUpdate(entity);
+		evictBindingCache();
 		return success;
 	}
 
@@ -267,7 +292,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			return false;
 		}
 		// 批量插入
-		return super.saveOrUpdateBatch(entityList, BaseConfig.getBatchSize());
+		boolean success = super.saveOrUpdateBatch(entityList, BaseConfig.getBatchSize());
+		evictBindingCache();
+		return success;
 	}
 
     @Override
@@ -363,9 +390,8 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
             try {
                 for (Serializable followerId : newFollowIds) {
                     R relation = middleTableClass.newInstance();
-					BeanWrapper beanWrapper = BeanUtils.getBeanWrapper(relation);
-					beanWrapper.setPropertyValue(driverFieldName, driverId);
-					beanWrapper.setPropertyValue(followerFieldName, followerId);
+					BeanUtils.setProperty(relation, driverFieldName, driverId);
+					BeanUtils.setProperty(relation, followerFieldName, followerId);
                     if (setConsumer != null) {
                         setConsumer.accept(relation);
                     }
@@ -481,20 +507,26 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 
 	@Override
 	public boolean deleteEntity(Serializable id) {
-		return super.removeById(id);
+		boolean success = super.removeById(id);
+		evictBindingCache();
+		return success;
 	}
 
     @Override
     public boolean cancelDeletedById(Serializable id) {
 		EntityInfoCache info = BindingCacheManager.getEntityInfoByClass(super.getEntityClass());
 		String tableName = info.getTableName();
-        return this.getMapper().cancelDeletedById(tableName, id) > 0;
+        boolean success = this.getMapper().cancelDeletedById(tableName, id) > 0;
+        evictBindingCache();
+        return success;
     }
 
     @Override
 	public boolean deleteEntities(Wrapper queryWrapper){
 		// 执行
-		return super.remove(queryWrapper);
+		boolean success = super.remove(queryWrapper);
+		evictBindingCache();
+		return success;
 	}
 
 	@Override
@@ -503,7 +535,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		if(V.isEmpty(entityIds)){
 			return false;
 		}
-		return super.removeByIds(entityIds);
+		boolean success = super.removeByIds(entityIds);
+		evictBindingCache();
+		return success;
 	}
 
 	@Override
@@ -522,19 +556,11 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		if(queryWrapper instanceof DynamicJoinQueryWrapper){
 			return Binder.joinQueryList((DynamicJoinQueryWrapper)queryWrapper, entityClass, pagination);
 		}
-		else if(queryWrapper instanceof QueryWrapper) {
-			QueryWrapper mpQueryWrapper = ((QueryWrapper)queryWrapper);
-			if(mpQueryWrapper.getEntityClass() == null) {
-				mpQueryWrapper.setEntityClass(entityClass);
-			}
-		}
-		else if(queryWrapper instanceof LambdaQueryWrapper) {
-			LambdaQueryWrapper mpQueryWrapper = ((LambdaQueryWrapper)queryWrapper);
-			if(mpQueryWrapper.getEntityClass() == null) {
-				mpQueryWrapper.setEntityClass(entityClass);
-			}
-		}
 		// 否则，调用MP默认实现
+		fillEntityClass(queryWrapper);
+		if(pagination != null && pagination.isKeysetMode()){
+			return ServiceAdaptor.queryKeysetPage(queryWrapper, pagination, entityClass, super::page);
+		}
 		if(pagination != null){
 			IPage<T> page = convertToIPage(queryWrapper, pagination);
 			page = super.page(page, queryWrapper);
@@ -792,6 +818,78 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		return voList;
 	}
 
+	@Override
+	public void streamEntityList(Wrapper queryWrapper, int windowSize, Consumer<List<T>> windowConsumer) {
+		int size = windowSize > 0? windowSize : BaseConfig.getBatchSize();
+		// 动态join查询不支持流式读取，查询后按窗口分批处理
+		if(queryWrapper instanceof DynamicJoinQueryWrapper){
+			List<T> entityList = getEntityList(queryWrapper);
+			for(int fromIndex = 0; fromIndex < entityList.size(); fromIndex += size){
+				windowConsumer.accept(new ArrayList<>(entityList.subList(fromIndex, Math.min(fromIndex + size, entityList.size()))));
+			}
+			return;
+		}
+		fillEntityClass(queryWrapper);
+		Map<String, Object> paramMap = new HashMap<>(4);
+		paramMap.put(Constants.WRAPPER, queryWrapper);
+		paramMap.put("param1", queryWrapper);
+		WindowResultHandler<T> resultHandler = new WindowResultHandler<>(size, windowConsumer);
+		// 独立SqlSession仅保证不与MyBatis一级缓存共享；经SpringManagedTransaction取连接，当前线程有事务时仍使用事务连接
+		// 复用mapper的selectList语句（不修改Configuration），fetchSize由StreamFetchSizeInterceptor设置
+		SqlSessionFactory sqlSessionFactory = SqlHelper.sqlSessionFactory(entityClass);
+		String statementId = SqlHelper.getSqlStatement(mapperClass, SqlMethod.SELECT_LIST);
+		try(SqlSession sqlSession = sqlSessionFactory.openSession()){
+			StreamFetchSizeInterceptor.hint(getStreamFetchSize());
+			sqlSession.select(statementId, paramMap, resultHandler);
+		}
+		finally {
+			StreamFetchSizeInterceptor.clear();
+		}
+		resultHandler.finish();
+	}
+
+	/**
+	 * 流式读取的fetchSize：
+	 * MySQL/MariaDB在连接未绑定至当前线程时逐行流式读取（Integer.MIN_VALUE），
+	 * 否则（有事务同步时读取与窗口处理中的查询共用连接，逐行流式读取期间该连接不可执行其他查询）使用batchSize，
+	 * 此时MySQL需开启连接参数 useCursorFetch=true 才会分批读取
+	 * @return
+	 */
+	private int getStreamFetchSize(){
+		String dbType = ContextHelper.getDatabaseType();
+		boolean isMySql = DbType.MYSQL.getDb().equalsIgnoreCase(dbType) || DbType.MARIADB.getDb().equalsIgnoreCase(dbType);
+		if(isMySql && !TransactionSynchronizationManager.isSynchronizationActive()){
+			return Integer.MIN_VALUE;
+		}
+		return BaseConfig.getBatchSize();
+	}
+
+	@Override
+	public <VO> void streamViewObjectList(Wrapper queryWrapper, Class<VO> voClass, int windowSize, Consumer<List<VO>> windowConsumer) {
+		WrapperHelper.optimizeSelect(queryWrapper, getEntityClass(), voClass);
+		// 逐窗口转换为VO并绑定关联对象
+		streamEntityList(queryWrapper, windowSize, entityList -> windowConsumer.accept(Binder.convertAndBindRelations(entityList, voClass)));
+	}
+
+	/**
+	 * 补充查询条件的entityClass
+	 * @param queryWrapper
+	 */
+	private void fillEntityClass(Wrapper queryWrapper){
+		if(queryWrapper instanceof QueryWrapper) {
+			QueryWrapper mpQueryWrapper = ((QueryWrapper)queryWrapper);
+			if(mpQueryWrapper.getEntityClass() == null) {
+				mpQueryWrapper.setEntityClass(entityClass);
+			}
+		}
+		else if(queryWrapper instanceof LambdaQueryWrapper) {
+			LambdaQueryWrapper mpQueryWrapper = ((LambdaQueryWrapper)queryWrapper);
+			if(mpQueryWrapper.getEntityClass() == null) {
+				mpQueryWrapper.setEntityClass(entityClass);
+			}
+		}
+	}
+
 	/***
 	 * 转换为IPage
 	 * @param queryWrapper 查询条件
@@ -833,4 +931,57 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		log.warn(this.getClass().getSimpleName() + ".{} 调用错误: {}, 请检查！", method, message);
 	}
 
+
+	/**
+	 * 按窗口收集查询结果的ResultHandler
+	 * @param <E>
+	 */
+	private static class WindowResultHandler<E> implements ResultHandler<E> {
+		private final int windowSize;
+		private final Consumer<List<E>> windowConsumer;
+		private List<E> window;
+		/**
+		 * 窗口处理中抛出的异常，终止读取后原样抛出
+		 */
+		private RuntimeException failure;
+
+		WindowResultHandler(int windowSize, Consumer<List<E>> windowConsumer){
+			this.windowSize = windowSize;
+			this.windowConsumer = windowConsumer;
+			this.window = new ArrayList<>(windowSize);
+		}
+
+		@Override
+		public void handleResult(ResultContext<? extends E> resultContext) {
+			window.add(resultContext.getResultObject());
+			if(window.size() >= windowSize){
+				try{
+					flush();
+				}
+				catch (RuntimeException e){
+					failure = e;
+					resultContext.stop();
+				}
+			}
+		}
+
+		/**
+		 * 读取结束：抛出处理异常或处理剩余数据
+		 */
+		void finish(){
+			if(failure != null){
+				throw failure;
+			}
+			if(!window.isEmpty()){
+				flush();
+			}
+		}
+
+		private void flush(){
+			List<E> current = window;
+			window = new ArrayList<>(windowSize);
+			windowConsumer.accept(current);
+		}
+	}
+
 }
@@ -17,9 +17,11 @@ package com.diboot.core.util;
 
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.parser.PropAccessor;
 import com.diboot.core.config.Cons;
 import com.diboot.core.converter.*;
-import com.diboot.core.data.copy.AcceptAnnoCopier;
+import com.diboot.core.data.copy.CopyPlan;
 import com.diboot.core.entity.BaseEntity;
 import com.diboot.core.exception.BusinessException;
 import com.diboot.core.vo.LabelValue;
@@ -47,6 +49,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -80,10 +83,8 @@ public class BeanUtils {
      */
     @SuppressWarnings("UnusedReturnValue")
     public static Object copyProperties(Object source, Object target){
-        // 链式调用无法使用BeanCopier拷贝，换用BeanUtils
-        org.springframework.beans.BeanUtils.copyProperties(source, target);
-        // 处理Accept注解标识的不同字段名拷贝
-        AcceptAnnoCopier.copyAcceptProperties(source, target);
+        // 链式调用无法使用BeanCopier拷贝，使用预编译的拷贝计划（含Accept注解标识的不同字段名拷贝）
+        CopyPlan.of(source.getClass(), target.getClass()).copy(source, target);
         return target;
     }
 
@@ -100,8 +101,9 @@ public class BeanUtils {
         }
         T target = null;
         try{
-            target = clazz.getConstructor().newInstance();
-            copyProperties(source, target);
+            CopyPlan copyPlan = CopyPlan.of(source.getClass(), clazz);
+            target = copyPlan.newTarget();
+            copyPlan.copy(source, target);
         }
         catch (Exception e){
             log.warn("对象转换异常, class="+clazz.getName());
@@ -128,9 +130,14 @@ public class BeanUtils {
         // 不同，则转换
         List<T> resultList = new ArrayList<>(sourceList.size());
         try{
+            CopyPlan copyPlan = null;
             for(Object source : sourceList){
-                T target = clazz.getConstructor().newInstance();
-                copyProperties(source, target);
+                // 拷贝计划按source类型复用
+                if(copyPlan == null || !copyPlan.isPlanOf(source.getClass())){
+                    copyPlan = CopyPlan.of(source.getClass(), clazz);
+                }
+                T target = copyPlan.newTarget();
+                copyPlan.copy(source, target);
                 resultList.add(target);
             }
         }
@@ -173,6 +180,12 @@ public class BeanUtils {
             return objMap.get(field);
         }
         try {
+            // 优先使用缓存的属性访问器
+            PropAccessor accessor = getPropAccessor(obj);
+            Function<Object, Object> getter = accessor != null? accessor.getGetter(field) : null;
+            if(getter != null){
+                return getter.apply(obj);
+            }
             BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(obj);
             return wrapper.getPropertyValue(field);
         }
@@ -216,10 +229,34 @@ public class BeanUtils {
      * @param value
      */
     public static void setProperty(Object obj, String field, Object value) {
+        // 无需类型转换的赋值，直接调用setter
+        PropAccessor accessor = getPropAccessor(obj);
+        if(accessor != null && accessor.isAssignable(field, value)){
+            BiConsumer<Object, Object> setter = accessor.getSetter(field);
+            if(setter != null){
+                setter.accept(obj, value);
+                return;
+            }
+        }
         BeanWrapper wrapper = getBeanWrapper(obj);
         wrapper.setPropertyValue(field, value);
     }
 
+    /**
+     * 获取对象类的属性访问器，无可用访问器时返回null
+     * @param obj
+     * @return
+     */
+    private static PropAccessor getPropAccessor(Object obj) {
+        if(obj == null){
+            return null;
+        }
+        Class<?> beanClass = obj.getClass();
+        PropAccessor accessor = BindingCacheManager.getPropAccessor(beanClass);
+        // 不同ClassLoader加载的同名类，不可共用访问器
+        return accessor.isAccessorOf(beanClass)? accessor : null;
+    }
+
     /**
      * 类型class对象-转换方法
      */
@@ -911,9 +948,8 @@ public class BeanUtils {
         if (fieldNameList == null) {
             return;
         }
-        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(object);
         for (String fieldName : fieldNameList) {
-            wrapper.setPropertyValue(fieldName, null);
+            setProperty(object, fieldName, null);
         }
     }
 
@@ -21,6 +21,9 @@ import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.parser.PropInfo;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
+import com.diboot.core.exception.BusinessException;
+import com.diboot.core.exception.InvalidUsageException;
+import com.diboot.core.util.JSON;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -31,7 +34,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -71,6 +82,16 @@ public class Pagination implements Serializable {
      */
     private String orderBy = DEFAULT_ORDER_BY;
 
+    /**
+     * 游标分页的当前游标（首页传空字符串；非null时启用游标分页，按排序字段+主键定位，不跳过记录且不再count统计）
+     */
+    private String cursor;
+
+    /**
+     * 游标分页的下一页游标，无更多数据时为null
+     */
+    private String nextCursor;
+
     @JsonIgnore
     private Class<?> entityClass;
 
@@ -127,6 +148,144 @@ public class Pagination implements Serializable {
         return V.equals(orderBy, DEFAULT_ORDER_BY);
     }
 
+    /**
+     * 是否为游标分页
+     *
+     * @return
+     */
+    @JsonIgnore
+    public boolean isKeysetMode() {
+        return cursor != null;
+    }
+
+    /**
+     * 解析当前游标中的排序字段值（按编码时的类型还原）
+     *
+     * @return 首页返回null
+     */
+    public List<Object> decodeCursor() {
+        if (V.isEmpty(cursor)) {
+            return null;
+        }
+        List<Object> values = null;
+        try {
+            List<String> encodedValues = JSON.parseArray(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), String.class);
+            if (encodedValues != null) {
+                values = new ArrayList<>(encodedValues.size());
+                for (String encodedValue : encodedValues) {
+                    values.add(decodeCursorValue(encodedValue));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("分页游标解析失败: {}", cursor);
+            values = null;
+        }
+        if (values == null) {
+            throw new BusinessException(Status.FAIL_INVALID_PARAM, "无效的分页游标");
+        }
+        return values;
+    }
+
+    /**
+     * 根据当前页最后一条记录的排序字段值生成下一页游标（保留值类型及时间的亚秒精度）
+     *
+     * @param values
+     */
+    public void encodeNextCursor(List<Object> values) {
+        List<String> encodedValues = new ArrayList<>(values.size());
+        for (Object value : values) {
+            encodedValues.add(encodeCursorValue(value));
+        }
+        this.nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(JSON.stringify(encodedValues).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 编码游标值：类型前缀:原始值
+     *
+     * @param value
+     * @return
+     */
+    private static String encodeCursorValue(Object value) {
+        if (value == null) {
+            return "N";
+        }
+        if (value instanceof String) {
+            return "S:" + value;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return (value instanceof Long ? "L:" : "I:") + value;
+        }
+        if (value instanceof BigDecimal) {
+            return "D:" + ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return "F:" + value;
+        }
+        if (value instanceof Boolean) {
+            return "B:" + value;
+        }
+        if (value instanceof Timestamp) {
+            return "TS:" + ((Timestamp) value).getTime() + ":" + ((Timestamp) value).getNanos();
+        }
+        if (value instanceof Date) {
+            return "DT:" + ((Date) value).getTime();
+        }
+        if (value instanceof LocalDateTime) {
+            return "LDT:" + value;
+        }
+        if (value instanceof LocalDate) {
+            return "LD:" + value;
+        }
+        if (value instanceof LocalTime) {
+            return "LT:" + value;
+        }
+        throw new InvalidUsageException("游标分页不支持的排序字段类型: " + value.getClass().getName());
+    }
+
+    /**
+     * 解码游标值
+     *
+     * @param encodedValue
+     * @return
+     */
+    private static Object decodeCursorValue(String encodedValue) {
+        if ("N".equals(encodedValue)) {
+            return null;
+        }
+        int index = encodedValue.indexOf(':');
+        String type = encodedValue.substring(0, index);
+        String value = encodedValue.substring(index + 1);
+        switch (type) {
+            case "S":
+                return value;
+            case "L":
+                return Long.valueOf(value);
+            case "I":
+                return Integer.valueOf(value);
+            case "D":
+                return new BigDecimal(value);
+            case "F":
+                return Double.valueOf(value);
+            case "B":
+                return Boolean.valueOf(value);
+            case "TS":
+                String[] millisAndNanos = value.split(":");
+                Timestamp timestamp = new Timestamp(Long.parseLong(millisAndNanos[0]));
+                timestamp.setNanos(Integer.parseInt(millisAndNanos[1]));
+                return timestamp;
+            case "DT":
+                return new Date(Long.parseLong(value));
+            case "LDT":
+                return LocalDateTime.parse(value);
+            case "LD":
+                return LocalDate.parse(value);
+            case "LT":
+                return LocalTime.parse(value);
+            default:
+                throw new IllegalArgumentException("未知的游标值类型: " + type);
+        }
+    }
+
     /**
      * 转换为IPage
      *
@@ -167,6 +326,22 @@ public class Pagination implements Serializable {
                 }
             }
         }
+        if (isKeysetMode()) {
+            // 游标分页需以主键保证排序唯一
+            PropInfo propInfo = getEntityPropInfo();
+            String idColumn = propInfo != null && propInfo.getIdColumn() != null ? propInfo.getIdColumn() : Cons.FieldName.id.name();
+            if (orderItemList == null) {
+                orderItemList = new ArrayList<>();
+            }
+            if (orderItemList.stream().noneMatch(item -> idColumn.equals(item.getColumn()))) {
+                boolean asc = !orderItemList.isEmpty() && orderItemList.get(orderItemList.size() - 1).isAsc();
+                orderItemList.add(asc ? OrderItem.asc(idColumn) : OrderItem.desc(idColumn));
+            }
+            // 不跳过记录、不统计总数，多取一条用于判断是否有下一页
+            Page<T> page = new Page<T>(1, getPageSize() + 1, false);
+            page.addOrder(orderItemList);
+            return page;
+        }
         Page<T> page = new Page<T>()
                 .setCurrent(getPageIndex())
                 .setSize(getPageSize())
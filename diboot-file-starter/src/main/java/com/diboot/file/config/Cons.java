@@ -33,4 +33,34 @@ public class Cons {
         F
     }
 
+    /**
+     * Excel导入任务状态
+     */
+    public enum IMPORT_JOB_STATUS {
+        // 排队中
+        PENDING,
+        // 执行中
+        RUNNING,
+        // 已完成
+        SUCCESS,
+        // 失败
+        FAILED,
+        // 已取消
+        CANCELLED
+    }
+
+    /**
+     * Excel导入任务阶段
+     */
+    public enum IMPORT_JOB_STAGE {
+        // 等待执行
+        QUEUED,
+        // 读取及保存数据
+        IMPORTING,
+        // 生成错误数据文件
+        COLLECTING_ERRORS,
+        // 结束
+        FINISHED
+    }
+
 }
@@ -21,12 +21,17 @@ import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.JsonResult;
 import com.diboot.core.vo.Status;
+import com.diboot.file.entity.ExcelImportJob;
 import com.diboot.file.entity.UploadFile;
 import com.diboot.file.excel.BaseExcelModel;
 import com.diboot.file.excel.listener.ReadExcelListener;
+import com.diboot.file.service.ExcelImportJobService;
 import com.diboot.file.util.ExcelHelper;
 import com.diboot.file.util.FileHelper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.FileInputStream;
@@ -44,6 +49,11 @@ import java.util.Map;
 @Slf4j
 public abstract class BaseExcelFileController extends BaseFileController {
 
+    private static final boolean IAM_PRESENT = ClassUtils.isPresent("com.diboot.iam.util.IamSecurityUtils", BaseExcelFileController.class.getClassLoader());
+
+    @Autowired
+    protected ExcelImportJobService excelImportJobService;
+
     /**
      * 获取对应的ExcelDataListener
      */
@@ -124,6 +134,105 @@ public abstract class BaseExcelFileController extends BaseFileController {
         return importData(uploadFile, file.getInputStream(), params);
     }
 
+    /**
+     * 预览后异步提交保存
+     *
+     * @param params 请求参数；必需包含预览返回的文件uuid
+     * @return 导入任务id
+     * @throws Exception
+     */
+    public JsonResult<Map<String, Object>> excelPreviewSaveAsync(Map<String, Object> params) throws Exception {
+        String uuid = params.get("uuid").toString();
+        if (V.isEmpty(uuid)) {
+            throw new BusinessException("未知的预览保存");
+        }
+        UploadFile uploadFile = uploadFileService.getEntity(uuid);
+        uploadFile.setDescription(params.compute("description", (k, v) -> S.defaultIfEmpty(S.valueOf(v), "Excel预览后导入数据")).toString());
+        uploadFileService.updateEntity(uploadFile);
+        return submitImportJob(uploadFile, params);
+    }
+
+    /**
+     * 异步上传excel
+     * <p>
+     * 保存文件后提交导入任务并立即返回任务id，导入进度通过 getImportJob 查询
+     *
+     * @param file        excel文件
+     * @param entityClass 对应实体class
+     * @param params      请求参数
+     * @return 导入任务id
+     * @throws Exception
+     */
+    public JsonResult<Map<String, Object>> uploadExcelFileAsync(MultipartFile file, Class<?> entityClass, Map<String, Object> params) throws Exception {
+        checkIsExcel(file);
+        // 保存文件
+        UploadFile uploadFile = super.saveFile(file, entityClass);
+        uploadFile.setDescription(params.compute("description", (k, v) -> S.defaultIfEmpty(S.valueOf(v), "Excel导入数据")).toString());
+        uploadFileService.createEntity(uploadFile);
+        return submitImportJob(uploadFile, params);
+    }
+
+    /**
+     * 获取当前用户的导入任务的状态及进度
+     *
+     * @param jobId 导入任务id
+     * @return
+     */
+    public JsonResult<ExcelImportJob> getImportJob(Long jobId) {
+        ExcelImportJob job = excelImportJobService.getJob(jobId, getCurrentUserId(), getCurrentTenantId());
+        if (job == null) {
+            throw new BusinessException(Status.FAIL_OPERATION, "导入任务不存在");
+        }
+        return JsonResult.OK(job);
+    }
+
+    /**
+     * 取消当前用户的导入任务，已保存的数据不回滚
+     *
+     * @param jobId 导入任务id
+     * @return
+     */
+    public JsonResult<Boolean> cancelImportJob(Long jobId) {
+        if (!excelImportJobService.cancelJob(jobId, getCurrentUserId(), getCurrentTenantId())) {
+            throw new BusinessException(Status.FAIL_OPERATION, "导入任务不存在或已结束");
+        }
+        return JsonResult.OK(true);
+    }
+
+    /**
+     * 当前用户id，导入任务按创建人隔离（默认取IAM的当前用户，未登录时返回null）
+     *
+     * @return
+     */
+    protected Long getCurrentUserId() {
+        return IAM_PRESENT ? IamUserHolder.getCurrentUserId() : null;
+    }
+
+    /**
+     * 当前租户id，导入任务按租户隔离（默认取IAM当前用户的tenantId）
+     *
+     * @return
+     */
+    protected Long getCurrentTenantId() {
+        return IAM_PRESENT ? IamUserHolder.getCurrentTenantId() : null;
+    }
+
+    /**
+     * 提交导入任务
+     *
+     * @param uploadFile 上传文件对象
+     * @param params     请求参数
+     * @return
+     */
+    private JsonResult<Map<String, Object>> submitImportJob(UploadFile uploadFile, Map<String, Object> params) {
+        ExcelImportJob job = excelImportJobService.submitJob(uploadFile, getExcelDataListener(), params, getCurrentUserId(), getCurrentTenantId());
+        Map<String, Object> dataMap = new HashMap<>(4);
+        dataMap.put("jobId", job.getId());
+        dataMap.put("uuid", uploadFile.getUuid());
+        dataMap.put("status", job.getStatus());
+        return JsonResult.OK(dataMap);
+    }
+
     /**
      * 导入数据
      *
@@ -145,7 +254,10 @@ public abstract class BaseExcelFileController extends BaseFileController {
 
         String errorDataFilePath = listener.getErrorDataFilePath();
         if (errorDataFilePath == null) {
-            return JsonResult.OK();
+            return JsonResult.OK(new HashMap<String, Object>() {{
+                put("totalCount", listener.getTotalCount());
+                put("stageTimes", listener.getStageTimeMap());
+            }});
         }
         String errorDataFileName = uploadFile.getFileName().replaceFirst("\\.\\w+$", "_错误数据.xlsx");
         UploadFile errorFile;
@@ -172,6 +284,7 @@ public abstract class BaseExcelFileController extends BaseFileController {
             put("errorUrl", errorFile.getAccessUrl());
             put("errorCount", listener.getErrorCount());
             put("errorMsgs", listener.getErrorMsgs());
+            put("stageTimes", listener.getStageTimeMap());
         }});
     }
 
@@ -216,4 +329,22 @@ public abstract class BaseExcelFileController extends BaseFileController {
             throw new BusinessException(Status.FAIL_VALIDATION, "该文件无内容！");
         }
     }
+
+    /**
+     * 隔离对可选依赖IAM的引用
+     */
+    private static class IamUserHolder {
+        static Long getCurrentUserId() {
+            return com.diboot.iam.util.IamSecurityUtils.getCurrentUserId();
+        }
+
+        static Long getCurrentTenantId() {
+            Object currentUser = com.diboot.iam.util.IamSecurityUtils.getCurrentUser();
+            if (currentUser == null) {
+                return null;
+            }
+            BeanWrapperImpl beanWrapper = new BeanWrapperImpl(currentUser);
+            return beanWrapper.isReadableProperty("tenantId") ? (Long) beanWrapper.getPropertyValue("tenantId") : null;
+        }
+    }
 }
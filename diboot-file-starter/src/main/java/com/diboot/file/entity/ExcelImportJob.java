@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.diboot.core.entity.BaseEntity;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.Date;
+
+/**
+ * Excel导入任务
+ * <p>
+ * 异步导入的执行状态及进度，lastRowIndex为最后一个已保存批次的行号，用于节点重启后断点续传
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ExcelImportJob extends BaseEntity {
+    private static final long serialVersionUID = 208L;
+
+    /**
+     * 租户ID
+     */
+    @JsonIgnore
+    @TableField
+    private Long tenantId;
+
+    /**
+     * 导入文件uuid
+     */
+    @TableField
+    private String uploadFileUuid;
+
+    /**
+     * 导入数据的ReadExcelListener类
+     */
+    @JsonIgnore
+    @TableField
+    private String listenerClass;
+
+    /**
+     * 请求参数json
+     */
+    @JsonIgnore
+    @TableField
+    private String paramJson;
+
+    /**
+     * 状态
+     * @see com.diboot.file.config.Cons.IMPORT_JOB_STATUS
+     */
+    @TableField
+    private String status;
+
+    /**
+     * 当前阶段
+     * @see com.diboot.file.config.Cons.IMPORT_JOB_STAGE
+     */
+    @TableField
+    private String stage;
+
+    /**
+     * 已读取数据量
+     */
+    @TableField
+    private int readCount = 0;
+
+    /**
+     * 已保存数据量
+     */
+    @TableField
+    private int savedCount = 0;
+
+    /**
+     * 错误数据量
+     */
+    @TableField
+    private int errorCount = 0;
+
+    /**
+     * 最后一个已保存批次的行号
+     */
+    @TableField
+    private int lastRowIndex = -1;
+
+    /**
+     * 错误数据文件访问地址
+     */
+    @TableField
+    private String errorUrl;
+
+    /**
+     * 结果信息
+     */
+    @TableField
+    private String resultMsg;
+
+    /**
+     * 执行节点
+     */
+    @JsonIgnore
+    @TableField
+    private String nodeId;
+
+    /**
+     * 创建人
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private Long createBy;
+
+    /**
+     * 更新时间（执行中随每批次进度刷新）
+     */
+    @TableField
+    private Date updateTime;
+
+}
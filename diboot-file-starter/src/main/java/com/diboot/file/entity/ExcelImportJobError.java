@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.diboot.core.entity.BaseEntity;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Excel导入任务的错误数据
+ * <p>
+ * 与所在批次的进度在同一事务中保存，断点续传时据此恢复错误数据文件，任务结束后删除
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ExcelImportJobError extends BaseEntity {
+    private static final long serialVersionUID = 209L;
+
+    /**
+     * 导入任务ID
+     */
+    @TableField
+    private Long jobId;
+
+    /**
+     * 行号
+     */
+    @TableField
+    private int rowIndex;
+
+    /**
+     * 数据json
+     */
+    @TableField
+    private String dataJson;
+
+    /**
+     * 批注json
+     */
+    @TableField
+    private String commentJson;
+
+    /**
+     * 无效值json
+     */
+    @TableField
+    private String invalidValueJson;
+
+}
@@ -96,6 +96,17 @@ public class ExcelBindAnnoHandler {
      * @return
      */
     public static Map<String, List> convertToNameValueMap(Annotation annotation, List<String> nameList){
+        return convertToNameValueMap(annotation, nameList, null);
+    }
+
+    /**
+     * 转换为name-value map，优先使用导入范围内的查找缓存
+     * @param annotation
+     * @param nameList
+     * @param lookupCache 为null时不缓存
+     * @return
+     */
+    public static Map<String, List> convertToNameValueMap(Annotation annotation, List<String> nameList, ExcelImportLookupCache lookupCache){
         // 字典
         if(annotation instanceof ExcelBindDict || annotation instanceof BindDict){
             String dictType = null;
@@ -105,15 +116,16 @@ public class ExcelBindAnnoHandler {
             else{
                 dictType = ((BindDict)annotation).type();
             }
-            DictionaryServiceExtProvider bindDictService = ContextHelper.getBean(DictionaryServiceExtProvider.class);
-            if(bindDictService == null){
-                throw new InvalidUsageException("DictionaryService未实现，无法使用ExcelBindDict注解！");
+            if(lookupCache != null){
+                return lookupCache.getDictNameValueMap(dictType, ExcelBindAnnoHandler::loadDictNameValueMap);
             }
-            List<LabelValue> list = bindDictService.getLabelValueList(dictType);
-            return convertLabelValueListToMap(list);
+            return loadDictNameValueMap(dictType);
         }
         else if(annotation instanceof ExcelBindField){
             ExcelBindField bindField = (ExcelBindField)annotation;
+            if(lookupCache != null){
+                return lookupCache.getBindFieldNameValueMap(bindField, nameList, names -> executeBindField(bindField, names));
+            }
             return executeBindField(bindField, nameList);
         }
         else{
@@ -121,6 +133,20 @@ public class ExcelBindAnnoHandler {
         }
     }
 
+    /**
+     * 加载字典的name-value map
+     * @param dictType
+     * @return
+     */
+    private static Map<String, List> loadDictNameValueMap(String dictType){
+        DictionaryServiceExtProvider bindDictService = ContextHelper.getBean(DictionaryServiceExtProvider.class);
+        if(bindDictService == null){
+            throw new InvalidUsageException("DictionaryService未实现，无法使用ExcelBindDict注解！");
+        }
+        List<LabelValue> list = bindDictService.getLabelValueList(dictType);
+        return convertLabelValueListToMap(list);
+    }
+
     /**
      * 执行绑定
      * @param bindField
@@ -145,18 +171,17 @@ public class ExcelBindAnnoHandler {
      * @return
      */
     private static Map<String, List> convertLabelValueListToMap(List<LabelValue> list){
-        Map<String, List> resultMap = new HashMap<>(list.size());
-        if(V.notEmpty(list)){
-            for(LabelValue labelValue : list){
-                List mapVal = resultMap.get(labelValue.getLabel());
-                if(mapVal == null){
-                    mapVal = new ArrayList();
-                    resultMap.put(labelValue.getLabel(), mapVal);
-                }
-                if(!mapVal.contains(labelValue.getValue())){
-                    mapVal.add(labelValue.getValue());
-                }
-            }
+        if(V.isEmpty(list)){
+            return new HashMap<>();
+        }
+        // 以Set去重
+        Map<String, Set<Object>> label2ValuesMap = new HashMap<>(list.size());
+        for(LabelValue labelValue : list){
+            label2ValuesMap.computeIfAbsent(labelValue.getLabel(), k -> new LinkedHashSet<>()).add(labelValue.getValue());
+        }
+        Map<String, List> resultMap = new HashMap<>(label2ValuesMap.size());
+        for(Map.Entry<String, Set<Object>> entry : label2ValuesMap.entrySet()){
+            resultMap.put(entry.getKey(), new ArrayList<>(entry.getValue()));
         }
         return resultMap;
     }
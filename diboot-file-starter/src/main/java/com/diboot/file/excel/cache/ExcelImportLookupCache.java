@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.excel.cache;
+
+import com.diboot.core.util.V;
+import com.diboot.file.excel.annotation.ExcelBindField;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 单次导入范围内的字典及关联字段查找缓存
+ * <p>
+ * 字典在一次导入中只加载一次；关联字段按名称累积已匹配的查询结果，后续批次仅查询未匹配过的名称；
+ * 未匹配的名称不缓存，以便关联同一文件中此前批次保存的数据；
+ * 校验阶段并行执行，需线程安全
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class ExcelImportLookupCache {
+    /**
+     * 字典类型-（名称-值列表）
+     */
+    private final Map<String, Map<String, List>> dictType2NameValueMap = new ConcurrentHashMap<>();
+    /**
+     * 关联实体字段-（名称-值列表）
+     */
+    private final Map<String, Map<String, List>> bindField2NameValueMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取字典的名称-值映射，未缓存时加载
+     * @param dictType
+     * @param loader
+     * @return
+     */
+    public Map<String, List> getDictNameValueMap(String dictType, Function<String, Map<String, List>> loader){
+        return dictType2NameValueMap.computeIfAbsent(dictType, loader);
+    }
+
+    /**
+     * 获取关联字段的名称-值映射，仅加载未匹配过的名称
+     * @param bindField
+     * @param nameList
+     * @param loader 根据名称列表查询名称-值映射
+     * @return
+     */
+    public Map<String, List> getBindFieldNameValueMap(ExcelBindField bindField, List<String> nameList, Function<List<String>, Map<String, List>> loader){
+        if(V.isEmpty(nameList)){
+            return Collections.emptyMap();
+        }
+        String cacheKey = bindField.entity().getName() + ":" + bindField.field();
+        Map<String, List> name2ValueMap = bindField2NameValueMap.computeIfAbsent(cacheKey, k -> new ConcurrentHashMap<>());
+        Set<String> unmatchedNames = new LinkedHashSet<>();
+        for(String name : nameList){
+            if(V.notEmpty(name) && !name2ValueMap.containsKey(name)){
+                unmatchedNames.add(name);
+            }
+        }
+        if(unmatchedNames.isEmpty()){
+            return name2ValueMap;
+        }
+        Map<String, List> loadedMap = loader.apply(new ArrayList<>(unmatchedNames));
+        if(V.isEmpty(loadedMap)){
+            return name2ValueMap;
+        }
+        // 仅缓存匹配到的名称，未匹配的名称在后续批次重新查询
+        for(String name : unmatchedNames){
+            List values = loadedMap.get(name);
+            if(V.notEmpty(values)){
+                name2ValueMap.put(name, values);
+            }
+        }
+        return name2ValueMap;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear(){
+        dictType2NameValueMap.clear();
+        bindField2NameValueMap.clear();
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.excel.listener;
+
+import com.diboot.file.starter.FileProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Excel分批导入共享的校验、保存线程池
+ * <p>
+ * 由全部导入共享，线程数由 diboot.component.file.import-threads 限定；
+ * 单次导入的并行度及排队批次数默认取 import-parallelism / import-queue-size；关闭时停止线程池
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+@Getter
+public class ExcelImportExecutors implements DisposableBean {
+
+    /**
+     * 单次导入校验阶段的默认并发数
+     */
+    private final int parallelism;
+    /**
+     * 单次导入已提交未保存的默认最大批次数
+     */
+    private final int queueSize;
+    /**
+     * 共享的校验线程池
+     */
+    private final ThreadPoolExecutor validateExecutor;
+    /**
+     * 共享的保存线程池（同一导入的批次依次保存）
+     */
+    private final ThreadPoolExecutor saveExecutor;
+
+    public ExcelImportExecutors(FileProperties fileProperties) {
+        this(fileProperties.getImportThreads(), fileProperties.getImportParallelism(), fileProperties.getImportQueueSize());
+    }
+
+    public ExcelImportExecutors(int threads, int parallelism, int queueSize) {
+        int sharedThreads = Math.max(1, threads);
+        this.parallelism = Math.max(1, parallelism);
+        this.queueSize = Math.max(1, queueSize);
+        this.validateExecutor = newExecutor(sharedThreads, "excel-import-validate-");
+        this.saveExecutor = newExecutor(sharedThreads, "excel-import-save-");
+        log.debug("初始化Excel导入线程池: threads={}, parallelism={}, queueSize={}", sharedThreads, this.parallelism, this.queueSize);
+    }
+
+    @Override
+    public void destroy() {
+        validateExecutor.shutdown();
+        saveExecutor.shutdown();
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads, String threadNamePrefix) {
+        AtomicInteger threadSeq = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, threadNamePrefix + threadSeq.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 无导入时空闲线程自动回收
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.excel.listener;
+
+import lombok.Getter;
+
+/**
+ * Excel异步导入任务的执行上下文
+ * <p>
+ * 异步导入任务在后台线程中执行，不存在请求及登录用户上下文；执行期间（含导入流水线的校验、保存线程）
+ * 可通过 {@link #current()} 获取提交任务时记录的创建人及租户，监听器在任务模式下应据此获取操作人，而非当前登录用户
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Getter
+public class ExcelImportJobContext {
+    /**
+     * 当前线程的任务上下文
+     */
+    private static final ThreadLocal<ExcelImportJobContext> CURRENT_CONTEXT = new ThreadLocal<>();
+
+    /**
+     * 任务id
+     */
+    private final Long jobId;
+    /**
+     * 提交任务的创建人
+     */
+    private final Long createBy;
+    /**
+     * 提交任务的租户ID
+     */
+    private final Long tenantId;
+
+    public ExcelImportJobContext(Long jobId, Long createBy, Long tenantId) {
+        this.jobId = jobId;
+        this.createBy = createBy;
+        this.tenantId = tenantId;
+    }
+
+    /**
+     * 获取当前线程的任务上下文，非异步导入任务中执行时为null
+     * @return
+     */
+    public static ExcelImportJobContext current() {
+        return CURRENT_CONTEXT.get();
+    }
+
+    /**
+     * 设置当前线程的任务上下文
+     * @param context 为null时移除
+     */
+    public static void set(ExcelImportJobContext context) {
+        if (context == null) {
+            CURRENT_CONTEXT.remove();
+        } else {
+            CURRENT_CONTEXT.set(context);
+        }
+    }
+
+    /**
+     * 移除当前线程的任务上下文
+     */
+    public static void remove() {
+        CURRENT_CONTEXT.remove();
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.excel.listener;
+
+import com.diboot.file.excel.BaseExcelModel;
+
+import java.util.List;
+
+/**
+ * Excel导入进度回调
+ * <p>
+ * 每批数据的保存及 onBatchHandled 均在 handleBatch 中执行，实现方可将其包裹在同一事务中，
+ * 使已保存的数据与持久化的进度一致，断点续传时不会重复保存；
+ * isCancelled()为true时后续批次不再保存
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public interface ExcelImportProgress {
+
+    /**
+     * 表头解析完成，开始处理数据前回调
+     */
+    default void onHeadRead() {
+    }
+
+    /**
+     * 处理一批数据：保存正确数据并回调 onBatchHandled
+     * <p>
+     * 默认直接执行，抛出异常时该批次视为未处理
+     *
+     * @param batchHandler 批次处理
+     */
+    default void handleBatch(Runnable batchHandler) {
+        batchHandler.run();
+    }
+
+    /**
+     * 一批数据处理完成
+     *
+     * @param lastRowIndex  该批次最后一行的行号
+     * @param readCount     已读取数据量
+     * @param properCount   已保存的正确数据量
+     * @param errorCount    错误数据量
+     * @param errorDataList 该批次的错误数据
+     */
+    void onBatchHandled(int lastRowIndex, int readCount, int properCount, int errorCount, List<? extends BaseExcelModel> errorDataList);
+
+    /**
+     * 是否已取消
+     *
+     * @return
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
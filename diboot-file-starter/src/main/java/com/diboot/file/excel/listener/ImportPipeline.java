@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.excel.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Excel导入流水线
+ * <p>
+ * 解析线程提交数据批次 → 多线程并行校验 → 按提交顺序逐批保存；
+ * 已提交未保存的批次数受限，超出时解析线程阻塞等待（背压），内存占用有界；
+ * 校验、保存线程取自全部导入共享的 {@link ExcelImportExecutors}，线程总数由 diboot.component.file.import-threads 限定（默认为CPU核数），未提供时在解析线程中同步执行；
+ * 各阶段线程继承提交时的请求上下文（及Shiro上下文、异步导入任务上下文），任一阶段异常或解析中断后不再处理后续批次
+ * </p>
+ * <p>
+ * 事务：异步执行时各批次在共享线程中保存，不加入调用方的事务，每批次的保存各自提交；
+ * 创建流水线时调用方已开启事务的，在解析线程中同步校验及保存，保持全部数据在调用方事务中
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+class ImportPipeline<T> {
+    private static final boolean SHIRO_PRESENT = ClassUtils.isPresent("org.apache.shiro.util.ThreadContext", ImportPipeline.class.getClassLoader());
+
+    private final Consumer<List<T>> validateStage;
+    private final Consumer<List<T>> saveStage;
+    /**
+     * 当前导入的校验执行器，并发数不超过parallelism
+     */
+    private final Executor validateExecutor;
+    private final Executor saveExecutor;
+    /**
+     * 调用方事务中同步执行
+     */
+    private final boolean synchronous;
+    /**
+     * 已提交未保存的批次数限制
+     */
+    private final Semaphore inFlightPermits;
+    /**
+     * 最后一个批次的保存结果，后续批次在其后保存以保证顺序
+     */
+    private CompletableFuture<Void> lastSaved = CompletableFuture.completedFuture(null);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong validateNanos = new AtomicLong();
+    private final AtomicLong saveNanos = new AtomicLong();
+    private long backpressureNanos = 0;
+    private long parseEndNanos = 0;
+    private int batchCount = 0;
+
+    ImportPipeline(int parallelism, int queueSize, Consumer<List<T>> validateStage, Consumer<List<T>> saveStage, ExcelImportExecutors executors) {
+        this(parallelism, queueSize, validateStage, saveStage,
+                executors != null ? executors.getValidateExecutor() : null, executors != null ? executors.getSaveExecutor() : null,
+                executors == null || TransactionSynchronizationManager.isActualTransactionActive());
+    }
+
+    ImportPipeline(int parallelism, int queueSize, Consumer<List<T>> validateStage, Consumer<List<T>> saveStage,
+                   Executor sharedValidateExecutor, Executor sharedSaveExecutor, boolean synchronous) {
+        this.validateStage = validateStage;
+        this.saveStage = saveStage;
+        int threads = Math.max(1, parallelism);
+        this.validateExecutor = sharedValidateExecutor != null ? new LimitedExecutor(sharedValidateExecutor, threads) : null;
+        this.saveExecutor = sharedSaveExecutor;
+        this.synchronous = synchronous;
+        this.inFlightPermits = new Semaphore(Math.max(threads, queueSize));
+    }
+
+    /**
+     * 提交数据批次（在解析线程调用，排队批次已满时阻塞）
+     * @param batch
+     */
+    void submit(List<T> batch) {
+        if (failure.get() != null) {
+            return;
+        }
+        batchCount++;
+        if (synchronous) {
+            try {
+                runStage(null, validateStage, batch, validateNanos);
+                runStage(null, saveStage, batch, saveNanos);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+            return;
+        }
+        long waitStart = System.nanoTime();
+        try {
+            inFlightPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+            return;
+        }
+        backpressureNanos += System.nanoTime() - waitStart;
+        ThreadContextSnapshot contextSnapshot = new ThreadContextSnapshot();
+        CompletableFuture<List<T>> validated = CompletableFuture.supplyAsync(() -> {
+            runStage(contextSnapshot, validateStage, batch, validateNanos);
+            return batch;
+        }, validateExecutor);
+        lastSaved = lastSaved.thenCombine(validated, (previous, validatedBatch) -> validatedBatch)
+                .thenAcceptAsync(validatedBatch -> runStage(contextSnapshot, saveStage, validatedBatch, saveNanos), saveExecutor)
+                .whenComplete((result, throwable) -> {
+                    inFlightPermits.release();
+                    if (throwable != null) {
+                        failure.compareAndSet(null, throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+                    }
+                });
+    }
+
+    /**
+     * 等待全部批次处理完成，有异常时抛出
+     * @throws Exception
+     */
+    void finish() throws Exception {
+        parseEndNanos = System.nanoTime();
+        awaitDrained();
+        Throwable throwable = failure.get();
+        if (throwable instanceof Exception) {
+            throw (Exception) throwable;
+        } else if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+    }
+
+    /**
+     * 解析中断时取消：尚未开始的批次不再校验及保存，等待执行中的批次结束后返回
+     * @param cause 中断原因
+     */
+    void cancel(Throwable cause) {
+        if (parseEndNanos == 0) {
+            parseEndNanos = System.nanoTime();
+        }
+        failure.compareAndSet(null, cause != null ? cause : new CancellationException("导入已取消"));
+        awaitDrained();
+    }
+
+    /**
+     * 是否已失败或取消
+     * @return
+     */
+    boolean isAborted() {
+        return failure.get() != null;
+    }
+
+    /**
+     * 各阶段耗时（毫秒）：batches 批次数，parse 解析（不含背压等待），validate 校验累计，save 保存累计，backpressure 背压等待，total 总计
+     * @return
+     */
+    Map<String, Long> getStageTimeMap() {
+        long totalNanos = System.nanoTime() - startNanos;
+        long parseNanos = (parseEndNanos > 0 ? parseEndNanos : System.nanoTime()) - startNanos - backpressureNanos;
+        Map<String, Long> stageTimeMap = new LinkedHashMap<>(8);
+        stageTimeMap.put("batches", (long) batchCount);
+        stageTimeMap.put("parse", TimeUnit.NANOSECONDS.toMillis(parseNanos));
+        stageTimeMap.put("validate", TimeUnit.NANOSECONDS.toMillis(validateNanos.get()));
+        stageTimeMap.put("save", TimeUnit.NANOSECONDS.toMillis(saveNanos.get()));
+        stageTimeMap.put("backpressure", TimeUnit.NANOSECONDS.toMillis(backpressureNanos));
+        stageTimeMap.put("total", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+        return stageTimeMap;
+    }
+
+    private void awaitDrained() {
+        try {
+            lastSaved.join();
+        } catch (CompletionException | CancellationException ignored) {
+            // 异常已记录在failure中
+        }
+    }
+
+    private void runStage(ThreadContextSnapshot contextSnapshot, Consumer<List<T>> stage, List<T> batch, AtomicLong stageNanos) {
+        if (failure.get() != null) {
+            return;
+        }
+        long start = System.nanoTime();
+        RequestAttributes previousRequestAttributes = contextSnapshot != null ? contextSnapshot.apply() : null;
+        try {
+            stage.accept(batch);
+        } finally {
+            if (contextSnapshot != null) {
+                contextSnapshot.restore(previousRequestAttributes);
+            }
+            stageNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 限制并发数的执行器：任务在共享线程池中执行，同时执行的任务数不超过limit
+     */
+    private static class LimitedExecutor implements Executor {
+        private final Executor delegate;
+        private final int limit;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger activeCount = new AtomicInteger();
+
+        LimitedExecutor(Executor delegate, int limit) {
+            this.delegate = delegate;
+            this.limit = limit;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+            dispatch();
+        }
+
+        private void dispatch() {
+            while (!tasks.isEmpty()) {
+                int active = activeCount.get();
+                if (active >= limit) {
+                    return;
+                }
+                if (!activeCount.compareAndSet(active, active + 1)) {
+                    continue;
+                }
+                Runnable task = tasks.poll();
+                if (task == null) {
+                    activeCount.decrementAndGet();
+                    continue;
+                }
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        activeCount.decrementAndGet();
+                        dispatch();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * 提交线程的上下文快照
+     */
+    private static class ThreadContextSnapshot {
+        private final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        private final Map<Object, Object> shiroResources = SHIRO_PRESENT ? ShiroContextHolder.getResources() : null;
+        private final ExcelImportJobContext jobContext = ExcelImportJobContext.current();
+
+        RequestAttributes apply() {
+            RequestAttributes previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            ExcelImportJobContext.set(jobContext);
+            if (shiroResources != null) {
+                ShiroContextHolder.setResources(shiroResources);
+            }
+            return previousRequestAttributes;
+        }
+
+        void restore(RequestAttributes previousRequestAttributes) {
+            RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+            ExcelImportJobContext.remove();
+            if (shiroResources != null) {
+                ShiroContextHolder.remove();
+            }
+        }
+    }
+
+    /**
+     * Shiro上下文访问（仅在Shiro存在时加载）
+     */
+    private static class ShiroContextHolder {
+        static Map<Object, Object> getResources() {
+            return org.apache.shiro.util.ThreadContext.getResources();
+        }
+
+        static void setResources(Map<Object, Object> resources) {
+            org.apache.shiro.util.ThreadContext.setResources(resources);
+        }
+
+        static void remove() {
+            org.apache.shiro.util.ThreadContext.remove();
+        }
+    }
+
+}
@@ -18,6 +18,9 @@ package com.diboot.file.excel.listener;
 import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.util.ListUtils;
 import com.diboot.core.config.BaseConfig;
+import com.diboot.core.exception.BusinessException;
+import com.diboot.core.util.ContextHelper;
+import com.diboot.core.vo.Status;
 import com.diboot.file.excel.BaseExcelModel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +33,12 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * 分页读取Excel
+ * <p>
+ * 每读取一批数据提交到导入流水线：并行校验字典及关联字段，再按读取顺序执行自定义校验与保存，与解析过程重叠执行；
+ * 并行度及排队批次数可通过 diboot.component.file.import-parallelism / import-queue-size 配置或重写相应方法，校验、保存线程取自共享的 {@link ExcelImportExecutors}；
+ * 读取异常中断时通过 {@link #onReadAborted(Exception)} 终止未保存的批次（经ExcelHelper读取时自动调用）；
+ * 调用方未开启事务时各批次的保存各自提交，开启事务时在当前线程同步保存
+ * </p>
  *
  * @author wind
  * @version v2.4.0
@@ -46,40 +55,105 @@ public abstract class PageReadExcelListener<T extends BaseExcelModel> extends Re
     @Getter
     private final List<T> cachedDataList = ListUtils.newArrayListWithExpectedSize(BATCH_COUNT);
 
+    /**
+     * 已由导入流水线替代
+     */
+    @Deprecated
     protected CompletableFuture<Boolean> completableFuture;
 
+    /**
+     * 导入流水线
+     */
+    private ImportPipeline<T> importPipeline;
+
     @Override
     public void doAfterAllAnalysed(AnalysisContext context) {
-        if (completableFuture != null) {
-            completableFuture.join();
-        }
         if (CollectionUtils.isNotEmpty(cachedDataList)) {
-            handle(cachedDataList);
+            getImportPipeline().submit(new ArrayList<>(cachedDataList));
+            cachedDataList.clear();
+        }
+        if (importPipeline != null) {
+            try {
+                importPipeline.finish();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new BusinessException(Status.FAIL_EXCEPTION, e.getMessage(), e);
+            } finally {
+                stageTimeMap.putAll(importPipeline.getStageTimeMap());
+            }
         }
         super.finish();
     }
 
+    @Override
+    public void onReadAborted(Exception exception) {
+        cachedDataList.clear();
+        if (importPipeline != null) {
+            // 终止排队中的批次，等待执行中的批次结束
+            importPipeline.cancel(exception);
+            stageTimeMap.putAll(importPipeline.getStageTimeMap());
+        }
+        super.onReadAborted(exception);
+    }
+
     @Override
     protected void cachedData(T data) {
         cachedDataList.add(data);
         if (cachedDataList.size() >= BATCH_COUNT) {
-            if (completableFuture != null) {
-                completableFuture.join();
-            }
-            completableFuture = asyncHandle(new ArrayList<>(cachedDataList));
+            // 排队批次已满时阻塞，控制内存占用
+            getImportPipeline().submit(new ArrayList<>(cachedDataList));
             cachedDataList.clear();
         }
     }
 
+    /**
+     * 单次导入校验阶段的最大并发数（线程取自全部导入共享的线程池）
+     *
+     * @return
+     */
+    protected int getParallelism() {
+        ExcelImportExecutors importExecutors = getImportExecutors();
+        return importExecutors != null ? importExecutors.getParallelism() : 2;
+    }
+
+    /**
+     * 已提交未保存的最大批次数
+     *
+     * @return
+     */
+    protected int getQueueSize() {
+        ExcelImportExecutors importExecutors = getImportExecutors();
+        return importExecutors != null ? importExecutors.getQueueSize() : 4;
+    }
+
+    /**
+     * 全部导入共享的校验、保存线程池，为null时在解析线程中同步校验及保存
+     *
+     * @return
+     */
+    protected ExcelImportExecutors getImportExecutors() {
+        return ContextHelper.getBean(ExcelImportExecutors.class);
+    }
+
     /**
      * 异步处理数据，提高效率
      *
      * @param dataList
      * @return
+     * @deprecated 已由导入流水线替代
      */
+    @Deprecated
     @Async
     public CompletableFuture<Boolean> asyncHandle(List<T> dataList) {
         super.handle(dataList);
         return CompletableFuture.completedFuture(true);
     }
+
+    private ImportPipeline<T> getImportPipeline() {
+        if (importPipeline == null) {
+            importPipeline = new ImportPipeline<>(getParallelism(), getQueueSize(), this::validateData, this::handleValidatedData, getImportExecutors());
+        }
+        return importPipeline;
+    }
 }
@@ -39,6 +39,7 @@ import com.diboot.file.excel.annotation.EmptyStrategy;
 import com.diboot.file.excel.annotation.ExcelBindDict;
 import com.diboot.file.excel.annotation.ExcelBindField;
 import com.diboot.file.excel.cache.ExcelBindAnnoHandler;
+import com.diboot.file.excel.cache.ExcelImportLookupCache;
 import com.diboot.file.excel.write.CommentWriteHandler;
 import com.diboot.file.util.ExcelHelper;
 import com.diboot.file.util.FileHelper;
@@ -52,6 +53,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -123,6 +125,35 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
     @Getter
     protected Integer errorCount = 0;
 
+    /**
+     * 各阶段耗时（毫秒）
+     */
+    @Getter
+    protected final Map<String, Long> stageTimeMap = new LinkedHashMap<>();
+
+    /**
+     * 本次导入的字典及关联字段查找缓存
+     */
+    private final ExcelImportLookupCache lookupCache = new ExcelImportLookupCache();
+
+    /**
+     * 导入进度回调
+     */
+    @Setter
+    private ExcelImportProgress importProgress;
+
+    /**
+     * 断点续传：跳过行号不大于该值的数据（已保存的批次）
+     */
+    @Setter
+    private int resumeRowIndex = -1;
+
+    /**
+     * 已读取数据量（不含跳过的数据）
+     */
+    @Getter
+    private volatile int readCount = 0;
+
     /**
      * <h3>保存错误数据</h3>
      * 写到excel文件中
@@ -161,6 +192,9 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
             fieldNameMap.put(index, fieldName);
             headNameMap.put(index, headNameList);
         }
+        if (importProgress != null) {
+            importProgress.onHeadRead();
+        }
     }
 
     /**
@@ -168,6 +202,10 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
      */
     @Override
     public void invoke(T data, AnalysisContext context) {
+        if (isSkipped(context)) {
+            return;
+        }
+        readCount++;
         // 绑定行号
         data.setRowIndex(context.readRowHolder().getRowIndex());
         // 校验异常
@@ -185,8 +223,10 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
      * 处理结束后需调用一次
      */
     protected void finish() {
+        lookupCache.clear();
         if (excelWriter != null) {
             excelWriter.finish();
+            excelWriter = null;
         }
         // 有错误 抛出异常
         if (V.notEmpty(this.exceptionMsgs)) {
@@ -194,12 +234,29 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
         }
     }
 
+    /**
+     * <h3>解析中断</h3>
+     * 读取异常终止（未执行doAfterAllAnalysed）时调用，释放已占用的资源
+     *
+     * @param exception 中断异常
+     */
+    public void onReadAborted(Exception exception) {
+        lookupCache.clear();
+        if (excelWriter != null) {
+            excelWriter.finish();
+            excelWriter = null;
+        }
+    }
+
     /**
      * <h3>异常处理</h3>
      * 修补数据，回写错误
      */
     @Override
     public void onException(Exception exception, AnalysisContext context) throws Exception {
+        if (isSkipped(context)) {
+            return;
+        }
         //数据类型转化异常
         if (exception instanceof ExcelDataConvertException) {
             ExcelDataConvertException dataConvertException = (ExcelDataConvertException) exception;
@@ -233,6 +290,7 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
                 addExceptionMsg(errorMsg.toString());
                 return;
             }
+            readCount++;
             T currentRowAnalysisResult = (T) context.readRowHolder().getCurrentRowAnalysisResult();
             currentRowAnalysisResult.setRowIndex(context.readRowHolder().getRowIndex());
             errorDataMap.forEach(currentRowAnalysisResult::addInvalidValue);
@@ -260,6 +318,16 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
      */
     protected abstract void cachedData(T data);
 
+    /**
+     * 是否跳过当前行：已保存的断点前数据，或导入已取消
+     *
+     * @param context
+     * @return
+     */
+    private boolean isSkipped(AnalysisContext context) {
+        return context.readRowHolder().getRowIndex() <= resumeRowIndex || (importProgress != null && importProgress.isCancelled());
+    }
+
     /**
      * 添加异常信息
      *
@@ -278,26 +346,72 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
      * @param dataList 数据列表
      */
     protected void handle(List<T> dataList) {
+        long start = System.currentTimeMillis();
+        validateData(dataList);
+        long validated = System.currentTimeMillis();
+        handleValidatedData(dataList);
+        stageTimeMap.merge("validate", validated - start, Long::sum);
+        stageTimeMap.merge("save", System.currentTimeMillis() - validated, Long::sum);
+    }
+
+    /**
+     * <h3>校验数据</h3>
+     * 检查字典并预加载关联字段，不依赖其他批次，可并行执行
+     *
+     * @param dataList 数据列表
+     */
+    protected void validateData(List<T> dataList) {
+        // 检查 字典
+        validateOrConvertDictAndRefField(dataList, true, annotation -> !(annotation instanceof ExcelBindField));
+        // 预加载 关联字段，可能关联此前批次保存的数据，在按顺序处理时检查
+        for (Map.Entry<String, Annotation> entry : ExcelBindAnnoHandler.getField2BindAnnoMap(getExcelModelClass()).entrySet()) {
+            if (entry.getValue() instanceof ExcelBindField) {
+                ExcelBindAnnoHandler.convertToNameValueMap(entry.getValue(), BeanUtils.collectToList(dataList, entry.getKey()), lookupCache);
+            }
+        }
+    }
+
+    /**
+     * <h3>处理已校验的数据</h3>
+     * 检查关联字段，自定义校验、转换及保存，需按批次顺序执行
+     *
+     * @param dataList 数据列表
+     */
+    protected void handleValidatedData(List<T> dataList) {
+        if (importProgress != null && importProgress.isCancelled()) {
+            throw new BusinessException(Status.FAIL_OPERATION, "导入已取消");
+        }
         if (preview && previewDataList == null) {
             int pageSize = BaseConfig.getPageSize();
             previewDataList = dataList.size() > pageSize ? dataList.subList(0, pageSize) : dataList;
         }
         totalCount += dataList.size();
-        // 检查 字典和关联字段
-        validateOrConvertDictAndRefField(dataList, true);
+        // 检查 关联字段（此前批次已保存，可关联同一文件中的数据）
+        validateOrConvertDictAndRefField(dataList, true, annotation -> annotation instanceof ExcelBindField);
         // 自定义校验
         additionalValidate(dataList, requestParams);
-        dataList.stream().collect(Collectors.groupingBy(this::isProper)).forEach((proper, list) -> {
-            if (proper) {
-                if (!preview) {
-                    // 转换 字典和关联字段
-                    validateOrConvertDictAndRefField(list, false);
-                    this.saveData(list, requestParams);
-                }
-            } else {
-                this.errorData(list);
+        Map<Boolean, List<T>> properMap = dataList.stream().collect(Collectors.partitioningBy(this::isProper));
+        List<T> properList = properMap.get(true), improperList = properMap.get(false);
+        Runnable batchHandler = () -> {
+            if (!preview && !properList.isEmpty()) {
+                // 转换 字典和关联字段
+                validateOrConvertDictAndRefField(properList, false);
+                this.saveData(properList, requestParams);
+            }
+            if (importProgress != null && !dataList.isEmpty()) {
+                importProgress.onBatchHandled(dataList.get(dataList.size() - 1).getRowIndex(), readCount,
+                        getProperCount() - improperList.size(), errorCount + improperList.size(), improperList);
             }
-        });
+        };
+        if (importProgress != null) {
+            importProgress.handleBatch(batchHandler);
+        } else {
+            batchHandler.run();
+        }
+        // 批次处理成功后记录错误数据
+        if (!improperList.isEmpty()) {
+            this.errorData(improperList);
+        }
     }
 
     /**
@@ -318,6 +432,25 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
      */
     protected void errorData(List<T> dataList) {
         errorCount += dataList.size();
+        writeErrorData(dataList);
+    }
+
+    /**
+     * <h3>恢复错误数据</h3>
+     * 断点续传时写入此前批次的错误数据，不计入本次的错误数据量
+     *
+     * @param dataList
+     */
+    public void restoreErrorData(List<T> dataList) {
+        writeErrorData(dataList);
+    }
+
+    /**
+     * 记录错误信息并写入错误数据文件
+     *
+     * @param dataList
+     */
+    private void writeErrorData(List<T> dataList) {
         if (errorMsgs == null || errorMsgs.size() < BaseConfig.getPageSize()) {
             if (errorMsgs == null) {
                 errorMsgs = new ArrayList<>();
@@ -359,14 +492,28 @@ public abstract class ReadExcelListener<T extends BaseExcelModel> implements Rea
      * 检查或转换字典和关联字段
      */
     protected void validateOrConvertDictAndRefField(List<T> dataList, boolean preview) {
+        validateOrConvertDictAndRefField(dataList, preview, annotation -> true);
+    }
+
+    /**
+     * <h3>校验或转换指定的字典和关联字段</h3>
+     *
+     * @param dataList         数据列表
+     * @param preview          是否预览
+     * @param annotationFilter 绑定注解过滤条件
+     */
+    private void validateOrConvertDictAndRefField(List<T> dataList, boolean preview, Predicate<Annotation> annotationFilter) {
         Class<T> tClass = getExcelModelClass();
         Map<String, Annotation> fieldName2BindAnnoMap = ExcelBindAnnoHandler.getField2BindAnnoMap(tClass);
         if (fieldName2BindAnnoMap.isEmpty()) {
             return;
         }
         for (Map.Entry<String, Annotation> entry : fieldName2BindAnnoMap.entrySet()) {
+            if (!annotationFilter.test(entry.getValue())) {
+                continue;
+            }
             List nameList = (entry.getValue() instanceof ExcelBindField) ? BeanUtils.collectToList(dataList, entry.getKey()) : null;
-            Map<String, List> map = ExcelBindAnnoHandler.convertToNameValueMap(entry.getValue(), nameList);
+            Map<String, List> map = ExcelBindAnnoHandler.convertToNameValueMap(entry.getValue(), nameList, lookupCache);
             Field field = BeanUtils.extractField(tClass, entry.getKey());
             boolean valueNotNull = (field.getAnnotation(NotNull.class) != null);
             for (T data : dataList) {
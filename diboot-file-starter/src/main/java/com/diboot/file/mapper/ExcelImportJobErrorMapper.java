@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.mapper;
+
+import com.diboot.core.mapper.BaseCrudMapper;
+import com.diboot.file.entity.ExcelImportJobError;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * Excel导入任务错误数据Mapper
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Mapper
+public interface ExcelImportJobErrorMapper extends BaseCrudMapper<ExcelImportJobError> {
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.service;
+
+import com.diboot.core.service.BaseService;
+import com.diboot.file.entity.ExcelImportJob;
+import com.diboot.file.entity.UploadFile;
+import com.diboot.file.excel.listener.ReadExcelListener;
+
+import java.util.Map;
+
+/**
+ * Excel导入任务Service
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public interface ExcelImportJobService extends BaseService<ExcelImportJob> {
+
+    /**
+     * 提交异步导入任务，立即返回任务记录（创建人及租户取自导入文件）
+     *
+     * @param uploadFile 已保存的导入文件
+     * @param listener   导入数据的listener
+     * @param params     请求参数
+     * @return
+     */
+    default ExcelImportJob submitJob(UploadFile uploadFile, ReadExcelListener<?> listener, Map<String, Object> params) {
+        return submitJob(uploadFile, listener, params, uploadFile.getCreateBy(), uploadFile.getTenantId());
+    }
+
+    /**
+     * 提交异步导入任务，立即返回任务记录
+     * <p>
+     * 任务在后台线程中执行（节点重启后可能由新创建的listener续传），listener的校验及保存不应依赖当前登录用户及请求上下文，
+     * 需要操作人时通过 {@link com.diboot.file.excel.listener.ExcelImportJobContext#current()} 获取createBy及tenantId
+     * </p>
+     *
+     * @param uploadFile 已保存的导入文件
+     * @param listener   导入数据的listener
+     * @param params     请求参数
+     * @param createBy   创建人
+     * @param tenantId   租户ID
+     * @return
+     */
+    ExcelImportJob submitJob(UploadFile uploadFile, ReadExcelListener<?> listener, Map<String, Object> params, Long createBy, Long tenantId);
+
+    /**
+     * 获取指定创建人及租户的导入任务
+     *
+     * @param jobId
+     * @param createBy 创建人，null视为匿名（0）
+     * @param tenantId 租户ID，null视为无租户（0）
+     * @return 不存在或不属于该创建人及租户时返回null
+     */
+    ExcelImportJob getJob(Long jobId, Long createBy, Long tenantId);
+
+    /**
+     * 取消导入任务，已保存的批次不回滚
+     *
+     * @param jobId
+     * @return 是否取消成功（已结束的任务无法取消）
+     */
+    boolean cancelJob(Long jobId);
+
+    /**
+     * 取消指定创建人及租户的导入任务，已保存的批次不回滚
+     *
+     * @param jobId
+     * @param createBy 创建人，null视为匿名（0）
+     * @param tenantId 租户ID，null视为无租户（0）
+     * @return 是否取消成功（不存在、不属于该创建人及租户或已结束的任务无法取消）
+     */
+    boolean cancelJob(Long jobId, Long createBy, Long tenantId);
+
+    /**
+     * 恢复未完成的导入任务：本节点重启前执行的任务，及其他节点超时未更新进度的任务，从最后保存的批次之后继续导入
+     *
+     * @return 恢复的任务数
+     */
+    int resumeUnfinishedJobs();
+
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.service.impl;
+
+import com.alibaba.excel.support.ExcelTypeEnum;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.exception.BusinessException;
+import com.diboot.core.service.impl.BaseServiceImpl;
+import com.diboot.core.util.*;
+import com.diboot.core.vo.Status;
+import com.diboot.file.config.Cons;
+import com.diboot.file.dto.UploadFileResult;
+import com.diboot.file.entity.ExcelImportJob;
+import com.diboot.file.entity.ExcelImportJobError;
+import com.diboot.file.entity.UploadFile;
+import com.diboot.file.excel.BaseExcelModel;
+import com.diboot.file.excel.listener.ExcelImportJobContext;
+import com.diboot.file.excel.listener.ExcelImportProgress;
+import com.diboot.file.excel.listener.ReadExcelListener;
+import com.diboot.file.mapper.ExcelImportJobMapper;
+import com.diboot.file.service.ExcelImportJobErrorService;
+import com.diboot.file.service.ExcelImportJobService;
+import com.diboot.file.service.FileStorageService;
+import com.diboot.file.service.UploadFileService;
+import com.diboot.file.starter.FileProperties;
+import com.diboot.file.util.ExcelHelper;
+import com.diboot.file.util.FileHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Excel导入任务Service实现
+ * <p>
+ * 任务在有界线程池中执行，每批数据的保存、进度及最后保存的行号的刷新、错误数据的记录在同一事务中提交；
+ * 进度更新以 状态=执行中 且 执行节点=当前节点 为条件，更新失败即视为已被取消或已被其他节点接管，回滚该批次并停止后续批次；
+ * 续传时从最后提交的批次之后继续导入，并恢复此前批次的错误数据；
+ * 任务在后台线程中执行，无请求及登录用户上下文，执行期间通过 {@link ExcelImportJobContext} 提供任务的创建人及租户
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+@Service
+public class ExcelImportJobServiceImpl extends BaseServiceImpl<ExcelImportJobMapper, ExcelImportJob> implements ExcelImportJobService, DisposableBean {
+
+    private static final List<String> UNFINISHED_STATUS = Arrays.asList(Cons.IMPORT_JOB_STATUS.PENDING.name(), Cons.IMPORT_JOB_STATUS.RUNNING.name());
+
+    @Autowired
+    private UploadFileService uploadFileService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private FileProperties fileProperties;
+
+    @Autowired
+    private ExcelImportJobErrorService excelImportJobErrorService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 当前节点执行中的任务：任务id-取消标记
+     */
+    private final Map<Long, AtomicBoolean> runningJobMap = new ConcurrentHashMap<>();
+
+    private volatile ThreadPoolExecutor executor;
+
+    private volatile String nodeId;
+
+    /**
+     * 节点关闭中，未完成的任务保持执行中状态，待重启后续传
+     */
+    private volatile boolean shuttingDown = false;
+
+    @Override
+    public ExcelImportJob submitJob(UploadFile uploadFile, ReadExcelListener<?> listener, Map<String, Object> params, Long createBy, Long tenantId) {
+        ExcelImportJob job = new ExcelImportJob()
+                .setTenantId(tenantId != null ? tenantId : 0L)
+                .setUploadFileUuid(uploadFile.getUuid())
+                .setListenerClass(ClassUtils.getUserClass(listener).getName())
+                .setParamJson(V.notEmpty(params) ? JSON.stringify(params) : null)
+                .setStatus(Cons.IMPORT_JOB_STATUS.PENDING.name())
+                .setStage(Cons.IMPORT_JOB_STAGE.QUEUED.name())
+                .setNodeId(getNodeId())
+                .setCreateBy(createBy != null ? createBy : 0L)
+                .setUpdateTime(new Date());
+        createEntity(job);
+        if (!execute(job, listener)) {
+            throw new BusinessException(Status.FAIL_OPERATION, "导入任务繁忙，请稍后重试");
+        }
+        return job;
+    }
+
+    @Override
+    public ExcelImportJob getJob(Long jobId, Long createBy, Long tenantId) {
+        LambdaQueryWrapper<ExcelImportJob> queryWrapper = Wrappers.<ExcelImportJob>lambdaQuery()
+                .eq(ExcelImportJob::getId, jobId)
+                .eq(ExcelImportJob::getCreateBy, createBy != null ? createBy : 0L)
+                .eq(ExcelImportJob::getTenantId, tenantId != null ? tenantId : 0L);
+        return getSingleEntity(queryWrapper);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean cancelJob(Long jobId) {
+        return cancelJob(jobId, Wrappers.<ExcelImportJob>lambdaUpdate());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public boolean cancelJob(Long jobId, Long createBy, Long tenantId) {
+        return cancelJob(jobId, Wrappers.<ExcelImportJob>lambdaUpdate()
+                .eq(ExcelImportJob::getCreateBy, createBy != null ? createBy : 0L)
+                .eq(ExcelImportJob::getTenantId, tenantId != null ? tenantId : 0L));
+    }
+
+    /**
+     * 取消满足条件的未结束任务
+     *
+     * @param jobId
+     * @param updateWrapper 附加的条件
+     * @return
+     */
+    private boolean cancelJob(Long jobId, LambdaUpdateWrapper<ExcelImportJob> updateWrapper) {
+        boolean cancelled = update(updateWrapper
+                .set(ExcelImportJob::getStatus, Cons.IMPORT_JOB_STATUS.CANCELLED.name())
+                .set(ExcelImportJob::getStage, Cons.IMPORT_JOB_STAGE.FINISHED.name())
+                .set(ExcelImportJob::getResultMsg, "导入已取消")
+                .set(ExcelImportJob::getUpdateTime, new Date())
+                .eq(ExcelImportJob::getId, jobId)
+                .in(ExcelImportJob::getStatus, UNFINISHED_STATUS));
+        if (!cancelled) {
+            return false;
+        }
+        AtomicBoolean cancelFlag = runningJobMap.get(jobId);
+        if (cancelFlag != null) {
+            cancelFlag.set(true);
+        }
+        deleteErrorData(jobId);
+        return true;
+    }
+
+    @Override
+    public int resumeUnfinishedJobs() {
+        Date timeoutTime = D.addMinutes(new Date(), -fileProperties.getImportJobTimeoutMinutes());
+        List<ExcelImportJob> jobList = getEntityList(Wrappers.<ExcelImportJob>lambdaQuery()
+                .in(ExcelImportJob::getStatus, UNFINISHED_STATUS)
+                .and(query -> query.eq(ExcelImportJob::getNodeId, getNodeId()).or().lt(ExcelImportJob::getUpdateTime, timeoutTime))
+                .orderByAsc(ExcelImportJob::getId));
+        int resumed = 0;
+        for (ExcelImportJob job : jobList) {
+            if (runningJobMap.containsKey(job.getId())) {
+                continue;
+            }
+            // 以更新时间为版本认领任务，避免多个节点同时续传
+            boolean claimed = update(Wrappers.<ExcelImportJob>lambdaUpdate()
+                    .set(ExcelImportJob::getNodeId, getNodeId())
+                    .set(ExcelImportJob::getUpdateTime, new Date())
+                    .eq(ExcelImportJob::getId, job.getId())
+                    .eq(ExcelImportJob::getUpdateTime, job.getUpdateTime())
+                    .in(ExcelImportJob::getStatus, UNFINISHED_STATUS));
+            if (!claimed) {
+                continue;
+            }
+            ReadExcelListener<?> listener = createListener(job.getListenerClass());
+            if (listener == null) {
+                finishJob(job.getId(), Cons.IMPORT_JOB_STATUS.FAILED, "无法创建导入监听器: " + job.getListenerClass(), null);
+                continue;
+            }
+            if (execute(job, listener)) {
+                resumed++;
+                log.info("Excel导入任务 {} 将从第 {} 行之后继续导入", job.getId(), job.getLastRowIndex() + 1);
+            }
+        }
+        return resumed;
+    }
+
+    @Override
+    public void destroy() {
+        shuttingDown = true;
+        if (executor == null) {
+            return;
+        }
+        // 执行中的任务在当前批次结束后停止，保持执行中状态待重启后续传
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(fileProperties.getImportJobShutdownTimeoutSeconds(), TimeUnit.SECONDS)) {
+                log.warn("等待Excel导入任务停止超时，未完成的批次将在重启后续传");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 提交任务至线程池
+     *
+     * @param job
+     * @param listener
+     * @return 是否提交成功
+     */
+    private boolean execute(ExcelImportJob job, ReadExcelListener<?> listener) {
+        AtomicBoolean cancelFlag = new AtomicBoolean(false);
+        runningJobMap.put(job.getId(), cancelFlag);
+        try {
+            getExecutor().execute(() -> runJob(job, listener, cancelFlag));
+            return true;
+        } catch (RejectedExecutionException e) {
+            runningJobMap.remove(job.getId());
+            log.warn("Excel导入任务 {} 提交失败，任务队列已满", job.getId());
+            finishJob(job.getId(), Cons.IMPORT_JOB_STATUS.FAILED, "导入任务繁忙，请稍后重试", null);
+            return false;
+        }
+    }
+
+    /**
+     * 执行导入任务
+     *
+     * @param job
+     * @param listener
+     * @param cancelFlag
+     */
+    private void runJob(ExcelImportJob job, ReadExcelListener<?> listener, AtomicBoolean cancelFlag) {
+        Long jobId = job.getId();
+        ExcelImportJobContext.set(new ExcelImportJobContext(jobId, job.getCreateBy(), job.getTenantId()));
+        try {
+            boolean started = update(ownedBy(jobId, UNFINISHED_STATUS)
+                    .set(ExcelImportJob::getStatus, Cons.IMPORT_JOB_STATUS.RUNNING.name())
+                    .set(ExcelImportJob::getStage, Cons.IMPORT_JOB_STAGE.IMPORTING.name())
+                    .set(ExcelImportJob::getUpdateTime, new Date()));
+            if (!started) {
+                log.info("Excel导入任务 {} 已取消或已由其他节点执行", jobId);
+                return;
+            }
+            UploadFile uploadFile = uploadFileService.getEntity(job.getUploadFileUuid());
+            if (uploadFile == null) {
+                throw new BusinessException(Status.FAIL_OPERATION, "导入文件不存在");
+            }
+            // 续传时计数从最后提交的批次累加
+            int baseSavedCount = job.getSavedCount(), baseErrorCount = job.getErrorCount();
+            listener.setUploadFileUuid(uploadFile.getUuid());
+            listener.setRequestParams(V.notEmpty(job.getParamJson()) ? JSON.toMap(job.getParamJson()) : new HashMap<>());
+            listener.setResumeRowIndex(job.getLastRowIndex());
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            listener.setImportProgress(new ExcelImportProgress() {
+                private boolean errorDataRestored = false;
+
+                @Override
+                public void onHeadRead() {
+                    // 恢复此前批次的错误数据，使错误数据文件与错误数据量一致
+                    if (baseErrorCount > 0 && !errorDataRestored) {
+                        errorDataRestored = true;
+                        restoreErrorData(jobId, listener);
+                    }
+                }
+
+                @Override
+                public void handleBatch(Runnable batchHandler) {
+                    transactionTemplate.executeWithoutResult(status -> batchHandler.run());
+                }
+
+                @Override
+                public void onBatchHandled(int lastRowIndex, int readCount, int properCount, int errorCount, List<? extends BaseExcelModel> errorDataList) {
+                    boolean updated = update(ownedBy(jobId, Collections.singletonList(Cons.IMPORT_JOB_STATUS.RUNNING.name()))
+                            .set(ExcelImportJob::getLastRowIndex, lastRowIndex)
+                            .set(ExcelImportJob::getReadCount, baseSavedCount + baseErrorCount + readCount)
+                            .set(ExcelImportJob::getSavedCount, baseSavedCount + properCount)
+                            .set(ExcelImportJob::getErrorCount, baseErrorCount + errorCount)
+                            .set(ExcelImportJob::getUpdateTime, new Date()));
+                    if (!updated) {
+                        // 已取消或已被其他节点接管，回滚该批次
+                        cancelFlag.set(true);
+                        throw new BusinessException(Status.FAIL_OPERATION, "导入已取消或已由其他节点执行");
+                    }
+                    saveErrorData(jobId, errorDataList);
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return cancelFlag.get() || shuttingDown;
+                }
+            });
+            try (InputStream inputStream = fileStorageService.getFile(uploadFile.getStoragePath())) {
+                readExcel(inputStream, uploadFile.getFileType(), listener);
+            }
+            // 取消或节点关闭时读取提前结束，剩余数据未导入
+            if (cancelFlag.get() || shuttingDown) {
+                log.info("Excel导入任务 {} {}，本次已读取 {} 条", jobId, shuttingDown ? "因节点关闭中止" : "已取消", listener.getReadCount());
+                return;
+            }
+            // 生成错误数据文件
+            update(ownedBy(jobId, Collections.singletonList(Cons.IMPORT_JOB_STATUS.RUNNING.name()))
+                    .set(ExcelImportJob::getStage, Cons.IMPORT_JOB_STAGE.COLLECTING_ERRORS.name())
+                    .set(ExcelImportJob::getUpdateTime, new Date()));
+            String errorUrl = createErrorFile(uploadFile, listener, baseErrorCount + listener.getErrorCount());
+            uploadFile.setDataCount(baseSavedCount + listener.getProperCount());
+            uploadFileService.updateEntity(uploadFile);
+            String resultMsg = V.notEmpty(listener.getErrorMsgs()) ? S.join(listener.getErrorMsgs(), "; ") : null;
+            finishJob(jobId, Cons.IMPORT_JOB_STATUS.SUCCESS, resultMsg, errorUrl);
+        } catch (Throwable e) {
+            if (shuttingDown) {
+                log.info("节点关闭，Excel导入任务 {} 将在重启后续传", jobId);
+            } else if (cancelFlag.get()) {
+                log.info("Excel导入任务 {} 已取消", jobId);
+            } else {
+                log.error("Excel导入任务 {} 执行失败", jobId, e);
+                finishJob(jobId, Cons.IMPORT_JOB_STATUS.FAILED, S.defaultIfEmpty(e.getMessage(), e.getClass().getSimpleName()), null);
+            }
+        } finally {
+            runningJobMap.remove(jobId);
+            ExcelImportJobContext.remove();
+        }
+    }
+
+    /**
+     * 结束任务（仅更新当前节点执行中的任务）
+     *
+     * @param jobId
+     * @param status
+     * @param resultMsg
+     * @param errorUrl
+     */
+    private void finishJob(Long jobId, Cons.IMPORT_JOB_STATUS status, String resultMsg, String errorUrl) {
+        boolean finished = update(ownedBy(jobId, UNFINISHED_STATUS)
+                .set(ExcelImportJob::getStatus, status.name())
+                .set(ExcelImportJob::getStage, Cons.IMPORT_JOB_STAGE.FINISHED.name())
+                .set(ExcelImportJob::getResultMsg, S.cut(resultMsg, 500))
+                .set(errorUrl != null, ExcelImportJob::getErrorUrl, errorUrl)
+                .set(ExcelImportJob::getUpdateTime, new Date()));
+        if (finished) {
+            deleteErrorData(jobId);
+        }
+    }
+
+    /**
+     * 保存批次的错误数据（与批次进度在同一事务中）
+     *
+     * @param jobId
+     * @param errorDataList
+     */
+    private void saveErrorData(Long jobId, List<? extends BaseExcelModel> errorDataList) {
+        if (V.isEmpty(errorDataList)) {
+            return;
+        }
+        List<ExcelImportJobError> jobErrorList = new ArrayList<>(errorDataList.size());
+        for (BaseExcelModel data : errorDataList) {
+            jobErrorList.add(new ExcelImportJobError()
+                    .setJobId(jobId)
+                    .setRowIndex(data.getRowIndex())
+                    .setDataJson(JSON.stringify(data))
+                    .setCommentJson(JSON.stringify(data.getComment()))
+                    .setInvalidValueJson(V.notEmpty(data.getField2InvalidValueMap()) ? JSON.stringify(data.getField2InvalidValueMap()) : null));
+        }
+        excelImportJobErrorService.createEntities(jobErrorList);
+    }
+
+    /**
+     * 按行号顺序分页恢复此前批次的错误数据
+     *
+     * @param jobId
+     * @param listener
+     */
+    private <T extends BaseExcelModel> void restoreErrorData(Long jobId, ReadExcelListener<T> listener) {
+        int lastRowIndex = -1;
+        while (true) {
+            List<ExcelImportJobError> jobErrorList = excelImportJobErrorService.getEntityListLimit(Wrappers.<ExcelImportJobError>lambdaQuery()
+                    .eq(ExcelImportJobError::getJobId, jobId)
+                    .gt(ExcelImportJobError::getRowIndex, lastRowIndex)
+                    .orderByAsc(ExcelImportJobError::getRowIndex), BaseConfig.getBatchSize());
+            if (V.isEmpty(jobErrorList)) {
+                return;
+            }
+            List<T> dataList = new ArrayList<>(jobErrorList.size());
+            for (ExcelImportJobError jobError : jobErrorList) {
+                T data = JSON.toJavaObject(jobError.getDataJson(), listener.getExcelModelClass());
+                data.setRowIndex(jobError.getRowIndex());
+                Map<String, List<Object>> commentMap = JSON.toMap(jobError.getCommentJson());
+                commentMap.forEach((fieldName, messages) -> messages.forEach(message -> data.addComment(fieldName, S.valueOf(message))));
+                if (V.notEmpty(jobError.getInvalidValueJson())) {
+                    Map<String, Object> invalidValueMap = JSON.toMap(jobError.getInvalidValueJson());
+                    invalidValueMap.forEach((fieldName, value) -> data.addInvalidValue(fieldName, S.valueOf(value)));
+                }
+                dataList.add(data);
+            }
+            listener.restoreErrorData(dataList);
+            lastRowIndex = jobErrorList.get(jobErrorList.size() - 1).getRowIndex();
+        }
+    }
+
+    /**
+     * 删除已结束任务的错误数据
+     *
+     * @param jobId
+     */
+    private void deleteErrorData(Long jobId) {
+        excelImportJobErrorService.deleteEntities(Wrappers.<ExcelImportJobError>lambdaQuery().eq(ExcelImportJobError::getJobId, jobId));
+    }
+
+    /**
+     * 当前节点执行的指定状态任务的更新条件
+     *
+     * @param jobId
+     * @param statusList
+     * @return
+     */
+    private LambdaUpdateWrapper<ExcelImportJob> ownedBy(Long jobId, List<String> statusList) {
+        return Wrappers.<ExcelImportJob>lambdaUpdate()
+                .eq(ExcelImportJob::getId, jobId)
+                .eq(ExcelImportJob::getNodeId, getNodeId())
+                .in(ExcelImportJob::getStatus, statusList);
+    }
+
+    /**
+     * 读取excel
+     *
+     * @param inputStream
+     * @param fileExt     文件扩展名（不包含`.`）
+     * @param listener
+     */
+    private <T extends BaseExcelModel> void readExcel(InputStream inputStream, String fileExt, ReadExcelListener<T> listener) {
+        ExcelHelper.read(inputStream, "csv".equalsIgnoreCase(fileExt) ? ExcelTypeEnum.CSV : null, listener, listener.getExcelModelClass());
+    }
+
+    /**
+     * 保存错误数据文件
+     *
+     * @param uploadFile
+     * @param listener
+     * @param errorCount 错误数据量（含续传前的批次）
+     * @return 错误数据文件访问地址，无错误数据时返回null
+     * @throws Exception
+     */
+    private String createErrorFile(UploadFile uploadFile, ReadExcelListener<?> listener, int errorCount) throws Exception {
+        String errorDataFilePath = listener.getErrorDataFilePath();
+        if (errorDataFilePath == null) {
+            return null;
+        }
+        String errorDataFileName = uploadFile.getFileName().replaceFirst("\\.\\w+$", "_错误数据.xlsx");
+        UploadFile errorFile = new UploadFile().setFileType("excel").setFileName(errorDataFileName);
+        if (FileHelper.isLocalStorage()) {
+            String errorDataFileUidName = S.substringAfterLast(errorDataFilePath, "/");
+            errorFile.setUuid(S.substringBefore(errorDataFileUidName, "."))
+                    .setStoragePath(errorDataFilePath)
+                    .setAccessUrl("/uploadFile/download/" + errorDataFileUidName);
+        } else {
+            UploadFileResult uploadFileResult;
+            try (InputStream inputStream = new FileInputStream(errorDataFilePath)) {
+                uploadFileResult = fileStorageService.upload(inputStream, errorDataFileName);
+            }
+            FileHelper.deleteFile(errorDataFilePath);
+            errorFile.setUuid(uploadFileResult.getUuid())
+                    .setFileType(uploadFileResult.getExt())
+                    .setStoragePath(uploadFileResult.getStorageFullPath())
+                    .setAccessUrl("/uploadFile/download/" + uploadFileResult.getFilename());
+        }
+        errorFile.setDataCount(errorCount)
+                .setRelObjType(uploadFile.getRelObjType())
+                .setDescription(uploadFile.getFileName() + " - 错误数据");
+        uploadFileService.createEntity(errorFile);
+        return errorFile.getAccessUrl();
+    }
+
+    /**
+     * 创建导入listener实例（支持依赖注入）
+     *
+     * @param listenerClassName
+     * @return
+     */
+    protected ReadExcelListener<?> createListener(String listenerClassName) {
+        try {
+            Class<?> listenerClass = ClassUtils.forName(listenerClassName, getClass().getClassLoader());
+            return (ReadExcelListener<?>) ContextHelper.getApplicationContext().getAutowireCapableBeanFactory().createBean(listenerClass);
+        } catch (Exception e) {
+            log.error("无法创建导入监听器: {}", listenerClassName, e);
+            return null;
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    int threads = Math.max(1, fileProperties.getImportJobThreads());
+                    AtomicInteger threadSeq = new AtomicInteger();
+                    executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<>(Math.max(1, fileProperties.getImportJobQueueCapacity())),
+                            r -> new Thread(r, "excel-import-job-" + threadSeq.incrementAndGet()));
+                    executor.allowCoreThreadTimeOut(true);
+                }
+            }
+        }
+        return executor;
+    }
+
+    private String getNodeId() {
+        if (nodeId == null) {
+            String configNodeId = fileProperties.getImportJobNodeId();
+            if (V.notEmpty(configNodeId)) {
+                nodeId = configNodeId;
+            } else {
+                String hostName;
+                try {
+                    hostName = InetAddress.getLocalHost().getHostName();
+                } catch (Exception e) {
+                    hostName = "localhost";
+                }
+                nodeId = hostName + ":" + BaseConfig.getProperty("server.port", "8080");
+            }
+        }
+        return nodeId;
+    }
+
+}
@@ -24,8 +24,12 @@ import com.diboot.file.entity.UploadFile;
 import com.diboot.file.service.FileStorageService;
 import com.diboot.file.util.FileHelper;
 import com.diboot.file.util.HttpHelper;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.File;
 import java.io.FileInputStream;
@@ -86,7 +90,10 @@ public class LocalFileStorageServiceImpl implements FileStorageService {
         if (V.isEmpty(uploadFile)) {
             throw new BusinessException(Status.FAIL_OPERATION, "文件不存在");
         }
-        HttpHelper.downloadLocalFile(uploadFile.getStoragePath(), uploadFile.getFileName(), response);
+        // 当前请求用于支持条件请求及断点续传
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        HttpServletRequest request = requestAttributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) requestAttributes).getRequest() : null;
+        HttpHelper.downloadLocalFile(new File(uploadFile.getStoragePath()), uploadFile.getFileName(), request, response);
     }
 
     @Override
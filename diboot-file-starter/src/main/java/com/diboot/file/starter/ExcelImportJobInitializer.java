@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.starter;
+
+import com.diboot.file.service.ExcelImportJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Excel导入任务初始化
+ * <p>
+ * 启动时续传本节点重启前未完成的导入任务，及其他节点超时未更新进度的任务
+ *
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+@Component
+@Order(940)
+public class ExcelImportJobInitializer implements ApplicationRunner {
+
+    @Autowired
+    private ExcelImportJobService excelImportJobService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            int resumed = excelImportJobService.resumeUnfinishedJobs();
+            if (resumed > 0) {
+                log.info("已恢复 {} 个未完成的Excel导入任务", resumed);
+            }
+        } catch (Exception e) {
+            log.warn("恢复未完成的Excel导入任务失败: {}", e.getMessage());
+        }
+    }
+}
@@ -19,8 +19,11 @@ import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
+import com.diboot.file.excel.listener.ExcelImportExecutors;
 import com.diboot.file.service.FileStorageService;
 import com.diboot.file.service.impl.LocalFileStorageServiceImpl;
+import com.diboot.file.util.HttpHelper;
+import com.diboot.file.util.LocalFileCache;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -91,4 +94,28 @@ public class FileAutoConfig {
         return new LocalFileStorageServiceImpl();
     }
 
+    /**
+     * Excel分批导入共享的校验、保存线程池
+     *
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ExcelImportExecutors excelImportExecutors() {
+        return new ExcelImportExecutors(fileProperties);
+    }
+
+    /**
+     * 本地文件下载的小文件内容缓存
+     *
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public LocalFileCache localFileCache() {
+        LocalFileCache localFileCache = new LocalFileCache(fileProperties.getDownloadCacheFileSize(), fileProperties.getDownloadCacheSize());
+        HttpHelper.setLocalFileCache(localFileCache);
+        return localFileCache;
+    }
+
 }
@@ -25,6 +25,8 @@ import org.springframework.core.annotation.Order;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+
 /**
  * 组件初始化
  * @author mazc@dibo.ltd
@@ -54,6 +56,18 @@ public class FilePluginInitializer implements ApplicationRunner {
                 SqlFileInitializer.initBootstrapSql(this.getClass(), environment, "file");
                 log.info("diboot-file 初始化SQL完成.");
             }
+            // 升级：补充导入任务表（含错误数据表）
+            else if(SqlFileInitializer.checkSqlExecutable("SELECT id FROM ${SCHEMA}.excel_import_job WHERE id=0") == false){
+                String sqlPath = SqlFileInitializer.getBootstrapSqlPath(SqlFileInitializer.getDbType(), "file");
+                SqlFileInitializer.extractAndExecuteSqls(this.getClass(), sqlPath, Collections.singletonList("excel_import_job"), Collections.emptyList());
+                log.info("diboot-file 导入任务表初始化完成.");
+            }
+            // 升级：补充导入任务错误数据表
+            else if(SqlFileInitializer.checkSqlExecutable("SELECT id FROM ${SCHEMA}.excel_import_job_error WHERE id=0") == false){
+                String sqlPath = SqlFileInitializer.getBootstrapSqlPath(SqlFileInitializer.getDbType(), "file");
+                SqlFileInitializer.extractAndExecuteSqls(this.getClass(), sqlPath, Collections.singletonList("excel_import_job_error"), Collections.emptyList());
+                log.info("diboot-file 导入任务错误数据表初始化完成.");
+            }
         }
     }
 }
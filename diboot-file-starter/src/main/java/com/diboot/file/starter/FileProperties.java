@@ -42,4 +42,54 @@ public class FileProperties {
      */
     @Deprecated
     private Long maxUploadSize = 10 * 1024 * 1024L;
+
+    /**
+     * Excel分批导入共享的校验、保存线程池各自的线程数
+     */
+    private int importThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Excel分批导入时单次导入校验阶段的并行线程数
+     */
+    private int importParallelism = 2;
+
+    /**
+     * Excel分批导入时已读取未保存的最大批次数，超出时暂停读取
+     */
+    private int importQueueSize = 4;
+
+    /**
+     * Excel异步导入任务的执行线程数
+     */
+    private int importJobThreads = 2;
+
+    /**
+     * Excel异步导入任务的最大排队数，超出时拒绝提交
+     */
+    private int importJobQueueCapacity = 50;
+
+    /**
+     * Excel异步导入任务超过该分钟数未更新进度时，视为执行节点已失效，可由其他节点接管续传
+     */
+    private int importJobTimeoutMinutes = 10;
+
+    /**
+     * 节点关闭时等待执行中的Excel导入任务停止的最长秒数
+     */
+    private int importJobShutdownTimeoutSeconds = 30;
+
+    /**
+     * 当前节点标识，为空时取 主机名:端口，节点重启后据此续传本节点未完成的导入任务
+     */
+    private String importJobNodeId;
+
+    /**
+     * 本地文件下载时可缓存至内存的单文件最大字节数
+     */
+    private int downloadCacheFileSize = 64 * 1024;
+
+    /**
+     * 本地文件下载的内存缓存总字节数，0表示不缓存
+     */
+    private int downloadCacheSize = 16 * 1024 * 1024;
 }
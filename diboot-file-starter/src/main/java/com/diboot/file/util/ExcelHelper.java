@@ -18,6 +18,9 @@ package com.diboot.file.util;
 import com.alibaba.excel.EasyExcel;
 import com.alibaba.excel.ExcelWriter;
 import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.metadata.csv.CsvSheet;
+import com.alibaba.excel.metadata.csv.CsvWorkbook;
+import com.alibaba.excel.read.builder.ExcelReaderSheetBuilder;
 import com.alibaba.excel.read.listener.ReadListener;
 import com.alibaba.excel.support.ExcelTypeEnum;
 import com.alibaba.excel.util.ClassUtils;
@@ -27,7 +30,9 @@ import com.alibaba.excel.write.builder.ExcelWriterSheetBuilder;
 import com.alibaba.excel.write.handler.WriteHandler;
 import com.alibaba.excel.write.metadata.WriteSheet;
 import com.alibaba.excel.write.style.column.LongestMatchColumnWidthStyleStrategy;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.diboot.core.exception.BusinessException;
+import com.diboot.core.service.BaseService;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
@@ -35,14 +40,17 @@ import com.diboot.core.vo.Status;
 import com.diboot.file.excel.BaseExcelModel;
 import com.diboot.file.excel.listener.DynamicHeadExcelListener;
 import com.diboot.file.excel.listener.FixedHeadExcelListener;
+import com.diboot.file.excel.listener.ReadExcelListener;
 import com.diboot.file.excel.write.CommentWriteHandler;
 import com.diboot.file.excel.write.OptionWriteHandler;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Workbook;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
@@ -53,6 +61,9 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /***
  * excel数据导入导出工具类
@@ -82,7 +93,28 @@ public class ExcelHelper {
      * @param headClazz   ExcelModel.class
      */
     public static <T> void read(InputStream inputStream, ExcelTypeEnum excelType, ReadListener<T> listener, Class<T> headClazz) {
-        EasyExcel.read(inputStream).excelType(excelType).registerReadListener(listener).head(headClazz).sheet().doRead();
+        doRead(EasyExcel.read(inputStream).excelType(excelType).registerReadListener(listener).head(headClazz).sheet(), listener);
+    }
+
+    /**
+     * 读取excel，读取异常中断时通知监听器终止未完成的处理
+     *
+     * @param sheetBuilder
+     * @param listener
+     */
+    private static void doRead(ExcelReaderSheetBuilder sheetBuilder, ReadListener<?> listener) {
+        try {
+            sheetBuilder.doRead();
+        } catch (RuntimeException | Error e) {
+            if (listener instanceof ReadExcelListener) {
+                try {
+                    ((ReadExcelListener<?>) listener).onReadAborted(e instanceof Exception ? (Exception) e : new RuntimeException(e));
+                } catch (Exception abortException) {
+                    e.addSuppressed(abortException);
+                }
+            }
+            throw e;
+        }
     }
 
     /**
@@ -122,7 +154,7 @@ public class ExcelHelper {
     public static <T extends BaseExcelModel> boolean readAndSaveExcel(String filePath, FixedHeadExcelListener listener) throws Exception {
         File excel = getExcelFile(filePath);
         Class<T> headClazz = BeanUtils.getGenericityClass(listener, 0);
-        EasyExcel.read(excel).registerReadListener(listener).head(headClazz).sheet().doRead();
+        doRead(EasyExcel.read(excel).registerReadListener(listener).head(headClazz).sheet(), listener);
         return true;
     }
 
@@ -135,7 +167,7 @@ public class ExcelHelper {
     @Deprecated
     public static <T extends BaseExcelModel> boolean readAndSaveExcel(InputStream inputStream, FixedHeadExcelListener listener) throws Exception {
         Class<T> headClazz = BeanUtils.getGenericityClass(listener, 0);
-        EasyExcel.read(inputStream).registerReadListener(listener).head(headClazz).sheet().doRead();
+        doRead(EasyExcel.read(inputStream).registerReadListener(listener).head(headClazz).sheet(), listener);
         return true;
     }
 
@@ -395,14 +427,134 @@ public class ExcelHelper {
             write(response.getOutputStream(), clazz, columnNameList, Boolean.FALSE, dataList, writeHandlers);
         } catch (Exception e) {
             log.error("下载文件失败：", e);
-            response.setContentType("application/json");
-            response.setCharacterEncoding("utf-8");
-            response.setHeader("code", String.valueOf(Status.FAIL_OPERATION.code()));
-            try {
-                response.setHeader("msg", URLEncoder.encode("下载文件失败", StandardCharsets.UTF_8.name()));
-            } catch (UnsupportedEncodingException ex) {
-                log.error("不支持字符编码", ex);
+            setExportFailResponseHeader(response);
+        }
+    }
+
+    /**
+     * 流式写入
+     * <p>
+     * 按窗口流式读取查询结果，逐窗口绑定关联后写入，不在内存中保留全量数据（xlsx由SXSSF缓存至临时文件）
+     *
+     * @param outputStream
+     * @param clazz          导出的ExcelModel（作为VO绑定关联）
+     * @param columnNameList 需要导出的列属性名，为空时导出所有列
+     * @param excelType      导出类型，为空时为xlsx
+     * @param service        查询的service
+     * @param queryWrapper   查询条件
+     * @param windowSize     每窗口数据量，<=0时取 BaseConfig.getBatchSize()
+     * @param writeHandlers
+     */
+    public static <T> void streamWrite(OutputStream outputStream, Class<T> clazz, Collection<String> columnNameList, ExcelTypeEnum excelType,
+                                       BaseService<?> service, Wrapper<?> queryWrapper, int windowSize, WriteHandler... writeHandlers) {
+        ExcelWriter writer = EasyExcel.write(outputStream, clazz).excelType(excelType != null ? excelType : ExcelTypeEnum.XLSX)
+                .autoCloseStream(Boolean.FALSE).build();
+        buildWriteSheet(columnNameList, (commentWriteHandler, writeSheet) -> {
+            boolean assignableFrom = BaseExcelModel.class.isAssignableFrom(clazz);
+            service.streamViewObjectList(queryWrapper, clazz, windowSize, list -> {
+                if (assignableFrom) {
+                    commentWriteHandler.setDataList((List<? extends BaseExcelModel>) list);
+                }
+                writer.write(list, writeSheet);
+                // csv逐窗口推送已写出的内容
+                if (excelType == ExcelTypeEnum.CSV) {
+                    flushCsv(writer, outputStream);
+                }
+            });
+            // 无数据时仅写入表头
+            writer.write(Collections.emptyList(), writeSheet);
+        }, writeHandlers);
+        writer.finish();
+    }
+
+    /**
+     * 推送csv已写入的内容：EasyExcel缓存的行及CSVPrinter缓冲的字符写出后，再flush输出流
+     *
+     * @param writer
+     * @param outputStream
+     */
+    private static void flushCsv(ExcelWriter writer, OutputStream outputStream) {
+        try {
+            Workbook workbook = writer.writeContext().writeWorkbookHolder().getWorkbook();
+            CsvSheet csvSheet = workbook instanceof CsvWorkbook ? ((CsvWorkbook) workbook).getCsvSheet() : null;
+            if (csvSheet != null && csvSheet.getCsvPrinter() != null) {
+                csvSheet.flushData();
+                csvSheet.getCsvPrinter().flush();
             }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new BusinessException(Status.FAIL_EXCEPTION, "导出数据写入失败", e);
+        }
+    }
+
+    /**
+     * web 流式导出excel
+     * <p>
+     * 按窗口从数据库流式读取并写入响应，适用于大数据量导出
+     *
+     * @param response
+     * @param fileName
+     * @param clazz          导出的ExcelModel
+     * @param columnNameList 需要导出的ExcelModel列字段名称列表，为空时导出所有列
+     * @param service        查询的service
+     * @param queryWrapper   查询条件
+     * @param windowSize     每窗口数据量，<=0时取 BaseConfig.getBatchSize()
+     * @param writeHandlers  写入处理程序
+     */
+    public static <T> void exportExcel(HttpServletResponse response, String fileName, Class<T> clazz, Collection<String> columnNameList,
+                                       BaseService<?> service, Wrapper<?> queryWrapper, int windowSize, WriteHandler... writeHandlers) {
+        setExportExcelResponseHeader(response, fileName);
+        try {
+            streamWrite(response.getOutputStream(), clazz, columnNameList, ExcelTypeEnum.XLSX, service, queryWrapper, windowSize, writeHandlers);
+        } catch (Exception e) {
+            log.error("下载文件失败：", e);
+            setExportFailResponseHeader(response);
+        }
+    }
+
+    /**
+     * web 流式导出csv
+     * <p>
+     * 逐窗口写入并推送至客户端，可选gzip/zip压缩
+     *
+     * @param response
+     * @param fileName       csv文件名（压缩时追加对应后缀）
+     * @param clazz          导出的ExcelModel
+     * @param columnNameList 需要导出的ExcelModel列字段名称列表，为空时导出所有列
+     * @param service        查询的service
+     * @param queryWrapper   查询条件
+     * @param windowSize     每窗口数据量，<=0时取 BaseConfig.getBatchSize()
+     * @param compression    压缩方式，为空时不压缩
+     */
+    public static <T> void exportCsv(HttpServletResponse response, String fileName, Class<T> clazz, Collection<String> columnNameList,
+                                     BaseService<?> service, Wrapper<?> queryWrapper, int windowSize, Compression compression) {
+        if (compression == null) {
+            compression = Compression.NONE;
+        }
+        setExportExcelResponseHeader(response, fileName + compression.getSuffix());
+        try {
+            OutputStream outputStream = response.getOutputStream();
+            switch (compression) {
+                case GZIP:
+                    // syncFlush：每窗口的flush可推送已压缩内容
+                    GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192, true);
+                    streamWrite(gzipOutputStream, clazz, columnNameList, ExcelTypeEnum.CSV, service, queryWrapper, windowSize);
+                    gzipOutputStream.finish();
+                    break;
+                case ZIP:
+                    ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+                    zipOutputStream.putNextEntry(new ZipEntry(fileName));
+                    streamWrite(zipOutputStream, clazz, columnNameList, ExcelTypeEnum.CSV, service, queryWrapper, windowSize);
+                    zipOutputStream.closeEntry();
+                    zipOutputStream.finish();
+                    break;
+                default:
+                    streamWrite(outputStream, clazz, columnNameList, ExcelTypeEnum.CSV, service, queryWrapper, windowSize);
+            }
+            outputStream.flush();
+        } catch (Exception e) {
+            log.error("下载文件失败：", e);
+            setExportFailResponseHeader(response);
         }
     }
 
@@ -426,6 +578,22 @@ public class ExcelHelper {
         }
     }
 
+    /**
+     * 设置导出失败的响应头
+     *
+     * @param response
+     */
+    private static void setExportFailResponseHeader(HttpServletResponse response) {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("utf-8");
+        response.setHeader("code", String.valueOf(Status.FAIL_OPERATION.code()));
+        try {
+            response.setHeader("msg", URLEncoder.encode("下载文件失败", StandardCharsets.UTF_8.name()));
+        } catch (UnsupportedEncodingException ex) {
+            log.error("不支持字符编码", ex);
+        }
+    }
+
     /**
      * 获取本地文件内容
      *
@@ -566,4 +734,23 @@ public class ExcelHelper {
         private String title;
         private List<TableHead> children;
     }
+
+    /**
+     * csv导出压缩方式
+     */
+    @Getter
+    public enum Compression {
+        NONE(""),
+        GZIP(".gz"),
+        ZIP(".zip");
+
+        /**
+         * 文件名后缀
+         */
+        private final String suffix;
+
+        Compression(String suffix) {
+            this.suffix = suffix;
+        }
+    }
 }
@@ -34,7 +34,11 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
@@ -54,6 +58,29 @@ public class HttpHelper {
      * 默认contextType
      */
     private static final String DEFAULT_CONTEXT_TYPE = "application/octet-stream";
+    /**
+     * Tomcat sendfile相关请求属性
+     */
+    private static final String TOMCAT_SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String TOMCAT_SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String TOMCAT_SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String TOMCAT_SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    /**
+     * 使用sendfile的最小字节数（同Tomcat默认sendfileSize）
+     */
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+    /**
+     * 文件写出的块大小
+     */
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+    /**
+     * 无法满足的区间
+     */
+    private static final long[] UNSATISFIABLE_RANGE = new long[0];
+    /**
+     * 小文件内容缓存
+     */
+    private static volatile LocalFileCache localFileCache;
     /***
      * 文件扩展名-ContentType的对应关系
      */
@@ -261,34 +288,251 @@ public class HttpHelper {
      * @throws Exception
      */
     public static void downloadLocalFile(File localFile, String exportFileName, HttpServletResponse response) throws Exception{
-        BufferedInputStream bis = null;
-        BufferedOutputStream bos = null;
+        downloadLocalFile(localFile, exportFileName, null, response);
+    }
+
+    /**
+     * 根据文件对象下载服务器文件
+     * <p>
+     * 支持条件请求（ETag/Last-Modified，未变更时返回304）及单区间Range请求（206，含If-Range校验，多区间时返回完整文件）；
+     * 小文件内容由内存缓存提供，其他文件在Tomcat支持sendfile时交由容器零拷贝发送，否则通过FileChannel按块写出
+     * </p>
+     * @param localFile 本地文件对象
+     * @param exportFileName 导出文件的文件名
+     * @param request 为空时不支持条件及Range请求
+     * @param response
+     * @throws Exception
+     */
+    public static void downloadLocalFile(File localFile, String exportFileName, HttpServletRequest request, HttpServletResponse response) throws Exception{
+        if(!localFile.isFile()){
+            log.error("下载文件不存在:{}", localFile.getAbsolutePath());
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long fileLength = localFile.length();
+        // HTTP日期精确到秒
+        long lastModified = localFile.lastModified() / 1000 * 1000;
+        String eTag = "\"" + Long.toHexString(fileLength) + "-" + Long.toHexString(lastModified) + "\"";
+        response.setHeader("ETag", eTag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Accept-Ranges", "bytes");
+        if(request != null && isNotModified(request, eTag, lastModified)){
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long[] range = request != null? getRequestRange(request, eTag, lastModified, fileLength) : null;
+        if(range == UNSATISFIABLE_RANGE){
+            response.setHeader("Content-Range", "bytes */" + fileLength);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        long start = range != null? range[0] : 0, count = range != null? range[1] - range[0] + 1 : fileLength;
+        String fileName = new String(exportFileName.getBytes("utf-8"), "ISO8859-1");
+        response.setContentType(getContextType(fileName));
+        response.setHeader("Content-disposition", "attachment; filename="+ fileName);
+        response.setHeader("filename", URLEncoder.encode(exportFileName, StandardCharsets.UTF_8.name()));
+        if(range != null){
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + fileLength);
+        }
+        response.setHeader("Content-Length", String.valueOf(count));
+        if(request != null && "HEAD".equalsIgnoreCase(request.getMethod())){
+            return;
+        }
         try{
-            String fileName = new String(exportFileName.getBytes("utf-8"), "ISO8859-1");
-            long fileLength = localFile.length();
-            response.setContentType(getContextType(fileName));
-            response.setHeader("Content-disposition", "attachment; filename="+ fileName);
-            response.setHeader("Content-Length", String.valueOf(fileLength));
-            response.setHeader("filename", URLEncoder.encode(exportFileName, StandardCharsets.UTF_8.name()));
-            bis = new BufferedInputStream(new FileInputStream(localFile));
-            bos = new BufferedOutputStream(response.getOutputStream());
-            byte[] buff = new byte[2048];
-            int bytesRead;
-            while(-1 != (bytesRead = bis.read(buff, 0, buff.length))) {
-                bos.write(buff, 0, bytesRead);
+            byte[] content = getLocalFileCache().get(localFile);
+            if(content != null && content.length == fileLength){
+                response.getOutputStream().write(content, (int)start, (int)count);
+                return;
+            }
+            // 由Tomcat通过sendfile发送（需NIO/NIO2/APR连接器且开启sendfile）
+            if(request != null && count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(TOMCAT_SENDFILE_SUPPORT))){
+                request.setAttribute(TOMCAT_SENDFILE_FILENAME, localFile.getCanonicalPath());
+                request.setAttribute(TOMCAT_SENDFILE_START, start);
+                request.setAttribute(TOMCAT_SENDFILE_END, start + count);
+                return;
+            }
+            try(FileChannel fileChannel = FileChannel.open(localFile.toPath(), StandardOpenOption.READ)){
+                OutputStream outputStream = response.getOutputStream();
+                long position = start, end = start + count;
+                // 输出流本身为Channel时由transferTo直接传输，否则按块读取写出（包装为Channel的transferTo需多次复制，并无优势）
+                if(outputStream instanceof WritableByteChannel){
+                    while(position < end){
+                        long transferred = fileChannel.transferTo(position, end - position, (WritableByteChannel) outputStream);
+                        if(transferred <= 0){
+                            break;
+                        }
+                        position += transferred;
+                    }
+                    return;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate((int)Math.min(count, TRANSFER_BUFFER_SIZE));
+                while(position < end){
+                    buffer.clear();
+                    buffer.limit((int)Math.min(buffer.capacity(), end - position));
+                    int read = fileChannel.read(buffer, position);
+                    if(read < 0){
+                        break;
+                    }
+                    outputStream.write(buffer.array(), 0, read);
+                    position += read;
+                }
             }
         }
         catch (Exception e) {
-            log.error("下载文件失败:{}", localFile.getAbsolutePath(), e);
+            // 客户端中断（如视频拖动进度）属正常情况，读取文件等其他异常需关注
+            if(isClientAbort(e)){
+                log.debug("下载文件中断:{}, {}", localFile.getAbsolutePath(), e.getMessage());
+            }
+            else{
+                log.error("下载文件失败:{}", localFile.getAbsolutePath(), e);
+            }
         }
-        finally {
-            if (bis != null) {
-                bis.close();
+    }
+
+    /**
+     * 是否为客户端中断连接导致的写出异常（Tomcat的ClientAbortException、Jetty的EofException、Broken pipe、Connection reset）
+     * @param e
+     * @return
+     */
+    private static boolean isClientAbort(Throwable e){
+        for(Throwable cause = e; cause != null; cause = cause.getCause()){
+            if(!(cause instanceof IOException)){
+                continue;
+            }
+            String className = cause.getClass().getSimpleName();
+            if("ClientAbortException".equals(className) || "EofException".equals(className)){
+                return true;
             }
-            if (bos != null) {
-                bos.close();
+            String message = cause.getMessage();
+            if(message != null && (S.containsIgnoreCase(message, "Broken pipe") || S.containsIgnoreCase(message, "Connection reset"))){
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * 请求的资源是否未变更（If-None-Match优先于If-Modified-Since）
+     * @param request
+     * @param eTag
+     * @param lastModified
+     * @return
+     */
+    private static boolean isNotModified(HttpServletRequest request, String eTag, long lastModified){
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if(ifNoneMatch != null){
+            for(String tag : ifNoneMatch.split(",")){
+                tag = tag.trim();
+                if("*".equals(tag) || eTag.equals(tag) || ("W/" + eTag).equals(tag)){
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * 解析请求的单个字节区间
+     * @param request
+     * @param eTag
+     * @param lastModified
+     * @param fileLength
+     * @return [起始位置, 结束位置]，无需按区间返回时为null，区间无法满足时为UNSATISFIABLE_RANGE
+     */
+    private static long[] getRequestRange(HttpServletRequest request, String eTag, long lastModified, long fileLength){
+        String rangeHeader = request.getHeader("Range");
+        if(rangeHeader == null || !rangeHeader.startsWith("bytes=") || rangeHeader.contains(",")){
+            return null;
+        }
+        // If-Range不匹配（文件已变更）时返回完整文件
+        String ifRange = request.getHeader("If-Range");
+        if(ifRange != null){
+            ifRange = ifRange.trim();
+            if(ifRange.startsWith("\"") || ifRange.startsWith("W/")){
+                if(!eTag.equals(ifRange)){
+                    return null;
+                }
+            }
+            else{
+                long ifRangeTime = getDateHeader(request, "If-Range");
+                if(ifRangeTime < 0 || lastModified > ifRangeTime){
+                    return null;
+                }
+            }
+        }
+        String rangeSpec = rangeHeader.substring("bytes=".length()).trim();
+        int index = rangeSpec.indexOf('-');
+        if(index < 0){
+            return null;
+        }
+        try{
+            long start, end;
+            if(index == 0){
+                // 后缀区间：最后N个字节
+                long suffixLength = Long.parseLong(rangeSpec.substring(1).trim());
+                if(suffixLength <= 0){
+                    return UNSATISFIABLE_RANGE;
+                }
+                start = Math.max(0, fileLength - suffixLength);
+                end = fileLength - 1;
+            }
+            else{
+                start = Long.parseLong(rangeSpec.substring(0, index).trim());
+                String endSpec = rangeSpec.substring(index + 1).trim();
+                end = endSpec.isEmpty()? fileLength - 1 : Math.min(Long.parseLong(endSpec), fileLength - 1);
+                if(end < start){
+                    return start >= fileLength? UNSATISFIABLE_RANGE : null;
+                }
+            }
+            if(start >= fileLength){
+                return UNSATISFIABLE_RANGE;
+            }
+            return new long[]{start, end};
+        }
+        catch (NumberFormatException e){
+            return null;
+        }
+    }
+
+    /**
+     * 获取日期请求头，不存在或格式错误时返回-1
+     * @param request
+     * @param name
+     * @return
+     */
+    private static long getDateHeader(HttpServletRequest request, String name){
+        try{
+            return request.getDateHeader(name);
+        }
+        catch (IllegalArgumentException e){
+            return -1;
+        }
+    }
+
+    /**
+     * 获取小文件内容缓存（由FileAutoConfig按FileProperties配置创建，未配置时使用默认大小）
+     * @return
+     */
+    public static LocalFileCache getLocalFileCache(){
+        if(localFileCache == null){
+            synchronized (HttpHelper.class){
+                if(localFileCache == null){
+                    localFileCache = new LocalFileCache(64 * 1024, 16 * 1024 * 1024);
+                }
+            }
+        }
+        return localFileCache;
+    }
+
+    /**
+     * 设置小文件内容缓存
+     * @param fileCache
+     */
+    public static void setLocalFileCache(LocalFileCache fileCache){
+        localFileCache = fileCache;
     }
 
     /****
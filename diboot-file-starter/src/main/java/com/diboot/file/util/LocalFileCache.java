@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地小文件内容缓存
+ * <p>
+ * 按最近访问淘汰（LRU），缓存总大小及单文件大小受限；以文件的修改时间和长度校验，文件变更后自动重新加载
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class LocalFileCache {
+
+    /**
+     * 可缓存的单文件最大字节数
+     */
+    private final long maxFileSize;
+    /**
+     * 缓存总字节数上限，<=0时不缓存
+     */
+    private final long maxTotalSize;
+
+    private final LinkedHashMap<String, CachedFile> cacheMap = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize = 0;
+
+    public LocalFileCache(long maxFileSize, long maxTotalSize) {
+        this.maxFileSize = maxFileSize;
+        this.maxTotalSize = maxTotalSize;
+    }
+
+    /**
+     * 是否可缓存该大小的文件
+     *
+     * @param fileLength
+     * @return
+     */
+    public boolean isCacheable(long fileLength) {
+        return maxTotalSize > 0 && fileLength <= maxFileSize && fileLength <= maxTotalSize;
+    }
+
+    /**
+     * 获取文件内容，不可缓存时返回null
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public byte[] get(File file) throws IOException {
+        long length = file.length();
+        if (!isCacheable(length)) {
+            return null;
+        }
+        String key = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        synchronized (this) {
+            CachedFile cachedFile = cacheMap.get(key);
+            if (cachedFile != null && cachedFile.lastModified == lastModified && cachedFile.content.length == length) {
+                return cachedFile.content;
+            }
+        }
+        byte[] content = Files.readAllBytes(file.toPath());
+        // 读取过程中文件发生变更时不缓存
+        if (content.length != length || file.lastModified() != lastModified) {
+            return content;
+        }
+        synchronized (this) {
+            CachedFile previous = cacheMap.put(key, new CachedFile(content, lastModified));
+            if (previous != null) {
+                totalSize -= previous.content.length;
+            }
+            totalSize += content.length;
+            Iterator<Map.Entry<String, CachedFile>> iterator = cacheMap.entrySet().iterator();
+            while (totalSize > maxTotalSize && iterator.hasNext()) {
+                totalSize -= iterator.next().getValue().content.length;
+                iterator.remove();
+            }
+        }
+        return content;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public synchronized void clear() {
+        cacheMap.clear();
+        totalSize = 0;
+    }
+
+    /**
+     * 已缓存的字节数
+     *
+     * @return
+     */
+    public synchronized long getTotalSize() {
+        return totalSize;
+    }
+
+    private static class CachedFile {
+        private final byte[] content;
+        private final long lastModified;
+
+        CachedFile(byte[] content, long lastModified) {
+            this.content = content;
+            this.lastModified = lastModified;
+        }
+    }
+}
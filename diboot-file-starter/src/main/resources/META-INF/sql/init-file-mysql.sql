@@ -19,3 +19,44 @@ CREATE TABLE upload_file (
 -- 索引
 create index idx_upload_file on upload_file (rel_obj_type, rel_obj_id, rel_obj_field);
 create index idx_upload_file_tenant on upload_file (tenant_id);
+
+-- Excel导入任务表
+CREATE TABLE excel_import_job (
+  id bigint auto_increment primary key COMMENT 'ID',
+  tenant_id bigint default 0 not null COMMENT '租户ID',
+  upload_file_uuid varchar(32) not null COMMENT '导入文件UUID',
+  listener_class varchar(200) not null COMMENT '导入监听器类',
+  param_json varchar(1000) COMMENT '请求参数',
+  status varchar(20) not null COMMENT '状态',
+  stage varchar(20) COMMENT '当前阶段',
+  read_count int default 0 not null COMMENT '已读取数据量',
+  saved_count int default 0 not null COMMENT '已保存数据量',
+  error_count int default 0 not null COMMENT '错误数据量',
+  last_row_index int default -1 not null COMMENT '最后保存的行号',
+  error_url varchar(200) COMMENT '错误数据文件地址',
+  result_msg varchar(500) COMMENT '结果信息',
+  node_id varchar(100) COMMENT '执行节点',
+  is_deleted tinyint(1) default 0 not null COMMENT '删除标记',
+  create_by bigint default 0 COMMENT '创建人',
+  create_time datetime default CURRENT_TIMESTAMP not null COMMENT '创建时间',
+  update_time datetime default CURRENT_TIMESTAMP null COMMENT '更新时间'
+)
+AUTO_INCREMENT=10000 DEFAULT CHARSET=utf8 COMMENT='Excel导入任务';
+-- 索引
+create index idx_excel_import_job on excel_import_job (status, node_id);
+create index idx_excel_import_job_tenant on excel_import_job (tenant_id);
+
+-- Excel导入任务错误数据表
+CREATE TABLE excel_import_job_error (
+  id bigint auto_increment primary key COMMENT 'ID',
+  job_id bigint not null COMMENT '导入任务ID',
+  row_index int not null COMMENT '行号',
+  data_json text not null COMMENT '数据',
+  comment_json text COMMENT '批注',
+  invalid_value_json text COMMENT '无效值',
+  is_deleted tinyint(1) default 0 not null COMMENT '删除标记',
+  create_time datetime default CURRENT_TIMESTAMP not null COMMENT '创建时间'
+)
+AUTO_INCREMENT=10000 DEFAULT CHARSET=utf8 COMMENT='Excel导入任务错误数据';
+-- 索引
+create index idx_excel_import_job_error on excel_import_job_error (job_id, row_index);
@@ -37,3 +37,72 @@ comment on table upload_file is '上传文件';
 -- 索引
 create index idx_upload_file on upload_file (rel_obj_type, rel_obj_id, rel_obj_field);
 create index idx_upload_file_tenant on upload_file(tenant_id);
+
+-- Excel导入任务表
+CREATE TABLE excel_import_job (
+  id bigserial not null,
+  tenant_id bigint default 0 not null,
+  upload_file_uuid varchar(32) not null,
+  listener_class varchar(200) not null,
+  param_json varchar(1000),
+  status varchar(20) not null,
+  stage varchar(20),
+  read_count int default 0 not null,
+  saved_count int default 0 not null,
+  error_count int default 0 not null,
+  last_row_index int default -1 not null,
+  error_url varchar(200),
+  result_msg varchar(500),
+  node_id varchar(100),
+  is_deleted BOOLEAN default FALSE not null,
+  create_by bigint default 0,
+  create_time timestamp default CURRENT_TIMESTAMP not null,
+  update_time timestamp default CURRENT_TIMESTAMP null,
+  constraint PK_excel_import_job primary key (id)
+);
+comment on column excel_import_job.id is 'ID';
+comment on column excel_import_job.tenant_id is '租户ID';
+comment on column excel_import_job.upload_file_uuid is '导入文件UUID';
+comment on column excel_import_job.listener_class is '导入监听器类';
+comment on column excel_import_job.param_json is '请求参数';
+comment on column excel_import_job.status is '状态';
+comment on column excel_import_job.stage is '当前阶段';
+comment on column excel_import_job.read_count is '已读取数据量';
+comment on column excel_import_job.saved_count is '已保存数据量';
+comment on column excel_import_job.error_count is '错误数据量';
+comment on column excel_import_job.last_row_index is '最后保存的行号';
+comment on column excel_import_job.error_url is '错误数据文件地址';
+comment on column excel_import_job.result_msg is '结果信息';
+comment on column excel_import_job.node_id is '执行节点';
+comment on column excel_import_job.is_deleted is '删除标记';
+comment on column excel_import_job.create_by is '创建人';
+comment on column excel_import_job.create_time is '创建时间';
+comment on column excel_import_job.update_time is '更新时间';
+comment on table excel_import_job is 'Excel导入任务';
+-- 索引
+create index idx_excel_import_job on excel_import_job (status, node_id);
+create index idx_excel_import_job_tenant on excel_import_job (tenant_id);
+
+-- Excel导入任务错误数据表
+CREATE TABLE excel_import_job_error (
+  id bigserial not null,
+  job_id bigint not null,
+  row_index int not null,
+  data_json text not null,
+  comment_json text,
+  invalid_value_json text,
+  is_deleted BOOLEAN default FALSE not null,
+  create_time timestamp default CURRENT_TIMESTAMP not null,
+  constraint PK_excel_import_job_error primary key (id)
+);
+comment on column excel_import_job_error.id is 'ID';
+comment on column excel_import_job_error.job_id is '导入任务ID';
+comment on column excel_import_job_error.row_index is '行号';
+comment on column excel_import_job_error.data_json is '数据';
+comment on column excel_import_job_error.comment_json is '批注';
+comment on column excel_import_job_error.invalid_value_json is '无效值';
+comment on column excel_import_job_error.is_deleted is '删除标记';
+comment on column excel_import_job_error.create_time is '创建时间';
+comment on table excel_import_job_error is 'Excel导入任务错误数据';
+-- 索引
+create index idx_excel_import_job_error on excel_import_job_error (job_id, row_index);
@@ -37,3 +37,74 @@ execute sp_addextendedproperty 'MS_Description', N'上传文件', 'SCHEMA', '${S
 -- 索引
 create nonclustered index idx_upload_file on upload_file(rel_obj_type, rel_obj_id, rel_obj_field);
 create nonclustered index idx_upload_file_tenant on upload_file(tenant_id);
+
+-- Excel导入任务表
+CREATE TABLE ${SCHEMA}.excel_import_job (
+  id bigint identity,
+  tenant_id bigint default 0 not null,
+  upload_file_uuid varchar(32) not null,
+  listener_class varchar(200) not null,
+  param_json varchar(1000),
+  status varchar(20) not null,
+  stage varchar(20),
+  read_count int default 0 not null,
+  saved_count int default 0 not null,
+  error_count int default 0 not null,
+  last_row_index int default -1 not null,
+  error_url varchar(200),
+  result_msg varchar(500),
+  node_id varchar(100),
+  is_deleted tinyint default 0 not null,
+  create_by bigint default 0,
+  create_time datetime default CURRENT_TIMESTAMP not null,
+  update_time datetime default CURRENT_TIMESTAMP null,
+  constraint PK_excel_import_job primary key (id)
+);
+-- 添加备注
+execute sp_addextendedproperty 'MS_Description', N'ID', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'id';
+execute sp_addextendedproperty 'MS_Description', N'租户ID', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'tenant_id';
+execute sp_addextendedproperty 'MS_Description', N'导入文件UUID', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'upload_file_uuid';
+execute sp_addextendedproperty 'MS_Description', N'导入监听器类', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'listener_class';
+execute sp_addextendedproperty 'MS_Description', N'请求参数', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'param_json';
+execute sp_addextendedproperty 'MS_Description', N'状态', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'status';
+execute sp_addextendedproperty 'MS_Description', N'当前阶段', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'stage';
+execute sp_addextendedproperty 'MS_Description', N'已读取数据量', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'read_count';
+execute sp_addextendedproperty 'MS_Description', N'已保存数据量', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'saved_count';
+execute sp_addextendedproperty 'MS_Description', N'错误数据量', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'error_count';
+execute sp_addextendedproperty 'MS_Description', N'最后保存的行号', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'last_row_index';
+execute sp_addextendedproperty 'MS_Description', N'错误数据文件地址', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'error_url';
+execute sp_addextendedproperty 'MS_Description', N'结果信息', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'result_msg';
+execute sp_addextendedproperty 'MS_Description', N'执行节点', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'node_id';
+execute sp_addextendedproperty 'MS_Description', N'删除标记', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'is_deleted';
+execute sp_addextendedproperty 'MS_Description', N'创建人', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'create_by';
+execute sp_addextendedproperty 'MS_Description', N'创建时间', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'create_time';
+execute sp_addextendedproperty 'MS_Description', N'更新时间', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, 'column', 'update_time';
+execute sp_addextendedproperty 'MS_Description', N'Excel导入任务', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job, null, null;
+-- 索引
+create nonclustered index idx_excel_import_job on ${SCHEMA}.excel_import_job (status, node_id);
+create nonclustered index idx_excel_import_job_tenant on ${SCHEMA}.excel_import_job (tenant_id);
+
+-- Excel导入任务错误数据表
+CREATE TABLE ${SCHEMA}.excel_import_job_error (
+  id bigint identity,
+  job_id bigint not null,
+  row_index int not null,
+  data_json nvarchar(max) not null,
+  comment_json nvarchar(max),
+  invalid_value_json nvarchar(max),
+  is_deleted tinyint default 0 not null,
+  create_time datetime default CURRENT_TIMESTAMP not null,
+  constraint PK_excel_import_job_error primary key (id)
+);
+-- 添加备注
+execute sp_addextendedproperty 'MS_Description', N'ID', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job_error, 'column', 'id';
+execute sp_addextendedproperty 'MS_Description', N'导入任务ID', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job_error, 'column', 'job_id';
+execute sp_addextendedproperty 'MS_Description', N'行号', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job_error, 'column', 'row_index';
+execute sp_addextendedproperty 'MS_Description', N'数据', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job_error, 'column', 'data_json';
+execute sp_addextendedproperty 'MS_Description', N'批注', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job_error, 'column', 'comment_json';
+execute sp_addextendedproperty 'MS_Description', N'无效值', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job_error, 'column', 'invalid_value_json';
+execute sp_addextendedproperty 'MS_Description', N'删除标记', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job_error, 'column', 'is_deleted';
+execute sp_addextendedproperty 'MS_Description', N'创建时间', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job_error, 'column', 'create_time';
+execute sp_addextendedproperty 'MS_Description', N'Excel导入任务错误数据', 'SCHEMA', '${SCHEMA}', 'table', excel_import_job_error, null, null;
+-- 索引
+create nonclustered index idx_excel_import_job_error on ${SCHEMA}.excel_import_job_error (job_id, row_index);
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.example.test;
+
+import com.diboot.file.example.custom.DepartmentExcelModel;
+import com.diboot.file.excel.annotation.ExcelBindField;
+import com.diboot.file.excel.cache.ExcelImportLookupCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 导入查找缓存测试
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class ExcelImportLookupCacheTest {
+
+    @Test
+    public void testReferenceSavedInSameFile() throws Exception{
+        ExcelBindField bindField = DepartmentExcelModel.class.getDeclaredField("parentName").getAnnotation(ExcelBindField.class);
+        // 模拟的部门表：名称-ID
+        Map<String, Long> departmentTable = new HashMap<>();
+        departmentTable.put("产品部", 1L);
+        List<List<String>> queriedNames = new ArrayList<>();
+        Function<List<String>, Map<String, List>> loader = names -> {
+            queriedNames.add(names);
+            Map<String, List> name2ValueMap = new HashMap<>();
+            for(String name : names){
+                if(departmentTable.containsKey(name)){
+                    name2ValueMap.put(name, Collections.singletonList(departmentTable.get(name)));
+                }
+            }
+            return name2ValueMap;
+        };
+        ExcelImportLookupCache lookupCache = new ExcelImportLookupCache();
+        // 第一批：研发部尚未保存
+        Map<String, List> name2ValueMap = lookupCache.getBindFieldNameValueMap(bindField, Arrays.asList("产品部", "研发部"), loader);
+        Assert.assertEquals(Collections.singletonList(1L), name2ValueMap.get("产品部"));
+        Assert.assertNull(name2ValueMap.get("研发部"));
+        // 第一批保存了研发部
+        departmentTable.put("研发部", 2L);
+        // 第二批引用同一文件中已保存的研发部
+        name2ValueMap = lookupCache.getBindFieldNameValueMap(bindField, Arrays.asList("产品部", "研发部"), loader);
+        Assert.assertEquals(Collections.singletonList(2L), name2ValueMap.get("研发部"));
+        // 已匹配的名称不再查询
+        Assert.assertEquals(Arrays.asList(Arrays.asList("产品部", "研发部"), Collections.singletonList("研发部")), queriedNames);
+        lookupCache.getBindFieldNameValueMap(bindField, Arrays.asList("产品部", "研发部"), loader);
+        Assert.assertEquals(2, queriedNames.size());
+    }
+
+}
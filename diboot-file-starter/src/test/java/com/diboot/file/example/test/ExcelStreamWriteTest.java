@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.example.test;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.support.ExcelTypeEnum;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.service.BaseService;
+import com.diboot.file.util.ExcelHelper;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+/**
+ * 流式导出测试
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class ExcelStreamWriteTest {
+
+    @Test
+    public void testCsvPushedPerWindow(){
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        List<String> windowOutputs = streamWriteCsv(outputStream, () -> new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        // 每个窗口写入后，该窗口的行已写出到输出流
+        for(int window=0; window<3; window++){
+            String output = windowOutputs.get(window);
+            Assert.assertTrue(output, output.contains("name" + (window * 3 + 2)));
+            Assert.assertFalse(output, output.contains("name" + (window * 3 + 3)));
+        }
+        String csv = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        // 表头及9行数据
+        Assert.assertEquals(10, csv.trim().split("\r?\n").length);
+        Assert.assertTrue(csv.contains("name8"));
+    }
+
+    @Test
+    public void testGzipCsvPushedPerWindow() throws Exception{
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192, true);
+        List<String> windowOutputs = streamWriteCsv(gzipOutputStream, () -> inflatePartial(outputStream.toByteArray()));
+        for(int window=0; window<3; window++){
+            String output = windowOutputs.get(window);
+            Assert.assertTrue(output, output.contains("name" + (window * 3 + 2)));
+        }
+        gzipOutputStream.finish();
+        Assert.assertTrue(inflatePartial(outputStream.toByteArray()).contains("name8"));
+    }
+
+    /**
+     * 流式写入3个窗口，返回每个窗口写入后输出流中的内容
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> streamWriteCsv(OutputStream outputStream, Supplier<String> outputReader){
+        List<String> windowOutputs = new ArrayList<>();
+        BaseService<?> service = Mockito.mock(BaseService.class);
+        Mockito.doAnswer(invocation -> {
+            Consumer<List<RowModel>> windowConsumer = invocation.getArgument(3);
+            for(int window=0; window<3; window++){
+                List<RowModel> rows = new ArrayList<>();
+                for(int i=0; i<3; i++){
+                    RowModel row = new RowModel();
+                    row.setName("name" + (window * 3 + i));
+                    rows.add(row);
+                }
+                windowConsumer.accept(rows);
+                windowOutputs.add(outputReader.get());
+            }
+            return null;
+        }).when(service).streamViewObjectList(any(), any(), anyInt(), any());
+        ExcelHelper.streamWrite(outputStream, RowModel.class, null, ExcelTypeEnum.CSV, service, new QueryWrapper<>(), 3);
+        return windowOutputs;
+    }
+
+    /**
+     * 解压已写出的gzip内容（可为未结束的流）
+     */
+    private static String inflatePartial(byte[] gzipBytes){
+        // 跳过10字节的gzip头
+        InflaterInputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(gzipBytes, 10, gzipBytes.length - 10), new Inflater(true));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        try{
+            int length;
+            while((length = inputStream.read(buffer)) > 0){
+                outputStream.write(buffer, 0, length);
+            }
+        }
+        catch (IOException e){
+            // 未结束的流读到末尾
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Getter @Setter
+    public static class RowModel {
+        @ExcelProperty("名称")
+        private String name;
+    }
+
+}
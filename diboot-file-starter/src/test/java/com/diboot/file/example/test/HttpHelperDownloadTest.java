@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.example.test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.diboot.file.util.HttpHelper;
+import com.diboot.file.util.LocalFileCache;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 本地文件下载测试：条件请求、Range请求、中断日志及吞吐量对比
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class HttpHelperDownloadTest {
+
+    private static File smallFile;
+    private static File largeFile;
+    private static byte[] largeContent;
+
+    @BeforeClass
+    public static void prepareFiles() throws IOException {
+        Random random = new Random(7);
+        byte[] smallContent = new byte[4 * 1024];
+        random.nextBytes(smallContent);
+        smallFile = File.createTempFile("download-small", ".txt");
+        Files.write(smallFile.toPath(), smallContent);
+        largeContent = new byte[8 * 1024 * 1024];
+        random.nextBytes(largeContent);
+        largeFile = File.createTempFile("download-large", ".mp4");
+        Files.write(largeFile.toPath(), largeContent);
+    }
+
+    @AfterClass
+    public static void deleteFiles() {
+        smallFile.delete();
+        largeFile.delete();
+    }
+
+    @Test
+    public void testFullDownload() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpHelper.downloadLocalFile(largeFile, "测试.mp4", new MockHttpServletRequest("GET", "/"), response);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertNotNull(response.getHeader("ETag"));
+        Assert.assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        Assert.assertEquals(String.valueOf(largeContent.length), response.getHeader("Content-Length"));
+        Assert.assertArrayEquals(largeContent, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpHelper.downloadLocalFile(smallFile, "small.txt", new MockHttpServletRequest("GET", "/"), response);
+        String eTag = response.getHeader("ETag");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", eTag);
+        response = new MockHttpServletResponse();
+        HttpHelper.downloadLocalFile(smallFile, "small.txt", request, response);
+        Assert.assertEquals(304, response.getStatus());
+        Assert.assertEquals(0, response.getContentAsByteArray().length);
+
+        request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-Modified-Since", smallFile.lastModified());
+        response = new MockHttpServletResponse();
+        HttpHelper.downloadLocalFile(smallFile, "small.txt", request, response);
+        Assert.assertEquals(304, response.getStatus());
+
+        request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", "\"other\"");
+        response = new MockHttpServletResponse();
+        HttpHelper.downloadLocalFile(smallFile, "small.txt", request, response);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertArrayEquals(Files.readAllBytes(smallFile.toPath()), response.getContentAsByteArray());
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        MockHttpServletResponse response = downloadRange("bytes=100-1099", null);
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertEquals("bytes 100-1099/" + largeContent.length, response.getHeader("Content-Range"));
+        Assert.assertArrayEquals(Arrays.copyOfRange(largeContent, 100, 1100), response.getContentAsByteArray());
+
+        response = downloadRange("bytes=-500", null);
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertArrayEquals(Arrays.copyOfRange(largeContent, largeContent.length - 500, largeContent.length), response.getContentAsByteArray());
+
+        response = downloadRange("bytes=" + (largeContent.length - 10) + "-", null);
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertEquals(10, response.getContentAsByteArray().length);
+
+        response = downloadRange("bytes=" + largeContent.length + "-", null);
+        Assert.assertEquals(416, response.getStatus());
+        Assert.assertEquals("bytes */" + largeContent.length, response.getHeader("Content-Range"));
+
+        // 多区间返回完整文件
+        response = downloadRange("bytes=0-1,5-6", null);
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals(largeContent.length, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testIfRange() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpHelper.downloadLocalFile(largeFile, "large.mp4", new MockHttpServletRequest("HEAD", "/"), response);
+        String eTag = response.getHeader("ETag");
+        Assert.assertEquals(0, response.getContentAsByteArray().length);
+
+        response = downloadRange("bytes=0-99", eTag);
+        Assert.assertEquals(206, response.getStatus());
+        Assert.assertEquals(100, response.getContentAsByteArray().length);
+
+        // 文件已变更，返回完整文件
+        response = downloadRange("bytes=0-99", "\"changed\"");
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals(largeContent.length, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testSmallFileCache() throws Exception {
+        HttpHelper.getLocalFileCache().clear();
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            HttpHelper.downloadLocalFile(smallFile, "small.txt", new MockHttpServletRequest("GET", "/"), response);
+            Assert.assertEquals(smallFile.length(), response.getContentAsByteArray().length);
+        }
+        Assert.assertEquals(smallFile.length(), HttpHelper.getLocalFileCache().getTotalSize());
+    }
+
+    @Test
+    public void testConfiguredFileCache() throws Exception {
+        LocalFileCache defaultCache = HttpHelper.getLocalFileCache();
+        // 单文件上限小于文件大小时不缓存
+        LocalFileCache fileCache = new LocalFileCache(smallFile.length() - 1, 1024 * 1024);
+        HttpHelper.setLocalFileCache(fileCache);
+        try {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            HttpHelper.downloadLocalFile(smallFile, "small.txt", new MockHttpServletRequest("GET", "/"), response);
+            Assert.assertEquals(smallFile.length(), response.getContentAsByteArray().length);
+            Assert.assertSame(fileCache, HttpHelper.getLocalFileCache());
+            Assert.assertEquals(0, fileCache.getTotalSize());
+        } finally {
+            HttpHelper.setLocalFileCache(defaultCache);
+        }
+    }
+
+    @Test
+    public void testClientAbortLogLevel() throws Exception {
+        HttpHelper.getLocalFileCache().clear();
+        Logger logger = (Logger) LoggerFactory.getLogger(HttpHelper.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            // 客户端中断仅记录debug日志
+            HttpHelper.downloadLocalFile(largeFile, "large.mp4", new MockHttpServletRequest("GET", "/"), new FailingResponse(new IOException("Broken pipe")));
+            HttpHelper.downloadLocalFile(largeFile, "large.mp4", new MockHttpServletRequest("GET", "/"), new FailingResponse(new ClientAbortException(new IOException("Connection reset by peer"))));
+            Assert.assertTrue(appender.list.stream().noneMatch(event -> event.getLevel() == Level.ERROR));
+            // 其他异常记录error日志
+            HttpHelper.downloadLocalFile(largeFile, "large.mp4", new MockHttpServletRequest("GET", "/"), new FailingResponse(new IOException("Input/output error")));
+            Assert.assertEquals(1, appender.list.stream().filter(event -> event.getLevel() == Level.ERROR).count());
+        }
+        finally {
+            logger.detachAppender(appender);
+        }
+    }
+
+    /**
+     * 与原2KB缓冲流复制方式的吞吐量对比（交替执行多轮取各自最优），按需手动执行
+     */
+    @Ignore("性能对比，按需手动执行")
+    @Test
+    public void testThroughput() throws Exception {
+        int rounds = 8, iterations = 50;
+        long bufferedNanos = Long.MAX_VALUE, channelNanos = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                copyWithBufferedStream(largeFile, new DiscardResponse());
+            }
+            bufferedNanos = Math.min(bufferedNanos, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                HttpHelper.downloadLocalFile(largeFile, "large.mp4", new MockHttpServletRequest("GET", "/"), new DiscardResponse());
+            }
+            channelNanos = Math.min(channelNanos, System.nanoTime() - start);
+        }
+        double totalMb = iterations * largeContent.length / 1024.0 / 1024.0;
+        log.info("原缓冲流复制: {} MB/s, FileChannel按块写出: {} MB/s",
+                String.format("%.1f", totalMb / (bufferedNanos / 1e9)), String.format("%.1f", totalMb / (channelNanos / 1e9)));
+    }
+
+    private MockHttpServletResponse downloadRange(String range, String ifRange) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", range);
+        if (ifRange != null) {
+            request.addHeader("If-Range", ifRange);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpHelper.downloadLocalFile(largeFile, "large.mp4", request, response);
+        return response;
+    }
+
+    /**
+     * 原下载实现的复制方式
+     */
+    private void copyWithBufferedStream(File file, HttpServletResponse response) throws IOException {
+        try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file));
+             BufferedOutputStream bos = new BufferedOutputStream(response.getOutputStream())) {
+            byte[] buff = new byte[2048];
+            int bytesRead;
+            while (-1 != (bytesRead = bis.read(buff, 0, buff.length))) {
+                bos.write(buff, 0, bytesRead);
+            }
+        }
+    }
+
+    /**
+     * 丢弃输出内容的response，排除内存写入对测试的影响
+     */
+    private static class DiscardResponse extends HttpServletResponseWrapper {
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        };
+
+        DiscardResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+
+    /**
+     * 写出时抛出指定异常的response
+     */
+    private static class FailingResponse extends DiscardResponse {
+        private final IOException exception;
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                throw exception;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw exception;
+            }
+        };
+
+        FailingResponse(IOException exception) {
+            this.exception = exception;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+
+    /**
+     * 模拟Tomcat的客户端中断异常
+     */
+    private static class ClientAbortException extends IOException {
+        ClientAbortException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
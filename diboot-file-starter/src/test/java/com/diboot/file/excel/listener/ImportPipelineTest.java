@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.excel.listener;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.alibaba.excel.support.ExcelTypeEnum;
+import com.diboot.file.excel.BaseExcelModel;
+import com.diboot.file.starter.FileProperties;
+import com.diboot.file.util.ExcelHelper;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Excel导入流水线测试
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class ImportPipelineTest {
+
+    private static final ExecutorService VALIDATE_EXECUTOR = Executors.newFixedThreadPool(4);
+    private static final ExecutorService SAVE_EXECUTOR = Executors.newFixedThreadPool(4);
+    private static final ExcelImportExecutors IMPORT_EXECUTORS = new ExcelImportExecutors(4, 2, 4);
+
+    @AfterClass
+    public static void shutdown(){
+        VALIDATE_EXECUTOR.shutdownNow();
+        SAVE_EXECUTOR.shutdownNow();
+        IMPORT_EXECUTORS.destroy();
+    }
+
+    @Test
+    public void testExecutorsFromFileProperties(){
+        FileProperties fileProperties = new FileProperties();
+        fileProperties.setImportThreads(3);
+        fileProperties.setImportParallelism(5);
+        fileProperties.setImportQueueSize(6);
+        ExcelImportExecutors importExecutors = new ExcelImportExecutors(fileProperties);
+        Assert.assertEquals(3, importExecutors.getValidateExecutor().getMaximumPoolSize());
+        Assert.assertEquals(3, importExecutors.getSaveExecutor().getMaximumPoolSize());
+        Assert.assertEquals(5, importExecutors.getParallelism());
+        Assert.assertEquals(6, importExecutors.getQueueSize());
+        TestImportListener listener = new TestImportListener(importExecutors);
+        Assert.assertEquals(5, listener.getParallelism());
+        Assert.assertEquals(6, listener.getQueueSize());
+        importExecutors.destroy();
+        Assert.assertTrue(importExecutors.getValidateExecutor().isShutdown());
+        Assert.assertTrue(importExecutors.getSaveExecutor().isShutdown());
+    }
+
+    @Test
+    public void testSaveInSubmitOrder() throws Exception{
+        List<Integer> savedBatches = new CopyOnWriteArrayList<>();
+        AtomicInteger activeValidations = new AtomicInteger();
+        AtomicInteger maxActiveValidations = new AtomicInteger();
+        ImportPipeline<Integer> pipeline = new ImportPipeline<>(2, 4, batch -> {
+            maxActiveValidations.accumulateAndGet(activeValidations.incrementAndGet(), Math::max);
+            // 先提交的批次校验更慢
+            sleep(50 - batch.get(0) * 5);
+            activeValidations.decrementAndGet();
+        }, batch -> savedBatches.add(batch.get(0)), VALIDATE_EXECUTOR, SAVE_EXECUTOR, false);
+        for(int i=0; i<10; i++){
+            pipeline.submit(Collections.singletonList(i));
+        }
+        pipeline.finish();
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), savedBatches);
+        // 共享线程池中单次导入的校验并发数不超过parallelism
+        Assert.assertTrue(maxActiveValidations.get() <= 2);
+        Assert.assertEquals(10L, pipeline.getStageTimeMap().get("batches").longValue());
+    }
+
+    @Test
+    public void testFailureStopsLaterBatches(){
+        List<Integer> savedBatches = new CopyOnWriteArrayList<>();
+        ImportPipeline<Integer> pipeline = new ImportPipeline<>(2, 2, batch -> {}, batch -> {
+            if(batch.get(0) == 2){
+                throw new IllegalStateException("save failed");
+            }
+            savedBatches.add(batch.get(0));
+        }, VALIDATE_EXECUTOR, SAVE_EXECUTOR, false);
+        for(int i=0; i<6; i++){
+            pipeline.submit(Collections.singletonList(i));
+        }
+        try{
+            pipeline.finish();
+            Assert.fail("应抛出保存异常");
+        }
+        catch (Exception e){
+            Assert.assertEquals("save failed", e.getMessage());
+        }
+        Assert.assertTrue(pipeline.isAborted());
+        Assert.assertEquals(Arrays.asList(0, 1), savedBatches);
+    }
+
+    @Test
+    public void testCancelDrainsPipeline() throws Exception{
+        List<Integer> savedBatches = new CopyOnWriteArrayList<>();
+        CountDownLatch firstSaveStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstSave = new CountDownLatch(1);
+        ImportPipeline<Integer> pipeline = new ImportPipeline<>(2, 4, batch -> {}, batch -> {
+            if(batch.get(0) == 0){
+                firstSaveStarted.countDown();
+                await(releaseFirstSave);
+            }
+            savedBatches.add(batch.get(0));
+        }, VALIDATE_EXECUTOR, SAVE_EXECUTOR, false);
+        for(int i=0; i<4; i++){
+            pipeline.submit(Collections.singletonList(i));
+        }
+        Assert.assertTrue(firstSaveStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> cancelled = CompletableFuture.runAsync(() -> pipeline.cancel(new IllegalStateException("parse failed")));
+        // 等待执行中的批次结束后返回
+        sleep(100);
+        Assert.assertTrue(pipeline.isAborted());
+        Assert.assertFalse(cancelled.isDone());
+        releaseFirstSave.countDown();
+        cancelled.get(5, TimeUnit.SECONDS);
+        // 排队中的批次不再保存
+        Assert.assertEquals(Collections.singletonList(0), savedBatches);
+        pipeline.submit(Collections.singletonList(4));
+        sleep(100);
+        Assert.assertEquals(Collections.singletonList(0), savedBatches);
+    }
+
+    @Test
+    public void testSynchronousInCallerThread() throws Exception{
+        Thread callerThread = Thread.currentThread();
+        List<Thread> stageThreads = new CopyOnWriteArrayList<>();
+        ImportPipeline<Integer> pipeline = new ImportPipeline<>(2, 4, batch -> stageThreads.add(Thread.currentThread()),
+                batch -> stageThreads.add(Thread.currentThread()), VALIDATE_EXECUTOR, SAVE_EXECUTOR, true);
+        pipeline.submit(Collections.singletonList(0));
+        pipeline.submit(Collections.singletonList(1));
+        pipeline.finish();
+        Assert.assertEquals(Collections.nCopies(4, callerThread), stageThreads);
+    }
+
+    @Test
+    public void testReadFailureCancelsQueuedBatches() throws Exception{
+        TestImportListener listener = new TestImportListener(IMPORT_EXECUTORS);
+        int rowCount = 5 * 1000;
+        StringBuilder csv = new StringBuilder("名称\n");
+        for(int i=0; i<rowCount; i++){
+            csv.append("name").append(i).append('\n');
+        }
+        // 读取完数据后流异常中断
+        InputStream inputStream = new SequenceInputStream(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        });
+        try{
+            ExcelHelper.read(inputStream, ExcelTypeEnum.CSV, listener, RowModel.class);
+            Assert.fail("应抛出读取异常");
+        }
+        catch (RuntimeException e){
+            // 预期异常
+        }
+        int savedRows = listener.savedRows.get();
+        Assert.assertTrue(savedRows < rowCount);
+        // 返回后不再保存
+        sleep(600);
+        Assert.assertEquals(savedRows, listener.savedRows.get());
+    }
+
+    private static void sleep(long millis){
+        try{
+            Thread.sleep(Math.max(0, millis));
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch){
+        try{
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Getter @Setter
+    public static class RowModel extends BaseExcelModel {
+        @ExcelProperty(value = "名称", index = 0)
+        private String name;
+    }
+
+    private static class TestImportListener extends PageReadExcelListener<RowModel> {
+        private final AtomicInteger savedRows = new AtomicInteger();
+        private final ExcelImportExecutors importExecutors;
+
+        TestImportListener(ExcelImportExecutors importExecutors){
+            this.importExecutors = importExecutors;
+        }
+
+        @Override
+        protected ExcelImportExecutors getImportExecutors() {
+            return importExecutors;
+        }
+
+        @Override
+        protected void additionalValidate(List<RowModel> dataList, Map<String, Object> requestParams) {
+        }
+
+        @Override
+        protected void saveData(List<RowModel> dataList, Map<String, Object> requestParams) {
+            sleep(200);
+            savedRows.addAndGet(dataList.size());
+        }
+    }
+
+}
@@ -0,0 +1,559 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.file.service.impl;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.annotation.ExcelProperty;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.update.Update;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.diboot.core.util.D;
+import com.diboot.core.util.JSON;
+import com.diboot.core.util.S;
+import com.diboot.file.config.Cons;
+import com.diboot.file.dto.UploadFileResult;
+import com.diboot.file.entity.ExcelImportJob;
+import com.diboot.file.entity.ExcelImportJobError;
+import com.diboot.file.entity.UploadFile;
+import com.diboot.file.excel.BaseExcelModel;
+import com.diboot.file.excel.listener.ExcelImportExecutors;
+import com.diboot.file.excel.listener.ExcelImportJobContext;
+import com.diboot.file.excel.listener.PageReadExcelListener;
+import com.diboot.file.excel.listener.ReadExcelListener;
+import com.diboot.file.service.FileStorageService;
+import com.diboot.file.service.UploadFileService;
+import com.diboot.file.starter.FileProperties;
+import com.diboot.file.util.FileHelper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Excel导入任务测试（基于内存模拟的任务表）
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class ExcelImportJobServiceImplTest {
+
+    private static final int ROW_COUNT = 2500;
+    /**
+     * 导入流水线的校验、保存线程池
+     */
+    private static final ExcelImportExecutors IMPORT_EXECUTORS = new ExcelImportExecutors(2, 2, 4);
+    private static Object originalObjectMapper;
+    private static Object originalLocalStorage;
+
+    @BeforeClass
+    public static void init() throws Exception{
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ExcelImportJob.class);
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ExcelImportJobError.class);
+        originalObjectMapper = setStaticField(JSON.class, "objectMapper", new ObjectMapper());
+        originalLocalStorage = setStaticField(FileHelper.class, "isLocalStorage", false);
+    }
+
+    @AfterClass
+    public static void destroy() throws Exception{
+        setStaticField(JSON.class, "objectMapper", originalObjectMapper);
+        setStaticField(FileHelper.class, "isLocalStorage", originalLocalStorage);
+        IMPORT_EXECUTORS.destroy();
+    }
+
+    @Test
+    public void testSubmitAndScopedAccess() throws Exception{
+        TestContext context = new TestContext("node-1");
+        TestListener listener = new TestListener();
+        listener.releaseFirstSave.countDown();
+        ExcelImportJob job = context.service.submitJob(context.uploadFile, listener, new HashMap<>(), 1L, 5L);
+        context.awaitIdle();
+        ExcelImportJob savedJob = context.jobTable.get(job.getId());
+        Assert.assertEquals(Cons.IMPORT_JOB_STATUS.SUCCESS.name(), savedJob.getStatus());
+        Assert.assertEquals(ROW_COUNT, savedJob.getReadCount());
+        Assert.assertEquals(ROW_COUNT - 6, savedJob.getSavedCount());
+        Assert.assertEquals(6, savedJob.getErrorCount());
+        Assert.assertEquals(ROW_COUNT, savedJob.getLastRowIndex());
+        Assert.assertNotNull(savedJob.getErrorUrl());
+        // 错误数据文件与错误数据量一致，任务结束后删除错误数据记录
+        Assert.assertEquals(6, context.errorFileRowCount());
+        Assert.assertEquals(6, context.errorFile.getDataCount());
+        Assert.assertTrue(context.errorTable.rows.isEmpty());
+        Mockito.verify(context.transactionManager, Mockito.times(3)).commit(any());
+        Assert.assertEquals(ROW_COUNT - 6, listener.savedNames.size());
+        // 校验及保存时可获取任务的创建人及租户
+        Assert.assertEquals(Collections.singleton("1:5"), listener.jobUsers);
+        // 仅创建人及租户可访问
+        Assert.assertNotNull(context.service.getJob(job.getId(), 1L, 5L));
+        Assert.assertNull(context.service.getJob(job.getId(), 2L, 5L));
+        Assert.assertNull(context.service.getJob(job.getId(), 1L, null));
+    }
+
+    @Test
+    public void testCancel() throws Exception{
+        TestContext context = new TestContext("node-1");
+        TestListener listener = new TestListener();
+        ExcelImportJob job = context.service.submitJob(context.uploadFile, listener, new HashMap<>(), 1L, null);
+        Assert.assertTrue(listener.firstSaveStarted.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(context.service.cancelJob(job.getId(), 2L, null));
+        Assert.assertTrue(context.service.cancelJob(job.getId(), 1L, 0L));
+        listener.releaseFirstSave.countDown();
+        context.awaitIdle();
+        ExcelImportJob savedJob = context.jobTable.get(job.getId());
+        Assert.assertEquals(Cons.IMPORT_JOB_STATUS.CANCELLED.name(), savedJob.getStatus());
+        // 取消后执行中的批次回滚，不再保存后续批次
+        Assert.assertEquals(0, savedJob.getSavedCount());
+        Assert.assertEquals(-1, savedJob.getLastRowIndex());
+        Assert.assertEquals(1, listener.savedBatches.size());
+        Mockito.verify(context.transactionManager).rollback(any());
+        Mockito.verify(context.transactionManager, Mockito.never()).commit(any());
+        Assert.assertTrue(context.errorTable.rows.isEmpty());
+        Assert.assertFalse(context.service.cancelJob(job.getId(), 1L, 0L));
+    }
+
+    @Test
+    public void testResumeCarriesOverErrorData() throws Exception{
+        TestContext context = new TestContext("node-1");
+        // 其他节点超时未更新进度的任务：已提交第1批（含2条错误数据）
+        ExcelImportJob job = context.createRunningJob("node-2", D.addMinutes(new Date(), -30));
+        for(int rowIndex : new int[]{400, 800}){
+            context.errorTable.insert(new ExcelImportJobError().setJobId(job.getId()).setRowIndex(rowIndex)
+                    .setDataJson("{\"name\":\"bad" + rowIndex + "\"}").setCommentJson("{\"name\":[\"invalid name\"]}"));
+        }
+        Assert.assertEquals(1, context.service.resumeUnfinishedJobs());
+        context.awaitIdle();
+        ExcelImportJob savedJob = context.jobTable.get(job.getId());
+        Assert.assertEquals(Cons.IMPORT_JOB_STATUS.SUCCESS.name(), savedJob.getStatus());
+        Assert.assertEquals("node-1", savedJob.getNodeId());
+        Assert.assertEquals(ROW_COUNT, savedJob.getReadCount());
+        Assert.assertEquals(ROW_COUNT - 6, savedJob.getSavedCount());
+        Assert.assertEquals(6, savedJob.getErrorCount());
+        // 仅保存续传的批次
+        Assert.assertEquals("row1001", context.listener.savedNames.get(0));
+        Assert.assertEquals(ROW_COUNT - 1000 - 4, context.listener.savedNames.size());
+        // 错误数据文件包含续传前的错误数据
+        Assert.assertEquals(6, context.errorFileRowCount());
+        Assert.assertEquals(6, context.errorFile.getDataCount());
+        Assert.assertTrue(savedJob.getResultMsg(), savedJob.getResultMsg().contains("bad400"));
+        Assert.assertTrue(context.errorTable.rows.isEmpty());
+    }
+
+    @Test
+    public void testOwnershipHandoff() throws Exception{
+        TestContext context = new TestContext("node-1");
+        // 其他节点执行中且未超时的任务不被接管
+        ExcelImportJob otherNodeJob = context.createRunningJob("node-2", new Date());
+        Assert.assertEquals(0, context.service.resumeUnfinishedJobs());
+        Assert.assertEquals("node-2", context.jobTable.get(otherNodeJob.getId()).getNodeId());
+        context.jobTable.rows.clear();
+
+        // 执行中的任务被其他节点接管后，当前节点回滚执行中的批次并停止
+        TestListener listener = new TestListener();
+        ExcelImportJob job = context.service.submitJob(context.uploadFile, listener, new HashMap<>(), 1L, null);
+        Assert.assertTrue(listener.firstSaveStarted.await(5, TimeUnit.SECONDS));
+        context.jobTable.get(job.getId()).setNodeId("node-2");
+        listener.releaseFirstSave.countDown();
+        context.awaitIdle();
+        ExcelImportJob savedJob = context.jobTable.get(job.getId());
+        Assert.assertEquals(Cons.IMPORT_JOB_STATUS.RUNNING.name(), savedJob.getStatus());
+        Assert.assertEquals("node-2", savedJob.getNodeId());
+        Assert.assertEquals(-1, savedJob.getLastRowIndex());
+        Assert.assertEquals(1, listener.savedBatches.size());
+        Mockito.verify(context.transactionManager).rollback(any());
+    }
+
+    @Test
+    public void testShutdownKeepsJobResumable() throws Exception{
+        TestContext context = new TestContext("node-1");
+        TestListener listener = new TestListener();
+        ExcelImportJob job = context.service.submitJob(context.uploadFile, listener, new HashMap<>(), 1L, null);
+        Assert.assertTrue(listener.firstSaveStarted.await(5, TimeUnit.SECONDS));
+        // 节点关闭：等待执行中的任务停止后返回
+        CompletableFuture<Void> destroyed = CompletableFuture.runAsync(context.service::destroy);
+        Thread.sleep(100);
+        Assert.assertFalse(destroyed.isDone());
+        listener.releaseFirstSave.countDown();
+        destroyed.get(10, TimeUnit.SECONDS);
+        context.awaitIdle();
+        // 未读完的任务保持执行中状态，待重启后续传
+        ExcelImportJob savedJob = context.jobTable.get(job.getId());
+        Assert.assertEquals(Cons.IMPORT_JOB_STATUS.RUNNING.name(), savedJob.getStatus());
+        Assert.assertTrue(savedJob.getLastRowIndex() < ROW_COUNT);
+        Assert.assertNull(savedJob.getErrorUrl());
+        Assert.assertTrue(listener.savedNames.size() < ROW_COUNT - 6);
+    }
+
+    @Test
+    public void testShutdownDuringReadIsNotSuccess() throws Exception{
+        TestContext context = new TestContext("node-1");
+        TestListener listener = new TestListener();
+        listener.releaseFirstSave.countDown();
+        // 节点关闭中：读取时跳过剩余数据并正常返回，任务不应标记为成功
+        setField(context.service, ExcelImportJobServiceImpl.class, "shuttingDown", true);
+        ExcelImportJob job = context.service.submitJob(context.uploadFile, listener, new HashMap<>(), 1L, null);
+        context.awaitIdle();
+        ExcelImportJob savedJob = context.jobTable.get(job.getId());
+        Assert.assertEquals(Cons.IMPORT_JOB_STATUS.RUNNING.name(), savedJob.getStatus());
+        Assert.assertEquals(-1, savedJob.getLastRowIndex());
+        Assert.assertNull(savedJob.getErrorUrl());
+        Assert.assertTrue(listener.savedNames.isEmpty());
+    }
+
+    /**
+     * 设置静态字段
+     * @return 原值
+     */
+    private static Object setStaticField(Class<?> clazz, String fieldName, Object value) throws Exception{
+        Field field = clazz.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        Object originalValue = field.get(null);
+        field.set(null, value);
+        return originalValue;
+    }
+
+    private static void setField(Object target, Class<?> clazz, String fieldName, Object value) throws Exception{
+        Field field = clazz.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException{
+        long deadline = System.currentTimeMillis() + 10000;
+        while(!condition.getAsBoolean() && System.currentTimeMillis() < deadline){
+            Thread.sleep(20);
+        }
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+
+    /**
+     * 任务执行环境：内存模拟的任务表及错误数据表、模拟的文件存储及事务管理器
+     */
+    private static class TestContext {
+        private final MemoryTable<ExcelImportJob> jobTable = new MemoryTable<>();
+        private final MemoryTable<ExcelImportJobError> errorTable = new MemoryTable<>();
+        private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        private final TestJobService service;
+        private final UploadFile uploadFile;
+        private volatile byte[] errorFileBytes;
+        private volatile UploadFile errorFile;
+        private volatile TestListener listener;
+
+        TestContext(String nodeId) throws Exception{
+            StringBuilder csv = new StringBuilder("name\n");
+            for(int i=1; i<=ROW_COUNT; i++){
+                csv.append(i % 400 == 0 ? "bad" : "row").append(i).append('\n');
+            }
+            byte[] csvBytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+            uploadFile = new UploadFile().setUuid("upload1").setFileName("data.csv").setFileType("csv").setStoragePath("/upload/data.csv");
+            UploadFileService uploadFileService = Mockito.mock(UploadFileService.class);
+            Mockito.when(uploadFileService.getEntity("upload1")).thenReturn(uploadFile);
+            Mockito.when(uploadFileService.createEntity(any())).thenAnswer(invocation -> {
+                errorFile = invocation.getArgument(0);
+                return true;
+            });
+            FileStorageService fileStorageService = Mockito.mock(FileStorageService.class);
+            Mockito.when(fileStorageService.getFile(anyString())).thenAnswer(invocation -> new ByteArrayInputStream(csvBytes));
+            Mockito.when(fileStorageService.upload(any(InputStream.class), anyString())).thenAnswer(invocation -> {
+                errorFileBytes = StreamUtils.copyToByteArray(invocation.getArgument(0));
+                return new UploadFileResult().setUuid("error1").setExt("xlsx").setFilename("error1.xlsx").setStorageFullPath("/upload/error1.xlsx");
+            });
+            Mockito.when(transactionManager.getTransaction(any())).thenAnswer(invocation -> Mockito.mock(TransactionStatus.class));
+            FileProperties fileProperties = new FileProperties();
+            fileProperties.setImportJobNodeId(nodeId);
+            fileProperties.setImportJobThreads(1);
+
+            TestErrorService errorService = new TestErrorService(errorTable);
+            service = new TestJobService(this);
+            setField(service, ExcelImportJobServiceImpl.class, "uploadFileService", uploadFileService);
+            setField(service, ExcelImportJobServiceImpl.class, "fileStorageService", fileStorageService);
+            setField(service, ExcelImportJobServiceImpl.class, "fileProperties", fileProperties);
+            setField(service, ExcelImportJobServiceImpl.class, "excelImportJobErrorService", errorService);
+            setField(service, ExcelImportJobServiceImpl.class, "transactionManager", transactionManager);
+        }
+
+        ExcelImportJob createRunningJob(String nodeId, Date updateTime){
+            ExcelImportJob job = new ExcelImportJob().setTenantId(0L).setUploadFileUuid("upload1").setListenerClass(TestListener.class.getName())
+                    .setStatus(Cons.IMPORT_JOB_STATUS.RUNNING.name()).setStage(Cons.IMPORT_JOB_STAGE.IMPORTING.name())
+                    .setReadCount(1000).setSavedCount(998).setErrorCount(2).setLastRowIndex(1000)
+                    .setNodeId(nodeId).setCreateBy(1L).setUpdateTime(updateTime);
+            jobTable.insert(job);
+            return job;
+        }
+
+        void awaitIdle() throws Exception{
+            Field field = ExcelImportJobServiceImpl.class.getDeclaredField("runningJobMap");
+            field.setAccessible(true);
+            Map<?, ?> runningJobMap = (Map<?, ?>) field.get(service);
+            waitUntil(runningJobMap::isEmpty);
+        }
+
+        int errorFileRowCount(){
+            return EasyExcel.read(new ByteArrayInputStream(errorFileBytes)).sheet().doReadSync().size();
+        }
+    }
+
+    /**
+     * 基于内存表的任务Service
+     */
+    private static class TestJobService extends ExcelImportJobServiceImpl {
+        private final TestContext context;
+
+        TestJobService(TestContext context){
+            this.context = context;
+        }
+
+        @Override
+        public boolean createEntity(ExcelImportJob entity) {
+            context.jobTable.insert(entity);
+            return true;
+        }
+
+        @Override
+        public boolean update(ExcelImportJob entity, Wrapper<ExcelImportJob> updateWrapper) {
+            return context.jobTable.update(updateWrapper) > 0;
+        }
+
+        @Override
+        public List<ExcelImportJob> getEntityList(Wrapper queryWrapper) {
+            return context.jobTable.select(queryWrapper, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public ExcelImportJob getSingleEntity(Wrapper queryWrapper) {
+            List<ExcelImportJob> jobList = context.jobTable.select(queryWrapper, 1);
+            return jobList.isEmpty() ? null : jobList.get(0);
+        }
+
+        @Override
+        protected ReadExcelListener<?> createListener(String listenerClassName) {
+            context.listener = new TestListener();
+            context.listener.releaseFirstSave.countDown();
+            return context.listener;
+        }
+    }
+
+    /**
+     * 基于内存表的错误数据Service
+     */
+    private static class TestErrorService extends ExcelImportJobErrorServiceImpl {
+        private final MemoryTable<ExcelImportJobError> errorTable;
+
+        TestErrorService(MemoryTable<ExcelImportJobError> errorTable){
+            this.errorTable = errorTable;
+        }
+
+        @Override
+        public boolean createEntities(Collection<ExcelImportJobError> entityList) {
+            entityList.forEach(errorTable::insert);
+            return true;
+        }
+
+        @Override
+        public List<ExcelImportJobError> getEntityListLimit(Wrapper queryWrapper, int limitCount) {
+            return errorTable.select(queryWrapper, limitCount);
+        }
+
+        @Override
+        public boolean deleteEntities(Wrapper queryWrapper) {
+            return errorTable.delete(queryWrapper) > 0;
+        }
+    }
+
+    /**
+     * 内存表：按Wrapper生成的条件SQL片段（AND/OR、=、<、>、IN）筛选数据
+     */
+    private static class MemoryTable<E> {
+        private static final Pattern CONDITION = Pattern.compile("(\\w+) (=|<|>) #\\{ew\\.paramNameValuePairs\\.(\\w+)}|(\\w+) IN \\(([^)]*)\\)");
+        private static final Pattern PARAM = Pattern.compile("#\\{ew\\.paramNameValuePairs\\.(\\w+)}");
+        private final Map<Long, E> rows = new LinkedHashMap<>();
+        private final AtomicLong idSeq = new AtomicLong(10000);
+
+        synchronized void insert(E entity){
+            Long id = idSeq.incrementAndGet();
+            new BeanWrapperImpl(entity).setPropertyValue("id", id);
+            rows.put(id, entity);
+        }
+
+        synchronized E get(Long id){
+            return rows.get(id);
+        }
+
+        synchronized List<E> select(Wrapper<?> wrapper, int limit){
+            String sqlSegment = wrapper.getSqlSegment();
+            String orderBy = S.substringAfter(sqlSegment, " ORDER BY ");
+            List<E> matched = rows.values().stream().filter(row -> matches(row, wrapper)).collect(Collectors.toList());
+            if(orderBy != null && !orderBy.equals(sqlSegment)){
+                String property = S.toLowerCaseCamel(S.substringBefore(orderBy, " "));
+                matched.sort(Comparator.comparing(row -> (Comparable) new BeanWrapperImpl(row).getPropertyValue(property)));
+            }
+            return matched.stream().limit(limit).collect(Collectors.toList());
+        }
+
+        synchronized int update(Wrapper<?> wrapper){
+            Map<String, Object> params = ((AbstractWrapper<?, ?, ?>) wrapper).getParamNameValuePairs();
+            int count = 0;
+            for(E row : rows.values()){
+                if(matches(row, wrapper)){
+                    BeanWrapperImpl beanWrapper = new BeanWrapperImpl(row);
+                    for(String set : ((Update<?, ?>) wrapper).getSqlSet().split(",")){
+                        Matcher matcher = PARAM.matcher(set);
+                        Assert.assertTrue(matcher.find());
+                        beanWrapper.setPropertyValue(S.toLowerCaseCamel(S.substringBefore(set, "=")), params.get(matcher.group(1)));
+                    }
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        synchronized int delete(Wrapper<?> wrapper){
+            List<Long> ids = rows.entrySet().stream().filter(entry -> matches(entry.getValue(), wrapper)).map(Map.Entry::getKey).collect(Collectors.toList());
+            ids.forEach(rows::remove);
+            return ids.size();
+        }
+
+        private boolean matches(E row, Wrapper<?> wrapper){
+            Map<String, Object> params = ((AbstractWrapper<?, ?, ?>) wrapper).getParamNameValuePairs();
+            String condition = S.substringBefore(wrapper.getSqlSegment(), " ORDER BY ");
+            BeanWrapperImpl beanWrapper = new BeanWrapperImpl(row);
+            // 将各条件替换为计算结果，再计算AND/OR表达式
+            Matcher matcher = CONDITION.matcher(condition);
+            StringBuffer expression = new StringBuffer();
+            while(matcher.find()){
+                boolean result;
+                if(matcher.group(1) != null){
+                    int compared = compare(beanWrapper.getPropertyValue(S.toLowerCaseCamel(matcher.group(1))), params.get(matcher.group(3)));
+                    result = "=".equals(matcher.group(2)) ? compared == 0 : "<".equals(matcher.group(2)) ? compared < 0 : compared > 0;
+                }
+                else{
+                    Object value = beanWrapper.getPropertyValue(S.toLowerCaseCamel(matcher.group(4)));
+                    Matcher paramMatcher = PARAM.matcher(matcher.group(5));
+                    result = false;
+                    while(paramMatcher.find()){
+                        result |= compare(value, params.get(paramMatcher.group(1))) == 0;
+                    }
+                }
+                matcher.appendReplacement(expression, result ? "T" : "F");
+            }
+            matcher.appendTail(expression);
+            return evaluate(expression.toString().replace("AND", "&").replace("OR", "|").replace(" ", ""));
+        }
+
+        private static boolean evaluate(String expression){
+            String reduced = expression;
+            do{
+                expression = reduced;
+                reduced = expression.replace("(T)", "T").replace("(F)", "F")
+                        .replace("T&T", "T").replace("T&F", "F").replace("F&T", "F").replace("F&F", "F")
+                        .replaceAll("^T\\|[TF]|(?<=\\()T\\|[TF]", "T").replaceAll("^F\\|([TF])|(?<=\\()F\\|([TF])", "$1$2");
+            }
+            while(!reduced.equals(expression));
+            Assert.assertTrue(expression, "T".equals(expression) || "F".equals(expression));
+            return "T".equals(expression);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static int compare(Object value, Object param){
+            if(value == null || param == null){
+                return value == param ? 0 : -1;
+            }
+            if(value instanceof Number && param instanceof Number){
+                return Long.compare(((Number) value).longValue(), ((Number) param).longValue());
+            }
+            return ((Comparable<Object>) value).compareTo(param);
+        }
+    }
+
+    @Getter @Setter
+    public static class TestRow extends BaseExcelModel {
+        @ExcelProperty(value = "name", index = 0)
+        private String name;
+    }
+
+    /**
+     * 测试导入listener：name以bad开头的数据为错误数据，可阻塞第1批的保存
+     */
+    public static class TestListener extends PageReadExcelListener<TestRow> {
+        private final CountDownLatch firstSaveStarted = new CountDownLatch(1);
+        private final CountDownLatch releaseFirstSave = new CountDownLatch(1);
+        private final List<Integer> savedBatches = new CopyOnWriteArrayList<>();
+        private final List<String> savedNames = new CopyOnWriteArrayList<>();
+        /**
+         * 校验及保存时的任务上下文：创建人:租户
+         */
+        private final Set<String> jobUsers = Collections.synchronizedSet(new HashSet<>());
+
+        @Override
+        protected ExcelImportExecutors getImportExecutors() {
+            return IMPORT_EXECUTORS;
+        }
+
+        @Override
+        protected void additionalValidate(List<TestRow> dataList, Map<String, Object> requestParams) {
+            recordJobUser();
+            dataList.stream().filter(data -> data.getName().startsWith("bad")).forEach(data -> data.addComment("name", "invalid name"));
+        }
+
+        @Override
+        protected void saveData(List<TestRow> dataList, Map<String, Object> requestParams) {
+            recordJobUser();
+            firstSaveStarted.countDown();
+            try{
+                releaseFirstSave.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            savedBatches.add(dataList.size());
+            dataList.forEach(data -> savedNames.add(data.getName()));
+        }
+
+        private void recordJobUser() {
+            ExcelImportJobContext jobContext = ExcelImportJobContext.current();
+            jobUsers.add(jobContext != null ? jobContext.getCreateBy() + ":" + jobContext.getTenantId() : "none");
+        }
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.iam.annotation.process;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 日志批量写入队列
+ * <p>
+ * 有界队列缓冲待写入的日志，由指定线程池中的写入任务按数量或时间间隔攒批后调用批量写入（每个队列占用一个线程）；
+ * 队列满时按溢出策略丢弃或阻塞等待，关闭时将剩余日志全部写入；批量写入失败时逐条重试，仅丢弃写入失败的单条日志
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BatchLogQueue<T> {
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /**
+         * 直接丢弃
+         */
+        DROP,
+        /**
+         * 阻塞等待，超时后丢弃
+         */
+        BLOCK
+    }
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final Consumer<List<T>> batchWriter;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * 写入任务结束的信号
+     */
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile boolean running = true;
+
+    public BatchLogQueue(String name, int capacity, int batchSize, long flushIntervalMillis,
+                         OverflowPolicy overflowPolicy, long blockTimeoutMillis, Executor flushExecutor, Consumer<List<T>> batchWriter) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchWriter = batchWriter;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = Math.max(1L, flushIntervalMillis);
+        this.overflowPolicy = overflowPolicy != null? overflowPolicy : OverflowPolicy.DROP;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        flushExecutor.execute(() -> {
+            try{
+                runFlushLoop();
+            }
+            finally {
+                terminated.countDown();
+            }
+        });
+    }
+
+    /**
+     * 添加日志到队列
+     * @param item
+     * @return 是否成功加入，失败时已计入丢弃数
+     */
+    public boolean offer(T item) {
+        boolean accepted = false;
+        if(running){
+            if(overflowPolicy == OverflowPolicy.BLOCK){
+                try{
+                    accepted = queue.offer(item, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                }
+            }
+            else{
+                accepted = queue.offer(item);
+            }
+        }
+        if(!accepted){
+            long dropped = droppedCount.incrementAndGet();
+            // 避免日志刷屏，仅按2的幂次提示
+            if((dropped & (dropped - 1)) == 0){
+                log.warn("日志写入队列 {} 已满或已关闭，累计丢弃 {} 条", name, dropped);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * 关闭队列，等待剩余日志写入完成（写入任务最长在一个攒批间隔后感知关闭）
+     * @param timeoutMillis
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        try{
+            terminated.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+        if(!queue.isEmpty()){
+            log.warn("日志写入队列 {} 关闭超时，未写入 {} 条", name, queue.size());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 当前排队数
+     * @return
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 后台写入：取到首条后在间隔内攒满一批再写入，关闭后写完剩余日志
+     */
+    private void runFlushLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while(running || !queue.isEmpty()){
+            try{
+                if(running){
+                    T first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                    if(first == null){
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                    while(batch.size() < batchSize && running){
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.currentTimeMillis();
+                        if(batch.size() >= batchSize || remaining <= 0){
+                            break;
+                        }
+                        T next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                        if(next == null){
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                else{
+                    queue.drainTo(batch, batchSize);
+                }
+            }
+            catch (InterruptedException e){
+                // 线程池强制关闭时中断等待，写入已取出及剩余的日志后退出
+                running = false;
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if(!batch.isEmpty()){
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    /**
+     * 批量写入，失败时（批量写入为事务内执行，已整体回滚）逐条重新写入，避免单条异常数据导致整批丢失
+     * @param batch
+     */
+    private void write(List<T> batch) {
+        try{
+            batchWriter.accept(batch);
+            writtenCount.addAndGet(batch.size());
+            return;
+        }
+        catch (Exception e){
+            if(batch.size() == 1){
+                failedCount.incrementAndGet();
+                log.error("写入日志 {} 异常，丢失 1 条", name, e);
+                return;
+            }
+            log.warn("批量写入日志 {} 异常，改为逐条写入 {} 条: {}", name, batch.size(), e.getMessage());
+        }
+        int failed = 0;
+        for(T item : batch){
+            try{
+                batchWriter.accept(Collections.singletonList(item));
+                writtenCount.incrementAndGet();
+            }
+            catch (Exception e){
+                failed++;
+                failedCount.incrementAndGet();
+                log.error("写入日志 {} 异常，丢失 1 条: {}", name, item, e);
+            }
+        }
+        if(failed > 0){
+            log.error("逐条写入日志 {} 完成，丢失 {} / {} 条", name, failed, batch.size());
+        }
+    }
+
+}
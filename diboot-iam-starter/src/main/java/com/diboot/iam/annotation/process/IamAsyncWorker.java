@@ -59,12 +59,7 @@ public class IamAsyncWorker {
      */
     public void saveOperationLog(IamOperationLog operationLog, BaseLoginUser loginUser) {
         try{
-            // 操作用户信息
-            if(loginUser != null){
-                operationLog.setUserType(loginUser.getClass().getSimpleName())
-                        .setUserId(loginUser.getId())
-                        .setUserRealname(loginUser.getDisplayName());
-            }
+            operationLog.fillUserInfo(loginUser);
             iamOperationLogService.createEntity(operationLog);
         }
         catch (Exception e){
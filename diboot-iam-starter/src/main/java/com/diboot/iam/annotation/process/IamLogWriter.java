@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.iam.annotation.process;
+
+import com.diboot.iam.entity.BaseLoginUser;
+import com.diboot.iam.entity.IamLoginTrace;
+import com.diboot.iam.entity.IamOperationLog;
+import com.diboot.iam.service.IamLoginTraceService;
+import com.diboot.iam.service.IamOperationLogService;
+import com.diboot.iam.starter.IamProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 登录日志及操作日志的写入入口
+ * <p>
+ * 启用批量写入时日志进入有界队列，由本类管理的线程池（每个队列一个线程）批量保存，否则仍由IamAsyncWorker逐条异步保存
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+@Component
+public class IamLogWriter implements DisposableBean {
+
+    private final IamAsyncWorker iamAsyncWorker;
+    private final IamProperties.LogWriterProperties properties;
+    private BatchLogQueue<IamLoginTrace> loginTraceQueue;
+    private BatchLogQueue<IamOperationLog> operationLogQueue;
+    private ThreadPoolTaskExecutor flushExecutor;
+
+    public IamLogWriter(IamAsyncWorker iamAsyncWorker, IamProperties iamProperties,
+                        IamLoginTraceService iamLoginTraceService, IamOperationLogService iamOperationLogService) {
+        this.iamAsyncWorker = iamAsyncWorker;
+        this.properties = iamProperties.getLogWriter();
+        if(properties.isEnabled()){
+            this.flushExecutor = createFlushExecutor(2);
+            this.loginTraceQueue = createQueue("login-trace", iamLoginTraceService::createEntities);
+            this.operationLogQueue = createQueue("operation-log", iamOperationLogService::createEntities);
+            log.info("启用日志批量写入: capacity={}, batchSize={}, flushIntervalMillis={}, overflowPolicy={}",
+                    properties.getCapacity(), properties.getBatchSize(), properties.getFlushIntervalMillis(), properties.getOverflowPolicy());
+        }
+    }
+
+    /**
+     * 保存登录日志
+     * @param loginTrace
+     */
+    public void saveLoginTraceLog(IamLoginTrace loginTrace){
+        if(loginTraceQueue == null){
+            iamAsyncWorker.saveLoginTraceLog(loginTrace);
+            return;
+        }
+        loginTraceQueue.offer(loginTrace);
+    }
+
+    /**
+     * 保存操作日志
+     * @param operationLog
+     * @param loginUser
+     */
+    public void saveOperationLog(IamOperationLog operationLog, BaseLoginUser loginUser){
+        if(operationLogQueue == null){
+            iamAsyncWorker.saveOperationLog(operationLog, loginUser);
+            return;
+        }
+        operationLog.fillUserInfo(loginUser);
+        operationLogQueue.offer(operationLog);
+    }
+
+    /**
+     * 获取批量写入队列（未启用时为空）
+     * @return
+     */
+    public List<BatchLogQueue<?>> getQueues(){
+        List<BatchLogQueue<?>> queues = new ArrayList<>(2);
+        if(loginTraceQueue != null){
+            queues.add(loginTraceQueue);
+        }
+        if(operationLogQueue != null){
+            queues.add(operationLogQueue);
+        }
+        return queues;
+    }
+
+    /**
+     * 关闭时写入队列中剩余的日志
+     */
+    @Override
+    public void destroy() {
+        for(BatchLogQueue<?> queue : getQueues()){
+            queue.shutdown(properties.getShutdownTimeoutMillis());
+        }
+        if(flushExecutor != null){
+            flushExecutor.shutdown();
+        }
+    }
+
+    private <T> BatchLogQueue<T> createQueue(String name, Consumer<List<T>> batchWriter){
+        return new BatchLogQueue<>(name, properties.getCapacity(), properties.getBatchSize(), properties.getFlushIntervalMillis(),
+                properties.getOverflowPolicy(), properties.getBlockTimeoutMillis(), flushExecutor, batchWriter);
+    }
+
+    /**
+     * 写入线程池：每个队列的写入任务常驻一个线程
+     * @param queueCount
+     * @return
+     */
+    private static ThreadPoolTaskExecutor createFlushExecutor(int queueCount){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(queueCount);
+        executor.setMaxPoolSize(queueCount);
+        executor.setQueueCapacity(0);
+        executor.setDaemon(true);
+        executor.setThreadNamePrefix("iam-log-writer-");
+        executor.initialize();
+        return executor;
+    }
+
+}
@@ -56,7 +56,7 @@ import java.util.Map;
 public class LogAspect {
 
     @Autowired
-    private IamAsyncWorker iamAsyncWorker;
+    private IamLogWriter iamLogWriter;
 
     private static int maxLength = 1000;
 
@@ -102,7 +102,7 @@ public class LogAspect {
 
         operationLog.setStatusCode(statusCode).setErrorMsg(errorMsg);
         // 异步保存操作日志
-        iamAsyncWorker.saveOperationLog(operationLog, currentUser);
+        iamLogWriter.saveOperationLog(operationLog, currentUser);
     }
 
     /**
@@ -125,7 +125,7 @@ public class LogAspect {
         }
         operationLog.setStatusCode(statusCode).setErrorMsg(errorMsg);
         // 异步保存操作日志
-        iamAsyncWorker.saveOperationLog(operationLog, IamSecurityUtils.getCurrentUser());
+        iamLogWriter.saveOperationLog(operationLog, IamSecurityUtils.getCurrentUser());
     }
 
     /**
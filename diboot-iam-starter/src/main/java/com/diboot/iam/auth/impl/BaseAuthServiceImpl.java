@@ -20,7 +20,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.diboot.core.exception.BusinessException;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.Status;
-import com.diboot.iam.annotation.process.IamAsyncWorker;
+import com.diboot.iam.annotation.process.IamLogWriter;
 import com.diboot.iam.auth.AuthService;
 import com.diboot.iam.config.Cons;
 import com.diboot.iam.dto.AuthCredential;
@@ -53,7 +53,7 @@ public abstract class BaseAuthServiceImpl implements AuthService {
     @Autowired
     private IamAccountService accountService;
     @Autowired
-    private IamAsyncWorker iamAsyncWorker;
+    private IamLogWriter iamLogWriter;
     @Autowired
     private HttpServletRequest request;
     @Autowired
@@ -94,7 +94,7 @@ public abstract class BaseAuthServiceImpl implements AuthService {
             if (subject.isAuthenticated()) {
                 String accessToken = (String) authToken.getCredentials();
                 // 缓存当前token与用户信息
-                TokenUtils.cacheAccessToken(accessToken, authToken.buildUserInfoStr());
+                TokenUtils.cacheAccessToken(accessToken, authToken.buildTokenInfo());
                 log.debug("申请token成功！authtoken={}", authToken.getCredentials());
                 saveLoginTrace(authToken, true);
                 // 返回
@@ -146,7 +146,7 @@ public abstract class BaseAuthServiceImpl implements AuthService {
         String userAgent = HttpHelper.getUserAgent(request);
         String ipAddress = HttpHelper.getRequestIp(request);
         loginTrace.setUserAgent(userAgent).setIpAddress(ipAddress);
-        iamAsyncWorker.saveLoginTraceLog(loginTrace);
+        iamLogWriter.saveLoginTraceLog(loginTrace);
     }
 
     /**
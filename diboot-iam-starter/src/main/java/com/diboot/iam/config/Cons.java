@@ -131,6 +131,11 @@ public class Cons extends com.diboot.core.config.Cons {
      */
     public static final String CACHE_TOKEN_USERINFO = "TOKEN_USERINFO";
 
+    /**
+     * 组织层级索引版本 缓存
+     */
+    public static final String CACHE_ORG_INDEX_VERSION = "ORG_INDEX_VERSION";
+
     /**
      * 登录最大失败次数
      */
@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.iam.data;
+
+import com.diboot.core.cache.BaseCacheManager;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.ContextHelper;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import com.diboot.iam.config.Cons;
+import com.diboot.iam.entity.IamOrg;
+import com.diboot.iam.util.IamSecurityUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 组织层级内存索引
+ * <p>
+ * 按租户缓存全部组织的上下级关系：上级通过id直接查找，下级按先序遍历区间一次截取；
+ * 单条组织变更在事务提交后增量刷新本地索引，并通过BaseCacheManager中各租户的版本戳通知其他节点重新加载，
+ * 本地快照在检查间隔内直接使用，不访问BaseCacheManager
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class OrgHierarchyIndex {
+    /**
+     * 版本戳的缓存key前缀，后接租户id
+     */
+    private static final String VERSION_KEY_PREFIX = "version:";
+    /**
+     * 无法识别租户时的默认租户id
+     */
+    private static final Long DEFAULT_TENANT_ID = 0L;
+    /**
+     * 默认的版本戳检查间隔（毫秒）
+     */
+    private static final long DEFAULT_VERSION_CHECK_INTERVAL = 1000L;
+
+    /**
+     * 按租户加载全部组织
+     */
+    private final Function<Long, List<IamOrg>> orgLoader;
+    /**
+     * 版本戳检查间隔（毫秒），间隔内直接使用本地快照
+     */
+    private final long versionCheckInterval;
+    /**
+     * 租户id-本地索引
+     */
+    private final Map<Long, TenantIndex> tenantId2Index = new ConcurrentHashMap<>();
+
+    public OrgHierarchyIndex(Function<Long, List<IamOrg>> orgLoader) {
+        this(orgLoader, DEFAULT_VERSION_CHECK_INTERVAL);
+    }
+
+    public OrgHierarchyIndex(Function<Long, List<IamOrg>> orgLoader, long versionCheckInterval) {
+        this.orgLoader = orgLoader;
+        this.versionCheckInterval = versionCheckInterval;
+    }
+
+    /**
+     * 获取当前租户的索引快照
+     * @return
+     */
+    public Snapshot getSnapshot() {
+        return getSnapshot(getCurrentTenantId());
+    }
+
+    /**
+     * 获取指定租户的索引快照，检查间隔到期且版本戳变化时重新加载
+     * @param tenantId
+     * @return
+     */
+    public Snapshot getSnapshot(Long tenantId) {
+        TenantIndex index = getTenantIndex(tenantId);
+        Snapshot current = index.snapshot;
+        long now = System.currentTimeMillis();
+        if (current != null && now - index.checkedAt < versionCheckInterval) {
+            return current;
+        }
+        String latestVersion = getLatestVersion(index.tenantId);
+        if (current != null && (latestVersion == null || latestVersion.equals(index.version))) {
+            index.checkedAt = now;
+            return current;
+        }
+        return reload(index, latestVersion);
+    }
+
+    /**
+     * 事务提交后增量刷新单个组织
+     * @param orgId 组织id
+     * @param org 变更后的组织，删除时为null
+     */
+    public void refreshOnCommit(Long orgId, IamOrg org) {
+        TenantIndex index = getTenantIndex(org != null && org.getTenantId() != null ? org.getTenantId() : getCurrentTenantId());
+        afterCommit(() -> {
+            Snapshot current = index.snapshot;
+            String previousVersion = index.version;
+            String latestVersion = getLatestVersion(index.tenantId);
+            String newVersion = publishVersion(index.tenantId);
+            synchronized (index) {
+                // 本地索引已过期时放弃增量，下次访问重新加载
+                if (current == null || current != index.snapshot || (latestVersion != null && !latestVersion.equals(previousVersion))) {
+                    index.snapshot = null;
+                    return;
+                }
+                index.snapshot = current.with(orgId, org);
+                index.version = newVersion;
+                index.checkedAt = System.currentTimeMillis();
+            }
+        });
+    }
+
+    /**
+     * 事务提交后全量重新加载当前租户的索引
+     */
+    public void reloadOnCommit() {
+        TenantIndex index = getTenantIndex(getCurrentTenantId());
+        afterCommit(() -> {
+            publishVersion(index.tenantId);
+            index.snapshot = null;
+        });
+    }
+
+    /**
+     * 重新加载
+     * @param index
+     * @param latestVersion
+     * @return
+     */
+    private Snapshot reload(TenantIndex index, String latestVersion) {
+        synchronized (index) {
+            if (index.snapshot != null && latestVersion != null && latestVersion.equals(index.version)) {
+                index.checkedAt = System.currentTimeMillis();
+                return index.snapshot;
+            }
+            // 版本戳不存在（如缓存过期）时重新发布，通知其他节点一并重新加载
+            String newVersion = latestVersion != null ? latestVersion : publishVersion(index.tenantId);
+            Snapshot newSnapshot = new Snapshot(orgLoader.apply(index.tenantId));
+            log.debug("租户 {} 的组织层级索引已加载: {} 个组织", index.tenantId, newSnapshot.id2Org.size());
+            index.snapshot = newSnapshot;
+            index.version = newVersion;
+            index.checkedAt = System.currentTimeMillis();
+            return newSnapshot;
+        }
+    }
+
+    /**
+     * 获取租户的本地索引
+     * @param tenantId
+     * @return
+     */
+    private TenantIndex getTenantIndex(Long tenantId) {
+        Long key = tenantId != null ? tenantId : DEFAULT_TENANT_ID;
+        return tenantId2Index.computeIfAbsent(key, TenantIndex::new);
+    }
+
+    /**
+     * 获取当前用户的租户id
+     * @return
+     */
+    private static Long getCurrentTenantId() {
+        try {
+            Object currentUser = IamSecurityUtils.getCurrentUser();
+            if (currentUser != null && BeanUtils.extractField(currentUser.getClass(), "tenantId") != null) {
+                Object tenantId = BeanUtils.getProperty(currentUser, "tenantId");
+                if (V.notEmpty(tenantId)) {
+                    return Long.valueOf(S.valueOf(tenantId));
+                }
+            }
+        }
+        catch (Exception e) {
+            log.debug("获取当前租户id失败: {}", e.getMessage());
+        }
+        return DEFAULT_TENANT_ID;
+    }
+
+    /**
+     * 获取租户最新的版本戳
+     * @param tenantId
+     * @return
+     */
+    private String getLatestVersion(Long tenantId) {
+        BaseCacheManager cacheManager = ContextHelper.getBean(BaseCacheManager.class);
+        if (cacheManager == null) {
+            return null;
+        }
+        try {
+            return cacheManager.getCacheString(Cons.CACHE_ORG_INDEX_VERSION, VERSION_KEY_PREFIX + tenantId);
+        }
+        catch (Exception e) {
+            log.debug("获取组织索引版本戳失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 发布租户新的版本戳
+     * @param tenantId
+     * @return
+     */
+    private String publishVersion(Long tenantId) {
+        String newVersion = UUID.randomUUID().toString();
+        BaseCacheManager cacheManager = ContextHelper.getBean(BaseCacheManager.class);
+        if (cacheManager == null) {
+            return null;
+        }
+        try {
+            cacheManager.putCacheObj(Cons.CACHE_ORG_INDEX_VERSION, VERSION_KEY_PREFIX + tenantId, newVersion);
+            return newVersion;
+        }
+        catch (Exception e) {
+            log.debug("发布组织索引版本戳失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 事务提交后执行，无事务时立即执行
+     * @param task
+     */
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        }
+        else {
+            task.run();
+        }
+    }
+
+    /**
+     * 单个租户的本地索引
+     */
+    private static class TenantIndex {
+        /**
+         * 租户id
+         */
+        private final Long tenantId;
+        /**
+         * 当前索引快照
+         */
+        private volatile Snapshot snapshot;
+        /**
+         * 当前快照对应的版本戳
+         */
+        private volatile String version;
+        /**
+         * 最近一次检查版本戳的时间
+         */
+        private volatile long checkedAt;
+
+        TenantIndex(Long tenantId) {
+            this.tenantId = tenantId;
+        }
+    }
+
+    /**
+     * 组织层级索引快照
+     */
+    public static class Snapshot {
+        /**
+         * 排序：sortId降序，id降序
+         */
+        private static final Comparator<IamOrg> ORG_COMPARATOR = Comparator.comparing(IamOrg::getSortId, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(IamOrg::getId, Comparator.reverseOrder());
+        /**
+         * id-组织（按排序）
+         */
+        private final Map<Long, IamOrg> id2Org;
+        /**
+         * 上级id-下级id列表
+         */
+        private final Map<Long, List<Long>> parentId2ChildIds;
+        /**
+         * 先序遍历的组织id
+         */
+        private final Long[] preorderIds;
+        /**
+         * id-在先序遍历中的区间 [自身位置, 最后一个下级位置+1)
+         */
+        private final Map<Long, int[]> id2Range;
+
+        Snapshot(Collection<IamOrg> orgs) {
+            List<IamOrg> orgList = new ArrayList<>(orgs);
+            orgList.sort(ORG_COMPARATOR);
+            this.id2Org = new LinkedHashMap<>(orgList.size());
+            this.parentId2ChildIds = new HashMap<>();
+            for (IamOrg org : orgList) {
+                id2Org.put(org.getId(), org);
+                Long parentId = org.getParentId() != null ? org.getParentId() : 0L;
+                if (!parentId.equals(org.getId())) {
+                    parentId2ChildIds.computeIfAbsent(parentId, k -> new ArrayList<>()).add(org.getId());
+                }
+            }
+            this.id2Range = new HashMap<>(orgList.size());
+            List<Long> preorder = new ArrayList<>(orgList.size());
+            // 从上级不在索引中的组织开始遍历，成环的组织不会被访问
+            for (IamOrg org : orgList) {
+                if (org.getParentId() == null || !id2Org.containsKey(org.getParentId())) {
+                    traverse(org.getId(), preorder);
+                }
+            }
+            this.preorderIds = preorder.toArray(new Long[0]);
+        }
+
+        /**
+         * 非递归先序遍历，记录各节点区间
+         * @param rootId
+         * @param preorder
+         */
+        @SuppressWarnings("unchecked")
+        private void traverse(Long rootId, List<Long> preorder) {
+            Deque<Object[]> stack = new ArrayDeque<>();
+            stack.push(new Object[]{rootId, null});
+            while (!stack.isEmpty()) {
+                Object[] frame = stack.peek();
+                Long orgId = (Long) frame[0];
+                if (frame[1] == null) {
+                    if (id2Range.containsKey(orgId)) {
+                        stack.pop();
+                        continue;
+                    }
+                    id2Range.put(orgId, new int[]{preorder.size(), -1});
+                    preorder.add(orgId);
+                    frame[1] = parentId2ChildIds.getOrDefault(orgId, Collections.emptyList()).iterator();
+                }
+                Iterator<Long> childIter = (Iterator<Long>) frame[1];
+                if (childIter.hasNext()) {
+                    stack.push(new Object[]{childIter.next(), null});
+                }
+                else {
+                    id2Range.get(orgId)[1] = preorder.size();
+                    stack.pop();
+                }
+            }
+        }
+
+        /**
+         * 生成变更单个组织后的新快照
+         * @param orgId
+         * @param org 为null表示删除
+         * @return
+         */
+        Snapshot with(Long orgId, IamOrg org) {
+            Map<Long, IamOrg> orgMap = new HashMap<>(id2Org);
+            if (org == null) {
+                orgMap.remove(orgId);
+            }
+            else {
+                orgMap.put(orgId, org);
+            }
+            return new Snapshot(orgMap.values());
+        }
+
+        /**
+         * 获取组织（快照中的实例为各线程共享，返回副本）
+         * @param orgId
+         * @return
+         */
+        public IamOrg getOrg(Long orgId) {
+            IamOrg org = id2Org.get(orgId);
+            return BeanUtils.convert(org, IamOrg.class);
+        }
+
+        /**
+         * 获取全部下级组织id（不含自身），按树的先序排列
+         * @param rootOrgId 根节点id，可为0
+         * @return
+         */
+        public List<Long> getChildOrgIds(Long rootOrgId) {
+            int[] range = id2Range.get(rootOrgId);
+            if (range != null) {
+                return new ArrayList<>(Arrays.asList(preorderIds).subList(range[0] + 1, range[1]));
+            }
+            // 根节点不在索引中（如0），合并直接下级的区间
+            List<Long> childIds = new ArrayList<>();
+            for (Long childId : parentId2ChildIds.getOrDefault(rootOrgId, Collections.emptyList())) {
+                int[] childRange = id2Range.get(childId);
+                if (childRange != null) {
+                    childIds.addAll(Arrays.asList(preorderIds).subList(childRange[0], childRange[1]));
+                }
+            }
+            return childIds;
+        }
+
+        /**
+         * 获取全部下级组织（不含自身）的副本，按树的先序排列
+         * @param rootOrgId
+         * @return
+         */
+        public List<IamOrg> getChildOrgs(Long rootOrgId) {
+            return getChildOrgs(rootOrgId, IamOrg.class);
+        }
+
+        /**
+         * 获取全部下级组织（不含自身）并转换为指定类型的新对象，按树的先序排列
+         * @param rootOrgId
+         * @param clazz 目标类型，如IamOrgVO
+         * @return
+         */
+        public <T> List<T> getChildOrgs(Long rootOrgId, Class<T> clazz) {
+            List<Long> childOrgIds = getChildOrgIds(rootOrgId);
+            List<T> childOrgs = new ArrayList<>(childOrgIds.size());
+            for (Long childOrgId : childOrgIds) {
+                childOrgs.add(BeanUtils.convert(id2Org.get(childOrgId), clazz));
+            }
+            return childOrgs;
+        }
+
+        /**
+         * 获取全部上级组织id（由近及远）
+         * @param orgId
+         * @return
+         */
+        public List<Long> getParentOrgIds(Long orgId) {
+            List<Long> parentOrgIds = new ArrayList<>();
+            Set<Long> visited = new HashSet<>();
+            visited.add(orgId);
+            IamOrg org = id2Org.get(orgId);
+            while (org != null && V.notEmpty(org.getParentId()) && !V.equals(org.getParentId(), 0L) && visited.add(org.getParentId())) {
+                parentOrgIds.add(org.getParentId());
+                org = id2Org.get(org.getParentId());
+            }
+            return parentOrgIds;
+        }
+    }
+}
@@ -133,4 +133,18 @@ public class IamOperationLog extends BaseEntity {
         return this;
     }
 
+    /**
+     * 填充操作用户信息
+     * @param loginUser 当前登录用户，为null时不填充
+     * @return
+     */
+    public IamOperationLog fillUserInfo(BaseLoginUser loginUser){
+        if(loginUser != null){
+            this.userType = loginUser.getClass().getSimpleName();
+            this.userId = loginUser.getId();
+            this.userRealname = loginUser.getDisplayName();
+        }
+        return this;
+    }
+
 }
@@ -15,20 +15,38 @@
  */
 package com.diboot.iam.redis;
 
+import com.diboot.core.cache.CacheInvalidationChannel;
+import com.diboot.core.cache.CacheInvalidationMessage;
+import com.diboot.core.cache.CacheStatsCounter;
 import org.apache.shiro.cache.Cache;
 import org.apache.shiro.cache.CacheException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * RedisCache缓存定义
- *
+ * <p>
+ * key格式为 cacheName:代际:key，clear() 仅递增代际计数（O(1)），旧代际的key不再可见并由后台分批UNLINK（或随过期时间自然淘汰）；
+ * 代际在本地缓存，每隔 generationCheckMillis 从Redis重新读取，其他节点clear（如权限变更）后最长该间隔内生效，
+ * 配置了失效通知通道时clear同时广播通知，其他节点收到后立即重新读取；
+ * 升级前格式（cacheName:key，过期时间不超过token有效期）的遗留key在首次创建缓存时由后台清理一次；
+ * keys()/size()/values() 基于SCAN游标遍历（集群模式下逐个主节点遍历），values() 分批MGET读取，避免KEYS阻塞Redis及逐个GET的网络往返
+ * </p>
  * @author : uu
  * @version : v1.0
  * @Date 2021/6/8  18:36
@@ -37,25 +55,98 @@ import java.util.concurrent.TimeUnit;
 public class ShiroRedisCache<K, V> implements Cache<K, V> {
     private static final Logger log = LoggerFactory.getLogger(ShiroRedisCache.class);
 
+    /**
+     * SCAN每次返回数量提示 / MGET、UNLINK 每批数量
+     */
+    private static final int BATCH_SIZE = 500;
+    /**
+     * 代际计数key的后缀
+     */
+    private static final String GENERATION_KEY_SUFFIX = "generation";
+    /**
+     * 默认的代际本地检查间隔（毫秒）
+     */
+    public static final long DEFAULT_GENERATION_CHECK_MILLIS = 1000L;
+    /**
+     * 旧代际key的后台清理线程
+     */
+    private static final ExecutorService PURGE_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "shiro-redis-cache-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * 本节点已清理过遗留key的缓存
+     */
+    private static final Set<String> PURGED_CACHE_NAMES = ConcurrentHashMap.newKeySet();
+
     private RedisTemplate redisTemplate;
     private String cacheName;
     private int tokenExpireMinutes;
+    private CacheStatsCounter statsCounter;
+    /**
+     * 代际计数的key
+     */
+    private final String generationKey;
+    /**
+     * 代际的本地检查间隔（毫秒），0为每次访问均读取Redis
+     */
+    private final long generationCheckMillis;
+    /**
+     * clear时广播失效通知的通道（可为null）
+     */
+    private final CacheInvalidationChannel invalidationChannel;
+    /**
+     * 失效通知的来源id，用于忽略本节点发出的通知
+     */
+    private final String sourceId;
+    /**
+     * 本地缓存的代际及其读取时间
+     */
+    private volatile long localGeneration;
+    private volatile long generationCheckedAt;
 
     public ShiroRedisCache(String cacheName, RedisTemplate redisTemplate, int tokenExpireMinutes) {
+        this(cacheName, redisTemplate, tokenExpireMinutes, new CacheStatsCounter());
+    }
+
+    public ShiroRedisCache(String cacheName, RedisTemplate redisTemplate, int tokenExpireMinutes, CacheStatsCounter statsCounter) {
+        this(cacheName, redisTemplate, tokenExpireMinutes, statsCounter, DEFAULT_GENERATION_CHECK_MILLIS, null, null);
+    }
+
+    public ShiroRedisCache(String cacheName, RedisTemplate redisTemplate, int tokenExpireMinutes, CacheStatsCounter statsCounter,
+                           long generationCheckMillis, CacheInvalidationChannel invalidationChannel, String sourceId) {
         this.cacheName = cacheName;
         this.redisTemplate = redisTemplate;
         this.tokenExpireMinutes = tokenExpireMinutes;
+        this.statsCounter = statsCounter;
+        this.generationKey = cacheName + ":" + GENERATION_KEY_SUFFIX;
+        this.generationCheckMillis = generationCheckMillis;
+        this.invalidationChannel = invalidationChannel;
+        this.sourceId = sourceId;
+        if(PURGED_CACHE_NAMES.add(cacheName)){
+            purgeLegacyKeysAsync();
+        }
     }
 
     private String getKey(String key){
-        return this.cacheName + ":" + key;
+        return getKeyPrefix(getGeneration()) + key;
+    }
+
+    /**
+     * 指定代际的key前缀
+     * @param generation
+     * @return
+     */
+    private String getKeyPrefix(long generation){
+        return this.cacheName + ":" + generation + ":";
     }
 
     @Override
     public V get(K k) throws CacheException {
         String key = this.getKey(k.toString());
         log.debug("get key : {}", key);
-        return (V)redisTemplate.opsForValue().get(key);
+        return statsCounter.recordGet((V)redisTemplate.opsForValue().get(key));
     }
 
     @Override
@@ -75,37 +166,228 @@ public class ShiroRedisCache<K, V> implements Cache<K, V> {
             return null;
         }
         String key = this.getKey(k.toString());
-        V value = get(k);
+        V value = (V)redisTemplate.opsForValue().get(key);
         log.debug("remove key : {}", key);
-        redisTemplate.delete(key);
+        redisTemplate.unlink(key);
         return value;
     }
 
     @Override
     public void clear() throws CacheException {
-        redisTemplate.delete(this.keys());
+        long oldGeneration = getGeneration();
+        Long newGeneration = (Long)redisTemplate.execute((RedisCallback<Long>) connection -> connection.incr(toBytes(generationKey)));
+        if(newGeneration == null){
+            return;
+        }
+        updateLocalGeneration(newGeneration);
+        log.debug("clear cache: {}, generation: {} -> {}", cacheName, oldGeneration, newGeneration);
+        publishInvalidation();
+        // 旧代际的key已不可见，后台分批删除以尽早释放内存
+        purgeStaleKeysAsync(newGeneration);
     }
 
     @Override
     public int size() {
-        return keys().size();
+        int[] size = {0};
+        scanKeys(getKeyPrefix(getGeneration()) + "*", keyBatch -> size[0] += keyBatch.size());
+        return size[0];
     }
 
     @Override
     public Set<K> keys() {
-        return redisTemplate.keys(getKey("*"));
+        String keyPrefix = getKeyPrefix(getGeneration());
+        Set<K> keys = new HashSet<>();
+        scanKeys(keyPrefix + "*", keyBatch -> {
+            for(String key : keyBatch){
+                keys.add((K)key.substring(keyPrefix.length()));
+            }
+        });
+        return keys;
     }
 
     @Override
     public Collection<V> values() {
-        Set<K> keys = keys();
-        Set<V> values = new HashSet<>(keys.size());
-        for (K key: keys) {
-            V value = (V)redisTemplate.opsForValue().get(key);
-            if(value != null){
-                values.add(value);
+        List<V> values = new ArrayList<>();
+        scanKeys(getKeyPrefix(getGeneration()) + "*", keyBatch -> {
+            List<V> batchValues = redisTemplate.opsForValue().multiGet(keyBatch);
+            if(batchValues == null){
+                return;
             }
-        }
+            for(V value : batchValues){
+                if(value != null){
+                    values.add(value);
+                }
+            }
+        });
         return values;
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取当前代际（本地缓存，超过检查间隔后从Redis重新读取）
+     * @return
+     */
+    public long getGeneration(){
+        long now = System.currentTimeMillis();
+        if(now - generationCheckedAt >= generationCheckMillis){
+            byte[] value = (byte[])redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(toBytes(generationKey)));
+            localGeneration = value != null? Long.parseLong(new String(value, StandardCharsets.UTF_8)) : 0L;
+            generationCheckedAt = now;
+        }
+        return localGeneration;
+    }
+
+    /**
+     * 使本地缓存的代际失效，下次访问时从Redis重新读取（收到其他节点的clear通知时调用）
+     */
+    public void invalidateGeneration(){
+        generationCheckedAt = 0L;
+    }
+
+    private void updateLocalGeneration(long generation){
+        localGeneration = generation;
+        generationCheckedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 广播clear通知
+     */
+    private void publishInvalidation(){
+        if(invalidationChannel == null){
+            return;
+        }
+        try{
+            invalidationChannel.publish(new CacheInvalidationMessage().setSourceId(sourceId).setCacheName(cacheName));
+        }
+        catch (Exception e){
+            log.warn("发布缓存 {} 的clear通知失败, 其他节点将在代际检查间隔后生效: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * 后台分批删除早于指定代际的key
+     * @param currentGeneration 当前代际
+     */
+    private void purgeStaleKeysAsync(long currentGeneration){
+        PURGE_EXECUTOR.execute(() -> {
+            try{
+                scanKeys(this.cacheName + ":*", keyBatch -> {
+                    List<String> staleKeys = new ArrayList<>(keyBatch.size());
+                    for(String key : keyBatch){
+                        Long generation = parseGeneration(key);
+                        if(generation != null && generation < currentGeneration){
+                            staleKeys.add(key);
+                        }
+                    }
+                    if(!staleKeys.isEmpty()){
+                        redisTemplate.unlink(staleKeys);
+                    }
+                });
+            }
+            catch (Exception e){
+                log.warn("清理缓存 {} 旧代际key异常: {}", cacheName, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 后台清理升级前格式的遗留key：cacheName:key 且过期时间不超过token有效期（旧版本put时均设置该过期时间），
+     * 未设置过期时间或过期时间更长的key不属于本缓存，不做删除
+     */
+    private void purgeLegacyKeysAsync(){
+        long maxExpireSeconds = TimeUnit.MINUTES.toSeconds(tokenExpireMinutes);
+        PURGE_EXECUTOR.execute(() -> {
+            try{
+                scanKeys(this.cacheName + ":*", keyBatch -> {
+                    List<String> legacyKeys = new ArrayList<>();
+                    for(String key : keyBatch){
+                        if(key.equals(generationKey) || parseGeneration(key) != null){
+                            continue;
+                        }
+                        Long expireSeconds = redisTemplate.getExpire(key, TimeUnit.SECONDS);
+                        if(expireSeconds != null && expireSeconds > 0 && expireSeconds <= maxExpireSeconds){
+                            legacyKeys.add(key);
+                        }
+                    }
+                    if(!legacyKeys.isEmpty()){
+                        redisTemplate.unlink(legacyKeys);
+                    }
+                });
+            }
+            catch (Exception e){
+                log.warn("清理缓存 {} 遗留key异常: {}", cacheName, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 解析 cacheName:代际:key 格式的代际
+     * @param key
+     * @return 非该格式时返回null
+     */
+    private Long parseGeneration(String key){
+        String suffix = key.substring(this.cacheName.length() + 1);
+        int index = suffix.indexOf(':');
+        if(index <= 0){
+            return null;
+        }
+        for(int i=0; i<index; i++){
+            if(!Character.isDigit(suffix.charAt(i))){
+                return null;
+            }
+        }
+        try{
+            return Long.parseLong(suffix.substring(0, index));
+        }
+        catch (NumberFormatException e){
+            return null;
+        }
+    }
+
+    /**
+     * 基于SCAN游标分批遍历匹配的key
+     * @param pattern
+     * @param batchConsumer
+     */
+    private void scanKeys(String pattern, Consumer<List<String>> batchConsumer){
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            scanKeys(connection, pattern, batchConsumer);
+            return null;
+        });
+    }
+
+    private void scanKeys(RedisConnection connection, String pattern, Consumer<List<String>> batchConsumer){
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(BATCH_SIZE).build();
+        // 集群模式下SCAN仅作用于单个节点，需逐个主节点遍历
+        if(connection instanceof RedisClusterConnection){
+            RedisClusterConnection clusterConnection = (RedisClusterConnection) connection;
+            for(RedisClusterNode node : clusterConnection.clusterGetNodes()){
+                if(node.isMaster()){
+                    scanKeys(clusterConnection.scan(node, options), batchConsumer);
+                }
+            }
+        }
+        else{
+            scanKeys(connection.scan(options), batchConsumer);
+        }
+    }
+
+    private void scanKeys(Cursor<byte[]> scanCursor, Consumer<List<String>> batchConsumer){
+        List<String> keyBatch = new ArrayList<>(BATCH_SIZE);
+        try(Cursor<byte[]> cursor = scanCursor){
+            while(cursor.hasNext()){
+                keyBatch.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                if(keyBatch.size() >= BATCH_SIZE){
+                    batchConsumer.accept(keyBatch);
+                    keyBatch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+        }
+        if(!keyBatch.isEmpty()){
+            batchConsumer.accept(keyBatch);
+        }
+    }
+
+    private static byte[] toBytes(String key){
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
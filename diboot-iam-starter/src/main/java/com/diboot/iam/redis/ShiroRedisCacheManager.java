@@ -15,14 +15,28 @@
  */
 package com.diboot.iam.redis;
 
+import com.diboot.core.cache.CacheInvalidationChannel;
+import com.diboot.core.cache.CacheInvalidationMessage;
+import com.diboot.core.cache.CacheStats;
+import com.diboot.core.cache.CacheStatsCounter;
+import com.diboot.core.cache.CacheStatsProvider;
+import com.diboot.core.util.S;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.shiro.cache.AbstractCacheManager;
 import org.apache.shiro.cache.Cache;
 import org.apache.shiro.cache.CacheException;
 import org.springframework.data.redis.core.RedisTemplate;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * ShiroRedisCacheManager
+ * <p>
+ * 配置了失效通知通道时，各缓存clear后广播通知，其他节点收到后立即重新读取代际
+ * </p>
  *
  * @author : uu
  * @version : v1.0
@@ -30,20 +44,80 @@ import org.springframework.data.redis.core.RedisTemplate;
  * Copyright © diboot.com
  */
 @Slf4j
-public class ShiroRedisCacheManager extends AbstractCacheManager {
+public class ShiroRedisCacheManager extends AbstractCacheManager implements CacheStatsProvider {
 
     private RedisTemplate redisTemplate;
     private int tokenExpireMinutes;
+    /**
+     * cacheName-统计计数器
+     */
+    private final Map<String, CacheStatsCounter> cacheStatsCounterMap = new ConcurrentHashMap<>();
+    /**
+     * 代际的本地检查间隔（毫秒）
+     */
+    private long generationCheckMillis;
+    /**
+     * clear通知的通道（可为null）
+     */
+    private CacheInvalidationChannel invalidationChannel;
+    /**
+     * 本实例id，用于忽略本节点发出的通知
+     */
+    private final String instanceId = S.newUuid();
+    /**
+     * cacheName-已创建的缓存
+     */
+    private final Map<String, ShiroRedisCache> redisCacheMap = new ConcurrentHashMap<>();
 
     public ShiroRedisCacheManager(RedisTemplate redisTemplate, int tokenExpireMinutes){
+        this(redisTemplate, tokenExpireMinutes, ShiroRedisCache.DEFAULT_GENERATION_CHECK_MILLIS, null);
+    }
+
+    public ShiroRedisCacheManager(RedisTemplate redisTemplate, int tokenExpireMinutes, long generationCheckMillis, CacheInvalidationChannel invalidationChannel){
         this.redisTemplate = redisTemplate;
         this.tokenExpireMinutes = tokenExpireMinutes;
+        this.generationCheckMillis = generationCheckMillis;
+        this.invalidationChannel = invalidationChannel;
+        if(invalidationChannel != null){
+            invalidationChannel.subscribe(this::onInvalidation);
+        }
     }
 
     @Override
     protected Cache createCache(String cacheName) throws CacheException {
         log.debug("create redis cache: {}", cacheName);
-        return new ShiroRedisCache(cacheName, redisTemplate, tokenExpireMinutes);
+        CacheStatsCounter statsCounter = cacheStatsCounterMap.computeIfAbsent(cacheName, k -> new CacheStatsCounter());
+        ShiroRedisCache cache = new ShiroRedisCache(cacheName, redisTemplate, tokenExpireMinutes, statsCounter,
+                generationCheckMillis, invalidationChannel, instanceId);
+        redisCacheMap.put(cacheName, cache);
+        return cache;
+    }
+
+    /**
+     * 处理其他节点的clear通知（同一通道上其他缓存管理器的通知按cacheName忽略）
+     * @param message
+     */
+    private void onInvalidation(CacheInvalidationMessage message){
+        if(instanceId.equals(message.getSourceId()) || message.getKey() != null){
+            return;
+        }
+        ShiroRedisCache cache = redisCacheMap.get(message.getCacheName());
+        if(cache != null){
+            cache.invalidateGeneration();
+        }
+    }
+
+    /**
+     * 获取各缓存的统计数据（条目数需遍历key，不统计）
+     * @return
+     */
+    @Override
+    public List<CacheStats> getCacheStats() {
+        List<CacheStats> cacheStatsList = new ArrayList<>(cacheStatsCounterMap.size());
+        for(Map.Entry<String, CacheStatsCounter> entry : cacheStatsCounterMap.entrySet()){
+            cacheStatsList.add(entry.getValue().snapshot(entry.getKey(), getClass().getSimpleName(), -1, 0));
+        }
+        return cacheStatsList;
     }
 
 }
\ No newline at end of file
@@ -17,12 +17,12 @@ package com.diboot.iam.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.diboot.core.exception.BusinessException;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.Status;
+import com.diboot.iam.data.OrgHierarchyIndex;
 import com.diboot.iam.entity.IamOrg;
 import com.diboot.iam.mapper.IamOrgMapper;
 import com.diboot.iam.service.IamOrgService;
@@ -30,7 +30,9 @@ import com.diboot.iam.vo.IamOrgVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.Serializable;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -43,18 +45,60 @@ import java.util.stream.Collectors;
 @Slf4j
 public class IamOrgServiceImpl extends BaseIamServiceImpl<IamOrgMapper, IamOrg> implements IamOrgService{
 
+    /**
+     * 是否为可增量刷新组织索引的单条变更
+     */
+    private static final ThreadLocal<Boolean> SINGLE_ORG_CHANGE = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * 组织层级索引
+     */
+    private final OrgHierarchyIndex orgHierarchyIndex = new OrgHierarchyIndex(tenantId -> {
+        QueryWrapper<IamOrg> queryWrapper = new QueryWrapper<>();
+        queryWrapper.lambda().eq(IamOrg::getTenantId, tenantId).orderByDesc(IamOrg::getSortId, IamOrg::getId);
+        return getEntityList(queryWrapper);
+    });
+
     @Override
     public boolean createEntity(IamOrg iamOrg){
         // 设置层级及公司ID及level
         enhanceIamOrg(iamOrg);
-        return super.createEntity(iamOrg);
+        return changeSingleOrg(() -> super.createEntity(iamOrg), iamOrg::getId, false);
     }
 
     @Override
     public boolean updateEntity(IamOrg iamOrg){
         // 设置层级及公司ID及level
         enhanceIamOrg(iamOrg);
-        return super.updateEntity(iamOrg);
+        return changeSingleOrg(() -> super.updateEntity(iamOrg), iamOrg::getId, false);
+    }
+
+    @Override
+    public boolean deleteEntity(Serializable id){
+        return changeSingleOrg(() -> super.deleteEntity(id), () -> id instanceof Long ? (Long)id : Long.valueOf(S.valueOf(id)), true);
+    }
+
+    /**
+     * 执行单条组织变更，并在事务提交后增量刷新组织索引
+     * @param action 变更操作
+     * @param orgIdGetter 组织id
+     * @param deleted 是否为删除
+     * @return
+     */
+    private boolean changeSingleOrg(Supplier<Boolean> action, Supplier<Long> orgIdGetter, boolean deleted){
+        boolean success;
+        SINGLE_ORG_CHANGE.set(true);
+        try {
+            success = action.get();
+        }
+        finally {
+            SINGLE_ORG_CHANGE.remove();
+        }
+        if(success){
+            Long orgId = orgIdGetter.get();
+            orgHierarchyIndex.refreshOnCommit(orgId, deleted ? null : getEntity(orgId));
+        }
+        return success;
     }
 
     /**
@@ -85,24 +129,15 @@ public class IamOrgServiceImpl extends BaseIamServiceImpl<IamOrgMapper, IamOrg>
         if(rootOrgId == null){
             return Collections.emptyList();
         }
-        List<IamOrgVO> childOrgs = getOrgTree(rootOrgId);
-        if(V.notEmpty(childOrgs)){
-            List<Long> childOrgIds = new ArrayList<>();
-            extractIds(childOrgs, childOrgIds);
-            return childOrgIds;
-        }
-        return Collections.emptyList();
+        return orgHierarchyIndex.getSnapshot().getChildOrgIds(rootOrgId);
     }
 
     @Override
     public List<IamOrgVO> getOrgTree(Long rootOrgId) {
-        QueryWrapper<IamOrg> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().orderByDesc(IamOrg::getSortId, IamOrg::getId);
-        List<IamOrg> orgList = getEntityList(queryWrapper);
-        if (V.isEmpty(orgList)) {
+        List<IamOrgVO> orgVOList = orgHierarchyIndex.getSnapshot().getChildOrgs(rootOrgId, IamOrgVO.class);
+        if (V.isEmpty(orgVOList)) {
             return Collections.emptyList();
         }
-        List<IamOrgVO> orgVOList = BeanUtils.convertList(orgList, IamOrgVO.class);
         return BeanUtils.buildTree(orgVOList, rootOrgId);
     }
 
@@ -132,6 +167,8 @@ public class IamOrgServiceImpl extends BaseIamServiceImpl<IamOrgMapper, IamOrg>
         }
         if (updateList.size() > 0) {
             super.updateBatchById(updateList);
+            // 直接批量更新不经过updateEntity，需自行失效缓存并重新加载组织索引
+            evictBindingCache();
         }
     }
 
@@ -150,28 +187,7 @@ public class IamOrgServiceImpl extends BaseIamServiceImpl<IamOrgMapper, IamOrg>
             scopeIds.add(orgId);
         }
         // 查询所有上级
-        IamOrg org = getEntity(orgId);
-        if(org != null && org.getDepth() != null){
-            if(org.getDepth() >= 2){
-                scopeIds.add(org.getParentId());
-                if(org.getDepth() > 2) {
-                    LambdaQueryWrapper<IamOrg> queryWrapper =
-                            Wrappers.<IamOrg>lambdaQuery().select(IamOrg::getId, IamOrg::getParentId)
-                                    .lt(IamOrg::getDepth, org.getDepth());
-                    List<IamOrg> parentOrgs = getEntityList(queryWrapper);
-                    if (V.isEmpty(parentOrgs)) {
-                        Map<String, IamOrg> orgId2ParentIdMap = BeanUtils.convertToStringKeyObjectMap(parentOrgs,
-                                IamOrg::getId);
-                        String parentOrgIdStr = S.valueOf(org.getParentId());
-                        while (orgId2ParentIdMap.containsKey(parentOrgIdStr)) {
-                            Long parentOrgId = orgId2ParentIdMap.get(parentOrgIdStr).getParentId();
-                            scopeIds.add(parentOrgId);
-                            parentOrgIdStr = S.valueOf(parentOrgId);
-                        }
-                    }
-                }
-            }
-        }
+        scopeIds.addAll(orgHierarchyIndex.getSnapshot().getParentOrgIds(orgId));
         return scopeIds;
     }
 
@@ -184,19 +200,14 @@ public class IamOrgServiceImpl extends BaseIamServiceImpl<IamOrgMapper, IamOrg>
     }
 
     /**
-     * 提取id
-     * @param orgs
+     * 数据变更时重新加载组织索引
      */
-    private void extractIds(List<IamOrgVO> orgs, List<Long> resultIds){
-        if(V.isEmpty(orgs)){
-            return;
-        }
-        for(IamOrgVO orgVO : orgs){
-            resultIds.add(orgVO.getId());
-            if(V.notEmpty(orgVO.getChildren())){
-                extractIds(orgVO.getChildren(), resultIds);
-            }
+    @Override
+    protected void evictBindingCache() {
+        super.evictBindingCache();
+        // 批量等其他变更，提交后重新加载组织索引
+        if(!SINGLE_ORG_CHANGE.get()){
+            orgHierarchyIndex.reloadOnCommit();
         }
     }
-
 }
@@ -15,8 +15,6 @@
  */
 package com.diboot.iam.shiro;
 
-import com.diboot.core.util.S;
-import com.diboot.iam.config.Cons;
 import com.diboot.iam.entity.IamUser;
 import com.diboot.iam.util.TokenUtils;
 import lombok.Getter;
@@ -97,19 +95,26 @@ public class IamAuthToken implements RememberMeAuthenticationToken {
     }
 
     public IamAuthToken(String userInfoStr){
-        String[] fields = S.split(userInfoStr, Cons.SEPARATOR_COMMA);
-        this.tenantId = Long.parseLong(fields[0]);
-        this.authAccount = fields[1];
-        if(IamUser.class.getSimpleName().equals(fields[2]) != true){
+        this(TokenInfo.parse(userInfoStr));
+    }
+
+    /***
+     * 基于缓存的token信息初始化
+     * @param tokenInfo
+     */
+    public IamAuthToken(TokenInfo tokenInfo){
+        this.tenantId = tokenInfo.getTenantId();
+        this.authAccount = tokenInfo.getAuthAccount();
+        if(IamUser.class.getSimpleName().equals(tokenInfo.getUserTypeClass()) != true){
             try {
-                this.userTypeClass = Class.forName(fields[2]);
+                this.userTypeClass = Class.forName(tokenInfo.getUserTypeClass());
             }
             catch (ClassNotFoundException e) {
-                log.debug("Token验证失败！用户类型{}不存在", fields[2]);
+                log.debug("Token验证失败！用户类型{}不存在", tokenInfo.getUserTypeClass());
             }
         }
-        this.authType = fields[3];
-        this.expiresInMinutes = Integer.parseInt(fields[4]);
+        this.authType = tokenInfo.getAuthType();
+        this.expiresInMinutes = tokenInfo.getExpiresInMinutes();
     }
 
     /***
@@ -160,7 +165,14 @@ public class IamAuthToken implements RememberMeAuthenticationToken {
      * @return
      */
     public String buildUserInfoStr(){
-        return S.joinWith(Cons.SEPARATOR_COMMA,
-                this.getTenantId(), this.getAuthAccount(), this.getUserTypeClass().getName(), this.getAuthType(), this.expiresInMinutes, System.currentTimeMillis());
+        return buildTokenInfo().toUserInfoStr();
+    }
+
+    /**
+     * 构建token信息用于缓存
+     * @return
+     */
+    public TokenInfo buildTokenInfo(){
+        return new TokenInfo(this.getTenantId(), this.getAuthAccount(), this.getUserTypeClass().getName(), this.getAuthType(), this.expiresInMinutes, System.currentTimeMillis());
     }
 }
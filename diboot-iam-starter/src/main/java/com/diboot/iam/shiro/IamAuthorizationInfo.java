@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.iam.shiro;
+
+import org.apache.shiro.authz.SimpleAuthorizationInfo;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * IAM 授权信息
+ * <p>
+ * 角色及权限集合引用角色组合的共享快照（不可修改），修改时先复制为独立集合；
+ * 从共享缓存反序列化后，与本地快照一致时重新关联快照
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class IamAuthorizationInfo extends SimpleAuthorizationInfo {
+    private static final long serialVersionUID = 7402531886125519301L;
+
+    /**
+     * 权限快照key（序列化后依此查找本地快照）
+     */
+    private String snapshotKey;
+    /**
+     * 本地快照引用，不序列化
+     */
+    private transient PermissionSnapshot snapshot;
+
+    public IamAuthorizationInfo() {
+    }
+
+    public IamAuthorizationInfo(PermissionSnapshot snapshot) {
+        attach(snapshot);
+    }
+
+    public String getSnapshotKey() {
+        return snapshotKey;
+    }
+
+    /**
+     * 关联的本地快照（反序列化后为null）
+     * @return
+     */
+    PermissionSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 关联共享快照，角色及权限集合替换为快照中不可修改的集合（反序列化后与本地快照一致时调用）
+     * @param snapshot
+     */
+    void attach(PermissionSnapshot snapshot) {
+        setRoles(snapshot.getRoleCodes());
+        setStringPermissions(snapshot.getPermissionCodes());
+        this.snapshotKey = snapshot.getKey();
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public void addRole(String role) {
+        detach();
+        super.addRole(role);
+    }
+
+    @Override
+    public void addRoles(Collection<String> roles) {
+        detach();
+        super.addRoles(roles);
+    }
+
+    @Override
+    public void addStringPermission(String permission) {
+        detach();
+        super.addStringPermission(permission);
+    }
+
+    @Override
+    public void addStringPermissions(Collection<String> permissions) {
+        detach();
+        super.addStringPermissions(permissions);
+    }
+
+    /**
+     * 脱离共享快照
+     */
+    private void detach() {
+        if(snapshotKey == null) {
+            return;
+        }
+        if(getRoles() != null) {
+            setRoles(new HashSet<>(getRoles()));
+        }
+        if(getStringPermissions() != null) {
+            setStringPermissions(new HashSet<>(getStringPermissions()));
+        }
+        this.snapshotKey = null;
+        this.snapshot = null;
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package com.diboot.iam.shiro;
 
+import com.diboot.core.cache.BoundedCacheSettings;
+import com.diboot.core.cache.BoundedMemoryCache;
 import com.diboot.core.service.BaseService;
 import com.diboot.core.util.ContextHelper;
 import com.diboot.core.util.S;
@@ -27,6 +29,7 @@ import com.diboot.iam.config.Cons;
 import com.diboot.iam.entity.BaseLoginUser;
 import com.diboot.iam.entity.IamAccount;
 import com.diboot.iam.entity.IamRole;
+import com.diboot.iam.redis.ShiroRedisCache;
 import com.diboot.iam.service.IamRoleResourceService;
 import com.diboot.iam.service.IamUserRoleService;
 import com.diboot.iam.util.IamSecurityUtils;
@@ -37,14 +40,15 @@ import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.SimpleAuthenticationInfo;
 import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.Permission;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
+import org.apache.shiro.cache.Cache;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * IAM realm定义
@@ -56,8 +60,23 @@ import java.util.Set;
 @Slf4j
 public class IamAuthorizingRealm extends AuthorizingRealm {
 
+    /**
+     * 权限快照的最长有效时间，避免未触发清空的权限变更长期不生效
+     */
+    private static final long SNAPSHOT_MAX_AGE_MILLIS = 5 * 60 * 1000L;
+    /**
+     * 权限快照的最大数量（角色组合数），超出时淘汰最久未访问的
+     */
+    private static final int MAX_SNAPSHOT_SIZE = 1024;
+
     private IamUserRoleService iamUserRoleService;
     private IamRoleResourceService iamRoleResourceService;
+    /**
+     * 角色id组合-权限快照
+     */
+    private final BoundedMemoryCache permissionSnapshotCache = new BoundedMemoryCache("permissionSnapshot", new BoundedCacheSettings()
+            .setMaxEntries(MAX_SNAPSHOT_SIZE).setEvictionPolicy(BoundedCacheSettings.EvictionPolicy.LRU));
+    private final AtomicLong permissionSnapshotEpoch = new AtomicLong();
 
     @Override
     public boolean supports(AuthenticationToken token) {
@@ -129,7 +148,6 @@ public class IamAuthorizingRealm extends AuthorizingRealm {
      */
     @Override
     protected AuthorizationInfo doGetAuthorizationInfo(PrincipalCollection principals) {
-        SimpleAuthorizationInfo authorizationInfo = new SimpleAuthorizationInfo();
         BaseLoginUser currentUser = (BaseLoginUser) principals.getPrimaryPrincipal();
         // 根据用户类型与用户id获取roleList
         Long extensionObjId = null;
@@ -143,36 +161,110 @@ public class IamAuthorizingRealm extends AuthorizingRealm {
         List<IamRole> roleList = getIamUserRoleService().getUserRoleList(currentUser.getClass().getSimpleName(), currentUser.getId(), extensionObjId);
         // 如果没有任何角色，返回
         if (V.isEmpty(roleList)){
-            return authorizationInfo;
+            return new SimpleAuthorizationInfo();
         }
-        // 整理所有角色许可列表
-        Set<String> allRoleCodes = new HashSet<>();
-        List<Long> roleIds = new ArrayList<>();
-        roleList.stream().forEach(role->{
-            // 添加当前角色到角色列表中
-            allRoleCodes.add(role.getCode());
+        // 获取角色组合的权限快照，相同角色组合的用户共享
+        PermissionSnapshot snapshot = getPermissionSnapshot(roleList);
+        log.debug("获取用户授权信息完成 : {}", currentUser.getDisplayName());
+        return new IamAuthorizationInfo(snapshot);
+    }
+
+    /**
+     * 基于权限快照的索引匹配权限，快照不可用时按默认方式逐个匹配
+     * @param permission
+     * @param info
+     * @return
+     */
+    @Override
+    protected boolean isPermitted(Permission permission, AuthorizationInfo info) {
+        if(info instanceof IamAuthorizationInfo && getRolePermissionResolver() == null && V.isEmpty(info.getObjectPermissions())){
+            PermissionSnapshot snapshot = getPermissionSnapshot((IamAuthorizationInfo) info);
+            if(snapshot != null){
+                return snapshot.implies(permission);
+            }
+        }
+        return super.isPermitted(permission, info);
+    }
+
+    /**
+     * 清空权限快照（角色-资源关系变更时调用）
+     */
+    public void clearPermissionSnapshots(){
+        permissionSnapshotEpoch.incrementAndGet();
+        permissionSnapshotCache.clear();
+    }
+
+    /**
+     * 获取角色组合的权限快照，不存在或已失效时重新构建
+     * @param roleList
+     * @return
+     */
+    private PermissionSnapshot getPermissionSnapshot(List<IamRole> roleList){
+        Set<String> roleCodes = new HashSet<>();
+        List<Long> roleIds = new ArrayList<>(roleList.size());
+        for(IamRole role : roleList){
+            roleCodes.add(role.getCode());
             roleIds.add(role.getId());
-        });
-        authorizationInfo.setRoles(allRoleCodes);
-        // 整理所有权限许可列表，从缓存匹配
+        }
+        String snapshotKey = roleIds.stream().sorted().map(String::valueOf).collect(Collectors.joining(Cons.SEPARATOR_COMMA));
+        long localEpoch = permissionSnapshotEpoch.get();
+        long sharedEpoch = getSharedEpoch();
+        PermissionSnapshot snapshot = permissionSnapshotCache.get(snapshotKey, PermissionSnapshot.class);
+        if(snapshot != null && snapshot.isValid(localEpoch, sharedEpoch, SNAPSHOT_MAX_AGE_MILLIS) && snapshot.getRoleCodes().equals(roleCodes)){
+            return snapshot;
+        }
+        // 整理所有权限许可列表
         List<String> allPermissionCodes = getIamRoleResourceService().getPermissionCodeList(Cons.APPLICATION, roleIds);
         Set<String> permissionCodesSet = new HashSet<>();
         if(V.notEmpty(allPermissionCodes)){
             allPermissionCodes.forEach(permCodeStr -> {
                 if(!permCodeStr.contains(Cons.SEPARATOR_COMMA)){
-                    permissionCodesSet.add(permCodeStr);
+                    permissionCodesSet.add(permCodeStr.intern());
                 }
                 else{
                     for(String permCode : S.split(permCodeStr)){
-                        permissionCodesSet.add(permCode);
+                        permissionCodesSet.add(permCode.intern());
                     }
                 }
             });
         }
-        // 将所有角色和权限许可授权给用户
-        authorizationInfo.setStringPermissions(permissionCodesSet);
-        log.debug("获取用户授权信息完成 : {}", currentUser.getDisplayName());
-        return authorizationInfo;
+        snapshot = new PermissionSnapshot(snapshotKey, roleCodes, permissionCodesSet, getPermissionResolver(), localEpoch, sharedEpoch);
+        permissionSnapshotCache.put(snapshotKey, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * 获取授权信息关联的有效快照；授权信息来自共享缓存（如Redis反序列化）时，需与本地快照内容一致
+     * @param info
+     * @return
+     */
+    private PermissionSnapshot getPermissionSnapshot(IamAuthorizationInfo info){
+        PermissionSnapshot snapshot = info.snapshot();
+        if(snapshot != null){
+            return snapshot;
+        }
+        if(info.getSnapshotKey() == null){
+            return null;
+        }
+        snapshot = permissionSnapshotCache.get(info.getSnapshotKey(), PermissionSnapshot.class);
+        if(snapshot != null && snapshot.isValid(permissionSnapshotEpoch.get(), getSharedEpoch(), SNAPSHOT_MAX_AGE_MILLIS)
+                && snapshot.getRoleCodes().equals(info.getRoles())
+                && snapshot.getPermissionCodes().equals(info.getStringPermissions())){
+            // 反序列化的集合替换为快照中不可修改的共享集合
+            info.attach(snapshot);
+            return snapshot;
+        }
+        return null;
+    }
+
+    /**
+     * 共享授权缓存的代际（Redis缓存clear时变更，用于感知其他节点的清空操作）；
+     * 取ShiroRedisCache本地缓存的代际，检查间隔内不产生Redis访问
+     * @return
+     */
+    private long getSharedEpoch(){
+        Cache<Object, AuthorizationInfo> cache = getAuthorizationCache();
+        return cache instanceof ShiroRedisCache? ((ShiroRedisCache) cache).getGeneration() : 0L;
     }
 
     private IamUserRoleService getIamUserRoleService(){
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.iam.shiro;
+
+import org.apache.shiro.authz.Permission;
+import org.apache.shiro.authz.permission.PermissionResolver;
+import org.apache.shiro.authz.permission.WildcardPermission;
+
+import java.util.*;
+
+/**
+ * 角色组合的权限快照
+ * <p>
+ * 按排序后的角色id组合编译一次，由拥有相同角色组合的用户共享；
+ * 权限码预先解析为Permission，并按首段token建立索引，isPermitted时无需逐个解析及遍历全部权限
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class PermissionSnapshot {
+    /**
+     * 角色id组合key
+     */
+    private final String key;
+    /**
+     * 角色编码（共享，不可修改）
+     */
+    private final Set<String> roleCodes;
+    /**
+     * 权限码（共享，不可修改）
+     */
+    private final Set<String> permissionCodes;
+    /**
+     * 本地及共享缓存的代际，用于判断快照是否失效
+     */
+    private final long localEpoch;
+    private final long sharedEpoch;
+    private final long createdAt;
+    /**
+     * 解析后的权限字符串，用于完全匹配
+     */
+    private final Set<String> exactPermissions;
+    /**
+     * 首段token-权限
+     */
+    private final Map<String, List<Permission>> firstPartIndex;
+    /**
+     * 首段为通配符的权限
+     */
+    private final List<Permission> wildcardPermissions;
+    /**
+     * 非WildcardPermission类型的权限
+     */
+    private final List<Permission> otherPermissions;
+    private final List<Permission> allPermissions;
+
+    public PermissionSnapshot(String key, Set<String> roleCodes, Set<String> permissionCodes, PermissionResolver permissionResolver,
+                              long localEpoch, long sharedEpoch) {
+        this.key = key;
+        this.roleCodes = Collections.unmodifiableSet(roleCodes);
+        this.permissionCodes = Collections.unmodifiableSet(permissionCodes);
+        this.localEpoch = localEpoch;
+        this.sharedEpoch = sharedEpoch;
+        this.createdAt = System.currentTimeMillis();
+        this.exactPermissions = new HashSet<>(permissionCodes.size());
+        this.firstPartIndex = new HashMap<>();
+        this.wildcardPermissions = new ArrayList<>();
+        this.otherPermissions = new ArrayList<>();
+        this.allPermissions = new ArrayList<>(permissionCodes.size());
+        for(String permissionCode : permissionCodes){
+            Permission permission = permissionResolver.resolvePermission(permissionCode);
+            allPermissions.add(permission);
+            if(!(permission instanceof WildcardPermission)){
+                otherPermissions.add(permission);
+                continue;
+            }
+            String permissionStr = permission.toString();
+            exactPermissions.add(permissionStr);
+            String firstPart = getFirstPart(permissionStr);
+            for(String token : firstPart.split(",")){
+                String trimmedToken = token.trim();
+                if("*".equals(trimmedToken)){
+                    wildcardPermissions.add(permission);
+                    break;
+                }
+                firstPartIndex.computeIfAbsent(trimmedToken, k -> new ArrayList<>()).add(permission);
+            }
+        }
+    }
+
+    /**
+     * 是否拥有指定权限（语义同WildcardPermission.implies）
+     * @param permission
+     * @return
+     */
+    public boolean implies(Permission permission){
+        if(!(permission instanceof WildcardPermission)){
+            return impliesAny(allPermissions, permission);
+        }
+        String permissionStr = permission.toString();
+        if(exactPermissions.contains(permissionStr)){
+            return true;
+        }
+        // 首段需包含被检查权限首段的所有token，取第一个token索引的候选即可
+        String firstPart = getFirstPart(permissionStr);
+        int commaIndex = firstPart.indexOf(',');
+        String firstToken = (commaIndex < 0? firstPart : firstPart.substring(0, commaIndex)).trim();
+        List<Permission> candidates = firstPartIndex.get(firstToken);
+        return (candidates != null && impliesAny(candidates, permission))
+                || impliesAny(wildcardPermissions, permission)
+                || impliesAny(otherPermissions, permission);
+    }
+
+    /**
+     * 快照是否仍然有效
+     * @param localEpoch
+     * @param sharedEpoch
+     * @param maxAgeMillis
+     * @return
+     */
+    public boolean isValid(long localEpoch, long sharedEpoch, long maxAgeMillis){
+        return this.localEpoch == localEpoch && this.sharedEpoch == sharedEpoch
+                && System.currentTimeMillis() - createdAt < maxAgeMillis;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Set<String> getRoleCodes() {
+        return roleCodes;
+    }
+
+    public Set<String> getPermissionCodes() {
+        return permissionCodes;
+    }
+
+    private static boolean impliesAny(List<Permission> permissions, Permission permission){
+        for(Permission perm : permissions){
+            if(perm.implies(permission)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getFirstPart(String permissionStr){
+        int index = permissionStr.indexOf(':');
+        return index < 0? permissionStr : permissionStr.substring(0, index);
+    }
+
+}
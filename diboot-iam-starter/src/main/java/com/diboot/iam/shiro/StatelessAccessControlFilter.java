@@ -57,22 +57,23 @@ public class StatelessAccessControlFilter extends BasicHttpAuthenticationFilter
     protected boolean isAccessAllowed(ServletRequest request, ServletResponse response, Object mappedValue) {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         // 从header获取Token
-        String currentToken = TokenUtils.getRequestToken(httpRequest);
-        if (V.isEmpty(currentToken)) {
+        String currentToken = TokenUtils.extractRequestToken(httpRequest);
+        // 读取一次缓存的token信息，校验及刷新共用
+        TokenInfo tokenInfo = currentToken != null? TokenUtils.getActiveTokenInfo(currentToken) : null;
+        if (tokenInfo == null) {
             log.debug("token: {} 验证失败, uri={}", currentToken, httpRequest.getRequestURI());
             return false;
         }
         log.debug("token: {} 验证通过", currentToken);
-        String cachedUserInfo = TokenUtils.getCachedUserInfoStr(currentToken);
-        if(IamSecurityUtils.getSubject().isAuthenticated() == false && cachedUserInfo != null){
-            IamAuthToken authToken = new IamAuthToken(cachedUserInfo);
+        if(IamSecurityUtils.getSubject().isAuthenticated() == false){
+            IamAuthToken authToken = new IamAuthToken(tokenInfo);
             authToken.setAuthtoken(currentToken);
             authToken.setValidPassword(false);
             IamSecurityUtils.getSubject().login(authToken);
             log.debug("token: {} 保活完成, uri={}", currentToken, httpRequest.getRequestURI());
         }
         // 如果临近过期，则生成新的token返回
-        TokenUtils.responseNewTokenIfRequired(response, cachedUserInfo);
+        TokenUtils.responseNewTokenIfRequired(response, currentToken, tokenInfo);
         return true;
     }
 
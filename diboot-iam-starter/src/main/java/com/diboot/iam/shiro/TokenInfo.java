@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.iam.shiro;
+
+import com.diboot.core.util.S;
+import com.diboot.iam.config.Cons;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * 缓存的token信息
+ * <p>
+ * 替代逗号拼接的用户信息字符串，过期时间等以long值保存，校验时无需再拆分解析
+ * </p>
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class TokenInfo implements Serializable {
+    private static final long serialVersionUID = 2187364526173926402L;
+
+    /**
+     * 租户id
+     */
+    private Long tenantId;
+    /**
+     * 认证账号
+     */
+    private String authAccount;
+    /**
+     * 用户类型Class名
+     */
+    private String userTypeClass;
+    /**
+     * 认证类型
+     */
+    private String authType;
+    /**
+     * 有效期（分钟）
+     */
+    private int expiresInMinutes;
+    /**
+     * 颁发时间戳
+     */
+    private long issuedAt;
+    /**
+     * 过期时间戳
+     */
+    private long expiresAt;
+    /**
+     * 由该token刷新得到的新token
+     */
+    private String refreshedToken;
+    /**
+     * 刷新得到该token的原token
+     */
+    private String originToken;
+
+    public TokenInfo() {
+    }
+
+    public TokenInfo(Long tenantId, String authAccount, String userTypeClass, String authType, int expiresInMinutes, long issuedAt) {
+        this.tenantId = tenantId;
+        this.authAccount = authAccount;
+        this.userTypeClass = userTypeClass;
+        this.authType = authType;
+        this.expiresInMinutes = expiresInMinutes;
+        this.issuedAt = issuedAt;
+        this.expiresAt = issuedAt + expiresInMinutes * 60000L;
+    }
+
+    /**
+     * 解析逗号拼接的用户信息字符串
+     * @param userInfoStr tenantId,authAccount,userTypeClass,authType,expiresInMinutes,issuedAt
+     * @return
+     */
+    public static TokenInfo parse(String userInfoStr) {
+        String[] fields = S.split(userInfoStr, Cons.SEPARATOR_COMMA);
+        return new TokenInfo(Long.parseLong(fields[0]), fields[1], fields[2], fields[3], Integer.parseInt(fields[4]), Long.parseLong(fields[5]));
+    }
+
+    /**
+     * 是否已过期
+     * @param currentTime
+     * @return
+     */
+    public boolean isExpired(long currentTime) {
+        return currentTime > expiresAt;
+    }
+
+    /**
+     * 是否临近过期：剩余有效期不足1/5
+     * @param currentTime
+     * @return
+     */
+    public boolean isCloseToExpired(long currentTime) {
+        long remaining = expiresAt - currentTime;
+        return remaining > 0 && (currentTime - issuedAt) / remaining > 3;
+    }
+
+    /**
+     * 生成刷新后的token信息（更新颁发时间）
+     * @return
+     */
+    public TokenInfo refresh() {
+        return new TokenInfo(tenantId, authAccount, userTypeClass, authType, expiresInMinutes, System.currentTimeMillis());
+    }
+
+    /**
+     * 复制token信息（缓存中的实例可能为各线程共享，修改前需复制）
+     * @return
+     */
+    public TokenInfo copy() {
+        TokenInfo tokenInfo = new TokenInfo(tenantId, authAccount, userTypeClass, authType, expiresInMinutes, issuedAt);
+        tokenInfo.expiresAt = this.expiresAt;
+        tokenInfo.refreshedToken = this.refreshedToken;
+        tokenInfo.originToken = this.originToken;
+        return tokenInfo;
+    }
+
+    /**
+     * 转换为逗号拼接的用户信息字符串
+     * @return
+     */
+    public String toUserInfoStr() {
+        return S.joinWith(Cons.SEPARATOR_COMMA, tenantId, authAccount, userTypeClass, authType, expiresInMinutes, issuedAt);
+    }
+
+}
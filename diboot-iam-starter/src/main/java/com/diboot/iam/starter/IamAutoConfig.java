@@ -16,11 +16,17 @@
 package com.diboot.iam.starter;
 
 import com.diboot.core.cache.BaseCacheManager;
+import com.diboot.core.cache.BoundedCacheSettings;
+import com.diboot.core.cache.BoundedMemoryCache;
 import com.diboot.core.cache.DynamicMemoryCacheManager;
 import com.diboot.core.data.access.DataAccessInterface;
+import com.diboot.core.data.access.DataAccessScopeCache;
 import com.diboot.core.util.V;
 import com.diboot.iam.config.Cons;
 import com.diboot.iam.data.DataAccessPermissionUserOrgImpl;
+import com.diboot.iam.entity.IamOrg;
+import com.diboot.iam.entity.IamPosition;
+import com.diboot.iam.entity.IamUserPosition;
 import com.diboot.iam.shiro.IamAuthorizingRealm;
 import com.diboot.iam.shiro.StatelessAccessControlFilter;
 import com.diboot.iam.shiro.StatelessSubjectFactory;
@@ -45,9 +51,12 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.*;
 import org.springframework.core.annotation.Order;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.Filter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -214,8 +223,23 @@ public class IamAutoConfig {
         Map<String, Integer> cacheName2ExpireMap = new HashMap<String, Integer>(){{
             put(Cons.CACHE_TOKEN_USERINFO, iamProperties.getTokenExpiresMinutes());
             put(Cons.CACHE_CAPTCHA, 5);
+            put(Cons.CACHE_ORG_INDEX_VERSION, 24*60);
         }};
-        return new DynamicMemoryCacheManager(cacheName2ExpireMap);
+        // 按最久未访问淘汰：新登录的token访问频率低，TinyLFU下可能被直接淘汰
+        List<BoundedMemoryCache> caches = new ArrayList<>(cacheName2ExpireMap.size());
+        for(Map.Entry<String, Integer> entry : cacheName2ExpireMap.entrySet()){
+            caches.add(new BoundedMemoryCache(entry.getKey(), new BoundedCacheSettings().setExpiredMinutes(entry.getValue())
+                    .setMaxEntries(iamProperties.getLocalCacheMaxEntries()).setEvictionPolicy(BoundedCacheSettings.EvictionPolicy.LRU)));
+        }
+        return new DynamicMemoryCacheManager(caches.toArray(new BoundedMemoryCache[0]));
+    }
+
+    /**
+     * 登记影响数据权限范围的entity，其数据变更时失效可访问范围缓存
+     */
+    @PostConstruct
+    public void registerDataAccessScopeEntities(){
+        DataAccessScopeCache.registerScopeEntity(IamOrg.class, IamPosition.class, IamUserPosition.class);
     }
 
     /**
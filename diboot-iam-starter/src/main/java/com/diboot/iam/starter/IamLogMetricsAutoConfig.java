@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.iam.starter;
+
+import com.diboot.iam.annotation.process.BatchLogQueue;
+import com.diboot.iam.annotation.process.IamLogWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * 日志批量写入指标自动配置：存在Micrometer时导出队列深度、已写入、写入失败及丢弃数
+ *
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+public class IamLogMetricsAutoConfig {
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final ObjectProvider<IamLogWriter> iamLogWriterProvider;
+
+    public IamLogMetricsAutoConfig(ObjectProvider<MeterRegistry> meterRegistryProvider, ObjectProvider<IamLogWriter> iamLogWriterProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.iamLogWriterProvider = iamLogWriterProvider;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindLogWriterMetrics() {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        IamLogWriter iamLogWriter = iamLogWriterProvider.getIfAvailable();
+        if(meterRegistry == null || iamLogWriter == null){
+            return;
+        }
+        for(BatchLogQueue<?> queue : iamLogWriter.getQueues()){
+            Gauge.builder("diboot.iam.log.queue.depth", queue, BatchLogQueue::getQueueDepth)
+                    .tag("queue", queue.getName()).description("日志写入队列排队数").register(meterRegistry);
+            FunctionCounter.builder("diboot.iam.log.written", queue, BatchLogQueue::getWrittenCount)
+                    .tag("queue", queue.getName()).description("日志已写入数").register(meterRegistry);
+            FunctionCounter.builder("diboot.iam.log.failed", queue, BatchLogQueue::getFailedCount)
+                    .tag("queue", queue.getName()).description("日志写入失败数").register(meterRegistry);
+            FunctionCounter.builder("diboot.iam.log.dropped", queue, BatchLogQueue::getDroppedCount)
+                    .tag("queue", queue.getName()).description("日志丢弃数").register(meterRegistry);
+        }
+    }
+
+}
@@ -15,6 +15,7 @@
  */
 package com.diboot.iam.starter;
 
+import com.diboot.iam.annotation.process.BatchLogQueue;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -63,6 +64,23 @@ public class IamProperties {
      * oauth2 客户端配置
      */
     private Oauth2ClientProperties oauth2Client;
+    /**
+     * 未启用Redis时本地token等缓存的最大条目数，超出时淘汰最久未访问的（被淘汰token需重新登录），0为不限制
+     */
+    private long localCacheMaxEntries = 100000;
+    /**
+     * Redis权限缓存代际（clear计数）的本地检查间隔毫秒数，其他节点clear后最长该间隔内生效（启用近端缓存时经失效通知即时生效），0为每次访问均读取Redis
+     */
+    private long cacheGenerationCheckMillis = 1000;
+    /**
+     * Redis缓存的本地近端缓存配置
+     */
+    private NearCacheProperties nearCache = new NearCacheProperties();
+
+    /**
+     * 登录日志及操作日志的批量写入配置
+     */
+    private LogWriterProperties logWriter = new LogWriterProperties();
 
     /**
      * oauth2 客户端 SSO 配置项
@@ -87,4 +105,68 @@ public class IamProperties {
          */
         private String accessTokenUri;
     }
+
+    /**
+     * 本地近端缓存配置项
+     */
+    @Getter
+    @Setter
+    public static class NearCacheProperties {
+        /**
+         * 是否启用（多节点间通过Redis pub/sub通知失效）
+         */
+        private boolean enabled = false;
+        /**
+         * 每个缓存的最大条目数
+         */
+        private int maxSize = 10000;
+        /**
+         * 本地缓存存活秒数
+         */
+        private int expireSeconds = 60;
+        /**
+         * 失效通知的分发线程数
+         */
+        private int listenerPoolSize = 2;
+        /**
+         * 失效通知的分发队列容量，队列已满时由订阅线程执行
+         */
+        private int listenerQueueCapacity = 1000;
+    }
+
+    /**
+     * 日志批量写入配置项
+     */
+    @Getter
+    @Setter
+    public static class LogWriterProperties {
+        /**
+         * 是否启用（关闭时逐条异步保存）
+         */
+        private boolean enabled = false;
+        /**
+         * 队列容量
+         */
+        private int capacity = 10000;
+        /**
+         * 每批写入的最大条数
+         */
+        private int batchSize = 200;
+        /**
+         * 攒批的最长等待毫秒数
+         */
+        private long flushIntervalMillis = 1000;
+        /**
+         * 队列满时的处理策略
+         */
+        private BatchLogQueue.OverflowPolicy overflowPolicy = BatchLogQueue.OverflowPolicy.DROP;
+        /**
+         * BLOCK策略下的最长等待毫秒数
+         */
+        private long blockTimeoutMillis = 100;
+        /**
+         * 关闭时等待剩余日志写入的最长毫秒数
+         */
+        private long shutdownTimeoutMillis = 10000;
+    }
 }
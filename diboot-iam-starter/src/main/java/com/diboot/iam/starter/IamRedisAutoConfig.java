@@ -16,22 +16,30 @@
 package com.diboot.iam.starter;
 
 import com.diboot.core.cache.BaseCacheManager;
+import com.diboot.core.cache.CacheInvalidationListenerContainer;
+import com.diboot.core.cache.CacheInvalidationChannel;
 import com.diboot.core.cache.DynamicRedisCacheManager;
+import com.diboot.core.cache.RedisCacheInvalidationChannel;
+import com.diboot.core.cache.TwoLevelCacheManager;
 import com.diboot.iam.config.Cons;
 import com.diboot.iam.redis.ShiroRedisCacheManager;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.shiro.cache.CacheManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnResource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -65,24 +73,65 @@ public class IamRedisAutoConfig {
      */
      @Bean(name = "shiroCacheManager")
      @ConditionalOnMissingBean(CacheManager.class)
-     public CacheManager shiroCacheManager(RedisTemplate<String, Object> redisTemplate) {
+     public CacheManager shiroCacheManager(RedisTemplate<String, Object> redisTemplate, ObjectProvider<CacheInvalidationChannel> invalidationChannelProvider) {
          log.info("初始化shiro缓存: ShiroRedisCacheManager");
-        return new ShiroRedisCacheManager(redisTemplate, iamProperties.getTokenExpiresMinutes());
+        return new ShiroRedisCacheManager(redisTemplate, iamProperties.getTokenExpiresMinutes(),
+                iamProperties.getCacheGenerationCheckMillis(), invalidationChannelProvider.getIfAvailable());
      }
 
+    /**
+     * 本地近端缓存失效通知的消息监听容器
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "cacheInvalidationListenerContainer")
+    @ConditionalOnProperty(prefix = "diboot.iam.near-cache", name = "enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(){
+        IamProperties.NearCacheProperties nearCacheProperties = iamProperties.getNearCache();
+        return new CacheInvalidationListenerContainer(redisTemplate.getConnectionFactory(),
+                nearCacheProperties.getListenerPoolSize(), nearCacheProperties.getListenerQueueCapacity());
+    }
+
+    /**
+     * 本地近端缓存的失效通知通道
+     * @return
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "diboot.iam.near-cache", name = "enabled", havingValue = "true")
+    public CacheInvalidationChannel cacheInvalidationChannel(@Qualifier("cacheInvalidationListenerContainer") RedisMessageListenerContainer listenerContainer){
+        return new RedisCacheInvalidationChannel(redisTemplate, listenerContainer);
+    }
+
     /**
      * 验证码的缓存管理
      * @return
      */
     @Bean
     @ConditionalOnMissingBean
-    public BaseCacheManager baseCacheManager(){
+    public BaseCacheManager baseCacheManager(ObjectProvider<CacheInvalidationChannel> invalidationChannelProvider){
         log.info("初始化IAM Redis缓存: DynamicRedisCacheManager");
         Map<String, Integer> cacheName2ExpireMap = new HashMap<String, Integer>(){{
                 put(Cons.CACHE_TOKEN_USERINFO, iamProperties.getTokenExpiresMinutes());
                 put(Cons.CACHE_CAPTCHA, 5);
+                put(Cons.CACHE_ORG_INDEX_VERSION, 24*60);
         }};
-        return new DynamicRedisCacheManager(redisTemplate, cacheName2ExpireMap);
+        DynamicRedisCacheManager redisCacheManager = new DynamicRedisCacheManager(redisTemplate, cacheName2ExpireMap);
+        IamProperties.NearCacheProperties nearCacheProperties = iamProperties.getNearCache();
+        if(nearCacheProperties == null || !nearCacheProperties.isEnabled()){
+            return redisCacheManager;
+        }
+        log.info("启用IAM本地近端缓存: TwoLevelCacheManager");
+        // 本地缓存存活时间不超过token有效期；验证码一次性使用，无需本地缓存
+        int tokenExpireSeconds = Math.min(nearCacheProperties.getExpireSeconds(), iamProperties.getTokenExpiresMinutes()*60);
+        Map<String, TwoLevelCacheManager.NearCacheSettings> cacheName2Settings = new HashMap<>();
+        cacheName2Settings.put(Cons.CACHE_TOKEN_USERINFO, new TwoLevelCacheManager.NearCacheSettings()
+                .setMaxSize(nearCacheProperties.getMaxSize()).setExpireSeconds(tokenExpireSeconds));
+        cacheName2Settings.put(Cons.CACHE_CAPTCHA, new TwoLevelCacheManager.NearCacheSettings()
+                .setConsistency(TwoLevelCacheManager.Consistency.L2_ONLY));
+        cacheName2Settings.put(Cons.CACHE_ORG_INDEX_VERSION, new TwoLevelCacheManager.NearCacheSettings()
+                .setMaxSize(16).setExpireSeconds(nearCacheProperties.getExpireSeconds()));
+        return new TwoLevelCacheManager(redisCacheManager, invalidationChannelProvider.getIfAvailable(), cacheName2Settings);
     }
 
 }
\ No newline at end of file
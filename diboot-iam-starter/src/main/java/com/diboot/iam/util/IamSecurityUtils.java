@@ -158,6 +158,7 @@ public class IamSecurityUtils extends SecurityUtils {
                 cache.clear();
                 log.debug("已清空全部登录用户的权限缓存，以便新权限生效.");
             }
+            authorizingRealm.clearPermissionSnapshots();
         }
     }
 
@@ -18,15 +18,20 @@ package com.diboot.iam.util;
 import com.diboot.core.cache.BaseCacheManager;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.util.ContextHelper;
+import com.diboot.core.util.JSON;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.diboot.iam.config.Cons;
+import com.diboot.iam.shiro.TokenInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Token相关操作类
@@ -40,12 +45,30 @@ public class TokenUtils {
     private static final String AUTH_HEADER = getConfigValue("diboot.iam.token-header-key", "authtoken");
     public static final int EXPIRES_IN_MINUTES = getConfigIntValue("diboot.iam.token-expires-minutes", 60);
 
+    /**
+     * 本节点刷新中的token：原token-刷新token，同一token的并发请求仅刷新一次，刷新完成后移除
+     */
+    private static final ConcurrentHashMap<String, CompletableFuture<String>> REFRESHING_TOKEN_MAP = new ConcurrentHashMap<>();
+
     /***
      * 从请求头中获取客户端发来的token
      * @param request
      * @return
      */
     public static String getRequestToken(HttpServletRequest request) {
+        String authtoken = extractRequestToken(request);
+        if(authtoken == null || getActiveTokenInfo(authtoken) == null){
+            return null;
+        }
+        return authtoken;
+    }
+
+    /***
+     * 从请求头中提取token（不校验有效性）
+     * @param request
+     * @return
+     */
+    public static String extractRequestToken(HttpServletRequest request) {
         String authtoken = request.getHeader(AUTH_HEADER);
         if(authtoken != null){
             if(authtoken.startsWith(Cons.TOKEN_PREFIX_BEARER)){
@@ -57,10 +80,6 @@ public class TokenUtils {
             log.warn("请求未指定token: {}", authtoken);
             return null;
         }
-        if(isActiveAccessToken(authtoken) == false){
-            log.warn("已过期或非系统颁发的token: {}", authtoken);
-            return null;
-        }
         return authtoken;
     }
 
@@ -77,33 +96,127 @@ public class TokenUtils {
      * @param cachedUserInfo
      * @return
      */
-    public static synchronized void responseNewTokenIfRequired(ServletResponse response, String cachedUserInfo) {
-        if(isCloseToExpired(cachedUserInfo)){
-            //将刷新的token放入response header
+    @Deprecated
+    public static void responseNewTokenIfRequired(ServletResponse response, String cachedUserInfo) {
+        if(V.isEmpty(cachedUserInfo)){
+            return;
+        }
+        TokenInfo tokenInfo = TokenInfo.parse(cachedUserInfo);
+        if(tokenInfo.isCloseToExpired(System.currentTimeMillis())){
             String refreshToken = generateToken();
-            cacheRefreshToken(refreshToken, cachedUserInfo);
+            cacheAccessToken(refreshToken, tokenInfo.refresh());
             ((HttpServletResponse)response).setHeader(AUTH_HEADER, refreshToken);
             log.debug("写回刷新token :{}", refreshToken);
         }
     }
 
+    /**
+     * 临近过期时生成新的token，同一token的并发请求共用同一个刷新token
+     * <p>
+     * 刷新关系记录在共享缓存的token信息中（原token.refreshedToken，新token.originToken），
+     * 其他节点可据此复用已刷新的token，退出时也可据此移除整条刷新链
+     * </p>
+     * @param response
+     * @param accessToken 当前token
+     * @param tokenInfo 当前token信息
+     */
+    public static void responseNewTokenIfRequired(ServletResponse response, String accessToken, TokenInfo tokenInfo) {
+        if(tokenInfo == null || !tokenInfo.isCloseToExpired(System.currentTimeMillis())){
+            return;
+        }
+        String refreshToken = tokenInfo.getRefreshedToken();
+        if(refreshToken == null){
+            CompletableFuture<String> refreshing = REFRESHING_TOKEN_MAP.get(accessToken);
+            if(refreshing == null){
+                CompletableFuture<String> newRefreshing = new CompletableFuture<>();
+                refreshing = REFRESHING_TOKEN_MAP.putIfAbsent(accessToken, newRefreshing);
+                // 当前线程负责刷新
+                if(refreshing == null){
+                    refreshing = newRefreshing;
+                    try {
+                        newRefreshing.complete(refreshAccessToken(accessToken, tokenInfo));
+                    }
+                    catch (RuntimeException e){
+                        newRefreshing.completeExceptionally(e);
+                        throw e;
+                    }
+                    finally {
+                        REFRESHING_TOKEN_MAP.remove(accessToken, newRefreshing);
+                    }
+                }
+            }
+            refreshToken = refreshing.join();
+        }
+        //将刷新的token放入response header
+        ((HttpServletResponse)response).setHeader(AUTH_HEADER, refreshToken);
+        log.debug("写回刷新token :{}", refreshToken);
+    }
+
+    /**
+     * 刷新token，并在原token信息中记录刷新得到的token
+     * @param accessToken
+     * @param tokenInfo
+     * @return 刷新得到的token
+     */
+    private static String refreshAccessToken(String accessToken, TokenInfo tokenInfo){
+        // 等待期间可能已被其他请求或节点刷新
+        TokenInfo latestTokenInfo = getCachedTokenInfo(accessToken);
+        if(latestTokenInfo != null && latestTokenInfo.getRefreshedToken() != null){
+            return latestTokenInfo.getRefreshedToken();
+        }
+        String refreshToken = generateToken();
+        cacheAccessToken(refreshToken, tokenInfo.refresh().setOriginToken(accessToken));
+        cacheAccessToken(accessToken, (latestTokenInfo != null ? latestTokenInfo : tokenInfo).copy().setRefreshedToken(refreshToken));
+        return refreshToken;
+    }
+
     /**
      * 缓存新的token
      * @param accessToken
      * @param userInfoStr
      */
     public static void cacheAccessToken(String accessToken, String userInfoStr) {
+        cacheAccessToken(accessToken, TokenInfo.parse(userInfoStr));
+    }
+
+    /**
+     * 缓存新的token
+     * @param accessToken
+     * @param tokenInfo
+     */
+    public static void cacheAccessToken(String accessToken, TokenInfo tokenInfo) {
         BaseCacheManager baseCacheManager = ContextHelper.getBean(BaseCacheManager.class);
-        baseCacheManager.putCacheObj(Cons.CACHE_TOKEN_USERINFO, accessToken, userInfoStr);
+        baseCacheManager.putCacheObj(Cons.CACHE_TOKEN_USERINFO, accessToken, tokenInfo);
     }
 
     /**
-     * 退出时移除失效的全部token
+     * 退出时移除失效的全部token：含由该token刷新得到的token，及刷新得到该token的原token
      * @param accessToken
      */
     public static void removeAccessTokens(String accessToken) {
         BaseCacheManager baseCacheManager = ContextHelper.getBean(BaseCacheManager.class);
-        baseCacheManager.removeCacheObj(Cons.CACHE_TOKEN_USERINFO, accessToken);
+        Set<String> revokedTokens = new HashSet<>();
+        Deque<String> pendingTokens = new ArrayDeque<>();
+        pendingTokens.push(accessToken);
+        while(!pendingTokens.isEmpty()){
+            String token = pendingTokens.pop();
+            if(!revokedTokens.add(token)){
+                continue;
+            }
+            TokenInfo tokenInfo = getCachedTokenInfo(token);
+            baseCacheManager.removeCacheObj(Cons.CACHE_TOKEN_USERINFO, token);
+            if(tokenInfo == null){
+                continue;
+            }
+            // 由该token刷新得到的token
+            if(tokenInfo.getRefreshedToken() != null){
+                pendingTokens.push(tokenInfo.getRefreshedToken());
+            }
+            // 刷新得到该token的原token
+            if(tokenInfo.getOriginToken() != null){
+                pendingTokens.push(tokenInfo.getOriginToken());
+            }
+        }
     }
 
     /**
@@ -112,12 +225,30 @@ public class TokenUtils {
      * @return
      */
     public static String getCachedUserInfoStr(String accessToken) {
+        TokenInfo tokenInfo = getCachedTokenInfo(accessToken);
+        return tokenInfo != null? tokenInfo.toUserInfoStr() : null;
+    }
+
+    /**
+     * 获取缓存的token信息
+     * @param accessToken
+     * @return
+     */
+    public static TokenInfo getCachedTokenInfo(String accessToken) {
         BaseCacheManager baseCacheManager = ContextHelper.getBean(BaseCacheManager.class);
-        String userInfoStr = baseCacheManager.getCacheString(Cons.CACHE_TOKEN_USERINFO, accessToken);
-        if(userInfoStr == null){
+        Object cacheObj = baseCacheManager.getCacheObj(Cons.CACHE_TOKEN_USERINFO, accessToken, Object.class);
+        if(cacheObj == null){
             log.info("token {} 缓存信息不存在", accessToken);
+            return null;
+        }
+        if(cacheObj instanceof TokenInfo){
+            return (TokenInfo)cacheObj;
         }
-        return userInfoStr;
+        // 兼容升级前缓存的字符串，及无类型信息的序列化结果
+        if(cacheObj instanceof String){
+            return V.isEmpty(cacheObj)? null : TokenInfo.parse((String)cacheObj);
+        }
+        return JSON.toJavaObject(JSON.stringify(cacheObj), TokenInfo.class);
     }
 
     /**
@@ -126,26 +257,35 @@ public class TokenUtils {
      * @return
      */
     public static boolean isActiveAccessToken(String accessToken) {
-        String userInfoStr = getCachedUserInfoStr(accessToken);
-        if(V.isEmpty(userInfoStr)){
-            return false;
+        return getActiveTokenInfo(accessToken) != null;
+    }
+
+    /**
+     * 获取有效token的信息，已过期或非系统颁发的token返回null
+     * @param accessToken
+     * @return
+     */
+    public static TokenInfo getActiveTokenInfo(String accessToken) {
+        TokenInfo tokenInfo = getCachedTokenInfo(accessToken);
+        if(tokenInfo == null){
+            log.warn("已过期或非系统颁发的token: {}", accessToken);
+            return null;
         }
-        if(isExpired(userInfoStr)){
+        if(tokenInfo.isExpired(System.currentTimeMillis())){
             IamSecurityUtils.logoutByToken(accessToken);
-            return false;
+            log.warn("已过期或非系统颁发的token: {}", accessToken);
+            return null;
         }
-        return true;
+        return tokenInfo;
     }
 
     /**
      * 缓存刷新token
      * @param refreshToken
      */
-    public synchronized static void cacheRefreshToken(String refreshToken, String userInfoStr) {
-        String prefixTemp = S.substringBeforeLast(userInfoStr, Cons.SEPARATOR_COMMA);
+    public static void cacheRefreshToken(String refreshToken, String userInfoStr) {
         //如果是刷新token则更新颁发时间
-        userInfoStr = prefixTemp + Cons.SEPARATOR_COMMA + System.currentTimeMillis();
-        cacheAccessToken(refreshToken, userInfoStr);
+        cacheAccessToken(refreshToken, TokenInfo.parse(userInfoStr).refresh());
     }
 
     /**
@@ -153,18 +293,11 @@ public class TokenUtils {
      * @param userInfoStr
      * @return
      */
-    private static final int EXPIRES_MINUTES_INDEX = 4, ISSUED_AT_INDEX = 5;
     public static boolean isExpired(String userInfoStr){
         if(V.isEmpty(userInfoStr)){
             return false;
         }
-        String[] userFields = S.split(userInfoStr);
-        int expiresInMinutes = Integer.parseInt(userFields[EXPIRES_MINUTES_INDEX]);
-        // 获取当前token的过期时间
-        long issuedAt = Long.parseLong(userFields[ISSUED_AT_INDEX]);
-        // 获取当前token的过期时间
-        long expiredBefore = issuedAt + expiresInMinutes * 60000;
-        return System.currentTimeMillis() > expiredBefore;
+        return TokenInfo.parse(userInfoStr).isExpired(System.currentTimeMillis());
     }
 
     /**
@@ -176,20 +309,7 @@ public class TokenUtils {
         if(V.isEmpty(userInfoStr)){
             return false;
         }
-        String[] userFields = S.split(userInfoStr);
-        int expiresInMinutes = Integer.parseInt(userFields[EXPIRES_MINUTES_INDEX]);
-        // 当前token是否临近过期
-        long current = System.currentTimeMillis();
-        long issuedAt = Long.parseLong(userFields[ISSUED_AT_INDEX]);
-        long expiration = issuedAt + expiresInMinutes*60000;
-        long remaining = expiration - current;
-        if(remaining > 0){
-            long elapsed = current - issuedAt;
-            // 小于1/4 则更新
-            double past = (elapsed / remaining);
-            return past > 3.0;
-        }
-        return false;
+        return TokenInfo.parse(userInfoStr).isCloseToExpired(System.currentTimeMillis());
     }
 
     /**
@@ -210,4 +330,4 @@ public class TokenUtils {
         return value != null? Integer.parseInt(value) : defaultValue;
     }
 
-}
\ No newline at end of file
+}
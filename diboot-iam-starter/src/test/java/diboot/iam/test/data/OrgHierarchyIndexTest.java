@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.iam.test.data;
+
+import com.diboot.iam.data.OrgHierarchyIndex;
+import com.diboot.iam.entity.IamOrg;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 组织层级索引测试
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class OrgHierarchyIndexTest {
+
+    /**
+     * 组织树（sortId降序）：
+     * 1 -> 2 -> 4
+     *   -> 3 -> 5
+     */
+    private static List<IamOrg> buildTree(Long tenantId) {
+        return new ArrayList<>(Arrays.asList(
+                org(1L, 0L, tenantId, 100L),
+                org(2L, 1L, tenantId, 90L),
+                org(3L, 1L, tenantId, 80L),
+                org(4L, 2L, tenantId, 70L),
+                org(5L, 3L, tenantId, 60L)
+        ));
+    }
+
+    private static IamOrg org(Long id, Long parentId, Long tenantId, Long sortId) {
+        IamOrg org = new IamOrg();
+        org.setId(id);
+        org.setParentId(parentId).setTenantId(tenantId).setSortId(sortId);
+        return org;
+    }
+
+    @Test
+    public void testPreorderRanges() {
+        OrgHierarchyIndex index = new OrgHierarchyIndex(OrgHierarchyIndexTest::buildTree);
+        OrgHierarchyIndex.Snapshot snapshot = index.getSnapshot(0L);
+        Assert.assertEquals(Arrays.asList(2L, 4L, 3L, 5L), snapshot.getChildOrgIds(1L));
+        Assert.assertEquals(Collections.singletonList(4L), snapshot.getChildOrgIds(2L));
+        Assert.assertEquals(Collections.singletonList(5L), snapshot.getChildOrgIds(3L));
+        Assert.assertTrue(snapshot.getChildOrgIds(4L).isEmpty());
+        // 虚拟根节点合并直接下级的区间
+        Assert.assertEquals(Arrays.asList(1L, 2L, 4L, 3L, 5L), snapshot.getChildOrgIds(IamOrg.VIRTUAL_ROOT_ID));
+        Assert.assertEquals(Arrays.asList(2L, 1L), snapshot.getParentOrgIds(4L));
+        Assert.assertTrue(snapshot.getParentOrgIds(1L).isEmpty());
+        // 返回副本，修改不影响快照
+        snapshot.getOrg(2L).setParentId(3L);
+        Assert.assertEquals(Long.valueOf(1L), snapshot.getOrg(2L).getParentId());
+    }
+
+    @Test
+    public void testCycle() {
+        OrgHierarchyIndex index = new OrgHierarchyIndex(tenantId -> {
+            List<IamOrg> orgs = buildTree(tenantId);
+            // 10与11互为上级，12的上级为自身
+            orgs.add(org(10L, 11L, tenantId, 10L));
+            orgs.add(org(11L, 10L, tenantId, 11L));
+            orgs.add(org(12L, 12L, tenantId, 12L));
+            return orgs;
+        });
+        OrgHierarchyIndex.Snapshot snapshot = index.getSnapshot(0L);
+        Assert.assertEquals(Collections.singletonList(11L), snapshot.getParentOrgIds(10L));
+        Assert.assertEquals(Collections.singletonList(10L), snapshot.getParentOrgIds(11L));
+        Assert.assertTrue(snapshot.getParentOrgIds(12L).isEmpty());
+        // 成环的组织不会被遍历，正常的树不受影响
+        Assert.assertTrue(snapshot.getChildOrgIds(10L).isEmpty());
+        Assert.assertTrue(snapshot.getChildOrgIds(12L).isEmpty());
+        Assert.assertEquals(Arrays.asList(1L, 2L, 4L, 3L, 5L), snapshot.getChildOrgIds(IamOrg.VIRTUAL_ROOT_ID));
+    }
+
+    @Test
+    public void testIncrementalRefresh() {
+        AtomicInteger loadCount = new AtomicInteger();
+        OrgHierarchyIndex index = new OrgHierarchyIndex(tenantId -> {
+            loadCount.incrementAndGet();
+            return buildTree(tenantId);
+        });
+        OrgHierarchyIndex.Snapshot original = index.getSnapshot(0L);
+        // 无事务时立即增量刷新：新增4的下级6
+        index.refreshOnCommit(6L, org(6L, 4L, 0L, 50L));
+        OrgHierarchyIndex.Snapshot added = index.getSnapshot(0L);
+        Assert.assertNotSame(original, added);
+        Assert.assertEquals(Arrays.asList(4L, 6L), added.getChildOrgIds(2L));
+        Assert.assertEquals(Arrays.asList(4L, 2L, 1L), added.getParentOrgIds(6L));
+        // 原快照不变
+        Assert.assertEquals(Collections.singletonList(4L), original.getChildOrgIds(2L));
+        // 移动3到2下，同级按sortId降序排在4之前
+        index.refreshOnCommit(3L, org(3L, 2L, 0L, 80L));
+        Assert.assertEquals(Arrays.asList(3L, 5L, 4L, 6L), index.getSnapshot(0L).getChildOrgIds(2L));
+        // 删除4（无登录用户时为默认租户），其下级6保留在索引中，但不再属于2的下级
+        index.refreshOnCommit(4L, null);
+        OrgHierarchyIndex.Snapshot deleted = index.getSnapshot(0L);
+        Assert.assertNull(deleted.getOrg(4L));
+        Assert.assertEquals(Arrays.asList(3L, 5L), deleted.getChildOrgIds(2L));
+        Assert.assertTrue(deleted.getChildOrgIds(IamOrg.VIRTUAL_ROOT_ID).contains(1L));
+        Assert.assertEquals(Collections.singletonList(4L), deleted.getParentOrgIds(6L));
+        Assert.assertNotNull(deleted.getOrg(6L));
+        Assert.assertTrue(deleted.getChildOrgIds(6L).isEmpty());
+        // 增量刷新不重新加载
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void testTenantIsolation() {
+        Map<Long, AtomicInteger> tenantId2LoadCount = new HashMap<>();
+        OrgHierarchyIndex index = new OrgHierarchyIndex(tenantId -> {
+            tenantId2LoadCount.computeIfAbsent(tenantId, k -> new AtomicInteger()).incrementAndGet();
+            if (tenantId == 1L) {
+                return buildTree(tenantId);
+            }
+            return Collections.singletonList(org(100L, 0L, tenantId, 1L));
+        });
+        Assert.assertEquals(Arrays.asList(1L, 2L, 4L, 3L, 5L), index.getSnapshot(1L).getChildOrgIds(IamOrg.VIRTUAL_ROOT_ID));
+        Assert.assertEquals(Collections.singletonList(100L), index.getSnapshot(2L).getChildOrgIds(IamOrg.VIRTUAL_ROOT_ID));
+        // 其他租户的变更不影响本租户
+        index.refreshOnCommit(101L, org(101L, 100L, 2L, 1L));
+        Assert.assertEquals(Arrays.asList(100L, 101L), index.getSnapshot(2L).getChildOrgIds(IamOrg.VIRTUAL_ROOT_ID));
+        Assert.assertNull(index.getSnapshot(1L).getOrg(101L));
+        // 本地快照复用，不重复加载
+        for (int i = 0; i < 10; i++) {
+            index.getSnapshot(1L);
+            index.getSnapshot(2L);
+        }
+        Assert.assertEquals(1, tenantId2LoadCount.get(1L).get());
+        Assert.assertEquals(1, tenantId2LoadCount.get(2L).get());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.iam.test.log;
+
+import com.diboot.iam.annotation.process.BatchLogQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 日志批量写入队列测试
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class BatchLogQueueTest {
+
+    @Test
+    public void testFallbackToSingleWrites(){
+        List<String> written = new CopyOnWriteArrayList<>();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        // 含异常数据的批次整体失败（同事务回滚）
+        ExecutorService flushExecutor = Executors.newSingleThreadExecutor();
+        BatchLogQueue<String> queue = new BatchLogQueue<>("test", 100, 10, 1000L, BatchLogQueue.OverflowPolicy.DROP, 0L, flushExecutor, batch -> {
+            batchSizes.add(batch.size());
+            if(batch.contains("bad")){
+                throw new IllegalArgumentException("invalid log");
+            }
+            written.addAll(batch);
+        });
+        for(String item : Arrays.asList("log1", "log2", "bad", "log3", "log4")){
+            Assert.assertTrue(queue.offer(item));
+        }
+        queue.shutdown(5000L);
+        flushExecutor.shutdown();
+        // 仅丢弃异常的单条日志
+        Assert.assertEquals(Arrays.asList("log1", "log2", "log3", "log4"), written);
+        Assert.assertEquals(4, queue.getWrittenCount());
+        Assert.assertEquals(1, queue.getFailedCount());
+        Assert.assertEquals(5, batchSizes.get(0).intValue());
+        Assert.assertEquals(6, batchSizes.size());
+    }
+
+}
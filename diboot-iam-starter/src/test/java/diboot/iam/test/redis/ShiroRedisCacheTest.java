@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.iam.test.redis;
+
+import com.diboot.core.cache.CacheInvalidationChannel;
+import com.diboot.core.cache.CacheInvalidationMessage;
+import com.diboot.core.cache.CacheStatsCounter;
+import com.diboot.iam.redis.ShiroRedisCache;
+import com.diboot.iam.redis.ShiroRedisCacheManager;
+import org.apache.shiro.cache.Cache;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisNode;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * ShiroRedisCache测试（基于内存模拟的Redis）
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class ShiroRedisCacheTest {
+    /**
+     * key-过期秒数
+     */
+    private final Map<String, Long> expireMap = new ConcurrentHashMap<>();
+    /**
+     * 从Redis读取代际的次数
+     */
+    private final AtomicInteger generationReadCount = new AtomicInteger();
+
+    @Test
+    public void testClearVisibleToOtherNodes(){
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        RedisTemplate redisTemplate = mockRedisTemplate(store, false);
+        // 两个节点的同名缓存（代际不做本地缓存）
+        ShiroRedisCache<String, String> node1Cache = newCache("test.clearCache", redisTemplate, 0);
+        ShiroRedisCache<String, String> node2Cache = newCache("test.clearCache", redisTemplate, 0);
+        node1Cache.put("user1", "perms-v1");
+        Assert.assertEquals("perms-v1", node2Cache.get("user1"));
+        // 其他节点clear后立即不可见
+        node2Cache.clear();
+        Assert.assertNull(node1Cache.get("user1"));
+        Assert.assertEquals(0, node1Cache.size());
+        node1Cache.put("user1", "perms-v2");
+        Assert.assertEquals("perms-v2", node2Cache.get("user1"));
+    }
+
+    @Test
+    public void testGenerationCachedLocally() throws Exception{
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        RedisTemplate redisTemplate = mockRedisTemplate(store, false);
+        ShiroRedisCache<String, String> node1Cache = newCache("test.localGenCache", redisTemplate, 200);
+        ShiroRedisCache<String, String> node2Cache = newCache("test.localGenCache", redisTemplate, 200);
+        node1Cache.put("user1", "perms-v1");
+        Assert.assertEquals("perms-v1", node2Cache.get("user1"));
+        generationReadCount.set(0);
+        // 检查间隔内的读写不再读取代际
+        for(int i=0; i<10; i++){
+            Assert.assertEquals("perms-v1", node1Cache.get("user1"));
+        }
+        Assert.assertEquals(0, generationReadCount.get());
+        // 本节点clear后立即生效
+        node1Cache.clear();
+        Assert.assertNull(node1Cache.get("user1"));
+        node1Cache.put("user1", "perms-v2");
+        // 其他节点在检查间隔后生效
+        Assert.assertEquals("perms-v1", node2Cache.get("user1"));
+        Thread.sleep(250);
+        Assert.assertEquals("perms-v2", node2Cache.get("user1"));
+        Assert.assertEquals(1, generationReadCount.get());
+        // 失效本地代际后立即重新读取
+        node1Cache.clear();
+        node2Cache.invalidateGeneration();
+        Assert.assertNull(node2Cache.get("user1"));
+    }
+
+    @Test
+    public void testClearNotifiedToOtherNodes(){
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        RedisTemplate redisTemplate = mockRedisTemplate(store, false);
+        CacheInvalidationChannel channel = new InMemoryInvalidationChannel();
+        // 两个节点的缓存管理器，代际检查间隔足够长，仅依赖通知生效
+        ShiroRedisCacheManager node1Manager = new ShiroRedisCacheManager(redisTemplate, 60, 60000, channel);
+        ShiroRedisCacheManager node2Manager = new ShiroRedisCacheManager(redisTemplate, 60, 60000, channel);
+        Cache<String, String> node1Cache = node1Manager.getCache("test.notifyCache");
+        Cache<String, String> node2Cache = node2Manager.getCache("test.notifyCache");
+        node1Cache.put("user1", "perms-v1");
+        Assert.assertEquals("perms-v1", node2Cache.get("user1"));
+        generationReadCount.set(0);
+        node2Cache.clear();
+        Assert.assertNull(node1Cache.get("user1"));
+        Assert.assertNull(node2Cache.get("user1"));
+        // 仅收到通知的节点重新读取一次代际
+        Assert.assertEquals(1, generationReadCount.get());
+        // 其他缓存管理器的通知（带key）不影响
+        channel.publish(new CacheInvalidationMessage().setSourceId("other").setCacheName("test.notifyCache").setKey("user1"));
+        node1Cache.get("user1");
+        Assert.assertEquals(1, generationReadCount.get());
+    }
+
+    @Test
+    public void testPurgeStaleKeys() throws Exception{
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        // 升级前格式的遗留key（带token有效期内的过期时间）
+        putWithExpire(store, "test.purgeCache:legacyToken", "legacy", 1800L);
+        putWithExpire(store, "test.purgeCache:IamUser:1", "legacy", 3600L);
+        // 同前缀下非本缓存写入的key：未设置过期时间 / 过期时间超出token有效期
+        store.put("test.purgeCache:config", "foreign");
+        putWithExpire(store, "test.purgeCache:longLived", "foreign", 7200L);
+        RedisTemplate redisTemplate = mockRedisTemplate(store, false);
+        ShiroRedisCache<String, String> cache = new ShiroRedisCache<>("test.purgeCache", redisTemplate, 60);
+        waitUntil(() -> !store.containsKey("test.purgeCache:legacyToken") && !store.containsKey("test.purgeCache:IamUser:1"));
+        Assert.assertTrue(store.containsKey("test.purgeCache:config"));
+        Assert.assertTrue(store.containsKey("test.purgeCache:longLived"));
+        cache.put("user1", "v1");
+        cache.put("user2", "v2");
+        cache.clear();
+        // 旧代际的key后台删除，代际计数及非本缓存的key保留
+        waitUntil(() -> store.keySet().stream().noneMatch(key -> key.startsWith("test.purgeCache:0:")));
+        Assert.assertEquals(new HashSet<>(Arrays.asList("test.purgeCache:generation", "test.purgeCache:config", "test.purgeCache:longLived")), store.keySet());
+        cache.put("user1", "v3");
+        Assert.assertEquals("v3", cache.get("user1"));
+    }
+
+    @Test
+    public void testScanInClusterMode(){
+        Map<String, Object> store = new ConcurrentHashMap<>();
+        RedisTemplate redisTemplate = mockRedisTemplate(store, true);
+        ShiroRedisCache<String, String> cache = new ShiroRedisCache<>("test.clusterCache", redisTemplate, 60);
+        for(int i=0; i<10; i++){
+            cache.put("user" + i, "v" + i);
+        }
+        Assert.assertEquals(10, cache.size());
+        Assert.assertEquals(10, cache.keys().size());
+        Assert.assertTrue(cache.keys().contains("user3"));
+        Assert.assertEquals(10, cache.values().size());
+    }
+
+    private ShiroRedisCache<String, String> newCache(String cacheName, RedisTemplate redisTemplate, long generationCheckMillis){
+        return new ShiroRedisCache<>(cacheName, redisTemplate, 60, new CacheStatsCounter(), generationCheckMillis, null, null);
+    }
+
+    private void putWithExpire(Map<String, Object> store, String key, Object value, Long expireSeconds){
+        store.put(key, value);
+        expireMap.put(key, expireSeconds);
+    }
+
+    /**
+     * 基于内存Map模拟RedisTemplate
+     * @param store
+     * @param cluster 是否为集群模式：两个主节点按key哈希分布，不支持全局SCAN
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private RedisTemplate mockRedisTemplate(Map<String, Object> store, boolean cluster){
+        ValueOperations valueOperations = Mockito.mock(ValueOperations.class);
+        Mockito.when(valueOperations.get(any())).thenAnswer(invocation -> store.get((String) invocation.getArgument(0)));
+        Mockito.doAnswer(invocation -> {
+            TimeUnit unit = invocation.getArgument(3);
+            putWithExpire(store, invocation.getArgument(0), invocation.getArgument(1), unit.toSeconds(invocation.getArgument(2)));
+            return null;
+        }).when(valueOperations).set(anyString(), any(), anyLong(), any());
+        Mockito.when(valueOperations.multiGet(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            return keys.stream().map(store::get).collect(Collectors.toList());
+        });
+
+        RedisConnection connection;
+        if(cluster){
+            RedisClusterConnection clusterConnection = Mockito.mock(RedisClusterConnection.class);
+            List<RedisClusterNode> nodes = Arrays.asList(buildNode(7000, RedisNode.NodeType.MASTER),
+                    buildNode(7001, RedisNode.NodeType.MASTER), buildNode(7002, RedisNode.NodeType.SLAVE));
+            Mockito.when(clusterConnection.clusterGetNodes()).thenReturn(nodes);
+            Mockito.when(clusterConnection.scan(any(RedisClusterNode.class), any(ScanOptions.class))).thenAnswer(invocation -> {
+                RedisClusterNode node = invocation.getArgument(0);
+                int nodeIndex = nodes.indexOf(node);
+                return scan(store, invocation.getArgument(1), key -> Math.abs(key.hashCode() % 2) == nodeIndex);
+            });
+            Mockito.when(clusterConnection.scan(any(ScanOptions.class))).thenThrow(new UnsupportedOperationException("Scan is not supported across multiple nodes within a cluster"));
+            connection = clusterConnection;
+        }
+        else{
+            connection = Mockito.mock(RedisConnection.class);
+            Mockito.when(connection.scan(any(ScanOptions.class))).thenAnswer(invocation -> scan(store, invocation.getArgument(0), key -> true));
+        }
+        Mockito.when(connection.get(any(byte[].class))).thenAnswer(invocation -> {
+            generationReadCount.incrementAndGet();
+            Object value = store.get(new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8));
+            return value != null? value.toString().getBytes(StandardCharsets.UTF_8) : null;
+        });
+        Mockito.when(connection.incr(any(byte[].class))).thenAnswer(invocation -> {
+            String key = new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8);
+            return (Long) store.merge(key, 1L, (oldValue, one) -> Long.parseLong(oldValue.toString()) + 1);
+        });
+
+        RedisTemplate redisTemplate = Mockito.mock(RedisTemplate.class);
+        Mockito.when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        Mockito.when(redisTemplate.execute(any(RedisCallback.class))).thenAnswer(invocation ->
+                ((RedisCallback) invocation.getArgument(0)).doInRedis(connection));
+        Mockito.when(redisTemplate.getExpire(anyString(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            return store.containsKey(key)? expireMap.getOrDefault(key, -1L) : -2L;
+        });
+        Mockito.when(redisTemplate.unlink(anyString())).thenAnswer(invocation -> store.remove((String) invocation.getArgument(0)) != null);
+        Mockito.when(redisTemplate.unlink(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            return keys.stream().filter(key -> store.remove(key) != null).count();
+        });
+        return redisTemplate;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cursor<byte[]> scan(Map<String, Object> store, ScanOptions options, Predicate<String> nodeFilter){
+        String prefix = options.getPattern().substring(0, options.getPattern().length() - 1);
+        Iterator<byte[]> iterator = new ArrayList<>(store.keySet()).stream()
+                .filter(key -> key.startsWith(prefix) && nodeFilter.test(key))
+                .map(key -> key.getBytes(StandardCharsets.UTF_8))
+                .collect(Collectors.toList()).iterator();
+        Cursor<byte[]> cursor = Mockito.mock(Cursor.class);
+        Mockito.when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        Mockito.when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+
+    private RedisClusterNode buildNode(int port, RedisNode.NodeType nodeType){
+        return RedisClusterNode.newRedisClusterNode().listeningAt("127.0.0.1", port).withId("node" + port).promotedAs(nodeType).build();
+    }
+
+    /**
+     * 内存中的失效通知通道（同步分发）
+     */
+    private static class InMemoryInvalidationChannel implements CacheInvalidationChannel {
+        private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(CacheInvalidationMessage message) {
+            listeners.forEach(listener -> listener.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<CacheInvalidationMessage> listener) {
+            listeners.add(listener);
+        }
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException{
+        long deadline = System.currentTimeMillis() + 5000;
+        while(!condition.getAsBoolean() && System.currentTimeMillis() < deadline){
+            Thread.sleep(20);
+        }
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.iam.test.shiro;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.diboot.iam.entity.IamRole;
+import com.diboot.iam.entity.IamUser;
+import com.diboot.iam.service.IamRoleResourceService;
+import com.diboot.iam.service.IamUserRoleService;
+import com.diboot.iam.shiro.IamAuthorizationInfo;
+import com.diboot.iam.shiro.IamAuthorizingRealm;
+import com.diboot.iam.shiro.PermissionSnapshot;
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.apache.shiro.authz.permission.WildcardPermission;
+import org.apache.shiro.authz.permission.WildcardPermissionResolver;
+import org.apache.shiro.cache.Cache;
+import org.apache.shiro.cache.MapCache;
+import org.apache.shiro.subject.PrincipalCollection;
+import org.apache.shiro.subject.SimplePrincipalCollection;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * 权限快照测试
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class PermissionSnapshotTest {
+
+    @Test
+    public void testImplies(){
+        Set<String> permissionCodes = new HashSet<>(Arrays.asList("user:read", "order:*", "*:export", "report:view,edit", "doc:read:1", "Dept:Update"));
+        PermissionSnapshot snapshot = new PermissionSnapshot("1", Collections.singleton("ADMIN"), permissionCodes, new WildcardPermissionResolver(), 0, 0);
+        List<String> checkPermissions = Arrays.asList("user:read", "user:write", "order:read", "order:read:1", "role:export", "report:view",
+                "report:edit", "report:delete", "report:view,edit", "doc:read", "doc:read:1", "doc:read:2", "dept:update", "user", "unknown:read");
+        // 与逐个WildcardPermission.implies的结果一致
+        for(String checkPermission : checkPermissions){
+            WildcardPermission permission = new WildcardPermission(checkPermission);
+            boolean expected = permissionCodes.stream().anyMatch(code -> new WildcardPermission(code).implies(permission));
+            Assert.assertEquals(checkPermission, expected, snapshot.implies(permission));
+        }
+    }
+
+    @Test
+    public void testSnapshotSetsUnmodifiable(){
+        PermissionSnapshot snapshot = new PermissionSnapshot("1", new HashSet<>(Collections.singleton("ADMIN")),
+                new HashSet<>(Collections.singleton("user:read")), new WildcardPermissionResolver(), 0, 0);
+        assertUnmodifiable(snapshot.getRoleCodes());
+        assertUnmodifiable(snapshot.getPermissionCodes());
+        IamAuthorizationInfo info = new IamAuthorizationInfo(snapshot);
+        assertUnmodifiable(info.getStringPermissions());
+        // 修改时脱离共享快照
+        info.addStringPermission("user:write");
+        Assert.assertEquals(2, info.getStringPermissions().size());
+        Assert.assertNull(info.getSnapshotKey());
+        Assert.assertEquals(Collections.singleton("user:read"), snapshot.getPermissionCodes());
+    }
+
+    @Test
+    public void testDeserializedInfoAttachedToSnapshot() throws Exception{
+        TestRealm realm = new TestRealm(Collections.singletonList("user:read"));
+        JsonRoundTripCache cache = new JsonRoundTripCache();
+        realm.setAuthorizationCache(cache);
+        PrincipalCollection principals = buildPrincipals();
+        Assert.assertTrue(realm.isPermitted(principals, "user:read"));
+        // 第二次读取为反序列化的授权信息，重新关联本地快照
+        Assert.assertTrue(realm.isPermitted(principals, "user:read"));
+        Assert.assertFalse(realm.isPermitted(principals, "user:write"));
+        IamAuthorizationInfo info = (IamAuthorizationInfo) cache.lastReturned;
+        Assert.assertNotNull(info.getSnapshotKey());
+        assertUnmodifiable(info.getRoles());
+        assertUnmodifiable(info.getStringPermissions());
+        Assert.assertEquals(1, realm.permissionQueryCount);
+    }
+
+    @Test
+    public void testInvalidation() throws Exception{
+        TestRealm realm = new TestRealm(Collections.singletonList("user:read"));
+        PrincipalCollection principals = buildPrincipals();
+        Assert.assertTrue(realm.isPermitted(principals, "user:read"));
+        // 相同角色组合复用快照，权限变更在清空快照前不生效
+        realm.permissionCodes = Collections.singletonList("user:write");
+        Assert.assertTrue(realm.isPermitted(principals, "user:read"));
+        Assert.assertEquals(1, realm.permissionQueryCount);
+        realm.clearPermissionSnapshots();
+        Assert.assertFalse(realm.isPermitted(principals, "user:read"));
+        Assert.assertTrue(realm.isPermitted(principals, "user:write"));
+        Assert.assertEquals(2, realm.permissionQueryCount);
+
+        // 快照的代际变化后失效
+        PermissionSnapshot snapshot = new PermissionSnapshot("1", Collections.singleton("ADMIN"), Collections.singleton("user:read"), new WildcardPermissionResolver(), 1, 2);
+        Assert.assertTrue(snapshot.isValid(1, 2, 60000));
+        Assert.assertFalse(snapshot.isValid(2, 2, 60000));
+        Assert.assertFalse(snapshot.isValid(1, 3, 60000));
+        Assert.assertFalse(snapshot.isValid(1, 2, -1));
+    }
+
+    private static void assertUnmodifiable(Set<String> set){
+        try{
+            set.add("new");
+            Assert.fail("集合应不可修改");
+        }
+        catch (UnsupportedOperationException e){
+            // 预期异常
+        }
+    }
+
+    private static PrincipalCollection buildPrincipals(){
+        IamUser user = new IamUser();
+        user.setId(1L);
+        return new SimplePrincipalCollection(user, "test");
+    }
+
+    /**
+     * 基于模拟Service的realm
+     */
+    private static class TestRealm extends IamAuthorizingRealm {
+        private volatile List<String> permissionCodes;
+        private volatile int permissionQueryCount;
+
+        TestRealm(List<String> permissionCodes) throws Exception{
+            this.permissionCodes = permissionCodes;
+            IamRole role = new IamRole();
+            role.setId(1L);
+            role.setCode("ADMIN");
+            IamUserRoleService iamUserRoleService = Mockito.mock(IamUserRoleService.class);
+            Mockito.when(iamUserRoleService.getUserRoleList(anyString(), anyLong(), any())).thenReturn(Collections.singletonList(role));
+            IamRoleResourceService iamRoleResourceService = Mockito.mock(IamRoleResourceService.class);
+            Mockito.when(iamRoleResourceService.getPermissionCodeList(anyString(), anyList())).thenAnswer(invocation -> {
+                permissionQueryCount++;
+                return this.permissionCodes;
+            });
+            setField("iamUserRoleService", iamUserRoleService);
+            setField("iamRoleResourceService", iamRoleResourceService);
+        }
+
+        private void setField(String fieldName, Object value) throws Exception{
+            Field field = IamAuthorizingRealm.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(this, value);
+        }
+    }
+
+    /**
+     * 读写时经过Jackson序列化的缓存（同Redis缓存的序列化配置）
+     */
+    private static class JsonRoundTripCache extends MapCache<Object, AuthorizationInfo> {
+        private final ObjectMapper objectMapper;
+        private volatile AuthorizationInfo lastReturned;
+
+        JsonRoundTripCache(){
+            super("authorizationCache", new ConcurrentHashMap<>());
+            objectMapper = new ObjectMapper();
+            objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+            objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+            objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
+            objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        }
+
+        @Override
+        public AuthorizationInfo get(Object key){
+            AuthorizationInfo info = super.get(key);
+            if(info == null){
+                return null;
+            }
+            try{
+                lastReturned = (AuthorizationInfo) objectMapper.readValue(objectMapper.writeValueAsString(info), Object.class);
+            }
+            catch (Exception e){
+                throw new IllegalStateException(e);
+            }
+            return lastReturned;
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.iam.test.shiro;
+
+import com.diboot.core.cache.BaseCacheManager;
+import com.diboot.core.cache.DynamicMemoryCacheManager;
+import com.diboot.core.util.ContextHelper;
+import com.diboot.iam.config.Cons;
+import com.diboot.iam.shiro.TokenInfo;
+import com.diboot.iam.util.TokenUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Token刷新及移除测试
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class TokenUtilsTest {
+
+    private static GenericApplicationContext applicationContext;
+
+    @BeforeClass
+    public static void setUp(){
+        applicationContext = new GenericApplicationContext();
+        applicationContext.registerBean(BaseCacheManager.class, () -> new DynamicMemoryCacheManager(60, Cons.CACHE_TOKEN_USERINFO));
+        applicationContext.refresh();
+        new ContextHelper().setApplicationContext(applicationContext);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception{
+        Field field = ContextHelper.class.getDeclaredField("APPLICATION_CONTEXT");
+        field.setAccessible(true);
+        field.set(null, null);
+        applicationContext.close();
+    }
+
+    @Test
+    public void testExpiry(){
+        TokenInfo tokenInfo = new TokenInfo(0L, "admin", "IamUser", "PWD", 60, 0L);
+        Assert.assertEquals(3600000L, tokenInfo.getExpiresAt());
+        Assert.assertFalse(tokenInfo.isExpired(0L));
+        Assert.assertFalse(tokenInfo.isExpired(3600000L));
+        Assert.assertTrue(tokenInfo.isExpired(3600001L));
+        // 剩余有效期不足1/5时临近过期
+        Assert.assertFalse(tokenInfo.isCloseToExpired(0L));
+        Assert.assertFalse(tokenInfo.isCloseToExpired(2800000L));
+        Assert.assertTrue(tokenInfo.isCloseToExpired(2880000L));
+        Assert.assertTrue(tokenInfo.isCloseToExpired(3599999L));
+        // 已过期的不再刷新
+        Assert.assertFalse(tokenInfo.isCloseToExpired(3600000L));
+        Assert.assertFalse(tokenInfo.isCloseToExpired(3700000L));
+        // 与逗号拼接的用户信息字符串互转
+        TokenInfo parsed = TokenInfo.parse(tokenInfo.toUserInfoStr());
+        Assert.assertEquals(tokenInfo.getExpiresAt(), parsed.getExpiresAt());
+        Assert.assertEquals("admin", parsed.getAuthAccount());
+    }
+
+    @Test
+    public void testConcurrentRefresh() throws Exception{
+        String accessToken = TokenUtils.generateToken();
+        TokenInfo tokenInfo = closeToExpired();
+        TokenUtils.cacheAccessToken(accessToken, tokenInfo);
+        int threads = 16;
+        Set<String> refreshTokens = ConcurrentHashMap.newKeySet();
+        HttpServletResponse response = mockResponse(refreshTokens);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for(int i=0; i<threads; i++){
+            futures.add(executor.submit(() -> {
+                start.await();
+                TokenUtils.responseNewTokenIfRequired(response, accessToken, tokenInfo);
+                return null;
+            }));
+        }
+        start.countDown();
+        for(Future<?> future : futures){
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        // 并发请求共用同一个刷新token
+        Assert.assertEquals(1, refreshTokens.size());
+        String refreshToken = refreshTokens.iterator().next();
+        Assert.assertEquals(refreshToken, TokenUtils.getCachedTokenInfo(accessToken).getRefreshedToken());
+        TokenInfo refreshedInfo = TokenUtils.getCachedTokenInfo(refreshToken);
+        Assert.assertEquals(accessToken, refreshedInfo.getOriginToken());
+        Assert.assertFalse(refreshedInfo.isCloseToExpired(System.currentTimeMillis()));
+        // 请求时携带的是刷新前的token信息（如其他节点），仍复用共享缓存中记录的刷新token
+        TokenUtils.responseNewTokenIfRequired(response, accessToken, tokenInfo);
+        Assert.assertEquals(1, refreshTokens.size());
+        // 共享缓存中的原token信息有效期不变
+        Assert.assertEquals(tokenInfo.getExpiresAt(), TokenUtils.getCachedTokenInfo(accessToken).getExpiresAt());
+        Assert.assertNull(tokenInfo.getRefreshedToken());
+    }
+
+    @Test
+    public void testRemoveRefreshChain(){
+        Set<String> refreshTokens = new LinkedHashSet<>();
+        HttpServletResponse response = mockResponse(refreshTokens);
+        // token1 -> token2 -> token3
+        String token1 = TokenUtils.generateToken();
+        TokenUtils.cacheAccessToken(token1, closeToExpired());
+        TokenUtils.responseNewTokenIfRequired(response, token1, TokenUtils.getCachedTokenInfo(token1));
+        String token2 = refreshTokens.iterator().next();
+        TokenInfo token2Info = TokenUtils.getCachedTokenInfo(token2).copy();
+        token2Info.setIssuedAt(token2Info.getIssuedAt() - 55 * 60000L).setExpiresAt(token2Info.getExpiresAt() - 55 * 60000L);
+        TokenUtils.responseNewTokenIfRequired(response, token2, token2Info);
+        Assert.assertEquals(2, refreshTokens.size());
+        String token3 = new ArrayList<>(refreshTokens).get(1);
+        String otherToken = TokenUtils.generateToken();
+        TokenUtils.cacheAccessToken(otherToken, closeToExpired());
+
+        // 从链中间的token退出，前后的token均移除
+        TokenUtils.removeAccessTokens(token2);
+        Assert.assertNull(TokenUtils.getCachedTokenInfo(token1));
+        Assert.assertNull(TokenUtils.getCachedTokenInfo(token2));
+        Assert.assertNull(TokenUtils.getCachedTokenInfo(token3));
+        Assert.assertNotNull(TokenUtils.getCachedTokenInfo(otherToken));
+        TokenUtils.removeAccessTokens(otherToken);
+        Assert.assertNull(TokenUtils.getCachedTokenInfo(otherToken));
+    }
+
+    /**
+     * 60分钟有效期，已过去55分钟
+     * @return
+     */
+    private static TokenInfo closeToExpired(){
+        return new TokenInfo(0L, "admin", "IamUser", "PWD", 60, System.currentTimeMillis() - 55 * 60000L);
+    }
+
+    private static HttpServletResponse mockResponse(Set<String> refreshTokens){
+        HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        Mockito.doAnswer(invocation -> refreshTokens.add(invocation.getArgument(1)))
+                .when(response).setHeader(anyString(), anyString());
+        return response;
+    }
+}
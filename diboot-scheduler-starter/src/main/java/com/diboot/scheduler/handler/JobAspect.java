@@ -62,13 +62,16 @@ public class JobAspect {
     @Around(value = "pointCut()")
     public void afterHandler(ProceedingJoinPoint joinPoint) {
         ScheduleJobLog jobLog = new ScheduleJobLog();
-        jobLog.setJobId(Long.valueOf(((JobExecutionContext) joinPoint.getArgs()[0]).getJobDetail().getKey().getName()));
+        JobExecutionContext context = (JobExecutionContext) joinPoint.getArgs()[0];
+        jobLog.setJobId(Long.valueOf(context.getJobDetail().getKey().getName()));
         try {
             jobLog.setStartTime(new Date());
             joinPoint.proceed(joinPoint.getArgs());
             jobLog.setEndTime(new Date());
             long seconds = (jobLog.getEndTime().getTime() - jobLog.getStartTime().getTime()) / 1000;
-            jobLog.setElapsedSeconds(seconds).setRunStatus(Cons.RESULT_STATUS.S.name()).setExecuteMsg("执行成功");
+            // job通过context.setResult()记录的执行结果
+            String executeMsg = context.getResult() != null? S.cut(context.getResult().toString(), MAX_LENGTH) : "执行成功";
+            jobLog.setElapsedSeconds(seconds).setRunStatus(Cons.RESULT_STATUS.S.name()).setExecuteMsg(executeMsg);
         } catch (Throwable throwable) {
             log.error("定时任务执行异常", throwable);
             // 处理异常返回结果
@@ -80,6 +83,11 @@ public class JobAspect {
             errorMsg = S.cut(Status.FAIL_EXCEPTION.code() + ":" + errorMsg, MAX_LENGTH);
             jobLog.setRunStatus(Cons.RESULT_STATUS.F.name()).setExecuteMsg(errorMsg);
         }
+        // job记录的处理数据条数
+        Object dataCount = context.get(Cons.JOB_CONTEXT_KEY_DATA_COUNT);
+        if (dataCount instanceof Number) {
+            jobLog.setDataCount(((Number) dataCount).intValue());
+        }
         // 异步保存日志
         schedulerAsyncWorker.saveScheduleJobLog(jobLog);
     }
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.scheduler.job;
+
+import com.diboot.scheduler.annotation.CollectThisJob;
+import org.quartz.DisallowConcurrentExecution;
+
+/**
+ * 清除过期数据Job定义（通用，通过参数指定表，如schedule_job_log、iam_login_trace、message等）
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@DisallowConcurrentExecution
+@CollectThisJob(name = "清除过期数据", paramJson = "{\"table\":\"iam_login_trace\",\"daysBefore\":90,\"batchSize\":1000,\"sleepMillis\":100}", cron = "0 30 1 * * ?")
+public class ClearExpiredDataJob extends DataRetentionJob {
+
+    @Override
+    protected String getDefaultTable() {
+        return null;
+    }
+
+}
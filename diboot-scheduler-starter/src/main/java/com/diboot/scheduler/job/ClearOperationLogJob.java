@@ -15,54 +15,30 @@
  */
 package com.diboot.scheduler.job;
 
-import com.diboot.core.util.D;
-import com.diboot.core.util.SqlExecutor;
 import com.diboot.scheduler.annotation.CollectThisJob;
-import lombok.extern.slf4j.Slf4j;
 import org.quartz.DisallowConcurrentExecution;
-import org.quartz.JobDataMap;
-import org.quartz.JobExecutionContext;
-import org.quartz.JobExecutionException;
-import org.springframework.scheduling.quartz.QuartzJobBean;
-
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
 
 /**
  * 清除过期操作日志Job定义
+ * <p>
+ * 分批删除，参数同{@link DataRetentionJob}
+ * </p>
  * @author JerryMa
  * @version 2.2.0
  * @date 2020-11-26
  * Copyright © dibo.ltd
  */
-@Slf4j
 @DisallowConcurrentExecution
 @CollectThisJob(name = "清除过期操作日志", paramJson = "{\"daysBefore\":30}", cron = "0 0 1 * * ?")
-public class ClearOperationLogJob extends QuartzJobBean {
+public class ClearOperationLogJob extends DataRetentionJob {
     /**
-     * 清理过期日志的SQL示例
+     * 操作日志表
      */
-    private static final String SQL = "DELETE FROM iam_operation_log WHERE create_time <= ?";
-    private static final String PARAM_KEY_DAYS_BEFORE = "daysBefore";
+    private static final String TABLE = "iam_operation_log";
 
     @Override
-    protected void executeInternal(JobExecutionContext jobExecutionContext) throws JobExecutionException {
-        // 获取参数
-        JobDataMap jobDataMap = jobExecutionContext.getJobDetail().getJobDataMap();
-        int days = 30;
-        if (jobDataMap.containsKey(PARAM_KEY_DAYS_BEFORE)) {
-            days = jobDataMap.getInt(PARAM_KEY_DAYS_BEFORE);
-        }
-        List<Object> params = new ArrayList<>(1);
-        params.add(D.getDate(new Date(), -days));
-        try {
-            SqlExecutor.executeUpdate(SQL, params);
-        } catch (Exception e) {
-            log.error("ClearOperationLogJob执行异常", e);
-            throw new JobExecutionException(e);
-        }
-        log.info("ClearOperationLogJob成功清理{}天之前的操作日志", days);
+    protected String getDefaultTable() {
+        return TABLE;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.diboot.scheduler.job;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.extension.plugins.pagination.DialectFactory;
+import com.baomidou.mybatisplus.extension.plugins.pagination.DialectModel;
+import com.baomidou.mybatisplus.extension.toolkit.JdbcUtils;
+import com.diboot.core.config.Cons;
+import com.diboot.core.util.ContextHelper;
+import com.diboot.core.util.D;
+import com.diboot.core.util.JSON;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 过期数据分批清理Job基类
+ * <p>
+ * 按主键顺序每次查询一批过期记录的id（按数据库方言分页，如MySQL的LIMIT、Oracle/达梦的ROWNUM），逐批提交删除（每批独立事务，避免长事务锁表及undo/WAL膨胀），批次间可休眠限流；
+ * 可选在删除前将整行数据归档到gzip压缩的JSON Lines文件（每批写为一个完整的gzip成员并同步落盘后再删除，文件可被标准gzip工具连续解压）；执行进度写入JobExecutionContext的result，由JobAspect记录到执行日志
+ * </p>
+ * 参数：table 表名，idColumn 主键列（默认id），timeColumn 时间列（默认create_time），daysBefore 保留天数（默认30），
+ * batchSize 每批条数（默认1000），sleepMillis 批次间休眠毫秒数（默认100），maxSeconds 单次执行最长秒数（默认0不限制），
+ * archiveDir 归档目录（为空不归档）
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+@Slf4j
+public abstract class DataRetentionJob extends QuartzJobBean {
+    public static final String PARAM_KEY_TABLE = "table";
+    public static final String PARAM_KEY_ID_COLUMN = "idColumn";
+    public static final String PARAM_KEY_TIME_COLUMN = "timeColumn";
+    public static final String PARAM_KEY_DAYS_BEFORE = "daysBefore";
+    public static final String PARAM_KEY_BATCH_SIZE = "batchSize";
+    public static final String PARAM_KEY_SLEEP_MILLIS = "sleepMillis";
+    public static final String PARAM_KEY_MAX_SECONDS = "maxSeconds";
+    public static final String PARAM_KEY_ARCHIVE_DIR = "archiveDir";
+
+    /**
+     * 表名及列名的合法格式
+     */
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("^[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?$");
+    /**
+     * 分页方言附加的行号列，归档时排除
+     */
+    private static final Set<String> PAGINATION_COLUMNS = new HashSet<>(Arrays.asList("ROW_ID", "__ROW_NUMBER__"));
+    private static final String PARAM_EXPIRE_TIME = "expireTime";
+    private static final String PARAM_LAST_ID = "lastId";
+
+    /**
+     * 默认清理的表，为空时需通过参数指定
+     * @return
+     */
+    protected abstract String getDefaultTable();
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        JobDataMap jobDataMap = context.getMergedJobDataMap();
+        String table = getString(jobDataMap, PARAM_KEY_TABLE, getDefaultTable());
+        String idColumn = getString(jobDataMap, PARAM_KEY_ID_COLUMN, "id");
+        String timeColumn = getString(jobDataMap, PARAM_KEY_TIME_COLUMN, "create_time");
+        int days = getInt(jobDataMap, PARAM_KEY_DAYS_BEFORE, 30);
+        int batchSize = Math.max(1, getInt(jobDataMap, PARAM_KEY_BATCH_SIZE, 1000));
+        long sleepMillis = getInt(jobDataMap, PARAM_KEY_SLEEP_MILLIS, 100);
+        long maxSeconds = getInt(jobDataMap, PARAM_KEY_MAX_SECONDS, 0);
+        String archiveDir = getString(jobDataMap, PARAM_KEY_ARCHIVE_DIR, null);
+        for(String identifier : new String[]{table, idColumn, timeColumn}){
+            if(V.isEmpty(identifier) || !IDENTIFIER_PATTERN.matcher(identifier).matches()){
+                throw new JobExecutionException("无效的表名或列名: " + identifier);
+            }
+        }
+        SqlSessionFactory sqlSessionFactory = getSqlSessionFactory();
+        if(sqlSessionFactory == null){
+            throw new JobExecutionException("无法获取SqlSessionFactory实例");
+        }
+        // 同原清理逻辑，截止到N天前的0点
+        Timestamp expireTime = new Timestamp(D.truncate(D.addDays(new java.util.Date(), -days), Calendar.DATE).getTime());
+        String selectSql = "SELECT " + (archiveDir != null? "*" : idColumn) + " FROM " + table
+                + " WHERE " + timeColumn + " <= ? AND " + idColumn + " > ? ORDER BY " + idColumn;
+        long deadline = maxSeconds > 0? System.currentTimeMillis() + maxSeconds * 1000 : Long.MAX_VALUE;
+        long deletedCount = 0;
+        Object lastId = null;
+        FileOutputStream archiveOutput = null;
+        try(SqlSession session = sqlSessionFactory.openSession(true); Connection conn = session.getConnection()){
+            conn.setAutoCommit(true);
+            Configuration configuration = sqlSessionFactory.getConfiguration();
+            DbType dbType = JdbcUtils.getDbType(conn.getMetaData().getURL());
+            while(true){
+                List<Map<String, Object>> rows = selectBatch(conn, configuration, dbType, selectSql, expireTime, lastId, batchSize);
+                if(rows.isEmpty()){
+                    break;
+                }
+                List<Object> ids = new ArrayList<>(rows.size());
+                for(Map<String, Object> row : rows){
+                    ids.add(getColumnValue(row, idColumn));
+                }
+                if(archiveDir != null){
+                    if(archiveOutput == null){
+                        archiveOutput = openArchiveOutput(archiveDir, table);
+                    }
+                    archiveBatch(archiveOutput, rows);
+                }
+                deletedCount += deleteBatch(conn, table, idColumn, ids);
+                lastId = ids.get(ids.size() - 1);
+                // 记录进度检查点
+                context.put(Cons.JOB_CONTEXT_KEY_DATA_COUNT, (int) deletedCount);
+                context.setResult(buildProgressMsg(table, days, deletedCount, lastId));
+                log.debug("{} 已清理 {} 条，截至{}={}", table, deletedCount, idColumn, lastId);
+                if(rows.size() < batchSize){
+                    break;
+                }
+                if(System.currentTimeMillis() >= deadline){
+                    log.info("{} 清理达到单次执行时长上限 {} 秒，剩余数据下次继续", table, maxSeconds);
+                    break;
+                }
+                if(sleepMillis > 0){
+                    Thread.sleep(sleepMillis);
+                }
+            }
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            log.warn("{} 清理被中断，已清理 {} 条", table, deletedCount);
+        }
+        catch (Exception e){
+            log.error("{} 清理过期数据异常，已清理 {} 条", table, deletedCount, e);
+            throw new JobExecutionException(buildProgressMsg(table, days, deletedCount, lastId), e);
+        }
+        finally {
+            closeQuietly(archiveOutput);
+        }
+        context.put(Cons.JOB_CONTEXT_KEY_DATA_COUNT, (int) deletedCount);
+        context.setResult(buildProgressMsg(table, days, deletedCount, lastId));
+        log.info("成功清理 {} 中 {} 天之前的数据 {} 条", table, days, deletedCount);
+    }
+
+    /**
+     * 获取SqlSessionFactory
+     * @return
+     */
+    protected SqlSessionFactory getSqlSessionFactory(){
+        return ContextHelper.getBean(SqlSessionFactory.class);
+    }
+
+    /**
+     * 查询一批过期记录（按主键顺序，按数据库方言分页限制条数）
+     */
+    private List<Map<String, Object>> selectBatch(Connection conn, Configuration configuration, DbType dbType, String selectSql,
+                                                  Timestamp expireTime, Object lastId, int batchSize) throws SQLException {
+        String sql = lastId == null? S.replace(selectSql, " > ?", " IS NOT NULL") : selectSql;
+        List<ParameterMapping> parameterMappings = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        parameterMappings.add(new ParameterMapping.Builder(configuration, PARAM_EXPIRE_TIME, Object.class).build());
+        parameters.put(PARAM_EXPIRE_TIME, expireTime);
+        if(lastId != null){
+            parameterMappings.add(new ParameterMapping.Builder(configuration, PARAM_LAST_ID, Object.class).build());
+            parameters.put(PARAM_LAST_ID, lastId);
+        }
+        sql = buildPaginationSql(configuration, dbType, sql, batchSize, parameterMappings, parameters);
+        try(PreparedStatement stmt = conn.prepareStatement(sql)){
+            // 兜底限制条数（未识别方言时仅依赖maxRows）
+            stmt.setMaxRows(batchSize);
+            stmt.setFetchSize(batchSize);
+            for(int i=0; i<parameterMappings.size(); i++){
+                stmt.setObject(i+1, parameters.get(parameterMappings.get(i).getProperty()));
+            }
+            try(ResultSet rs = stmt.executeQuery()){
+                ResultSetMetaData meta = rs.getMetaData();
+                List<Map<String, Object>> rows = new ArrayList<>(batchSize);
+                while(rs.next()){
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for(int i=1; i<=meta.getColumnCount(); i++){
+                        String columnLabel = meta.getColumnLabel(i);
+                        if(!PAGINATION_COLUMNS.contains(columnLabel.toUpperCase())){
+                            row.put(columnLabel, rs.getObject(i));
+                        }
+                    }
+                    rows.add(row);
+                }
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * 按Mybatis-Plus分页方言生成取前N条的SQL，并追加分页参数；不支持的数据库返回原SQL
+     */
+    private String buildPaginationSql(Configuration configuration, DbType dbType, String sql, int batchSize,
+                                      List<ParameterMapping> parameterMappings, Map<String, Object> parameters){
+        if(dbType == null || dbType == DbType.OTHER){
+            return sql;
+        }
+        try{
+            DialectModel dialectModel = DialectFactory.getDialect(dbType).buildPaginationSql(sql, 0, batchSize);
+            dialectModel.consumers(parameterMappings, configuration, parameters);
+            return dialectModel.getDialectSql();
+        }
+        catch (Exception e){
+            log.debug("不支持数据库 {} 的分页方言，使用JDBC maxRows限制条数: {}", dbType, e.getMessage());
+            return sql;
+        }
+    }
+
+    /**
+     * 按id删除一批记录（自动提交，每批独立事务）
+     */
+    private int deleteBatch(Connection conn, String table, String idColumn, List<Object> ids) throws SQLException {
+        String sql = "DELETE FROM " + table + " WHERE " + idColumn + " IN (" + S.repeat("?", ",", ids.size()) + ")";
+        try(PreparedStatement stmt = conn.prepareStatement(sql)){
+            for(int i=0; i<ids.size(); i++){
+                stmt.setObject(i+1, ids.get(i));
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * 获取列值（列标签大小写因数据库而异）
+     */
+    private Object getColumnValue(Map<String, Object> row, String column){
+        if(row.containsKey(column)){
+            return row.get(column);
+        }
+        for(Map.Entry<String, Object> entry : row.entrySet()){
+            if(column.equalsIgnoreCase(entry.getKey())){
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private FileOutputStream openArchiveOutput(String archiveDir, String table) throws Exception {
+        File dir = new File(archiveDir);
+        if(!dir.exists() && !dir.mkdirs()){
+            throw new IllegalStateException("无法创建归档目录: " + archiveDir);
+        }
+        File file = new File(dir, table + "_" + D.convert2FormatString(new java.util.Date(), "yyyyMMddHHmmss") + ".jsonl.gz");
+        log.info("{} 过期数据将归档至: {}", table, file.getAbsolutePath());
+        return new FileOutputStream(file, true);
+    }
+
+    /**
+     * 将一批数据压缩为一个完整的gzip成员追加到归档文件，并同步到磁盘，确保删除前归档数据已持久化
+     */
+    private void archiveBatch(FileOutputStream archiveOutput, List<Map<String, Object>> rows) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try(BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(buffer), StandardCharsets.UTF_8))){
+            for(Map<String, Object> row : rows){
+                writer.write(JSON.stringify(row));
+                writer.newLine();
+            }
+        }
+        buffer.writeTo(archiveOutput);
+        archiveOutput.flush();
+        archiveOutput.getFD().sync();
+    }
+
+    private String buildProgressMsg(String table, int days, long deletedCount, Object lastId){
+        return "清理" + table + "中" + days + "天之前的数据" + deletedCount + "条" + (lastId != null? "，截至id: " + lastId : "");
+    }
+
+    private static String getString(JobDataMap jobDataMap, String key, String defaultValue){
+        Object value = jobDataMap.get(key);
+        return V.notEmpty(value)? value.toString() : defaultValue;
+    }
+
+    private static int getInt(JobDataMap jobDataMap, String key, int defaultValue){
+        Object value = jobDataMap.get(key);
+        if(value instanceof Number){
+            return ((Number) value).intValue();
+        }
+        return V.notEmpty(value)? Integer.parseInt(value.toString().trim()) : defaultValue;
+    }
+
+    private static void closeQuietly(FileOutputStream output){
+        if(output != null){
+            try{
+                output.close();
+            }
+            catch (Exception e){
+                log.warn("关闭归档文件异常: {}", e.getMessage());
+            }
+        }
+    }
+
+}
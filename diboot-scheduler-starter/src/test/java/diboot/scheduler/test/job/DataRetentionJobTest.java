@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2015-2020, www.dibo.ltd (service@dibo.ltd).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package diboot.scheduler.test.job;
+
+import com.diboot.core.config.Cons;
+import com.diboot.core.util.JSON;
+import com.diboot.scheduler.job.DataRetentionJob;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.quartz.JobDataMap;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * 过期数据分批清理Job测试（基于模拟的JDBC连接）
+ * @author JerryMa
+ * @version v2.8.0
+ * @date 2026/10/18
+ * Copyright © diboot.com
+ */
+public class DataRetentionJobTest {
+    private static Object originalObjectMapper;
+
+    @BeforeClass
+    public static void setUp() throws Exception{
+        // 归档时JSON序列化所需的ObjectMapper（无Spring上下文）
+        Field field = JSON.class.getDeclaredField("objectMapper");
+        field.setAccessible(true);
+        originalObjectMapper = field.get(null);
+        field.set(null, new ObjectMapper());
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception{
+        Field field = JSON.class.getDeclaredField("objectMapper");
+        field.setAccessible(true);
+        field.set(null, originalObjectMapper);
+    }
+
+    @Test
+    public void testOraclePagination() throws Exception{
+        FakeTable table = new FakeTable(25);
+        Map<String, Object> contextMap = runJob("jdbc:oracle:thin:@localhost:1521:orcl", table);
+        Assert.assertTrue(table.ids.isEmpty());
+        Assert.assertEquals(25, contextMap.get(Cons.JOB_CONTEXT_KEY_DATA_COUNT));
+        // 分页下推到SQL：ROWNUM <= batchSize
+        Assert.assertEquals(3, table.selectSqls.size());
+        Assert.assertTrue(table.selectSqls.get(0).contains("IS NOT NULL"));
+        for(String sql : table.selectSqls){
+            Assert.assertTrue(sql, sql.contains("ROWNUM <=?"));
+        }
+        Assert.assertEquals(Arrays.asList(10L, 10L, 0L), table.selectParams.get(1).subList(1, 4));
+        Assert.assertEquals(Arrays.asList(20L, 10L, 0L), table.selectParams.get(2).subList(1, 4));
+    }
+
+    @Test
+    public void testMysqlPagination() throws Exception{
+        FakeTable table = new FakeTable(25);
+        Map<String, Object> contextMap = runJob("jdbc:mysql://localhost:3306/test", table);
+        Assert.assertTrue(table.ids.isEmpty());
+        Assert.assertEquals(25, contextMap.get(Cons.JOB_CONTEXT_KEY_DATA_COUNT));
+        for(String sql : table.selectSqls){
+            Assert.assertTrue(sql, sql.endsWith("ORDER BY id LIMIT ?"));
+        }
+        Assert.assertEquals(Arrays.asList(10L, 10L), table.selectParams.get(1).subList(1, 3));
+    }
+
+    @Test
+    public void testArchiveBeforeDelete() throws Exception{
+        File archiveDir = Files.createTempDirectory("retention-archive").toFile();
+        FakeTable table = new FakeTable(25);
+        List<Integer> archivedCountsAtDelete = new ArrayList<>();
+        // 每批删除时，该批数据已完整写入归档文件并可解压读取
+        table.beforeDelete = deletingIds -> {
+            List<String> archivedLines = readArchive(archiveDir);
+            for(Object id : deletingIds){
+                Assert.assertTrue(archivedLines.contains("{\"ID\":" + id + "}"));
+            }
+            archivedCountsAtDelete.add(archivedLines.size());
+        };
+        try{
+            Map<String, Object> contextMap = runJob("jdbc:mysql://localhost:3306/test", table, archiveDir.getAbsolutePath());
+            Assert.assertTrue(table.ids.isEmpty());
+            Assert.assertEquals(25, contextMap.get(Cons.JOB_CONTEXT_KEY_DATA_COUNT));
+            Assert.assertEquals(Arrays.asList(10, 20, 25), archivedCountsAtDelete);
+            List<String> archivedLines = readArchive(archiveDir);
+            Assert.assertEquals(25, archivedLines.size());
+            Assert.assertEquals("{\"ID\":1}", archivedLines.get(0));
+            Assert.assertEquals("{\"ID\":25}", archivedLines.get(24));
+        }
+        finally {
+            for(File file : Objects.requireNonNull(archiveDir.listFiles())){
+                file.delete();
+            }
+            archiveDir.delete();
+        }
+    }
+
+    /**
+     * 读取归档目录下的gzip文件（多个gzip成员连续解压）
+     */
+    private static List<String> readArchive(File archiveDir){
+        File[] files = archiveDir.listFiles();
+        Assert.assertNotNull(files);
+        Assert.assertEquals(1, files.length);
+        List<String> lines = new ArrayList<>();
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(files[0])), StandardCharsets.UTF_8))){
+            String line;
+            while((line = reader.readLine()) != null){
+                lines.add(line);
+            }
+        }
+        catch (Exception e){
+            throw new IllegalStateException(e);
+        }
+        return lines;
+    }
+
+    private Map<String, Object> runJob(String jdbcUrl, FakeTable table) throws Exception{
+        return runJob(jdbcUrl, table, null);
+    }
+
+    private Map<String, Object> runJob(String jdbcUrl, FakeTable table, String archiveDir) throws Exception{
+        Map<String, Object> contextMap = new HashMap<>();
+        JobDataMap jobDataMap = new JobDataMap();
+        jobDataMap.put(DataRetentionJob.PARAM_KEY_BATCH_SIZE, 10);
+        jobDataMap.put(DataRetentionJob.PARAM_KEY_SLEEP_MILLIS, 0);
+        if(archiveDir != null){
+            jobDataMap.put(DataRetentionJob.PARAM_KEY_ARCHIVE_DIR, archiveDir);
+        }
+        JobExecutionContext context = Mockito.mock(JobExecutionContext.class);
+        Mockito.when(context.getMergedJobDataMap()).thenReturn(jobDataMap);
+        Mockito.doAnswer(invocation -> contextMap.put(invocation.getArgument(0), invocation.getArgument(1))).when(context).put(any(), any());
+        Mockito.when(context.get(any())).thenAnswer(invocation -> contextMap.get(invocation.getArgument(0)));
+        new TestRetentionJob(table.mockConnection(jdbcUrl)).run(context);
+        return contextMap;
+    }
+
+    /**
+     * 基于模拟连接的清理Job
+     */
+    private static class TestRetentionJob extends DataRetentionJob {
+        private final Connection connection;
+
+        TestRetentionJob(Connection connection){
+            this.connection = connection;
+        }
+
+        @Override
+        protected String getDefaultTable() {
+            return "test_log";
+        }
+
+        @Override
+        protected SqlSessionFactory getSqlSessionFactory() {
+            SqlSession sqlSession = Mockito.mock(SqlSession.class);
+            Mockito.when(sqlSession.getConnection()).thenReturn(connection);
+            SqlSessionFactory sqlSessionFactory = Mockito.mock(SqlSessionFactory.class);
+            Mockito.when(sqlSessionFactory.openSession(true)).thenReturn(sqlSession);
+            Mockito.when(sqlSessionFactory.getConfiguration()).thenReturn(new Configuration());
+            return sqlSessionFactory;
+        }
+
+        void run(JobExecutionContext context) throws JobExecutionException {
+            executeInternal(context);
+        }
+    }
+
+    /**
+     * 模拟的过期数据表：按SQL中的分页参数返回结果，未下推分页时返回全部匹配行
+     */
+    private static class FakeTable {
+        private final TreeSet<Long> ids = new TreeSet<>();
+        private final List<String> selectSqls = new ArrayList<>();
+        private final List<List<Object>> selectParams = new ArrayList<>();
+        /**
+         * 删除前的回调
+         */
+        private Consumer<Collection<Object>> beforeDelete;
+
+        FakeTable(int rowCount){
+            for(long i=1; i<=rowCount; i++){
+                ids.add(i);
+            }
+        }
+
+        Connection mockConnection(String jdbcUrl) throws SQLException{
+            Connection connection = Mockito.mock(Connection.class);
+            DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+            Mockito.when(metaData.getURL()).thenReturn(jdbcUrl);
+            Mockito.when(connection.getMetaData()).thenReturn(metaData);
+            Mockito.when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mockStatement(invocation.getArgument(0)));
+            return connection;
+        }
+
+        private PreparedStatement mockStatement(String sql) throws SQLException{
+            Map<Integer, Object> params = new TreeMap<>();
+            PreparedStatement stmt = Mockito.mock(PreparedStatement.class);
+            Mockito.doAnswer(invocation -> params.put(invocation.getArgument(0), invocation.getArgument(1))).when(stmt).setObject(anyInt(), any());
+            Mockito.when(stmt.executeUpdate()).thenAnswer(invocation -> {
+                if(beforeDelete != null){
+                    beforeDelete.accept(params.values());
+                }
+                int count = 0;
+                for(Object id : params.values()){
+                    if(ids.remove(((Number) id).longValue())){
+                        count++;
+                    }
+                }
+                return count;
+            });
+            Mockito.when(stmt.executeQuery()).thenAnswer(invocation -> {
+                List<Object> paramList = new ArrayList<>(params.values());
+                selectSqls.add(sql);
+                selectParams.add(paramList);
+                long lastId = sql.contains("IS NOT NULL")? 0L : ((Number) paramList.get(1)).longValue();
+                int limit = sql.contains("ROWNUM <=?")? ((Number) paramList.get(paramList.size() - 2)).intValue()
+                        : sql.endsWith("LIMIT ?")? ((Number) paramList.get(paramList.size() - 1)).intValue() : Integer.MAX_VALUE;
+                List<Long> rows = new ArrayList<>();
+                for(Long id : ids.tailSet(lastId, false)){
+                    if(rows.size() >= limit){
+                        break;
+                    }
+                    rows.add(id);
+                }
+                return mockResultSet(rows, sql.contains("ROWNUM"));
+            });
+            return stmt;
+        }
+
+        private ResultSet mockResultSet(List<Long> rows, boolean withRowId) throws SQLException{
+            Iterator<Long> iterator = rows.iterator();
+            Long[] current = new Long[1];
+            ResultSetMetaData meta = Mockito.mock(ResultSetMetaData.class);
+            Mockito.when(meta.getColumnCount()).thenReturn(withRowId? 2 : 1);
+            Mockito.when(meta.getColumnLabel(1)).thenReturn("ID");
+            Mockito.when(meta.getColumnLabel(2)).thenReturn("ROW_ID");
+            ResultSet rs = Mockito.mock(ResultSet.class);
+            Mockito.when(rs.getMetaData()).thenReturn(meta);
+            Mockito.when(rs.next()).thenAnswer(invocation -> {
+                if(!iterator.hasNext()){
+                    return false;
+                }
+                current[0] = iterator.next();
+                return true;
+            });
+            Mockito.when(rs.getObject(anyInt())).thenAnswer(invocation -> current[0]);
+            return rs;
+        }
+    }
+
+}